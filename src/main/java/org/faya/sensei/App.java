@@ -6,10 +6,27 @@ import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.Persistence;
 import jakarta.ws.rs.SeBootstrap;
+import jakarta.ws.rs.core.GenericType;
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.entities.TaskEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.eventstore.EventSourcedTaskRepository;
 import org.faya.sensei.middlewares.JWTAuthFilter;
+import org.faya.sensei.middlewares.ReadReplicaFilter;
+import org.faya.sensei.mvstore.MVStoreDatabase;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.EntityManagerScope;
+import org.faya.sensei.repositories.GroupCommitPipeline;
 import org.faya.sensei.repositories.IRepository;
+import org.faya.sensei.repositories.ReadReplicaRouter;
 import org.faya.sensei.services.IAuthService;
 import org.faya.sensei.services.IService;
+import org.faya.sensei.services.TaskIntervalIndex;
+import org.faya.sensei.services.ProjectVersions;
+import org.faya.sensei.services.TaskSearchIndex;
+import org.faya.sensei.services.TaskStatistics;
+import org.faya.sensei.services.TaskUpdateCoalescer;
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.h2.tools.Server;
@@ -22,7 +39,9 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletionStage;
 import java.util.logging.Level;
@@ -55,6 +74,15 @@ public class App {
                     System.out.println("  --protocol=<protocol>   Specify the server protocol (default: http)");
                     System.out.println("  --host=<host>           Specify the server host (default: localhost)");
                     System.out.println("  --port=<port>           Specify the server port (default: 8080)");
+                    System.out.println("  --replica=<url>         Route GET reads to a read-only replica database at the JDBC url");
+                    System.out.println("  --replica-lag=<millis>  Minimum time a session reads the primary after a write, then until the replica caught up (default: 5000)");
+                    System.out.println("  --coalesce=<millis>     Merge updates of the same task within the window (default: 0, off)");
+                    System.out.println("  --group-commit=<size>   Commit task mutations in batches of up to size (default: 1, off)");
+                    System.out.println("  --group-commit-delay=<millis>  Maximum wait for a batch to fill (default: 5)");
+                    System.out.println("  --change-poll=<millis>  Poll interval of the change feed (default: 100)");
+                    System.out.println("  --task-store=<directory>  Keep tasks in memory, persisted to an event log in the directory");
+                    System.out.println("  --mvstore=<file>        Keep users, projects, statuses and tasks in an MVStore file instead of SQL");
+                    System.out.println("  --repositories=memory   Keep every entity in memory only, nothing is persisted (default: jpa)");
                     System.exit(0);
                 }
                 default -> {
@@ -72,12 +100,16 @@ public class App {
             LOGGER.log(Level.INFO, "Database server instance running at {0}.", databaseServer.getURL());
         }
 
+        // Started ahead of the migration, so its triggers log the writes of the migration too.
+        final ChangeFeed changeFeed = createChangeFeed(ServerProperties);
+        changeFeed.start();
+
         if ((operations & START_DATABASE_MIGRATION) == START_DATABASE_MIGRATION) {
             final boolean result = startMigration("migration.sql");
             LOGGER.log(Level.INFO, "Database migrations executed {0}.", result ? "success" : "failed");
         }
 
-        final SeBootstrap.Instance server = startServer(ServerProperties);
+        final SeBootstrap.Instance server = startServer(ServerProperties, changeFeed);
         LOGGER.log(Level.INFO, "Server instance running at {0}.", server.configuration().baseUri());
 
         Thread.currentThread().join();
@@ -103,9 +135,18 @@ public class App {
         }
     }
 
-    public static SeBootstrap.Instance startServer(Map<String, String> properties) {
+    public static SeBootstrap.Instance startServer(Map<String, String> properties, ChangeFeed changeFeed) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        final ReadReplicaRouter readReplicaRouter = createReadReplicaRouter(entityManager, properties);
+        final EntityManagerScope entityManagerScope = new EntityManagerScope(
+                readReplicaRouter != null ? readReplicaRouter.entityManager() : entityManager,
+                readReplicaRouter != null ? readReplicaRouter::open : entityManagerFactory::createEntityManager
+        );
+        final GroupCommitPipeline groupCommitPipeline = createGroupCommitPipeline(properties);
+
         ResourceConfig resourceConfig = ResourceConfig.forApplication(new JaxRsApplication());
         resourceConfig.register(JWTAuthFilter.class);
+        if (readReplicaRouter != null) resourceConfig.register(ReadReplicaFilter.class);
         resourceConfig.register(new AbstractBinder() {
 
             @Override
@@ -113,11 +154,39 @@ public class App {
                 bind(entityManagerFactory)
                         .to(EntityManagerFactory.class)
                         .in(Singleton.class);
-                bindFactory(entityManagerFactory::createEntityManager)
-                        .to(EntityManager.class)
-                        .in(Singleton.class);
 
-                bindImplementations("org.faya.sensei.repositories", IRepository.class);
+                if (readReplicaRouter != null) bind(readReplicaRouter).to(ReadReplicaRouter.class);
+                bind(entityManagerScope).to(EntityManagerScope.class);
+                bind(entityManagerScope.entityManager()).to(EntityManager.class);
+
+                bind(new TaskUpdateCoalescer(Duration.ofMillis(Long.parseLong(properties.getOrDefault("coalesce", "0")))))
+                        .to(TaskUpdateCoalescer.class);
+                bind(new TaskSearchIndex()).to(TaskSearchIndex.class);
+                bind(new TaskIntervalIndex()).to(TaskIntervalIndex.class);
+                bind(new TaskStatistics()).to(TaskStatistics.class);
+                bind(new ProjectVersions(changeFeed)).to(ProjectVersions.class);
+                bind(groupCommitPipeline).to(GroupCommitPipeline.class);
+                bind(changeFeed).to(ChangeFeed.class);
+
+                if (properties.containsKey("task-store")) {
+                    bind(new EventSourcedTaskRepository(entityManagerScope.entityManager(), changeFeed, Path.of(properties.get("task-store"))))
+                            .to(new GenericType<IRepository<TaskEntity>>() {})
+                            .ranked(1);
+                }
+
+                if (properties.containsKey("mvstore")) {
+                    final MVStoreDatabase database = new MVStoreDatabase(properties.get("mvstore"), changeFeed);
+
+                    bind(database.users()).to(new GenericType<IRepository<UserEntity>>() {}).ranked(1);
+                    bind(database.projects()).to(new GenericType<IRepository<ProjectEntity>>() {}).ranked(1);
+                    bind(database.statuses()).to(new GenericType<IRepository<StatusEntity>>() {}).ranked(1);
+                    bind(database.tasks()).to(new GenericType<IRepository<TaskEntity>>() {}).ranked(1);
+                }
+
+                bindImplementations(
+                        "memory".equals(properties.get("repositories")) ? "org.faya.sensei.memory" : "org.faya.sensei.repositories",
+                        IRepository.class
+                );
                 bindImplementations("org.faya.sensei.services", IAuthService.class);
                 bindImplementations("org.faya.sensei.services", IService.class);
             }
@@ -169,4 +238,42 @@ public class App {
 
         return handler.toCompletableFuture().join();
     }
+
+    private static ReadReplicaRouter createReadReplicaRouter(
+            final EntityManager entityManager,
+            final Map<String, String> properties
+    ) {
+        final String replicaUrl = properties.get("replica");
+        if (replicaUrl == null) return null;
+
+        final EntityManagerFactory replicaEntityManagerFactory = Persistence.createEntityManagerFactory(
+                "java-jaxrs-database",
+                Map.of(
+                        "jakarta.persistence.jdbc.url", replicaUrl,
+                        "jakarta.persistence.schema-generation.database.action", "none"
+                )
+        );
+        final Duration replicationLag = Duration.ofMillis(Long.parseLong(properties.getOrDefault("replica-lag", "5000")));
+
+        LOGGER.log(Level.INFO, "Routing read requests to replica database at {0}.", replicaUrl);
+
+        return new ReadReplicaRouter(entityManager, replicaEntityManagerFactory, replicationLag);
+    }
+
+    private static ChangeFeed createChangeFeed(final Map<String, String> properties) {
+        return new ChangeFeed(
+                entityManagerFactory,
+                Duration.ofMillis(Long.parseLong(properties.getOrDefault("change-poll", "100")))
+        );
+    }
+
+    private static GroupCommitPipeline createGroupCommitPipeline(final Map<String, String> properties) {
+        final int batchSize = Integer.parseInt(properties.getOrDefault("group-commit", "1"));
+        final Duration delay = Duration.ofMillis(Long.parseLong(properties.getOrDefault("group-commit-delay", "5")));
+
+        if (batchSize > 1)
+            LOGGER.log(Level.INFO, "Group committing task mutations in batches of up to {0}.", batchSize);
+
+        return new GroupCommitPipeline(entityManagerFactory, batchSize, delay, batchSize * 16);
+    }
 }
@@ -1,6 +1,10 @@
 package org.faya.sensei;
 
 import jakarta.ws.rs.core.Application;
+import org.faya.sensei.codecs.CborCodecProvider;
+import org.faya.sensei.codecs.JsonCodecProvider;
+import org.faya.sensei.middlewares.CompressionInterceptor;
+import org.faya.sensei.middlewares.VaryFilter;
 import org.faya.sensei.resources.EndpointResource;
 import org.faya.sensei.resources.StaticFileResource;
 
@@ -10,7 +14,11 @@ public class JaxRsApplication extends Application {
 
     private final Set<Class<?>> classes = Set.of(
             StaticFileResource.class,
-            EndpointResource.class
+            EndpointResource.class,
+            JsonCodecProvider.class,
+            CborCodecProvider.class,
+            CompressionInterceptor.class,
+            VaryFilter.class
     );
 
     @Override
@@ -0,0 +1,96 @@
+package org.faya.sensei.codecs;
+
+import jakarta.annotation.Priority;
+import jakarta.json.JsonException;
+import jakarta.json.JsonValue;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.DateTimeException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads and writes the payloads, collections and maps of them and JSON-P values as {@code application/cbor}, for
+ * clients asking for it through {@code Accept} or sending it as {@code Content-Type}.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+@Consumes(CborCodecs.APPLICATION_CBOR)
+@Produces(CborCodecs.APPLICATION_CBOR)
+public class CborCodecProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    @Override
+    public boolean isReadable(
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType
+    ) {
+        return JsonCodecs.get(type) != null
+                || Collection.class.isAssignableFrom(type)
+                && genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> item
+                && JsonCodecs.get(item) != null;
+    }
+
+    @Override
+    public Object readFrom(
+            final Class<Object> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType,
+            final MultivaluedMap<String, String> httpHeaders,
+            final InputStream entityStream
+    ) {
+        final CborInput input = new CborInput(entityStream);
+
+        try {
+            if (input.peek() < 0) return null;
+
+            return CborCodecs.readValue(input, input.read(), genericType);
+        } catch (IllegalStateException | ArithmeticException | DateTimeException | JsonException e) {
+            throw new BadRequestException(e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType
+    ) {
+        return JsonCodecs.get(type) != null
+                || Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type)
+                || JsonValue.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeTo(
+            final Object value,
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType,
+            final MultivaluedMap<String, Object> httpHeaders,
+            final OutputStream entityStream
+    ) {
+        final CborOutput output = new CborOutput(entityStream);
+        CborCodecs.writeValue(output, value);
+        output.flush();
+    }
+}
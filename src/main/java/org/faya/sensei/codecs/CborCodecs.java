@@ -0,0 +1,236 @@
+package org.faya.sensei.codecs;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.ws.rs.core.MediaType;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.faya.sensei.codecs.CborOutput.*;
+
+/**
+ * The CBOR encoding of the payloads, through the same bindings as their JSON codecs. Objects are maps keyed by the
+ * property names, in the same order and without the null properties, so a CBOR payload reads like its JSON one.
+ */
+public final class CborCodecs {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    public static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+    private CborCodecs() { }
+
+    /**
+     * Check whether the client prefers CBOR over JSON.
+     *
+     * @param acceptable The acceptable media types of the request, most preferred first.
+     */
+    public static boolean isPreferred(final List<MediaType> acceptable) {
+        for (final MediaType mediaType : acceptable) {
+            if (mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE)) return false;
+            if (mediaType.isCompatible(APPLICATION_CBOR_TYPE)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Write any value of a payload: a scalar, a date, a collection, a map with string keys, a JSON-P value or a
+     * payload with a codec.
+     *
+     * @throws JsonException The value cannot be encoded.
+     */
+    public static void writeValue(final CborOutput output, final Object value) {
+        switch (value) {
+            case null -> output.writeNull();
+            case String string -> output.write(string);
+            case Integer number -> output.write(number);
+            case Long number -> output.write(number);
+            case Double number -> output.write(number);
+            case Boolean bool -> output.write(bool);
+            case LocalDateTime dateTime -> output.write(dateTime);
+            case Enum<?> constant -> output.write(constant.name());
+            case JsonValue json -> writeJson(output, json);
+            case Collection<?> items -> {
+                output.startArray(items.size());
+                items.forEach(item -> writeValue(output, item));
+            }
+            case Map<?, ?> entries -> {
+                output.startMap(entries.size());
+                entries.forEach((key, entry) -> {
+                    output.write(String.valueOf(key));
+                    writeValue(output, entry);
+                });
+            }
+            default -> write(output, value, null, null);
+        }
+    }
+
+    /**
+     * Write the payload as a map, with one collection property written from a stream as its items are read.
+     *
+     * @param property The nullable name of the property taken from the stream.
+     * @param items The items of the property.
+     * @throws JsonException The payload has no codec.
+     */
+    public static void write(final CborOutput output, final Object value, final String property, final Stream<?> items) {
+        final JsonCodec<?> codec = JsonCodecs.get(value.getClass());
+        if (codec == null) throw new JsonException("No codec for %s.".formatted(value.getClass().getName()));
+
+        // The size of a map comes first, so the non-null properties are read before any is written.
+        final List<JsonCodec.Property> getters = codec.getters();
+        final Object[] values = new Object[getters.size()];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getters.get(i).name().equals(property) ? items : codec.get(getters.get(i), value);
+            if (values[i] != null) size++;
+        }
+
+        output.startMap(size);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) continue;
+
+            output.raw(getters.get(i).cborKey());
+            if (values[i] == items) writeItems(output, items.iterator());
+            else writeValue(output, values[i]);
+        }
+    }
+
+    /**
+     * Write the items as an array of indefinite length, so they can be written as they are read.
+     */
+    public static void writeItems(final CborOutput output, final Iterator<?> items) {
+        output.startArray();
+        while (items.hasNext()) writeValue(output, items.next());
+        output.end();
+    }
+
+    /**
+     * Read a value of the declared type, values of types without an encoding are skipped.
+     *
+     * @param initial The initial byte of the value.
+     * @throws IllegalStateException The value does not match the type.
+     */
+    static Object readValue(final CborInput input, final int initial, final Type type) {
+        if (initial == NULL || initial == UNDEFINED) return null;
+
+        final int major = initial >>> 5;
+        if (type == String.class && major == TEXT) return input.text(initial);
+        if (type == Integer.class && (major == UNSIGNED || major == NEGATIVE)) return Math.toIntExact(input.integer(initial));
+        if (type == Long.class && (major == UNSIGNED || major == NEGATIVE)) return input.integer(initial);
+        if (type == LocalDateTime.class && major == TEXT) return JsonCodecs.parseDateTime(input.text(initial));
+        if (type == LocalDateTime.class && major == TAG && input.argument(initial) == EPOCH_TAG) return epoch(input, input.read());
+        if (type == Boolean.class && (initial == TRUE || initial == FALSE)) return initial == TRUE;
+
+        if (type instanceof Class<?> payload && JsonCodecs.get(payload) != null && major == MAP) {
+            final JsonCodec<?> codec = JsonCodecs.get(payload);
+            final Object value = codec.create();
+
+            final long size = input.argument(initial);
+            for (long i = 0; size < 0 || i < size; i++) {
+                final int key = input.read();
+                if (size < 0 && key == BREAK) break;
+                if (key >>> 5 != TEXT) throw new IllegalStateException("CBOR object keys must be text.");
+
+                final JsonCodec.Property setter = codec.setter(input.text(key));
+                if (setter == null) input.skip(input.read());
+                else codec.set(setter, value, readValue(input, input.read(), setter.type()));
+            }
+
+            return value;
+        }
+
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+            final Type[] arguments = parameterized.getActualTypeArguments();
+
+            if (Collection.class.isAssignableFrom(raw) && major == ARRAY) {
+                final long size = input.argument(initial);
+                final List<Object> items = new ArrayList<>();
+                for (long i = 0; size < 0 || i < size; i++) {
+                    final int item = input.read();
+                    if (size < 0 && item == BREAK) break;
+
+                    items.add(readValue(input, item, arguments[0]));
+                }
+
+                return items;
+            }
+
+            if (Map.class.isAssignableFrom(raw) && arguments[0] == String.class && major == MAP) {
+                final long size = input.argument(initial);
+                final Map<String, Object> entries = new LinkedHashMap<>();
+                for (long i = 0; size < 0 || i < size; i++) {
+                    final int key = input.read();
+                    if (size < 0 && key == BREAK) break;
+                    if (key >>> 5 != TEXT) throw new IllegalStateException("CBOR map keys must be text.");
+
+                    final String name = input.text(key);
+                    entries.put(name, readValue(input, input.read(), arguments[1]));
+                }
+
+                return entries;
+            }
+        }
+
+        if (type instanceof Class<?> || type instanceof ParameterizedType)
+            throw new IllegalStateException("Unexpected CBOR major type %d for a %s value.".formatted(major, type.getTypeName()));
+
+        input.skip(initial);
+
+        return null;
+    }
+
+    /**
+     * Read the content of an epoch date time tag, whole seconds or seconds with a fraction kept to the microsecond.
+     */
+    private static LocalDateTime epoch(final CborInput input, final int initial) {
+        final int major = initial >>> 5;
+        if (major == UNSIGNED || major == NEGATIVE) return LocalDateTime.ofEpochSecond(input.integer(initial), 0, ZoneOffset.UTC);
+
+        final double time = input.floating(initial);
+        if (!Double.isFinite(time)) throw new IllegalStateException("Epoch date time is not finite.");
+
+        final long seconds = (long) Math.floor(time);
+        final long micros = Math.round((time - seconds) * 1e6);
+
+        return LocalDateTime.ofEpochSecond(seconds + micros / 1_000_000, (int) (micros % 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    private static void writeJson(final CborOutput output, final JsonValue value) {
+        switch (value) {
+            case JsonObject object -> {
+                output.startMap(object.size());
+                object.forEach((key, entry) -> {
+                    output.write(key);
+                    writeJson(output, entry);
+                });
+            }
+            case JsonArray array -> {
+                output.startArray(array.size());
+                array.forEach(item -> writeJson(output, item));
+            }
+            case JsonString string -> output.write(string.getString());
+            case JsonNumber number when number.isIntegral() -> output.write(number.longValueExact());
+            case JsonNumber number -> output.write(number.doubleValue());
+            default -> {
+                if (value == JsonValue.TRUE) output.write(true);
+                else if (value == JsonValue.FALSE) output.write(false);
+                else output.writeNull();
+            }
+        }
+    }
+}
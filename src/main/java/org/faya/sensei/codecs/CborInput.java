@@ -0,0 +1,178 @@
+package org.faya.sensei.codecs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.faya.sensei.codecs.CborOutput.*;
+
+/**
+ * Buffered CBOR input for the codecs. Items of definite and indefinite length are both read, malformed or truncated
+ * input is reported as an {@link IllegalStateException}.
+ */
+final class CborInput {
+
+    private final InputStream input;
+
+    private final byte[] buffer = new byte[8192];
+
+    private int position;
+
+    private int limit;
+
+    CborInput(final InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * @return The next byte without consuming it, or -1 at the end of the input.
+     */
+    int peek() {
+        if (position == limit && !fill()) return -1;
+
+        return buffer[position] & 0xFF;
+    }
+
+    /**
+     * @return The next byte.
+     * @throws IllegalStateException The input ended.
+     */
+    int read() {
+        if (position == limit && !fill()) throw new IllegalStateException("Truncated CBOR item.");
+
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Read the argument of an item from its initial byte on.
+     *
+     * @return The argument, or -1 for an item of indefinite length.
+     * @throws IllegalStateException The argument does not fit a long or is reserved.
+     */
+    long argument(final int initial) {
+        final int info = initial & 0x1F;
+        if (info < 24) return info;
+        if (info == INDEFINITE) return -1;
+        if (info > 27) throw new IllegalStateException("Reserved CBOR argument %d.".formatted(info));
+
+        final int width = 1 << info - 24;
+        long argument = 0;
+        for (int i = 0; i < width; i++) argument = argument << 8 | read();
+        if (argument < 0) throw new IllegalStateException("CBOR argument beyond a long.");
+
+        return argument;
+    }
+
+    /**
+     * Read an unsigned or negative integer from its initial byte on.
+     */
+    long integer(final int initial) {
+        final long argument = argument(initial);
+
+        return initial >>> 5 == NEGATIVE ? ~argument : argument;
+    }
+
+    /**
+     * Read a half, single or double precision float from its initial byte on.
+     */
+    double floating(final int initial) {
+        return switch (initial) {
+            case FLOAT16 -> half((int) bits(2));
+            case FLOAT32 -> Float.intBitsToFloat((int) bits(4));
+            case FLOAT64 -> Double.longBitsToDouble(bits(8));
+            default -> throw new IllegalStateException("Not a CBOR float.");
+        };
+    }
+
+    /**
+     * Read a text string from its initial byte on, an indefinite string is read chunk by chunk.
+     */
+    String text(final int initial) {
+        final long length = argument(initial);
+        if (length >= 0) return new String(bytes(length), StandardCharsets.UTF_8);
+
+        final StringBuilder text = new StringBuilder();
+        for (int chunk = read(); chunk != BREAK; chunk = read()) {
+            if (chunk >>> 5 != TEXT || (chunk & 0x1F) == INDEFINITE) throw new IllegalStateException("Malformed CBOR text chunk.");
+
+            text.append(new String(bytes(argument(chunk)), StandardCharsets.UTF_8));
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Skip an item from its initial byte on, with everything it holds.
+     */
+    void skip(final int initial) {
+        final int major = initial >>> 5;
+        final long argument = major == SIMPLE ? 0 : argument(initial);
+
+        switch (major) {
+            case BYTES, TEXT -> {
+                if (argument >= 0) bytes(argument);
+                else for (int chunk = read(); chunk != BREAK; chunk = read()) bytes(argument(chunk));
+            }
+            case ARRAY, MAP -> {
+                final int items = major == MAP ? 2 : 1;
+                if (argument >= 0) for (long i = 0; i < argument * items; i++) skip(read());
+                else for (int item = read(); item != BREAK; item = read()) skip(item);
+            }
+            case TAG -> skip(read());
+            case SIMPLE -> {
+                final int info = initial & 0x1F;
+                if (info == 24) read();
+                else if (info >= 25 && info <= 27) bits(1 << info - 24);
+                else if (info == INDEFINITE) throw new IllegalStateException("Unexpected CBOR break.");
+            }
+            default -> { }
+        }
+    }
+
+    private long bits(final int width) {
+        long bits = 0;
+        for (int i = 0; i < width; i++) bits = bits << 8 | read();
+
+        return bits;
+    }
+
+    private byte[] bytes(final long length) {
+        if (length > Integer.MAX_VALUE - 8) throw new IllegalStateException("CBOR string too long.");
+
+        final byte[] bytes = new byte[(int) length];
+        int copied = 0;
+        while (copied < bytes.length) {
+            if (position == limit && !fill()) throw new IllegalStateException("Truncated CBOR string.");
+
+            final int count = Math.min(limit - position, bytes.length - copied);
+            System.arraycopy(buffer, position, bytes, copied, count);
+            position += count;
+            copied += count;
+        }
+
+        return bytes;
+    }
+
+    private static double half(final int bits) {
+        final int exponent = bits >> 10 & 0x1F;
+        final int mantissa = bits & 0x3FF;
+        final double magnitude = exponent == 0
+                ? Math.scalb((double) mantissa, -24)
+                : exponent == 31 ? (mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN) : Math.scalb((double) (mantissa + 1024), exponent - 25);
+
+        return (bits & 0x8000) != 0 ? -magnitude : magnitude;
+    }
+
+    private boolean fill() {
+        try {
+            limit = input.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit < 0) limit = 0;
+
+            return limit > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
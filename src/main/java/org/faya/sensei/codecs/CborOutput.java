@@ -0,0 +1,229 @@
+package org.faya.sensei.codecs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Buffered CBOR output for the codecs. Every integer, length and count is written in the shortest head that holds
+ * it, so small ids take a single byte, and dates are tagged epoch seconds.
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc8949">RFC 8949</a>
+ */
+public final class CborOutput {
+
+    static final int UNSIGNED = 0;
+
+    static final int NEGATIVE = 1;
+
+    static final int BYTES = 2;
+
+    static final int TEXT = 3;
+
+    static final int ARRAY = 4;
+
+    static final int MAP = 5;
+
+    static final int TAG = 6;
+
+    static final int SIMPLE = 7;
+
+    static final int FALSE = 0xF4;
+
+    static final int TRUE = 0xF5;
+
+    static final int NULL = 0xF6;
+
+    static final int UNDEFINED = 0xF7;
+
+    static final int FLOAT16 = 0xF9;
+
+    static final int FLOAT32 = 0xFA;
+
+    static final int FLOAT64 = 0xFB;
+
+    static final int INDEFINITE = 31;
+
+    static final int BREAK = 0xFF;
+
+    static final int EPOCH_TAG = 1;
+
+    private final OutputStream output;
+
+    private final byte[] buffer = new byte[8192];
+
+    private int position;
+
+    public CborOutput(final OutputStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Encode a property name once as a text string.
+     */
+    static byte[] key(final String name) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CborOutput key = new CborOutput(bytes);
+        key.write(name);
+        key.flush();
+
+        return bytes.toByteArray();
+    }
+
+    public void raw(final byte[] value) {
+        if (value.length > buffer.length) {
+            drain();
+            write(value, value.length);
+            return;
+        }
+
+        ensure(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+    }
+
+    public void writeNull() {
+        ensure(1);
+        buffer[position++] = (byte) NULL;
+    }
+
+    public void write(final boolean value) {
+        ensure(1);
+        buffer[position++] = (byte) (value ? TRUE : FALSE);
+    }
+
+    public void write(final long value) {
+        // A negative integer n is encoded as -1 - n, which flips every bit.
+        if (value < 0) head(NEGATIVE, ~value);
+        else head(UNSIGNED, value);
+    }
+
+    public void write(final double value) {
+        ensure(9);
+        buffer[position++] = (byte) FLOAT64;
+        bigEndian(Double.doubleToLongBits(value), 8);
+    }
+
+    public void write(final String value) {
+        final int length = value.length();
+
+        int ascii = 0;
+        while (ascii < length && value.charAt(ascii) < 0x80) ascii++;
+
+        if (ascii == length) {
+            head(TEXT, length);
+            for (int i = 0; i < length; i++) {
+                if (position == buffer.length) drain();
+                buffer[position++] = (byte) value.charAt(i);
+            }
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        head(TEXT, bytes.length);
+        raw(bytes);
+    }
+
+    /**
+     * Write the date time of the UTC time line as an epoch date time, tag 1: whole seconds as an integer, any other
+     * time as a double, which keeps microseconds for dates of this century.
+     */
+    public void write(final LocalDateTime value) {
+        head(TAG, EPOCH_TAG);
+
+        final long seconds = value.toEpochSecond(ZoneOffset.UTC);
+        if (value.getNano() == 0) write(seconds);
+        else write(seconds + value.getNano() / 1e9);
+    }
+
+    /**
+     * Start an array of a known number of items.
+     */
+    public void startArray(final int size) {
+        head(ARRAY, size);
+    }
+
+    /**
+     * Start an array whose items are counted as they are written, it is closed by {@link #end()}.
+     */
+    public void startArray() {
+        ensure(1);
+        buffer[position++] = (byte) (ARRAY << 5 | INDEFINITE);
+    }
+
+    /**
+     * Start a map of a known number of entries.
+     */
+    public void startMap(final int size) {
+        head(MAP, size);
+    }
+
+    /**
+     * Close an array started without its size.
+     */
+    public void end() {
+        ensure(1);
+        buffer[position++] = (byte) BREAK;
+    }
+
+    /**
+     * Write the buffered bytes to the stream and flush it.
+     */
+    public void flush() {
+        drain();
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the initial byte of an item and its non-negative argument in the shortest form.
+     */
+    private void head(final int major, final long argument) {
+        ensure(9);
+
+        final int type = major << 5;
+        if (argument < 24) {
+            buffer[position++] = (byte) (type | (int) argument);
+        } else if (argument <= 0xFF) {
+            buffer[position++] = (byte) (type | 24);
+            bigEndian(argument, 1);
+        } else if (argument <= 0xFFFF) {
+            buffer[position++] = (byte) (type | 25);
+            bigEndian(argument, 2);
+        } else if (argument <= 0xFFFFFFFFL) {
+            buffer[position++] = (byte) (type | 26);
+            bigEndian(argument, 4);
+        } else {
+            buffer[position++] = (byte) (type | 27);
+            bigEndian(argument, 8);
+        }
+    }
+
+    private void bigEndian(final long value, final int width) {
+        for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) buffer[position++] = (byte) (value >>> shift);
+    }
+
+    private void ensure(final int length) {
+        if (position + length > buffer.length) drain();
+    }
+
+    private void drain() {
+        write(buffer, position);
+        position = 0;
+    }
+
+    private void write(final byte[] bytes, final int length) {
+        try {
+            output.write(bytes, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package org.faya.sensei.codecs;
+
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonParser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * JSON codec of one DTO class. The getters, setters and constructor are bound to method handles once, so encoding and
+ * decoding a value never reflects. Properties are written in the lexicographical order of JSON-B and null properties
+ * are skipped, so the output is the same as JSON-B's.
+ *
+ * @param <T> The DTO class.
+ */
+public final class JsonCodec<T> {
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> type;
+
+    private final MethodHandle constructor;
+
+    private final List<Property> getters;
+
+    private final Map<String, Property> setters;
+
+    private JsonCodec(
+            final Class<T> type,
+            final MethodHandle constructor,
+            final List<Property> getters,
+            final Map<String, Property> setters
+    ) {
+        this.type = type;
+        this.constructor = constructor;
+        this.getters = getters;
+        this.setters = setters;
+    }
+
+    /**
+     * Bind the codec of a class with a public no-argument constructor and public getters and setters.
+     *
+     * @throws IllegalArgumentException The class cannot be bound.
+     */
+    static <T> JsonCodec<T> bind(final Class<T> type) {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        final Map<String, Property> getters = new TreeMap<>();
+        final Map<String, Property> setters = new HashMap<>();
+
+        try {
+            final MethodHandle constructor = lookup
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+
+            for (final Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) continue;
+
+                final String name = method.getName();
+                if (name.length() <= 3) continue;
+
+                final String property = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                if (name.startsWith("get") && method.getParameterCount() == 0) {
+                    getters.put(property, new Property(property, lookup.unreflect(method).asType(GETTER), method.getGenericReturnType()));
+                } else if (name.startsWith("set") && method.getParameterCount() == 1 && method.getReturnType() == void.class) {
+                    setters.put(property, new Property(property, lookup.unreflect(method).asType(SETTER), method.getGenericParameterTypes()[0]));
+                }
+            }
+
+            return new JsonCodec<>(type, constructor, List.copyOf(getters.values()), Map.copyOf(setters));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot bind a JSON codec for %s.".formatted(type.getName()), e);
+        }
+    }
+
+    /**
+     * @return The names of the properties written, in order.
+     */
+    public List<String> properties() {
+        return getters.stream().map(Property::name).toList();
+    }
+
+    /**
+     * Parse a comma separated list of property names, as given by a {@code fields} query parameter.
+     *
+     * @param list The nullable list.
+     * @return The nullable names, null when the list is.
+     * @throws IllegalArgumentException A name is not a property.
+     */
+    public Set<String> fields(final String list) {
+        if (list == null) return null;
+
+        final Set<String> fields = new HashSet<>();
+        for (final String name : list.split(",")) {
+            final String field = name.strip();
+            if (field.isEmpty()) continue;
+            if (getters.stream().noneMatch(getter -> getter.name().equals(field)))
+                throw new IllegalArgumentException("%s has no property %s.".formatted(type.getSimpleName(), field));
+
+            fields.add(field);
+        }
+
+        return Set.copyOf(fields);
+    }
+
+    /**
+     * Copy the value with only the named properties assigned, the others are left null and so are not written.
+     *
+     * @param fields The nullable names of the properties to keep, the value itself is returned when null.
+     * @return The copy.
+     */
+    public T project(final T value, final Set<String> fields) {
+        if (fields == null) return value;
+
+        final Object copy;
+        try {
+            copy = (Object) constructor.invokeExact();
+
+            for (final Property getter : getters) {
+                final Property setter = setters.get(getter.name());
+                if (setter == null || !fields.contains(getter.name())) continue;
+
+                setter.handle().invokeExact(copy, (Object) getter.handle().invokeExact((Object) value));
+            }
+        } catch (Throwable e) {
+            throw new JsonException("Cannot copy %s.".formatted(type.getSimpleName()), e);
+        }
+
+        return type.cast(copy);
+    }
+
+    /**
+     * Write the value as a JSON object.
+     */
+    public void write(final JsonOutput output, final T value) {
+        write(output, value, null, null);
+    }
+
+    /**
+     * Write the value as a JSON object, with one collection property written from a stream as its items are read.
+     *
+     * @param property The name of the property taken from the stream.
+     * @param items The items of the property.
+     */
+    public void write(final JsonOutput output, final T value, final String property, final Stream<?> items) {
+        output.raw('{');
+        boolean first = true;
+        for (final Property getter : getters) {
+            if (getter.name().equals(property)) {
+                if (!first) output.raw(',');
+                first = false;
+                output.raw(getter.key());
+                JsonCodecs.writeItems(output, items.iterator());
+                continue;
+            }
+
+            final Object propertyValue = get(getter, value);
+            if (propertyValue == null) continue;
+
+            if (!first) output.raw(',');
+            first = false;
+            output.raw(getter.key());
+            JsonCodecs.writeValue(output, propertyValue);
+        }
+        output.raw('}');
+    }
+
+    /**
+     * Read a JSON object, unknown properties are skipped.
+     *
+     * @param parser The parser, positioned right after the start of the object.
+     * @return The value.
+     * @throws JsonException The object does not match the class.
+     */
+    public T read(final JsonParser parser) {
+        final Object value = create();
+
+        for (JsonParser.Event event = parser.next(); event != JsonParser.Event.END_OBJECT; event = parser.next()) {
+            final Property setter = setters.get(parser.getString());
+            final JsonParser.Event valueEvent = parser.next();
+            if (setter == null) {
+                JsonCodecs.skip(parser, valueEvent);
+                continue;
+            }
+
+            set(setter, value, JsonCodecs.readValue(parser, valueEvent, setter.type()));
+        }
+
+        return type.cast(value);
+    }
+
+    /**
+     * The getters in the order of the properties, shared with the other encodings of the payloads.
+     */
+    List<Property> getters() {
+        return getters;
+    }
+
+    /**
+     * @return The nullable setter of the property.
+     */
+    Property setter(final String name) {
+        return setters.get(name);
+    }
+
+    Object create() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new JsonException("Cannot create %s.".formatted(type.getSimpleName()), e);
+        }
+    }
+
+    Object get(final Property getter, final Object value) {
+        try {
+            return (Object) getter.handle().invokeExact(value);
+        } catch (Throwable e) {
+            throw new JsonException("Cannot read %s.%s.".formatted(type.getSimpleName(), getter.name()), e);
+        }
+    }
+
+    void set(final Property setter, final Object value, final Object propertyValue) {
+        try {
+            setter.handle().invokeExact(value, propertyValue);
+        } catch (Throwable e) {
+            throw new JsonException("Cannot assign %s.%s.".formatted(type.getSimpleName(), setter.name()), e);
+        }
+    }
+
+    /**
+     * A bound getter or setter, with its name pre-encoded as a JSON key and as a CBOR text string.
+     */
+    record Property(String name, byte[] key, byte[] cborKey, MethodHandle handle, Type type) {
+
+        private Property(final String name, final MethodHandle handle, final Type type) {
+            this(name, JsonOutput.key(name), CborOutput.key(name), handle, type);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.faya.sensei.codecs;
+
+import jakarta.annotation.Priority;
+import jakarta.json.JsonException;
+import jakarta.json.JsonValue;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.stream.JsonParser;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads and writes the payloads and collections of them through their {@link JsonCodec}, ahead of the reflective JSON-B
+ * provider. A collection holding anything without a codec is written by JSON-B as a whole.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+public class JsonCodecProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    @Override
+    public boolean isReadable(
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType
+    ) {
+        return JsonCodecs.get(type) != null
+                || Collection.class.isAssignableFrom(type)
+                && genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> item
+                && JsonCodecs.get(item) != null;
+    }
+
+    @Override
+    public Object readFrom(
+            final Class<Object> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType,
+            final MultivaluedMap<String, String> httpHeaders,
+            final InputStream entityStream
+    ) {
+        final JsonParser parser = JsonCodecs.PARSERS.createParser(entityStream);
+
+        try {
+            if (!parser.hasNext()) return null;
+
+            return JsonCodecs.readValue(parser, parser.next(), genericType);
+        } catch (JsonException | IllegalStateException | NoSuchElementException e) {
+            throw new BadRequestException(e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType
+    ) {
+        return JsonCodecs.get(type) != null
+                || Collection.class.isAssignableFrom(type) && !JsonValue.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeTo(
+            final Object value,
+            final Class<?> type,
+            final Type genericType,
+            final Annotation[] annotations,
+            final MediaType mediaType,
+            final MultivaluedMap<String, Object> httpHeaders,
+            final OutputStream entityStream
+    ) {
+        if (!JsonCodecs.isWritable(value)) {
+            Fallback.JSONB.toJson(value, genericType, entityStream);
+            return;
+        }
+
+        final JsonOutput output = new JsonOutput(entityStream);
+        JsonCodecs.writeValue(output, value);
+        output.flush();
+    }
+
+    /**
+     * JSON-B is only created once a value needs it.
+     */
+    private static final class Fallback {
+
+        private static final Jsonb JSONB = JsonbBuilder.create();
+    }
+}
@@ -0,0 +1,282 @@
+package org.faya.sensei.codecs;
+
+import jakarta.json.JsonException;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+import org.faya.sensei.payloads.PageDTO;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.faya.sensei.payloads.StatisticsDTO;
+import org.faya.sensei.payloads.StatusDTO;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.payloads.UserDTO;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The JSON codecs of the payloads, bound once when the class is initialised, and the value encoding they share.
+ */
+public final class JsonCodecs {
+
+    private static final Map<Class<?>, JsonCodec<?>> CODECS = Stream.of(
+                    PageDTO.class,
+                    ProjectDTO.class,
+                    StatisticsDTO.class,
+                    StatusDTO.class,
+                    TaskDTO.class,
+                    UserDTO.class
+            )
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), JsonCodec::bind));
+
+    /**
+     * Looking the JSON-P provider up is a service loader scan, so the factory is created once.
+     */
+    private static final JsonProvider PROVIDER = JsonProvider.provider();
+
+    public static final JsonParserFactory PARSERS = PROVIDER.createParserFactory(Map.of());
+
+    private JsonCodecs() { }
+
+    /**
+     * Find the codec of a class.
+     *
+     * @return The nullable codec.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> get(final Class<T> type) {
+        return (JsonCodec<T>) CODECS.get(type);
+    }
+
+    /**
+     * Check whether the value is encoded without falling back to JSON-B, that is a payload with a codec or a
+     * collection of them.
+     */
+    public static boolean isWritable(final Object value) {
+        if (value instanceof Collection<?> items)
+            return items.stream().allMatch(item -> item == null || isScalar(item) || CODECS.containsKey(item.getClass()));
+
+        return value != null && CODECS.containsKey(value.getClass());
+    }
+
+    /**
+     * Write any value of a payload: a scalar, a date, a collection, a map with string keys or a payload with a codec.
+     *
+     * @throws JsonException The value cannot be encoded.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static void writeValue(final JsonOutput output, final Object value) {
+        switch (value) {
+            case null -> output.writeNull();
+            case String string -> output.write(string);
+            case Integer number -> output.write(number);
+            case Long number -> output.write(number);
+            case Boolean bool -> output.write(bool);
+            case LocalDateTime dateTime -> output.write(dateTime);
+            case Enum<?> constant -> output.write(constant.name());
+            case Collection<?> items -> writeItems(output, items.iterator());
+            case Map<?, ?> entries -> {
+                output.raw('{');
+                boolean first = true;
+                for (final Map.Entry<?, ?> entry : entries.entrySet()) {
+                    if (!first) output.raw(',');
+                    first = false;
+                    output.write(String.valueOf(entry.getKey()));
+                    output.raw(':');
+                    writeValue(output, entry.getValue());
+                }
+                output.raw('}');
+            }
+            default -> {
+                final JsonCodec codec = CODECS.get(value.getClass());
+                if (codec == null) throw new JsonException("No JSON codec for %s.".formatted(value.getClass().getName()));
+
+                codec.write(output, value);
+            }
+        }
+    }
+
+    /**
+     * Write the items as a JSON array.
+     */
+    public static void writeItems(final JsonOutput output, final Iterator<?> items) {
+        output.raw('[');
+        for (boolean first = true; items.hasNext(); first = false) {
+            if (!first) output.raw(',');
+            writeValue(output, items.next());
+        }
+        output.raw(']');
+    }
+
+    /**
+     * Read a value of the declared type, values of types without an encoding are skipped.
+     *
+     * @param event The event the value starts with.
+     * @throws JsonException The value does not match the type.
+     */
+    static Object readValue(final JsonParser parser, final JsonParser.Event event, final Type type) {
+        if (event == JsonParser.Event.VALUE_NULL) return null;
+
+        try {
+            if (type == String.class && (event == JsonParser.Event.VALUE_STRING || event == JsonParser.Event.VALUE_NUMBER))
+                return parser.getString();
+            if (type == Integer.class && event == JsonParser.Event.VALUE_NUMBER) {
+                if (!parser.isIntegralNumber()) throw new ArithmeticException("Not an integer.");
+
+                return Math.toIntExact(parser.getLong());
+            }
+            if (type == Integer.class && event == JsonParser.Event.VALUE_STRING)
+                return Integer.valueOf(parser.getString());
+            if (type == Long.class && event == JsonParser.Event.VALUE_NUMBER) {
+                if (!parser.isIntegralNumber()) throw new ArithmeticException("Not an integer.");
+
+                return parser.getBigDecimal().longValueExact();
+            }
+            if (type == Long.class && event == JsonParser.Event.VALUE_STRING)
+                return Long.valueOf(parser.getString());
+            if (type == LocalDateTime.class && event == JsonParser.Event.VALUE_STRING)
+                return parseDateTime(parser.getString());
+            if (type == Boolean.class && (event == JsonParser.Event.VALUE_TRUE || event == JsonParser.Event.VALUE_FALSE))
+                return event == JsonParser.Event.VALUE_TRUE;
+        } catch (ArithmeticException | NumberFormatException | DateTimeException e) {
+            throw new JsonException("Malformed %s value.".formatted(type.getTypeName()), e);
+        }
+
+        if (type instanceof Class<?> payload && CODECS.containsKey(payload) && event == JsonParser.Event.START_OBJECT)
+            return CODECS.get(payload).read(parser);
+
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+            final Type[] arguments = parameterized.getActualTypeArguments();
+
+            if (Collection.class.isAssignableFrom(raw) && event == JsonParser.Event.START_ARRAY) {
+                final List<Object> items = new ArrayList<>();
+                for (JsonParser.Event item = parser.next(); item != JsonParser.Event.END_ARRAY; item = parser.next())
+                    items.add(readValue(parser, item, arguments[0]));
+
+                return items;
+            }
+
+            if (Map.class.isAssignableFrom(raw) && arguments[0] == String.class && event == JsonParser.Event.START_OBJECT) {
+                final Map<String, Object> entries = new LinkedHashMap<>();
+                for (JsonParser.Event key = parser.next(); key != JsonParser.Event.END_OBJECT; key = parser.next()) {
+                    final String name = parser.getString();
+                    entries.put(name, readValue(parser, parser.next(), arguments[1]));
+                }
+
+                return entries;
+            }
+        }
+
+        if (type instanceof Class<?> || type instanceof ParameterizedType)
+            throw new JsonException("Unexpected %s for a %s value.".formatted(event, type.getTypeName()));
+
+        skip(parser, event);
+
+        return null;
+    }
+
+    static void skip(final JsonParser parser, final JsonParser.Event event) {
+        if (event == JsonParser.Event.START_OBJECT) parser.skipObject();
+        else if (event == JsonParser.Event.START_ARRAY) parser.skipArray();
+    }
+
+    /**
+     * Format the date time as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} does, without going through the general
+     * purpose formatter: seconds are always written and the fraction is trimmed of its trailing zeros.
+     */
+    public static String isoDateTime(final LocalDateTime value) {
+        final int year = value.getYear();
+        if (year < 0 || year > 9999) return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+
+        final char[] buffer = new char[29];
+        int length = digits(buffer, 0, year, 4);
+        buffer[length++] = '-';
+        length = digits(buffer, length, value.getMonthValue(), 2);
+        buffer[length++] = '-';
+        length = digits(buffer, length, value.getDayOfMonth(), 2);
+        buffer[length++] = 'T';
+        length = digits(buffer, length, value.getHour(), 2);
+        buffer[length++] = ':';
+        length = digits(buffer, length, value.getMinute(), 2);
+        buffer[length++] = ':';
+        length = digits(buffer, length, value.getSecond(), 2);
+
+        final int nano = value.getNano();
+        if (nano > 0) {
+            buffer[length++] = '.';
+            length = digits(buffer, length, nano, 9);
+            while (buffer[length - 1] == '0') length--;
+        }
+
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Parse a date time as {@link LocalDateTime#parse(CharSequence)} does. The {@code yyyy-MM-ddTHH:mm[:ss[.f]]} shape
+     * written by {@link #isoDateTime(LocalDateTime)} is read directly, anything else goes through the formatter.
+     *
+     * @throws DateTimeException The value is not a date time.
+     */
+    public static LocalDateTime parseDateTime(final String value) {
+        final int length = value.length();
+        if (length < 16 || length == 17 || length == 18 || length == 20 || length > 29
+                || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T' || value.charAt(13) != ':'
+                || length > 16 && value.charAt(16) != ':' || length > 19 && value.charAt(19) != '.')
+            return LocalDateTime.parse(value);
+
+        final int year = parseDigits(value, 0, 4);
+        final int month = parseDigits(value, 5, 7);
+        final int day = parseDigits(value, 8, 10);
+        final int hour = parseDigits(value, 11, 13);
+        final int minute = parseDigits(value, 14, 16);
+        final int second = length > 16 ? parseDigits(value, 17, 19) : 0;
+        int nano = length > 19 ? parseDigits(value, 20, length) : 0;
+        for (int i = length; i < 29 && length > 19; i++) nano *= 10;
+
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || nano < 0)
+            return LocalDateTime.parse(value);
+
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    /**
+     * @return The number, or -1 when a character is not a digit.
+     */
+    private static int parseDigits(final String value, final int begin, final int end) {
+        int number = 0;
+        for (int i = begin; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') return -1;
+
+            number = number * 10 + c - '0';
+        }
+
+        return number;
+    }
+
+    private static int digits(final char[] buffer, final int offset, int value, final int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+
+        return offset + width;
+    }
+
+    private static boolean isScalar(final Object value) {
+        return value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Boolean
+                || value instanceof LocalDateTime || value instanceof Enum<?>;
+    }
+}
@@ -0,0 +1,211 @@
+package org.faya.sensei.codecs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Buffered UTF-8 JSON output for the codecs. Strings are escaped the way the JSON-P generator does, so the bytes are
+ * the same as JSON-B's, but nothing is allocated per value and property names are written as pre-encoded bytes.
+ */
+public final class JsonOutput {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream output;
+
+    private final byte[] buffer = new byte[8192];
+
+    private int position;
+
+    public JsonOutput(final OutputStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Encode a property name once, quoted and followed by the colon.
+     */
+    static byte[] key(final String name) {
+        return "\"%s\":".formatted(name).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void raw(final char value) {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void raw(final byte[] value) {
+        if (value.length > buffer.length) {
+            drain();
+            write(value, value.length);
+            return;
+        }
+
+        ensure(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+    }
+
+    public void writeNull() {
+        raw(NULL);
+    }
+
+    public void write(final boolean value) {
+        raw(value ? TRUE : FALSE);
+    }
+
+    public void write(final long value) {
+        if (value == Long.MIN_VALUE) {
+            raw(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+
+        ensure(20);
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+            remaining = -remaining;
+        }
+
+        int length = 1;
+        for (long bound = 10; length < 19 && remaining >= bound; bound *= 10) length++;
+        for (int i = position + length - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        position += length;
+    }
+
+    public void write(final String value) {
+        ensure(2);
+        buffer[position++] = '"';
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            ensure(12);
+
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x80) {
+                escape(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // An unpaired surrogate cannot be encoded, the UTF-8 encoder of the generator replaces it the same way.
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        ensure(1);
+        buffer[position++] = '"';
+    }
+
+    /**
+     * Write the date time quoted, as {@link JsonCodecs#isoDateTime(LocalDateTime)} formats it.
+     */
+    public void write(final LocalDateTime value) {
+        final int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            write(JsonCodecs.isoDateTime(value));
+            return;
+        }
+
+        ensure(31);
+        buffer[position++] = '"';
+        digits(year, 4);
+        buffer[position++] = '-';
+        digits(value.getMonthValue(), 2);
+        buffer[position++] = '-';
+        digits(value.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        digits(value.getHour(), 2);
+        buffer[position++] = ':';
+        digits(value.getMinute(), 2);
+        buffer[position++] = ':';
+        digits(value.getSecond(), 2);
+
+        final int nano = value.getNano();
+        if (nano > 0) {
+            buffer[position++] = '.';
+            digits(nano, 9);
+            while (buffer[position - 1] == '0') position--;
+        }
+        buffer[position++] = '"';
+    }
+
+    /**
+     * Write the buffered bytes to the stream and flush it.
+     */
+    public void flush() {
+        drain();
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escape(final char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"' -> buffer[position++] = '"';
+            case '\\' -> buffer[position++] = '\\';
+            case '\b' -> buffer[position++] = 'b';
+            case '\f' -> buffer[position++] = 'f';
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void digits(int value, final int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void ensure(final int length) {
+        if (position + length > buffer.length) drain();
+    }
+
+    private void drain() {
+        write(buffer, position);
+        position = 0;
+    }
+
+    private void write(final byte[] bytes, final int length) {
+        try {
+            output.write(bytes, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
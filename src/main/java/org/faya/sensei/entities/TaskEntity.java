@@ -1,21 +1,32 @@
 package org.faya.sensei.entities;
 
-import jakarta.persistence.Table;
+import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
-@Table(name = "tasks")
+@Entity
+@DynamicUpdate
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_project_status", columnList = "project_id, status_id"),
+        @Index(name = "idx_tasks_assigner", columnList = "assigner_id"),
+        @Index(name = "idx_tasks_project_start", columnList = "project_id, startDate"),
+        @Index(name = "idx_tasks_project_end", columnList = "project_id, endDate")
+})
 public class TaskEntity implements Serializable {
 
     /**
      * The primary key of the task.
      */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
     /**
      * The summary title of the task.
      */
+    @Column(nullable = false)
     private String title;
 
     /**
@@ -36,15 +47,102 @@ public class TaskEntity implements Serializable {
     /**
      * The many-to-one relationship with {@link ProjectEntity}.
      */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "project_id")
     private ProjectEntity project;
 
     /**
      * The many-to-one relationship with {@link StatusEntity}.
      */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "status_id")
     private StatusEntity status;
 
     /**
      * The many-to-one relationship with {@link UserEntity}.
      */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "assigner_id")
     private UserEntity assigner;
+
+    /**
+     * The optimistic lock version of the task.
+     */
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
+    // Getters and Setters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public ProjectEntity getProject() {
+        return project;
+    }
+
+    public void setProject(ProjectEntity project) {
+        this.project = project;
+    }
+
+    public StatusEntity getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusEntity status) {
+        this.status = status;
+    }
+
+    public UserEntity getAssigner() {
+        return assigner;
+    }
+
+    public void setAssigner(UserEntity assigner) {
+        this.assigner = assigner;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
 }
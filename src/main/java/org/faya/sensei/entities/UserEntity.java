@@ -1,28 +1,33 @@
 package org.faya.sensei.entities;
 
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.Table;
+import jakarta.persistence.*;
 
 import java.io.Serializable;
 import java.util.List;
 
-@Table(name = "users")
+@Entity
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_name", columnList = "name", unique = true)
+})
 public class UserEntity implements Serializable {
 
     /**
      * The primary key of the user.
      */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
     /**
      * The name of the user.
      */
+    @Column(nullable = false)
     private String name;
 
     /**
      * The password of the user.
      */
+    @Column(nullable = false)
     private String password;
 
     /**
@@ -34,10 +39,62 @@ public class UserEntity implements Serializable {
     /**
      * The many-to-many relationship with {@link ProjectEntity}. (hidden in database)
      */
+    @ManyToMany(mappedBy = "users")
     private List<ProjectEntity> projects;
 
     /**
      * The one-to-many relationship with {@link ProjectEntity}. (hidden in database)
      */
+    @OneToMany(mappedBy = "assigner")
     private List<TaskEntity> assignedTasks;
+
+    // Getters and Setters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+
+    public List<ProjectEntity> getProjects() {
+        return projects;
+    }
+
+    public void setProjects(List<ProjectEntity> projects) {
+        this.projects = projects;
+    }
+
+    public List<TaskEntity> getAssignedTasks() {
+        return assignedTasks;
+    }
+
+    public void setAssignedTasks(List<TaskEntity> assignedTasks) {
+        this.assignedTasks = assignedTasks;
+    }
 }
@@ -0,0 +1,507 @@
+package org.faya.sensei.eventstore;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.entities.TaskEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.eventstore.TaskEventLog.TaskState;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.IRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Task repository keeping the authoritative state of every task in memory, persisted as an event log instead of the
+ * tasks table. Every mutation is one sequential append to a memory-mapped segment, a snapshot is written every
+ * {@value #SNAPSHOT_INTERVAL} records, and the state is rebuilt on open from the latest snapshot and the segments
+ * after it. Reads never query the tasks table, related projects, statuses and users are still resolved by id through
+ * the entity manager.
+ * <p>
+ * The store opens on first use. When its log is still empty it starts from the tasks already in the database.
+ */
+public final class EventSourcedTaskRepository implements IRepository<TaskEntity>, AutoCloseable {
+
+    private static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final int SNAPSHOT_INTERVAL = 10_000;
+
+    private static final Map<String, Function<TaskState, Integer>> FOREIGN_KEYS = Map.of(
+            "project.id", TaskState::projectId,
+            "status.id", TaskState::statusId,
+            "assigner.id", TaskState::assignerId
+    );
+
+    private final EntityManager entityManager;
+
+    private final ChangeFeed changeFeed;
+
+    private final TaskEventLog eventLog;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, TaskState> tasks = new TreeMap<>();
+
+    private final Map<String, Map<Integer, NavigableSet<Integer>>> indexes = new HashMap<>();
+
+    private volatile boolean open;
+
+    /**
+     * @param entityManager The entity manager resolving the related entities.
+     * @param changeFeed The change feed the mutations are published to, or null.
+     * @param directory The directory of the event log.
+     */
+    public EventSourcedTaskRepository(final EntityManager entityManager, final ChangeFeed changeFeed, final Path directory) {
+        this.entityManager = entityManager;
+        this.changeFeed = changeFeed;
+        this.eventLog = new TaskEventLog(directory, SEGMENT_SIZE);
+
+        FOREIGN_KEYS.keySet().forEach(key -> indexes.put(key, new HashMap<>()));
+    }
+
+    @Override
+    public Collection<TaskEntity> get() {
+        return read(() -> tasks.values().stream().map(this::toEntity).toList());
+    }
+
+    @Override
+    public Optional<TaskEntity> get(final int id) {
+        return read(() -> Optional.ofNullable(tasks.get(id)).map(this::toEntity));
+    }
+
+    @Override
+    public Optional<Integer> getVersion(final int id) {
+        return read(() -> Optional.ofNullable(tasks.get(id)).map(TaskState::version));
+    }
+
+    @Override
+    public Collection<TaskEntity> getBy(final String key, final String value) {
+        return read(() -> find(key, value).stream().map(this::toEntity).toList());
+    }
+
+    @Override
+    public <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        if (!TaskDTO.class.equals(type)) return List.of();
+
+        return read(() -> find(key, value).stream().map(this::toDTO).map(type::cast).toList());
+    }
+
+    @Override
+    public int post(final TaskEntity item) {
+        final Change change;
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            final TaskState task = new TaskState(
+                    eventLog.maxId() + 1,
+                    item.getTitle(),
+                    item.getDescription(),
+                    item.getStartDate(),
+                    item.getEndDate(),
+                    id(item.getProject(), ProjectEntity::getId),
+                    id(item.getStatus(), StatusEntity::getId),
+                    id(item.getAssigner(), UserEntity::getId),
+                    0
+            );
+            if (task.title() == null || task.projectId() == null) return -1;
+
+            change = new Change(eventLog.upsert(task), "INSERT", task, LocalDateTime.now());
+            apply(null, task);
+            snapshotWhenDue();
+
+            item.setId(task.id());
+            item.setVersion(task.version());
+        } catch (RuntimeException e) {
+            return -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        publish(List.of(change));
+
+        return item.getId();
+    }
+
+    /**
+     * Update the task, only the non-null fields of the item are assigned. When the item carries a version the task
+     * is only updated while its version still matches.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> put(final int id, final TaskEntity item) {
+        final Change change;
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            final TaskState current = tasks.get(id);
+            if (current == null) return Optional.empty();
+            if (item.getVersion() != null && item.getVersion() != current.version())
+                throw new OptimisticLockException("Task version mismatch.", null, toEntity(current));
+
+            change = update(current, assign(item), LocalDateTime.now());
+        } catch (OptimisticLockException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        publish(List.of(change));
+
+        return Optional.of(toEntity(change.task()));
+    }
+
+    /**
+     * Assign the named fields to the task, a named field null in the item is cleared. A task left as it is appends
+     * nothing and keeps its version.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> patch(final int id, final TaskEntity item, final Set<String> fields) {
+        final Change change;
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            final TaskState current = tasks.get(id);
+            if (current == null) return Optional.empty();
+            if (item.getVersion() != null && item.getVersion() != current.version())
+                throw new OptimisticLockException("Task version mismatch.", null, toEntity(current));
+
+            final TaskState patched = patch(current, item, fields);
+            if (patched.equals(current)) return Optional.of(toEntity(current));
+
+            change = update(current, task -> new TaskState(
+                    task.id(),
+                    patched.title(),
+                    patched.description(),
+                    patched.startDate(),
+                    patched.endDate(),
+                    task.projectId(),
+                    patched.statusId(),
+                    patched.assignerId(),
+                    task.version() + 1
+            ), LocalDateTime.now());
+        } catch (OptimisticLockException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        publish(List.of(change));
+
+        return Optional.of(toEntity(change.task()));
+    }
+
+    @Override
+    public int putBy(final String key, final String value, final TaskEntity item) {
+        final UnaryOperator<TaskState> assignment = assign(item);
+        final List<Change> changes = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            final LocalDateTime changedAt = LocalDateTime.now();
+            for (final TaskState task : find(key, value)) changes.add(update(task, assignment, changedAt));
+        } catch (RuntimeException e) {
+            // A failed append ends the batch, the tasks before it stay updated.
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        publish(changes);
+
+        return changes.size();
+    }
+
+    @Override
+    public Optional<TaskEntity> delete(final int id) {
+        final Change change;
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            final TaskState task = tasks.get(id);
+            if (task == null) return Optional.empty();
+
+            change = remove(task, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        publish(List.of(change));
+
+        return Optional.of(toEntity(change.task()));
+    }
+
+    @Override
+    public int deleteBy(final String key, final String value) {
+        final List<Change> changes = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            open();
+
+            final LocalDateTime changedAt = LocalDateTime.now();
+            for (final TaskState task : find(key, value)) changes.add(remove(task, changedAt));
+        } catch (RuntimeException e) {
+            // A failed append ends the batch, the tasks before it stay removed.
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        publish(changes);
+
+        return changes.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            eventLog.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replay the log on first use. An empty log starts from the tasks in the database, written as its first snapshot.
+     */
+    private void open() {
+        if (open) return;
+
+        final Map<Integer, TaskState> replayed = new HashMap<>();
+        if (eventLog.replay(replayed)) {
+            entityManager.createQuery("SELECT t FROM TaskEntity t", TaskEntity.class)
+                    .getResultStream()
+                    .map(EventSourcedTaskRepository::toState)
+                    .forEach(task -> replayed.put(task.id(), task));
+            eventLog.snapshot(replayed.values());
+        }
+
+        replayed.values().forEach(task -> apply(null, task));
+        open = true;
+    }
+
+    private <R> R read(final Supplier<R> reader) {
+        if (!open) {
+            lock.writeLock().lock();
+            try {
+                open();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<TaskState> find(final String key, final String value) {
+        if ("id".equals(key)) return Optional.ofNullable(tasks.get(Integer.parseInt(value))).stream().toList();
+
+        final Map<Integer, NavigableSet<Integer>> index = indexes.get(key);
+        if (index == null) return List.of();
+
+        return index.getOrDefault(Integer.parseInt(value), new TreeSet<>()).stream().map(tasks::get).toList();
+    }
+
+    private Change update(final TaskState current, final UnaryOperator<TaskState> assignment, final LocalDateTime changedAt) {
+        final TaskState task = assignment.apply(current);
+        final Change change = new Change(eventLog.upsert(task), "UPDATE", task, changedAt);
+        apply(current, task);
+
+        snapshotWhenDue();
+
+        return change;
+    }
+
+    private Change remove(final TaskState task, final LocalDateTime changedAt) {
+        final Change change = new Change(eventLog.delete(task), "DELETE", task, changedAt);
+        apply(task, null);
+
+        snapshotWhenDue();
+
+        return change;
+    }
+
+    private void apply(final TaskState previous, final TaskState next) {
+        if (previous != null) {
+            tasks.remove(previous.id());
+            FOREIGN_KEYS.forEach((key, foreignKey) -> {
+                final Integer value = foreignKey.apply(previous);
+                if (value != null) indexes.get(key).computeIfPresent(value, (k, ids) -> {
+                    ids.remove(previous.id());
+                    return ids.isEmpty() ? null : ids;
+                });
+            });
+        }
+
+        if (next != null) {
+            tasks.put(next.id(), next);
+            FOREIGN_KEYS.forEach((key, foreignKey) -> {
+                final Integer value = foreignKey.apply(next);
+                if (value != null) indexes.get(key).computeIfAbsent(value, k -> new TreeSet<>()).add(next.id());
+            });
+        }
+    }
+
+    private void snapshotWhenDue() {
+        if (eventLog.recordsSinceSnapshot() >= SNAPSHOT_INTERVAL) eventLog.snapshot(List.copyOf(tasks.values()));
+    }
+
+    private void publish(final List<Change> changes) {
+        if (changeFeed == null || changes.isEmpty()) return;
+
+        // The changes of one write share a transaction, named after the first of them.
+        final long transactionId = changes.getFirst().sequence();
+        changeFeed.emit(changes.stream()
+                .map(change -> new ChangeFeed.Change(
+                        change.sequence(),
+                        "tasks",
+                        change.operation(),
+                        change.task().id(),
+                        change.task().projectId(),
+                        change.changedAt(),
+                        transactionId
+                ))
+                .toList());
+    }
+
+    private UnaryOperator<TaskState> assign(final TaskEntity item) {
+        final Integer projectId = id(item.getProject(), ProjectEntity::getId);
+        final Integer statusId = id(item.getStatus(), StatusEntity::getId);
+        final Integer assignerId = id(item.getAssigner(), UserEntity::getId);
+
+        return task -> new TaskState(
+                task.id(),
+                item.getTitle() != null ? item.getTitle() : task.title(),
+                item.getDescription() != null ? item.getDescription() : task.description(),
+                item.getStartDate() != null ? item.getStartDate() : task.startDate(),
+                item.getEndDate() != null ? item.getEndDate() : task.endDate(),
+                projectId != null ? projectId : task.projectId(),
+                statusId != null ? statusId : task.statusId(),
+                assignerId != null ? assignerId : task.assignerId(),
+                task.version() + 1
+        );
+    }
+
+    /**
+     * @return The task with the named fields of the item assigned, at the version of the task.
+     */
+    private static TaskState patch(final TaskState task, final TaskEntity item, final Set<String> fields) {
+        String title = task.title();
+        String description = task.description();
+        LocalDateTime startDate = task.startDate();
+        LocalDateTime endDate = task.endDate();
+        Integer statusId = task.statusId();
+        Integer assignerId = task.assignerId();
+
+        for (final String field : fields) {
+            switch (field) {
+                case "title" -> title = item.getTitle();
+                case "description" -> description = item.getDescription();
+                case "startDate" -> startDate = item.getStartDate();
+                case "endDate" -> endDate = item.getEndDate();
+                case "status" -> statusId = id(item.getStatus(), StatusEntity::getId);
+                case "assigner" -> assignerId = id(item.getAssigner(), UserEntity::getId);
+                default -> throw new IllegalArgumentException("Task field %s cannot be patched.".formatted(field));
+            }
+        }
+
+        return new TaskState(task.id(), title, description, startDate, endDate, task.projectId(), statusId, assignerId, task.version());
+    }
+
+    private TaskEntity toEntity(final TaskState task) {
+        final TaskEntity taskEntity = new TaskEntity();
+        taskEntity.setId(task.id());
+        taskEntity.setTitle(task.title());
+        taskEntity.setDescription(task.description());
+        taskEntity.setStartDate(task.startDate());
+        taskEntity.setEndDate(task.endDate());
+        taskEntity.setProject(find(ProjectEntity.class, task.projectId()));
+        taskEntity.setStatus(find(StatusEntity.class, task.statusId()));
+        taskEntity.setAssigner(find(UserEntity.class, task.assignerId()));
+        taskEntity.setVersion(task.version());
+
+        return taskEntity;
+    }
+
+    private TaskDTO toDTO(final TaskState task) {
+        final StatusEntity statusEntity = find(StatusEntity.class, task.statusId());
+
+        return new TaskDTO(
+                task.id(),
+                task.title(),
+                task.description(),
+                task.startDate(),
+                task.endDate(),
+                statusEntity != null ? statusEntity.getName() : null,
+                task.projectId(),
+                task.assignerId(),
+                task.version()
+        );
+    }
+
+    private <E> E find(final Class<E> type, final Integer id) {
+        return id != null ? entityManager.find(type, id) : null;
+    }
+
+    private static TaskState toState(final TaskEntity taskEntity) {
+        return new TaskState(
+                taskEntity.getId(),
+                taskEntity.getTitle(),
+                taskEntity.getDescription(),
+                taskEntity.getStartDate(),
+                taskEntity.getEndDate(),
+                id(taskEntity.getProject(), ProjectEntity::getId),
+                id(taskEntity.getStatus(), StatusEntity::getId),
+                id(taskEntity.getAssigner(), UserEntity::getId),
+                taskEntity.getVersion() != null ? taskEntity.getVersion() : 0
+        );
+    }
+
+    private static <E> Integer id(final E entity, final Function<E, Integer> id) {
+        return entity != null ? id.apply(entity) : null;
+    }
+
+    private record Change(long sequence, String operation, TaskState task, LocalDateTime changedAt) { }
+}
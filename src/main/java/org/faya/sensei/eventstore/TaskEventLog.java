@@ -0,0 +1,419 @@
+package org.faya.sensei.eventstore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only task event log in memory-mapped segment files, with snapshots of the whole state.
+ * <p>
+ * Every record is {@code [length][crc][sequence][type][task]} and a segment ends at the first zero length, so the
+ * preallocated tail of a segment and a record torn by a crash both end the replay. A snapshot rolls the log to a new
+ * segment, after which the segments it covers are deleted.
+ */
+final class TaskEventLog implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private static final byte UPSERT = 1;
+
+    private static final byte DELETE = 2;
+
+    private static final int HEADER = Integer.BYTES * 2;
+
+    private static final int SNAPSHOT_MAGIC = 0x54534e50;
+
+    /**
+     * The state of one task, relationships are held by id.
+     */
+    record TaskState(
+            int id,
+            String title,
+            String description,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Integer projectId,
+            Integer statusId,
+            Integer assignerId,
+            int version
+    ) { }
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream output = new DataOutputStream(bytes);
+
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer segment;
+
+    private long sequence;
+
+    private int maxId;
+
+    private long recordsSinceSnapshot;
+
+    /**
+     * @param directory The directory of the segments and snapshots, created when missing.
+     * @param segmentSize The size every segment file is preallocated to.
+     */
+    TaskEventLog(final Path directory, final int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Load the latest snapshot and replay the segments after it, then open the log for appending.
+     *
+     * @param tasks The map receiving the state by task id.
+     * @return True when the log holds no snapshot and no record at all.
+     */
+    boolean replay(final Map<Integer, TaskState> tasks) {
+        try {
+            Files.createDirectories(directory);
+
+            final Path snapshot = latest(".snapshot");
+            if (snapshot != null) readSnapshot(snapshot, tasks);
+
+            final List<Path> segments = files(".segment");
+            for (final Path path : segments) replaySegment(path, tasks);
+
+            final boolean empty = snapshot == null && sequence == 0;
+            if (segments.isEmpty()) {
+                roll();
+            } else {
+                openSegment(segments.getLast());
+            }
+
+            return empty;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append the new state of a task.
+     *
+     * @return The sequence of the record.
+     */
+    long upsert(final TaskState task) {
+        maxId = Math.max(maxId, task.id());
+
+        return append(UPSERT, task);
+    }
+
+    /**
+     * Append the removal of a task.
+     *
+     * @return The sequence of the record.
+     */
+    long delete(final TaskState task) {
+        return append(DELETE, task);
+    }
+
+    /**
+     * The highest task id the log has ever held, ids of deleted tasks are never handed out again.
+     */
+    int maxId() {
+        return maxId;
+    }
+
+    long recordsSinceSnapshot() {
+        return recordsSinceSnapshot;
+    }
+
+    /**
+     * Write the whole state as a snapshot, roll to a new segment and delete the segments the snapshot covers.
+     */
+    void snapshot(final Collection<TaskState> tasks) {
+        try {
+            roll();
+            for (final TaskState task : tasks) maxId = Math.max(maxId, task.id());
+
+            final Path temporary = directory.resolve("snapshot.tmp");
+            try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream snapshot = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(file)))) {
+                snapshot.writeInt(SNAPSHOT_MAGIC);
+                snapshot.writeLong(sequence);
+                snapshot.writeInt(maxId);
+                snapshot.writeInt(tasks.size());
+                for (final TaskState task : tasks) write(snapshot, task);
+
+                snapshot.flush();
+                file.force(true);
+            }
+
+            final Path snapshot = directory.resolve(name(sequence, ".snapshot"));
+            Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            for (final Path path : files(".snapshot")) if (!path.equals(snapshot)) delete(path);
+            for (final Path path : files(".segment")) if (firstSequence(path) <= sequence) delete(path);
+
+            recordsSinceSnapshot = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segment != null) segment.force();
+        if (channel != null) channel.close();
+    }
+
+    private long append(final byte type, final TaskState task) {
+        final long next = sequence + 1;
+
+        final byte[] body;
+
+        try {
+            bytes.reset();
+            output.writeLong(next);
+            output.writeByte(type);
+            write(output, task);
+            body = bytes.toByteArray();
+
+            if (HEADER + body.length + Integer.BYTES > segmentSize)
+                throw new IllegalStateException("Task record of %d bytes exceeds the segment size.".formatted(body.length));
+            if (segment.remaining() < HEADER + body.length + Integer.BYTES) roll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        crc.reset();
+        crc.update(body);
+
+        // The length goes in last, a reader never sees a record before its body.
+        final int position = segment.position();
+        segment.put(position + HEADER, body);
+        segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+        segment.putInt(position, body.length);
+        segment.position(position + HEADER + body.length);
+
+        sequence = next;
+        recordsSinceSnapshot++;
+
+        return next;
+    }
+
+    private void replaySegment(final Path path, final Map<Integer, TaskState> tasks) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+
+            while (true) {
+                final Record record = read(buffer);
+                if (record == null) break;
+                if (record.sequence() <= sequence) continue;
+
+                sequence = record.sequence();
+                recordsSinceSnapshot++;
+                maxId = Math.max(maxId, record.task().id());
+
+                if (record.type() == UPSERT) {
+                    tasks.put(record.task().id(), record.task());
+                } else {
+                    tasks.remove(record.task().id());
+                }
+            }
+        }
+    }
+
+    private void openSegment(final Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+        // Resume after the last intact record, a torn one is overwritten.
+        while (read(segment) != null) {
+            // Skip to the end of the log.
+        }
+    }
+
+    private void roll() throws IOException {
+        if (segment != null) segment.force();
+        if (channel != null) channel.close();
+
+        final Path path = directory.resolve(name(sequence + 1, ".segment"));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /**
+     * Read the record at the position of the buffer and move past it.
+     *
+     * @return The record, or null at the end of the segment or at a torn record.
+     */
+    private static Record read(final ByteBuffer buffer) {
+        final int position = buffer.position();
+        if (buffer.remaining() < HEADER) return null;
+
+        final int length = buffer.getInt(position);
+        if (length <= 0 || length > buffer.remaining() - HEADER) return null;
+
+        final byte[] body = new byte[length];
+        buffer.get(position + HEADER, body);
+
+        final CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) return null;
+
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(body))) {
+            final long sequence = input.readLong();
+            final byte type = input.readByte();
+            final TaskState task = read(input);
+
+            buffer.position(position + HEADER + length);
+
+            return new Record(sequence, type, task);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void readSnapshot(final Path path, final Map<Integer, TaskState> tasks) throws IOException {
+        try (DataInputStream snapshot = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (snapshot.readInt() != SNAPSHOT_MAGIC) throw new IOException("%s is not a task snapshot.".formatted(path));
+
+            sequence = snapshot.readLong();
+            maxId = snapshot.readInt();
+
+            final int count = snapshot.readInt();
+            for (int i = 0; i < count; i++) {
+                final TaskState task = read(snapshot);
+                tasks.put(task.id(), task);
+            }
+        }
+    }
+
+    private static void write(final DataOutput output, final TaskState task) throws IOException {
+        output.writeInt(task.id());
+        writeString(output, task.title());
+        writeString(output, task.description());
+        writeDate(output, task.startDate());
+        writeDate(output, task.endDate());
+        output.writeInt(task.projectId() != null ? task.projectId() : -1);
+        output.writeInt(task.statusId() != null ? task.statusId() : -1);
+        output.writeInt(task.assignerId() != null ? task.assignerId() : -1);
+        output.writeInt(task.version());
+    }
+
+    private static TaskState read(final DataInput input) throws IOException {
+        final int id = input.readInt();
+        final String title = readString(input);
+        final String description = readString(input);
+        final LocalDateTime startDate = readDate(input);
+        final LocalDateTime endDate = readDate(input);
+        final int projectId = input.readInt();
+        final int statusId = input.readInt();
+        final int assignerId = input.readInt();
+
+        return new TaskState(
+                id,
+                title,
+                description,
+                startDate,
+                endDate,
+                projectId >= 0 ? projectId : null,
+                statusId >= 0 ? statusId : null,
+                assignerId >= 0 ? assignerId : null,
+                input.readInt()
+        );
+    }
+
+    private static void writeString(final DataOutput output, final String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(encoded.length);
+        output.write(encoded);
+    }
+
+    private static String readString(final DataInput input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) return null;
+
+        final byte[] encoded = new byte[length];
+        input.readFully(encoded);
+
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(final DataOutput output, final LocalDateTime value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value == null) return;
+
+        output.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        output.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDate(final DataInput input) throws IOException {
+        if (!input.readBoolean()) return null;
+
+        return LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC);
+    }
+
+    private Path latest(final String suffix) throws IOException {
+        final List<Path> paths = files(suffix);
+
+        return paths.isEmpty() ? null : paths.getLast();
+    }
+
+    private List<Path> files(final String suffix) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static String name(final long sequence, final String suffix) {
+        return "%020d%s".formatted(sequence, suffix);
+    }
+
+    private static long firstSequence(final Path path) {
+        final String name = path.getFileName().toString();
+
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    private static void delete(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to delete %s.".formatted(path), e);
+        }
+    }
+
+    private record Record(long sequence, byte type, TaskState task) { }
+}
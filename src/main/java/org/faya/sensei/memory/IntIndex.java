@@ -0,0 +1,96 @@
+package org.faya.sensei.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary index from an owner id to the sorted ids of its rows, such as a project to its tasks. The id arrays are
+ * replaced rather than changed, so a reader keeps a consistent copy without holding the lock.
+ */
+final class IntIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ReadWriteLock[] locks = new ReadWriteLock[IntTable.STRIPES];
+
+    private final List<IntMap<int[]>> stripes = new ArrayList<>(IntTable.STRIPES);
+
+    IntIndex() {
+        for (int i = 0; i < IntTable.STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+            stripes.add(new IntMap<>());
+        }
+    }
+
+    /**
+     * The ids under the owner in ascending order, the array must not be changed.
+     */
+    int[] get(final int owner) {
+        if (owner <= 0) return EMPTY;
+
+        final int stripe = IntTable.stripe(owner);
+        locks[stripe].readLock().lock();
+        try {
+            final int[] ids = stripes.get(stripe).get(owner);
+
+            return ids != null ? ids : EMPTY;
+        } finally {
+            locks[stripe].readLock().unlock();
+        }
+    }
+
+    void add(final int owner, final int id) {
+        if (owner <= 0) return;
+
+        final int stripe = IntTable.stripe(owner);
+        locks[stripe].writeLock().lock();
+        try {
+            final int[] ids = stripes.get(stripe).get(owner);
+            if (ids == null) {
+                stripes.get(stripe).put(owner, new int[] { id });
+                return;
+            }
+
+            final int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) return;
+
+            final int insertion = -position - 1;
+            final int[] added = new int[ids.length + 1];
+            System.arraycopy(ids, 0, added, 0, insertion);
+            added[insertion] = id;
+            System.arraycopy(ids, insertion, added, insertion + 1, ids.length - insertion);
+
+            stripes.get(stripe).put(owner, added);
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+
+    void remove(final int owner, final int id) {
+        if (owner <= 0) return;
+
+        final int stripe = IntTable.stripe(owner);
+        locks[stripe].writeLock().lock();
+        try {
+            final int[] ids = stripes.get(stripe).get(owner);
+            final int position = ids != null ? Arrays.binarySearch(ids, id) : -1;
+            if (position < 0) return;
+
+            if (ids.length == 1) {
+                stripes.get(stripe).remove(owner);
+                return;
+            }
+
+            final int[] removed = new int[ids.length - 1];
+            System.arraycopy(ids, 0, removed, 0, position);
+            System.arraycopy(ids, position + 1, removed, position, ids.length - position - 1);
+
+            stripes.get(stripe).put(owner, removed);
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.faya.sensei.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open-addressing hash map from positive int keys to values, with linear probing and backward-shift removal so no
+ * tombstones are left behind. Keys are never boxed, the key {@code 0} marks a free slot. Not thread-safe.
+ *
+ * @param <V> The value type.
+ */
+final class IntMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    IntMap() {
+        this(16);
+    }
+
+    IntMap(final int capacity) {
+        final int slots = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        keys = new int[slots];
+        values = new Object[slots];
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(final int key) {
+        final int mask = keys.length - 1;
+        for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return (V) values[slot];
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The previous value of the key, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V put(final int key, final V value) {
+        if (key <= 0) throw new IllegalArgumentException("Keys have to be positive.");
+
+        final int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                final V previous = (V) values[slot];
+                values[slot] = value;
+
+                return previous;
+            }
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) resize(keys.length << 1);
+
+        return null;
+    }
+
+    /**
+     * @return The removed value of the key, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V remove(final int key) {
+        final int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; keys[slot] != key; slot = (slot + 1) & mask) {
+            if (keys[slot] == 0) return null;
+        }
+
+        final V previous = (V) values[slot];
+        size--;
+
+        // Shift the following entries of the probe run back, so that none of them is cut off from its home slot.
+        int free = slot;
+        for (int next = (free + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            final int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+
+        keys[free] = 0;
+        values[free] = null;
+
+        return previous;
+    }
+
+    /**
+     * The values in slot order.
+     */
+    @SuppressWarnings("unchecked")
+    List<V> values() {
+        final List<V> result = new ArrayList<>(size);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) result.add((V) values[slot]);
+        }
+
+        return result;
+    }
+
+    private void resize(final int slots) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+
+        keys = new int[slots];
+        values = new Object[slots];
+
+        final int mask = slots - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+
+            int slot = slot(oldKeys[i], mask);
+            while (keys[slot] != 0) slot = (slot + 1) & mask;
+
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Ids are sequential, mix them so runs of ids do not become runs of slots.
+     */
+    private static int slot(final int key, final int mask) {
+        final int hash = key * 0x9E3779B9;
+
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
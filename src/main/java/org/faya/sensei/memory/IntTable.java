@@ -0,0 +1,82 @@
+package org.faya.sensei.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rows keyed by int id, spread over lock stripes so writers of different ids rarely contend. Each stripe is an
+ * {@link IntMap} guarded by its own read-write lock.
+ *
+ * @param <V> The row type.
+ */
+final class IntTable<V> {
+
+    static final int STRIPES = 16;
+
+    private final ReadWriteLock[] locks = new ReadWriteLock[STRIPES];
+
+    private final List<IntMap<V>> stripes = new ArrayList<>(STRIPES);
+
+    IntTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+            stripes.add(new IntMap<>());
+        }
+    }
+
+    V get(final int key) {
+        final int stripe = stripe(key);
+        locks[stripe].readLock().lock();
+        try {
+            return stripes.get(stripe).get(key);
+        } finally {
+            locks[stripe].readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the row of the key by the result of the update, holding the stripe of the key while it runs. The
+     * update receives the current row or null, and removes the row by returning null.
+     *
+     * @return The row after the update.
+     */
+    V compute(final int key, final UnaryOperator<V> update) {
+        final int stripe = stripe(key);
+        locks[stripe].writeLock().lock();
+        try {
+            final IntMap<V> rows = stripes.get(stripe);
+            final V row = update.apply(rows.get(key));
+
+            if (row != null) rows.put(key, row);
+            else rows.remove(key);
+
+            return row;
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+
+    /**
+     * All rows, each stripe is read consistently on its own.
+     */
+    List<V> values() {
+        final List<V> values = new ArrayList<>();
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            locks[stripe].readLock().lock();
+            try {
+                values.addAll(stripes.get(stripe).values());
+            } finally {
+                locks[stripe].readLock().unlock();
+            }
+        }
+
+        return values;
+    }
+
+    static int stripe(final int key) {
+        return (key ^ key >>> 4) & (STRIPES - 1);
+    }
+}
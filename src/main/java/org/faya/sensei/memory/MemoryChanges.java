@@ -0,0 +1,40 @@
+package org.faya.sensei.memory;
+
+import org.faya.sensei.repositories.ChangeFeed;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publish the changes of the in-memory repositories to the change feed, which never sees them in SQL.
+ */
+final class MemoryChanges {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final AtomicLong TRANSACTIONS = new AtomicLong();
+
+    private MemoryChanges() { }
+
+    /**
+     * @return The id of a new write, the changes of one write are published under it.
+     */
+    static long transaction() {
+        return TRANSACTIONS.incrementAndGet();
+    }
+
+    static void publish(
+            final ChangeFeed changeFeed,
+            final long transactionId,
+            final String table,
+            final String operation,
+            final int id,
+            final Integer projectId,
+            final LocalDateTime changedAt
+    ) {
+        if (changeFeed == null) return;
+
+        changeFeed.emit(List.of(new ChangeFeed.Change(SEQUENCE.incrementAndGet(), table, operation, id, projectId, changedAt, transactionId)));
+    }
+}
@@ -0,0 +1,125 @@
+package org.faya.sensei.memory;
+
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.faya.sensei.repositories.IRepository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Project repository held in memory, the membership index leads from a user to the projects of the user.
+ */
+public class MemoryProjectRepository implements IRepository<ProjectEntity> {
+
+    private final IntTable<ProjectEntity> rows = new IntTable<>();
+
+    private final IntIndex userProjects = new IntIndex();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public Collection<ProjectEntity> get() {
+        return rows.values();
+    }
+
+    @Override
+    public Optional<ProjectEntity> get(final int id) {
+        return Optional.ofNullable(rows.get(id));
+    }
+
+    /**
+     * Find the projects of a member by {@code users.id}, through the membership index, or by {@code users.name}.
+     */
+    @Override
+    public Collection<ProjectEntity> getBy(final String key, final String value) {
+        return switch (key) {
+            case "users.id" -> {
+                final int userId = Integer.parseInt(value);
+
+                yield Arrays.stream(userProjects.get(userId))
+                        .mapToObj(rows::get)
+                        .filter(projectEntity -> projectEntity != null && memberIds(projectEntity).contains(userId))
+                        .toList();
+            }
+            case "users.name" -> rows.values().stream()
+                    .filter(projectEntity -> projectEntity.getUsers() != null && projectEntity.getUsers().stream()
+                            .anyMatch(userEntity -> value.equals(userEntity.getName())))
+                    .toList();
+            default -> List.of();
+        };
+    }
+
+    @Override
+    public <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        if (!ProjectDTO.class.equals(type)) return List.of();
+
+        return getBy(key, value).stream().map(ProjectDTO::fromEntity).map(type::cast).toList();
+    }
+
+    @Override
+    public int post(final ProjectEntity item) {
+        if (item.getName() == null) return -1;
+
+        final int id = sequence.incrementAndGet();
+        item.setId(id);
+        rows.compute(id, current -> {
+            final ProjectEntity projectEntity = copy(item);
+            memberIds(projectEntity).forEach(userId -> userProjects.add(userId, id));
+
+            return projectEntity;
+        });
+
+        return id;
+    }
+
+    @Override
+    public Optional<ProjectEntity> put(final int id, final ProjectEntity item) {
+        return Optional.ofNullable(rows.compute(id, current -> {
+            if (current == null) return null;
+
+            final ProjectEntity projectEntity = copy(current);
+            if (item.getName() != null) projectEntity.setName(item.getName());
+            if (item.getUsers() != null) {
+                memberIds(current).forEach(userId -> userProjects.remove(userId, id));
+                projectEntity.setUsers(item.getUsers());
+                memberIds(projectEntity).forEach(userId -> userProjects.add(userId, id));
+            }
+
+            return projectEntity;
+        }));
+    }
+
+    @Override
+    public Optional<ProjectEntity> delete(final int id) {
+        final ProjectEntity[] removed = new ProjectEntity[1];
+        rows.compute(id, current -> {
+            if (current != null) memberIds(current).forEach(userId -> userProjects.remove(userId, id));
+            removed[0] = current;
+
+            return null;
+        });
+
+        return Optional.ofNullable(removed[0]);
+    }
+
+    private static List<Integer> memberIds(final ProjectEntity projectEntity) {
+        if (projectEntity.getUsers() == null) return List.of();
+
+        return projectEntity.getUsers().stream().map(UserEntity::getId).filter(Objects::nonNull).toList();
+    }
+
+    private static ProjectEntity copy(final ProjectEntity source) {
+        final ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(source.getId());
+        projectEntity.setName(source.getName());
+        projectEntity.setUsers(source.getUsers() != null ? List.copyOf(source.getUsers()) : null);
+
+        return projectEntity;
+    }
+}
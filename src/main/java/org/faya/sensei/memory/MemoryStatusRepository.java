@@ -0,0 +1,154 @@
+package org.faya.sensei.memory;
+
+import jakarta.inject.Inject;
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.IRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Status repository held in memory, status names are unique inside a project through the name index.
+ */
+public class MemoryStatusRepository implements IRepository<StatusEntity> {
+
+    private final IntTable<StatusEntity> rows = new IntTable<>();
+
+    private final IntIndex projectStatuses = new IntIndex();
+
+    private final Map<String, Integer> names = new ConcurrentHashMap<>();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Inject
+    private ChangeFeed changeFeed;
+
+    @Override
+    public Collection<StatusEntity> get() {
+        return rows.values();
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final int id) {
+        return Optional.ofNullable(rows.get(id));
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final String key) {
+        return rows.values().stream().filter(statusEntity -> key.equals(statusEntity.getName())).findFirst();
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final String key, final String value, final String name) {
+        if (!key.equals("project.id") || name == null) return Optional.empty();
+
+        final Integer id = names.get(nameKey(Integer.parseInt(value), name));
+
+        return id != null ? get(id) : Optional.empty();
+    }
+
+    @Override
+    public Collection<StatusEntity> getBy(final String key, final String value) {
+        if (!key.equals("project.id")) return List.of();
+
+        final int projectId = Integer.parseInt(value);
+
+        return Arrays.stream(projectStatuses.get(projectId))
+                .mapToObj(rows::get)
+                .filter(statusEntity -> statusEntity != null && projectId == projectId(statusEntity))
+                .toList();
+    }
+
+    @Override
+    public int post(final StatusEntity item) {
+        final Integer projectId = projectId(item);
+        if (item.getName() == null || projectId == null) return -1;
+
+        final int id = sequence.incrementAndGet();
+        if (names.putIfAbsent(nameKey(projectId, item.getName()), id) != null) return -1;
+
+        item.setId(id);
+        rows.compute(id, current -> {
+            projectStatuses.add(projectId, id);
+
+            return copy(item);
+        });
+        MemoryChanges.publish(changeFeed, MemoryChanges.transaction(), "statuses", "INSERT", id, projectId, LocalDateTime.now());
+
+        return id;
+    }
+
+    @Override
+    public Optional<StatusEntity> put(final int id, final StatusEntity item) {
+        final boolean[] refused = new boolean[1];
+        final StatusEntity statusEntity = rows.compute(id, current -> {
+            if (current == null) return null;
+
+            final StatusEntity updated = copy(current);
+            if (item.getName() != null) updated.setName(item.getName());
+            if (item.getProject() != null && item.getProject().getId() != null) updated.setProject(item.getProject());
+
+            final String previousKey = nameKey(projectId(current), current.getName());
+            final String key = nameKey(projectId(updated), updated.getName());
+            if (!key.equals(previousKey)) {
+                refused[0] = names.putIfAbsent(key, id) != null;
+                if (refused[0]) return current;
+
+                names.remove(previousKey, id);
+            }
+
+            projectStatuses.remove(projectId(current), id);
+            projectStatuses.add(projectId(updated), id);
+
+            return updated;
+        });
+        if (statusEntity == null || refused[0]) return Optional.empty();
+
+        MemoryChanges.publish(changeFeed, MemoryChanges.transaction(), "statuses", "UPDATE", id, projectId(statusEntity), LocalDateTime.now());
+
+        return Optional.of(statusEntity);
+    }
+
+    @Override
+    public Optional<StatusEntity> delete(final int id) {
+        final StatusEntity[] removed = new StatusEntity[1];
+        rows.compute(id, current -> {
+            if (current != null) {
+                projectStatuses.remove(projectId(current), id);
+                names.remove(nameKey(projectId(current), current.getName()), id);
+            }
+            removed[0] = current;
+
+            return null;
+        });
+        if (removed[0] == null) return Optional.empty();
+
+        MemoryChanges.publish(changeFeed, MemoryChanges.transaction(), "statuses", "DELETE", id, projectId(removed[0]), LocalDateTime.now());
+
+        return Optional.of(removed[0]);
+    }
+
+    private static Integer projectId(final StatusEntity statusEntity) {
+        return statusEntity.getProject() != null ? statusEntity.getProject().getId() : null;
+    }
+
+    private static String nameKey(final int projectId, final String name) {
+        return projectId + "\0" + name;
+    }
+
+    private static StatusEntity copy(final StatusEntity source) {
+        final StatusEntity statusEntity = new StatusEntity();
+        statusEntity.setId(source.getId());
+        statusEntity.setName(source.getName());
+        statusEntity.setProject(source.getProject());
+
+        return statusEntity;
+    }
+}
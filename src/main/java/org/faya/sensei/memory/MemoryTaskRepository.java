@@ -0,0 +1,306 @@
+package org.faya.sensei.memory;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import org.faya.sensei.entities.TaskEntity;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.IRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Task repository held in memory, with an index per foreign key. A task and its index entries change together
+ * under the stripe lock of the task, readers check every row an index leads them to against the key.
+ */
+public class MemoryTaskRepository implements IRepository<TaskEntity> {
+
+    private final IntTable<TaskEntity> rows = new IntTable<>();
+
+    private final IntIndex projectTasks = new IntIndex();
+
+    private final IntIndex statusTasks = new IntIndex();
+
+    private final IntIndex assignerTasks = new IntIndex();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Inject
+    private ChangeFeed changeFeed;
+
+    @Override
+    public Collection<TaskEntity> get() {
+        return rows.values();
+    }
+
+    @Override
+    public Optional<TaskEntity> get(final int id) {
+        return Optional.ofNullable(rows.get(id));
+    }
+
+    @Override
+    public Optional<Integer> getVersion(final int id) {
+        return get(id).map(TaskEntity::getVersion);
+    }
+
+    @Override
+    public Collection<TaskEntity> getBy(final String key, final String value) {
+        final IntIndex index = index(key);
+        if (index == null) return List.of();
+
+        final int owner = Integer.parseInt(value);
+        final ToIntFunction<TaskEntity> foreignKey = foreignKey(key);
+
+        return Arrays.stream(index.get(owner))
+                .mapToObj(rows::get)
+                .filter(taskEntity -> taskEntity != null && foreignKey.applyAsInt(taskEntity) == owner)
+                .toList();
+    }
+
+    @Override
+    public <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        if (!TaskDTO.class.equals(type)) return List.of();
+
+        final Collection<TaskEntity> tasks = key.equals("id")
+                ? get(Integer.parseInt(value)).stream().toList()
+                : getBy(key, value);
+
+        return tasks.stream().map(TaskDTO::fromEntity).map(type::cast).toList();
+    }
+
+    @Override
+    public int post(final TaskEntity item) {
+        if (item.getTitle() == null || projectId(item) == 0) return -1;
+
+        final int id = sequence.incrementAndGet();
+        item.setId(id);
+        item.setVersion(0);
+
+        final TaskEntity taskEntity = rows.compute(id, current -> {
+            final TaskEntity created = copy(item);
+            index(created);
+
+            return created;
+        });
+        MemoryChanges.publish(changeFeed, MemoryChanges.transaction(), "tasks", "INSERT", id, projectId(taskEntity), LocalDateTime.now());
+
+        return id;
+    }
+
+    /**
+     * Update the task, only the non-null fields of the item are assigned. When the item carries a version the task
+     * is only updated while its version still matches.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> put(final int id, final TaskEntity item) {
+        final TaskEntity taskEntity = rows.compute(id, current -> {
+            if (current == null) return null;
+            if (item.getVersion() != null && !item.getVersion().equals(current.getVersion()))
+                throw new OptimisticLockException("Task version mismatch.", null, current);
+
+            return update(current, item);
+        });
+        if (taskEntity == null) return Optional.empty();
+
+        MemoryChanges.publish(changeFeed, MemoryChanges.transaction(), "tasks", "UPDATE", id, projectId(taskEntity), LocalDateTime.now());
+
+        return Optional.of(taskEntity);
+    }
+
+    /**
+     * Assign the named fields to the task, a named field null in the item is cleared. A task left as it is keeps its
+     * version and publishes no change.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> patch(final int id, final TaskEntity item, final Set<String> fields) {
+        final TaskEntity[] previous = new TaskEntity[1];
+        final TaskEntity taskEntity = rows.compute(id, current -> {
+            if (current == null) return null;
+            if (item.getVersion() != null && !item.getVersion().equals(current.getVersion()))
+                throw new OptimisticLockException("Task version mismatch.", null, current);
+
+            previous[0] = current;
+            final TaskEntity patched = copy(current);
+            fields.forEach(field -> assign(patched, item, field));
+            if (same(current, patched)) return current;
+
+            patched.setVersion(current.getVersion() + 1);
+            unindex(current);
+            index(patched);
+
+            return patched;
+        });
+        if (taskEntity == null) return Optional.empty();
+
+        if (taskEntity != previous[0])
+            MemoryChanges.publish(changeFeed, MemoryChanges.transaction(), "tasks", "UPDATE", id, projectId(taskEntity), LocalDateTime.now());
+
+        return Optional.of(taskEntity);
+    }
+
+    @Override
+    public int putBy(final String key, final String value, final TaskEntity item) {
+        final long transactionId = MemoryChanges.transaction();
+        final LocalDateTime changedAt = LocalDateTime.now();
+        final List<TaskEntity> updated = new ArrayList<>();
+
+        for (final TaskEntity taskEntity : getBy(key, value)) {
+            final TaskEntity result = rows.compute(taskEntity.getId(), current -> current != null ? update(current, item) : null);
+            if (result != null) updated.add(result);
+        }
+
+        updated.forEach(taskEntity ->
+                MemoryChanges.publish(changeFeed, transactionId, "tasks", "UPDATE", taskEntity.getId(), projectId(taskEntity), changedAt));
+
+        return updated.size();
+    }
+
+    @Override
+    public Optional<TaskEntity> delete(final int id) {
+        final TaskEntity taskEntity = remove(id);
+        if (taskEntity == null) return Optional.empty();
+
+        MemoryChanges.publish(changeFeed, MemoryChanges.transaction(), "tasks", "DELETE", id, projectId(taskEntity), LocalDateTime.now());
+
+        return Optional.of(taskEntity);
+    }
+
+    @Override
+    public int deleteBy(final String key, final String value) {
+        final long transactionId = MemoryChanges.transaction();
+        final LocalDateTime changedAt = LocalDateTime.now();
+        final List<TaskEntity> removed = new ArrayList<>();
+
+        for (final TaskEntity taskEntity : getBy(key, value)) {
+            final TaskEntity result = remove(taskEntity.getId());
+            if (result != null) removed.add(result);
+        }
+
+        removed.forEach(taskEntity ->
+                MemoryChanges.publish(changeFeed, transactionId, "tasks", "DELETE", taskEntity.getId(), projectId(taskEntity), changedAt));
+
+        return removed.size();
+    }
+
+    /**
+     * Only called under the stripe lock of the task.
+     */
+    private TaskEntity update(final TaskEntity current, final TaskEntity item) {
+        final TaskEntity updated = copy(current);
+        if (item.getTitle() != null) updated.setTitle(item.getTitle());
+        if (item.getDescription() != null) updated.setDescription(item.getDescription());
+        if (item.getStartDate() != null) updated.setStartDate(item.getStartDate());
+        if (item.getEndDate() != null) updated.setEndDate(item.getEndDate());
+        if (item.getProject() != null) updated.setProject(item.getProject());
+        if (item.getStatus() != null) updated.setStatus(item.getStatus());
+        if (item.getAssigner() != null) updated.setAssigner(item.getAssigner());
+        updated.setVersion(current.getVersion() + 1);
+
+        unindex(current);
+        index(updated);
+
+        return updated;
+    }
+
+    private static void assign(final TaskEntity taskEntity, final TaskEntity item, final String field) {
+        switch (field) {
+            case "title" -> taskEntity.setTitle(item.getTitle());
+            case "description" -> taskEntity.setDescription(item.getDescription());
+            case "startDate" -> taskEntity.setStartDate(item.getStartDate());
+            case "endDate" -> taskEntity.setEndDate(item.getEndDate());
+            case "status" -> taskEntity.setStatus(item.getStatus());
+            case "assigner" -> taskEntity.setAssigner(item.getAssigner());
+            default -> throw new IllegalArgumentException("Task field %s cannot be patched.".formatted(field));
+        }
+    }
+
+    private static boolean same(final TaskEntity current, final TaskEntity patched) {
+        return Objects.equals(current.getTitle(), patched.getTitle())
+                && Objects.equals(current.getDescription(), patched.getDescription())
+                && Objects.equals(current.getStartDate(), patched.getStartDate())
+                && Objects.equals(current.getEndDate(), patched.getEndDate())
+                && statusId(current) == statusId(patched)
+                && assignerId(current) == assignerId(patched);
+    }
+
+    private TaskEntity remove(final int id) {
+        final TaskEntity[] removed = new TaskEntity[1];
+        rows.compute(id, current -> {
+            if (current != null) unindex(current);
+            removed[0] = current;
+
+            return null;
+        });
+
+        return removed[0];
+    }
+
+    private void index(final TaskEntity taskEntity) {
+        projectTasks.add(projectId(taskEntity), taskEntity.getId());
+        statusTasks.add(statusId(taskEntity), taskEntity.getId());
+        assignerTasks.add(assignerId(taskEntity), taskEntity.getId());
+    }
+
+    private void unindex(final TaskEntity taskEntity) {
+        projectTasks.remove(projectId(taskEntity), taskEntity.getId());
+        statusTasks.remove(statusId(taskEntity), taskEntity.getId());
+        assignerTasks.remove(assignerId(taskEntity), taskEntity.getId());
+    }
+
+    private IntIndex index(final String key) {
+        return switch (key) {
+            case "project.id" -> projectTasks;
+            case "status.id" -> statusTasks;
+            case "assigner.id" -> assignerTasks;
+            default -> null;
+        };
+    }
+
+    private static ToIntFunction<TaskEntity> foreignKey(final String key) {
+        return switch (key) {
+            case "status.id" -> MemoryTaskRepository::statusId;
+            case "assigner.id" -> MemoryTaskRepository::assignerId;
+            default -> MemoryTaskRepository::projectId;
+        };
+    }
+
+    private static int projectId(final TaskEntity taskEntity) {
+        return taskEntity.getProject() != null && taskEntity.getProject().getId() != null ? taskEntity.getProject().getId() : 0;
+    }
+
+    private static int statusId(final TaskEntity taskEntity) {
+        return taskEntity.getStatus() != null && taskEntity.getStatus().getId() != null ? taskEntity.getStatus().getId() : 0;
+    }
+
+    private static int assignerId(final TaskEntity taskEntity) {
+        return taskEntity.getAssigner() != null && taskEntity.getAssigner().getId() != null ? taskEntity.getAssigner().getId() : 0;
+    }
+
+    private static TaskEntity copy(final TaskEntity source) {
+        final TaskEntity taskEntity = new TaskEntity();
+        taskEntity.setId(source.getId());
+        taskEntity.setTitle(source.getTitle());
+        taskEntity.setDescription(source.getDescription());
+        taskEntity.setStartDate(source.getStartDate());
+        taskEntity.setEndDate(source.getEndDate());
+        taskEntity.setProject(source.getProject());
+        taskEntity.setStatus(source.getStatus());
+        taskEntity.setAssigner(source.getAssigner());
+        taskEntity.setVersion(source.getVersion());
+
+        return taskEntity;
+    }
+}
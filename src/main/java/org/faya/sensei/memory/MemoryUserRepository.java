@@ -0,0 +1,100 @@
+package org.faya.sensei.memory;
+
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.repositories.IRepository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * User repository held in memory, names are unique through the name index.
+ */
+public class MemoryUserRepository implements IRepository<UserEntity> {
+
+    private final IntTable<UserEntity> rows = new IntTable<>();
+
+    private final Map<String, Integer> names = new ConcurrentHashMap<>();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public Collection<UserEntity> get() {
+        return rows.values();
+    }
+
+    @Override
+    public Optional<UserEntity> get(final int id) {
+        return Optional.ofNullable(rows.get(id));
+    }
+
+    @Override
+    public Optional<UserEntity> get(final String key) {
+        final Integer id = names.get(key);
+
+        return id != null ? get(id) : Optional.empty();
+    }
+
+    @Override
+    public int post(final UserEntity item) {
+        if (item.getName() == null || item.getPassword() == null) return -1;
+
+        final int id = sequence.incrementAndGet();
+        if (names.putIfAbsent(item.getName(), id) != null) return -1;
+
+        item.setId(id);
+        rows.compute(id, current -> copy(item));
+
+        return id;
+    }
+
+    @Override
+    public Optional<UserEntity> put(final int id, final UserEntity item) {
+        final boolean[] refused = new boolean[1];
+        final UserEntity userEntity = rows.compute(id, current -> {
+            if (current == null) return null;
+
+            final UserEntity updated = copy(current);
+            if (item.getName() != null && !item.getName().equals(current.getName())) {
+                refused[0] = names.putIfAbsent(item.getName(), id) != null;
+                if (refused[0]) return current;
+
+                names.remove(current.getName(), id);
+                updated.setName(item.getName());
+            }
+            if (item.getPassword() != null) updated.setPassword(item.getPassword());
+            if (item.getRole() != null) updated.setRole(item.getRole());
+
+            return updated;
+        });
+
+        return refused[0] ? Optional.empty() : Optional.ofNullable(userEntity);
+    }
+
+    @Override
+    public Optional<UserEntity> delete(final int id) {
+        final UserEntity[] removed = new UserEntity[1];
+        rows.compute(id, current -> {
+            removed[0] = current;
+
+            return null;
+        });
+        if (removed[0] == null) return Optional.empty();
+
+        names.remove(removed[0].getName(), id);
+
+        return Optional.of(removed[0]);
+    }
+
+    private static UserEntity copy(final UserEntity source) {
+        final UserEntity userEntity = new UserEntity();
+        userEntity.setId(source.getId());
+        userEntity.setName(source.getName());
+        userEntity.setPassword(source.getPassword());
+        userEntity.setRole(source.getRole());
+
+        return userEntity;
+    }
+}
@@ -0,0 +1,245 @@
+package org.faya.sensei.middlewares;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses response entities with the encoding negotiated from {@code Accept-Encoding}. Only media types that compress
+ * well are encoded, event streams never are, and an entity is sent as is until it outgrows {@link #THRESHOLD}, so small
+ * payloads do not pay for the compression headers. The level steps down as the load of the machine rises.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionInterceptor implements WriterInterceptor {
+
+    public static final int THRESHOLD = 1024;
+
+    private static final Set<String> COMPRESSIBLE = Set.of(
+            MediaType.APPLICATION_JSON,
+            "application/cbor",
+            "application/javascript",
+            MediaType.TEXT_PLAIN,
+            MediaType.TEXT_HTML,
+            "text/css",
+            "text/javascript"
+    );
+
+    private static final String GZIP = "gzip";
+
+    private static final String DEFLATE = "deflate";
+
+    private static final long LOAD_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final OperatingSystemMXBean OPERATING_SYSTEM = ManagementFactory.getOperatingSystemMXBean();
+
+    private static volatile long loadSampledAt = System.nanoTime() - LOAD_SAMPLE_NANOS;
+
+    private static volatile int level = Deflater.DEFAULT_COMPRESSION;
+
+    @Context
+    private HttpHeaders httpHeaders;
+
+    @Override
+    public void aroundWriteTo(final WriterInterceptorContext context) throws IOException {
+        final MultivaluedMap<String, Object> headers = context.getHeaders();
+        if (!isCompressible(context.getMediaType()) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+
+        if (!headers.containsKey(HttpHeaders.VARY)) headers.putSingle(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        final String encoding = negotiate(httpHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            context.proceed();
+            return;
+        }
+
+        final CompressingOutputStream outputStream = new CompressingOutputStream(context.getOutputStream(), headers, encoding);
+        context.setOutputStream(outputStream);
+        context.proceed();
+        outputStream.finish();
+    }
+
+    private static boolean isCompressible(final MediaType mediaType) {
+        if (mediaType == null || mediaType.isCompatible(MediaType.SERVER_SENT_EVENTS_TYPE)) return false;
+
+        return COMPRESSIBLE.contains("%s/%s".formatted(mediaType.getType(), mediaType.getSubtype()).toLowerCase());
+    }
+
+    /**
+     * Pick gzip or deflate from the codings of an {@code Accept-Encoding} header by their quality, gzip on a tie.
+     *
+     * @param acceptEncoding The nullable header.
+     * @return The nullable coding, null when the entity is to be sent as is.
+     */
+    private static String negotiate(final String acceptEncoding) {
+        if (acceptEncoding == null) return null;
+
+        String encoding = null;
+        double quality = 0;
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            final String name = parameters[0].strip().toLowerCase();
+            final String candidate = name.equals("*") || name.equals("x-gzip") ? GZIP : name;
+            if (!candidate.equals(GZIP) && !candidate.equals(DEFLATE)) continue;
+
+            double candidateQuality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                final String parameter = parameters[i].strip();
+                if (!parameter.startsWith("q=")) continue;
+
+                try {
+                    candidateQuality = Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    candidateQuality = 0;
+                }
+            }
+
+            if (candidateQuality > quality || candidateQuality == quality && candidateQuality > 0 && candidate.equals(GZIP)) {
+                encoding = candidate;
+                quality = candidateQuality;
+            }
+        }
+
+        return encoding;
+    }
+
+    /**
+     * The compression level for the load of the machine, sampled at most once a second: the default level while
+     * processors are mostly idle, down to the fastest one once every processor is busy.
+     */
+    private static int level() {
+        final long now = System.nanoTime();
+        if (now - loadSampledAt < LOAD_SAMPLE_NANOS) return level;
+
+        final double load = OPERATING_SYSTEM.getSystemLoadAverage() / OPERATING_SYSTEM.getAvailableProcessors();
+        level = load < 0.5 ? Deflater.DEFAULT_COMPRESSION : load < 1 ? 3 : Deflater.BEST_SPEED;
+        loadSampledAt = now;
+
+        return level;
+    }
+
+    /**
+     * Holds back the first bytes of the entity, an entity that ends within the threshold is written as is, a larger
+     * one is compressed from its first byte, once the {@code Content-Encoding} header is set.
+     */
+    private static final class CompressingOutputStream extends OutputStream {
+
+        private final OutputStream outputStream;
+
+        private final MultivaluedMap<String, Object> headers;
+
+        private final String encoding;
+
+        private final byte[] pending = new byte[THRESHOLD];
+
+        private int pendingLength;
+
+        private Deflater deflater;
+
+        private DeflaterOutputStream compressed;
+
+        private boolean finished;
+
+        private CompressingOutputStream(final OutputStream outputStream, final MultivaluedMap<String, Object> headers, final String encoding) {
+            this.outputStream = outputStream;
+            this.headers = headers;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (compressed != null) {
+                compressed.write(b, off, len);
+                return;
+            }
+
+            if (pendingLength + len <= pending.length) {
+                System.arraycopy(b, off, pending, pendingLength, len);
+                pendingLength += len;
+                return;
+            }
+
+            start();
+            compressed.write(b, off, len);
+        }
+
+        /**
+         * Flush what is compressed so far, the bytes held back stay until the threshold is crossed or the entity ends.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (compressed != null) compressed.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        /**
+         * End the entity without closing the underlying stream, which belongs to the container.
+         */
+        private void finish() throws IOException {
+            if (finished) return;
+            finished = true;
+
+            if (compressed == null) {
+                outputStream.write(pending, 0, pendingLength);
+                return;
+            }
+
+            try {
+                compressed.finish();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private void start() throws IOException {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+            deflater = new Deflater(level(), encoding.equals(GZIP));
+            compressed = encoding.equals(GZIP)
+                    ? new GzipOutputStream(outputStream, deflater)
+                    : new DeflaterOutputStream(outputStream, deflater, 8192, true);
+            compressed.write(pending, 0, pendingLength);
+        }
+    }
+
+    /**
+     * A gzip stream over a deflater of the chosen level, {@link GZIPOutputStream} only takes its own default one.
+     */
+    private static final class GzipOutputStream extends GZIPOutputStream {
+
+        private GzipOutputStream(final OutputStream outputStream, final Deflater deflater) throws IOException {
+            super(outputStream, 8192, true);
+            def.end();
+            def = deflater;
+        }
+    }
+}
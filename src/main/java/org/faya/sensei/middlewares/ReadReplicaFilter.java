@@ -0,0 +1,53 @@
+package org.faya.sensei.middlewares;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.ext.Provider;
+import org.faya.sensei.repositories.ReadReplicaRouter;
+
+@Provider
+@Priority(Priorities.USER)
+public class ReadReplicaFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    @Inject
+    private ReadReplicaRouter readReplicaRouter;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        final String session = getSession(requestContext.getSecurityContext());
+
+        if (!isRead(requestContext.getMethod())) {
+            readReplicaRouter.recordWrite(session);
+        } else if (!requestContext.getUriInfo().getQueryParameters().containsKey("since")) {
+            // A delta is cut at a version of the change log of the primary, a lagging replica would miss changes.
+            readReplicaRouter.beginRead(session);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        try {
+            if (!isRead(requestContext.getMethod()))
+                readReplicaRouter.recordWrite(getSession(requestContext.getSecurityContext()));
+        } finally {
+            readReplicaRouter.end();
+        }
+    }
+
+    private static boolean isRead(final String method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+    }
+
+    private static String getSession(final SecurityContext securityContext) {
+        return securityContext != null && securityContext.getUserPrincipal() != null
+                ? securityContext.getUserPrincipal().getName()
+                : null;
+    }
+}
@@ -0,0 +1,28 @@
+package org.faya.sensei.middlewares;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Marks tagged responses as varying on the negotiated media type and encoding. An entity tag is the version of the
+ * resource, shared by its JSON, CBOR and compressed representations, so a cache must key the representations apart
+ * by the request headers they were negotiated from. Not modified responses carry it as well.
+ */
+@Provider
+@Priority(Priorities.HEADER_DECORATOR)
+public class VaryFilter implements ContainerResponseFilter {
+
+    public static final String VARY = "%s, %s".formatted(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+    @Override
+    public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext) {
+        final MultivaluedMap<String, Object> headers = responseContext.getHeaders();
+        if (headers.containsKey(HttpHeaders.ETAG)) headers.putSingle(HttpHeaders.VARY, VARY);
+    }
+}
@@ -0,0 +1,160 @@
+package org.faya.sensei.mvstore;
+
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.faya.sensei.repositories.IRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Project repository on MVStore, a row is {@code [name]} and the members are held by the membership indexes in both
+ * directions.
+ */
+public final class MVProjectRepository implements IRepository<ProjectEntity> {
+
+    private final MVStoreDatabase database;
+
+    MVProjectRepository(final MVStoreDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Collection<ProjectEntity> get() {
+        return database.projects.keyList().stream().map(this::find).toList();
+    }
+
+    @Override
+    public Optional<ProjectEntity> get(final int id) {
+        return Optional.ofNullable(find(id));
+    }
+
+    @Override
+    public Collection<ProjectEntity> getBy(final String key, final String value) {
+        return memberOf(key, value).stream().map(this::find).toList();
+    }
+
+    @Override
+    public <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        if (!ProjectDTO.class.equals(type)) return List.of();
+
+        return memberOf(key, value).stream()
+                .map(id -> type.cast(new ProjectDTO(
+                        id,
+                        (String) database.projects.get(id)[0],
+                        MVStoreDatabase.ids(database.projectUsers, id)
+                )))
+                .toList();
+    }
+
+    /**
+     * Create the project, its members have to be stored users.
+     */
+    @Override
+    public int post(final ProjectEntity item) {
+        if (item.getName() == null) return -1;
+
+        return database.write(() -> {
+            final List<Integer> userIds = memberIds(item.getUsers());
+            if (userIds == null) return -1;
+
+            final int id = database.nextId("projects");
+            database.projects.put(id, new Object[] { item.getName() });
+            userIds.forEach(userId -> join(id, userId));
+
+            item.setId(id);
+
+            return id;
+        });
+    }
+
+    @Override
+    public Optional<ProjectEntity> put(final int id, final ProjectEntity item) {
+        return database.write(() -> {
+            final Object[] row = database.projects.get(id);
+            if (row == null) return Optional.empty();
+
+            if (item.getUsers() != null) {
+                final List<Integer> userIds = memberIds(item.getUsers());
+                if (userIds == null) return Optional.empty();
+
+                MVStoreDatabase.ids(database.projectUsers, id).forEach(userId -> leave(id, userId));
+                userIds.forEach(userId -> join(id, userId));
+            }
+            if (item.getName() != null) database.projects.put(id, new Object[] { item.getName() });
+
+            return Optional.of(find(id));
+        });
+    }
+
+    /**
+     * Remove the project, refused while statuses or tasks still belong to it.
+     */
+    @Override
+    public Optional<ProjectEntity> delete(final int id) {
+        return database.write(() -> {
+            final ProjectEntity projectEntity = find(id);
+            if (projectEntity == null) return Optional.empty();
+            if (MVStoreDatabase.any(database.projectStatuses, id) || MVStoreDatabase.any(database.projectTasks, id))
+                return Optional.empty();
+
+            MVStoreDatabase.ids(database.projectUsers, id).forEach(userId -> leave(id, userId));
+            database.projects.remove(id);
+
+            return Optional.of(projectEntity);
+        });
+    }
+
+    ProjectEntity find(final Integer id) {
+        if (id == null) return null;
+
+        final Object[] row = database.projects.get(id);
+        if (row == null) return null;
+
+        final ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(id);
+        projectEntity.setName((String) row[0]);
+        projectEntity.setUsers(MVStoreDatabase.ids(database.projectUsers, id).stream()
+                .map(database.users()::find)
+                .filter(Objects::nonNull)
+                .toList());
+
+        return projectEntity;
+    }
+
+    private List<Integer> memberOf(final String key, final String value) {
+        final Integer userId = switch (key) {
+            case "users.id" -> Integer.valueOf(value);
+            case "users.name" -> database.userNames.get(value);
+            default -> null;
+        };
+        if (userId == null) return List.of();
+
+        return MVStoreDatabase.ids(database.userProjects, userId);
+    }
+
+    /**
+     * The ids of the members, or null when one of them is not a stored user.
+     */
+    private List<Integer> memberIds(final List<UserEntity> users) {
+        if (users == null) return List.of();
+
+        final List<Integer> userIds = users.stream().map(UserEntity::getId).distinct().toList();
+        if (userIds.stream().anyMatch(userId -> userId == null || !database.users.containsKey(userId))) return null;
+
+        return userIds;
+    }
+
+    private void join(final int projectId, final int userId) {
+        MVStoreDatabase.index(database.projectUsers, projectId, userId);
+        MVStoreDatabase.index(database.userProjects, userId, projectId);
+    }
+
+    private void leave(final int projectId, final int userId) {
+        MVStoreDatabase.unindex(database.projectUsers, projectId, userId);
+        MVStoreDatabase.unindex(database.userProjects, userId, projectId);
+    }
+}
@@ -0,0 +1,159 @@
+package org.faya.sensei.mvstore;
+
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.repositories.IRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Status repository on MVStore, a row is {@code [name, projectId]}. Status names are unique inside a project, the
+ * name index resolves them by {@code projectId + '\0' + name}.
+ */
+public final class MVStatusRepository implements IRepository<StatusEntity> {
+
+    private final MVStoreDatabase database;
+
+    MVStatusRepository(final MVStoreDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Collection<StatusEntity> get() {
+        return database.statuses.keyList().stream().map(this::find).toList();
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final int id) {
+        return Optional.ofNullable(find(id));
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final String key) {
+        return database.statuses.entrySet().stream()
+                .filter(entry -> key.equals(entry.getValue()[0]))
+                .findFirst()
+                .map(entry -> find(entry.getKey()));
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final String key, final String value, final String name) {
+        if (!key.equals("project.id") || name == null) return Optional.empty();
+
+        return Optional.ofNullable(database.statusNames.get(nameKey(Integer.parseInt(value), name))).map(this::find);
+    }
+
+    @Override
+    public Collection<StatusEntity> getBy(final String key, final String value) {
+        if (!key.equals("project.id")) return List.of();
+
+        return MVStoreDatabase.ids(database.projectStatuses, Integer.parseInt(value)).stream().map(this::find).toList();
+    }
+
+    @Override
+    public int post(final StatusEntity item) {
+        final Integer projectId = item.getProject() != null ? item.getProject().getId() : null;
+        if (item.getName() == null || projectId == null) return -1;
+
+        final int id = database.write(() -> {
+            if (!database.projects.containsKey(projectId)) return -1;
+            if (database.statusNames.containsKey(nameKey(projectId, item.getName()))) return -1;
+
+            final int statusId = database.nextId("statuses");
+            database.statuses.put(statusId, new Object[] { item.getName(), projectId });
+            database.statusNames.put(nameKey(projectId, item.getName()), statusId);
+            MVStoreDatabase.index(database.projectStatuses, projectId, statusId);
+
+            return statusId;
+        });
+        if (id < 0) return -1;
+
+        item.setId(id);
+        database.publish(database.transaction(), "statuses", "INSERT", id, projectId, LocalDateTime.now());
+
+        return id;
+    }
+
+    @Override
+    public Optional<StatusEntity> put(final int id, final StatusEntity item) {
+        final Optional<StatusEntity> statusEntity = database.write(() -> {
+            final StatusEntity current = find(id);
+            if (current == null) return Optional.empty();
+
+            final String name = item.getName() != null ? item.getName() : current.getName();
+            final int projectId = item.getProject() != null && item.getProject().getId() != null
+                    ? item.getProject().getId()
+                    : current.getProject().getId();
+            final String previousKey = nameKey(current.getProject().getId(), current.getName());
+
+            if (!nameKey(projectId, name).equals(previousKey)) {
+                if (!database.projects.containsKey(projectId)) return Optional.empty();
+                if (database.statusNames.putIfAbsent(nameKey(projectId, name), id) != null) return Optional.empty();
+
+                database.statusNames.remove(previousKey);
+            }
+
+            MVStoreDatabase.unindex(database.projectStatuses, current.getProject().getId(), id);
+            MVStoreDatabase.index(database.projectStatuses, projectId, id);
+            database.statuses.put(id, new Object[] { name, projectId });
+
+            return Optional.of(find(id));
+        });
+
+        statusEntity.ifPresent(status ->
+                database.publish(database.transaction(), "statuses", "UPDATE", id, status.getProject().getId(), LocalDateTime.now()));
+
+        return statusEntity;
+    }
+
+    /**
+     * Remove the status, refused while tasks are still in it.
+     */
+    @Override
+    public Optional<StatusEntity> delete(final int id) {
+        final Optional<StatusEntity> statusEntity = database.write(() -> {
+            final StatusEntity current = find(id);
+            if (current == null || MVStoreDatabase.any(database.statusTasks, id)) return Optional.empty();
+
+            database.statuses.remove(id);
+            database.statusNames.remove(nameKey(current.getProject().getId(), current.getName()));
+            MVStoreDatabase.unindex(database.projectStatuses, current.getProject().getId(), id);
+
+            return Optional.of(current);
+        });
+
+        statusEntity.ifPresent(status ->
+                database.publish(database.transaction(), "statuses", "DELETE", id, status.getProject().getId(), LocalDateTime.now()));
+
+        return statusEntity;
+    }
+
+    StatusEntity find(final Integer id) {
+        if (id == null) return null;
+
+        final Object[] row = database.statuses.get(id);
+        if (row == null) return null;
+
+        final StatusEntity statusEntity = new StatusEntity();
+        statusEntity.setId(id);
+        statusEntity.setName((String) row[0]);
+        statusEntity.setProject(database.projects().find((Integer) row[1]));
+
+        return statusEntity;
+    }
+
+    /**
+     * The name of a stored status, without loading its project.
+     */
+    String name(final Integer id) {
+        final Object[] row = id != null ? database.statuses.get(id) : null;
+
+        return row != null ? (String) row[0] : null;
+    }
+
+    private static String nameKey(final int projectId, final String name) {
+        return projectId + "\0" + name;
+    }
+}
@@ -0,0 +1,185 @@
+package org.faya.sensei.mvstore;
+
+import org.faya.sensei.repositories.ChangeFeed;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Key-value storage of users, projects, statuses and tasks on H2 MVStore maps, bypassing SQL and Hibernate. Every
+ * entity is one row keyed by id, and secondary-index maps stand in for the unique and foreign key indexes of the
+ * schema. A foreign key index holds {@code owner << 32 | id} keys, so the rows of one owner are one range scan.
+ * <p>
+ * Reads are lock-free, writes are serialised so a row and its index entries change together. Changes are made
+ * durable by the background commit of the store.
+ */
+public final class MVStoreDatabase implements AutoCloseable {
+
+    final MVStore store;
+
+    final MVMap<String, Integer> sequences;
+
+    final MVMap<Integer, Object[]> users;
+
+    final MVMap<String, Integer> userNames;
+
+    final MVMap<Integer, Object[]> projects;
+
+    final MVMap<Long, Boolean> projectUsers;
+
+    final MVMap<Long, Boolean> userProjects;
+
+    final MVMap<Integer, Object[]> statuses;
+
+    final MVMap<Long, Boolean> projectStatuses;
+
+    final MVMap<String, Integer> statusNames;
+
+    final MVMap<Integer, Object[]> tasks;
+
+    final MVMap<Long, Boolean> projectTasks;
+
+    final MVMap<Long, Boolean> statusTasks;
+
+    final MVMap<Long, Boolean> assignerTasks;
+
+    private final ChangeFeed changeFeed;
+
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    private final AtomicLong transactionSequence = new AtomicLong();
+
+    private final MVUserRepository userRepository = new MVUserRepository(this);
+
+    private final MVProjectRepository projectRepository = new MVProjectRepository(this);
+
+    private final MVStatusRepository statusRepository = new MVStatusRepository(this);
+
+    private final MVTaskRepository taskRepository = new MVTaskRepository(this);
+
+    /**
+     * @param fileName The file of the store, or null for a store in memory only.
+     * @param changeFeed The change feed the status and task changes are published to, or null.
+     */
+    public MVStoreDatabase(final String fileName, final ChangeFeed changeFeed) {
+        final MVStore.Builder builder = new MVStore.Builder();
+        if (fileName != null) builder.fileName(fileName);
+
+        this.store = builder.open();
+        this.changeFeed = changeFeed;
+
+        sequences = store.openMap("sequences");
+        users = store.openMap("users");
+        userNames = store.openMap("users.name");
+        projects = store.openMap("projects");
+        projectUsers = store.openMap("projects.users");
+        userProjects = store.openMap("users.projects");
+        statuses = store.openMap("statuses");
+        projectStatuses = store.openMap("statuses.project");
+        statusNames = store.openMap("statuses.name");
+        tasks = store.openMap("tasks");
+        projectTasks = store.openMap("tasks.project");
+        statusTasks = store.openMap("tasks.status");
+        assignerTasks = store.openMap("tasks.assigner");
+    }
+
+    public MVUserRepository users() {
+        return userRepository;
+    }
+
+    public MVProjectRepository projects() {
+        return projectRepository;
+    }
+
+    public MVStatusRepository statuses() {
+        return statusRepository;
+    }
+
+    public MVTaskRepository tasks() {
+        return taskRepository;
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * Run a write exclusively of the other writes.
+     */
+    synchronized <R> R write(final Supplier<R> work) {
+        return work.get();
+    }
+
+    /**
+     * Hand out the next id of a map, ids of removed rows are never handed out again. Only called inside a write.
+     */
+    int nextId(final String sequence) {
+        final int id = sequences.getOrDefault(sequence, 0) + 1;
+        sequences.put(sequence, id);
+
+        return id;
+    }
+
+    /**
+     * @return The id of a new write, the changes of one write are published under it.
+     */
+    long transaction() {
+        return transactionSequence.incrementAndGet();
+    }
+
+    void publish(
+            final long transactionId,
+            final String table,
+            final String operation,
+            final int id,
+            final Integer projectId,
+            final LocalDateTime changedAt
+    ) {
+        if (changeFeed == null) return;
+
+        changeFeed.emit(List.of(new ChangeFeed.Change(changeSequence.incrementAndGet(), table, operation, id, projectId, changedAt, transactionId)));
+    }
+
+    static long key(final int owner, final int id) {
+        return (long) owner << 32 | id;
+    }
+
+    static void index(final MVMap<Long, Boolean> index, final Integer owner, final int id) {
+        if (owner != null) index.put(key(owner, id), Boolean.TRUE);
+    }
+
+    static void unindex(final MVMap<Long, Boolean> index, final Integer owner, final int id) {
+        if (owner != null) index.remove(key(owner, id));
+    }
+
+    /**
+     * The ids indexed under the owner, in ascending order.
+     */
+    static List<Integer> ids(final MVMap<Long, Boolean> index, final int owner) {
+        final List<Integer> ids = new ArrayList<>();
+
+        final Cursor<Long, Boolean> cursor = index.cursor(key(owner, 0), key(owner, Integer.MAX_VALUE), false);
+        while (cursor.hasNext()) ids.add((int) (long) cursor.next());
+
+        return ids;
+    }
+
+    static boolean any(final MVMap<Long, Boolean> index, final int owner) {
+        return index.cursor(key(owner, 0), key(owner, Integer.MAX_VALUE), false).hasNext();
+    }
+
+    static String date(final LocalDateTime value) {
+        return value != null ? value.toString() : null;
+    }
+
+    static LocalDateTime date(final Object value) {
+        return value != null ? LocalDateTime.parse((String) value) : null;
+    }
+}
@@ -0,0 +1,336 @@
+package org.faya.sensei.mvstore;
+
+import jakarta.persistence.OptimisticLockException;
+import org.faya.sensei.entities.TaskEntity;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.repositories.IRepository;
+import org.h2.mvstore.MVMap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Task repository on MVStore, a row is {@code [title, description, startDate, endDate, projectId, statusId,
+ * assignerId, version]} and the project, status and assigner are each held by a foreign key index.
+ */
+public final class MVTaskRepository implements IRepository<TaskEntity> {
+
+    private static final int PROJECT = 4;
+
+    private static final int STATUS = 5;
+
+    private static final int ASSIGNER = 6;
+
+    private static final int VERSION = 7;
+
+    private final MVStoreDatabase database;
+
+    MVTaskRepository(final MVStoreDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Collection<TaskEntity> get() {
+        return database.tasks.keyList().stream().map(this::find).toList();
+    }
+
+    @Override
+    public Optional<TaskEntity> get(final int id) {
+        return Optional.ofNullable(find(id));
+    }
+
+    @Override
+    public Collection<TaskEntity> getBy(final String key, final String value) {
+        return ids(key, value).stream().map(this::find).toList();
+    }
+
+    @Override
+    public <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        if (!TaskDTO.class.equals(type)) return List.of();
+
+        final List<R> tasks = new ArrayList<>();
+        for (final int id : ids(key, value)) {
+            final Object[] row = database.tasks.get(id);
+            if (row == null) continue;
+
+            tasks.add(type.cast(new TaskDTO(
+                    id,
+                    (String) row[0],
+                    (String) row[1],
+                    MVStoreDatabase.date(row[2]),
+                    MVStoreDatabase.date(row[3]),
+                    database.statuses().name((Integer) row[STATUS]),
+                    (Integer) row[PROJECT],
+                    (Integer) row[ASSIGNER],
+                    (Integer) row[VERSION]
+            )));
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Create the task, its project, status and assigner have to be stored.
+     */
+    @Override
+    public int post(final TaskEntity item) {
+        final Object[] row = toRow(item, new Object[VERSION + 1]);
+        row[VERSION] = 0;
+        if (row[0] == null || row[PROJECT] == null) return -1;
+
+        final int id = database.write(() -> {
+            if (!references(row)) return -1;
+
+            final int taskId = database.nextId("tasks");
+            database.tasks.put(taskId, row);
+            index(taskId, row);
+
+            return taskId;
+        });
+        if (id < 0) return -1;
+
+        item.setId(id);
+        item.setVersion(0);
+        database.publish(database.transaction(), "tasks", "INSERT", id, (Integer) row[PROJECT], LocalDateTime.now());
+
+        return id;
+    }
+
+    /**
+     * Update the task, only the non-null fields of the item are assigned. When the item carries a version the task
+     * is only updated while its version still matches.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> put(final int id, final TaskEntity item) {
+        final Object[] row = database.write(() -> {
+            final Object[] current = database.tasks.get(id);
+            if (current == null) return null;
+            if (item.getVersion() != null && !item.getVersion().equals(current[VERSION]))
+                throw new OptimisticLockException("Task version mismatch.", null, find(id));
+
+            return update(id, current, item);
+        });
+        if (row == null) return Optional.empty();
+
+        database.publish(database.transaction(), "tasks", "UPDATE", id, (Integer) row[PROJECT], LocalDateTime.now());
+
+        return Optional.ofNullable(find(id));
+    }
+
+    /**
+     * Assign the named fields to the task, a named field null in the item is cleared. A task left as it is keeps its
+     * version and publishes no change.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> patch(final int id, final TaskEntity item, final Set<String> fields) {
+        final Object[][] previous = new Object[1][];
+        final Object[] row = database.write(() -> {
+            final Object[] current = database.tasks.get(id);
+            if (current == null) return null;
+            if (item.getVersion() != null && !item.getVersion().equals(current[VERSION]))
+                throw new OptimisticLockException("Task version mismatch.", null, find(id));
+
+            previous[0] = current;
+            final Object[] patched = current.clone();
+            fields.forEach(field -> assign(patched, item, field));
+            if (Arrays.equals(current, patched)) return current;
+            if (!references(patched)) return null;
+
+            patched[VERSION] = (Integer) current[VERSION] + 1;
+
+            unindex(id, current);
+            database.tasks.put(id, patched);
+            index(id, patched);
+
+            return patched;
+        });
+        if (row == null) return Optional.empty();
+
+        if (row != previous[0])
+            database.publish(database.transaction(), "tasks", "UPDATE", id, (Integer) row[PROJECT], LocalDateTime.now());
+
+        return Optional.ofNullable(find(id));
+    }
+
+    @Override
+    public int putBy(final String key, final String value, final TaskEntity item) {
+        final long transactionId = database.transaction();
+        final LocalDateTime changedAt = LocalDateTime.now();
+        final List<Object[]> rows = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+
+        database.write(() -> {
+            for (final int id : ids(key, value)) {
+                final Object[] row = update(id, database.tasks.get(id), item);
+                if (row == null) continue;
+
+                rows.add(row);
+                ids.add(id);
+            }
+
+            return rows.size();
+        });
+
+        for (int i = 0; i < ids.size(); i++)
+            database.publish(transactionId, "tasks", "UPDATE", ids.get(i), (Integer) rows.get(i)[PROJECT], changedAt);
+
+        return ids.size();
+    }
+
+    @Override
+    public Optional<TaskEntity> delete(final int id) {
+        final TaskEntity taskEntity = database.write(() -> {
+            final TaskEntity current = find(id);
+            if (current != null) remove(id);
+
+            return current;
+        });
+        if (taskEntity == null) return Optional.empty();
+
+        database.publish(database.transaction(), "tasks", "DELETE", id, taskEntity.getProject().getId(), LocalDateTime.now());
+
+        return Optional.of(taskEntity);
+    }
+
+    @Override
+    public int deleteBy(final String key, final String value) {
+        final long transactionId = database.transaction();
+        final LocalDateTime changedAt = LocalDateTime.now();
+        final List<Object[]> rows = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+
+        database.write(() -> {
+            for (final int id : ids(key, value)) {
+                final Object[] row = remove(id);
+                if (row == null) continue;
+
+                rows.add(row);
+                ids.add(id);
+            }
+
+            return rows.size();
+        });
+
+        for (int i = 0; i < ids.size(); i++)
+            database.publish(transactionId, "tasks", "DELETE", ids.get(i), (Integer) rows.get(i)[PROJECT], changedAt);
+
+        return ids.size();
+    }
+
+    TaskEntity find(final Integer id) {
+        if (id == null) return null;
+
+        final Object[] row = database.tasks.get(id);
+        if (row == null) return null;
+
+        final TaskEntity taskEntity = new TaskEntity();
+        taskEntity.setId(id);
+        taskEntity.setTitle((String) row[0]);
+        taskEntity.setDescription((String) row[1]);
+        taskEntity.setStartDate(MVStoreDatabase.date(row[2]));
+        taskEntity.setEndDate(MVStoreDatabase.date(row[3]));
+        taskEntity.setProject(database.projects().find((Integer) row[PROJECT]));
+        taskEntity.setStatus(database.statuses().find((Integer) row[STATUS]));
+        taskEntity.setAssigner(database.users().find((Integer) row[ASSIGNER]));
+        taskEntity.setVersion((Integer) row[VERSION]);
+
+        return taskEntity;
+    }
+
+    /**
+     * Assign the non-null fields of the item to the row and bump its version. Only called inside a write.
+     *
+     * @return The new row, or null when the task is missing or a reference is not stored.
+     */
+    private Object[] update(final int id, final Object[] current, final TaskEntity item) {
+        if (current == null) return null;
+
+        final Object[] row = toRow(item, current.clone());
+        if (!references(row)) return null;
+
+        row[VERSION] = (Integer) current[VERSION] + 1;
+
+        unindex(id, current);
+        database.tasks.put(id, row);
+        index(id, row);
+
+        return row;
+    }
+
+    /**
+     * Only called inside a write.
+     *
+     * @return The removed row, or null when the task is missing.
+     */
+    private Object[] remove(final int id) {
+        final Object[] row = database.tasks.remove(id);
+        if (row != null) unindex(id, row);
+
+        return row;
+    }
+
+    private List<Integer> ids(final String key, final String value) {
+        if (key.equals("id")) return database.tasks.containsKey(Integer.valueOf(value)) ? List.of(Integer.valueOf(value)) : List.of();
+
+        final MVMap<Long, Boolean> index = switch (key) {
+            case "project.id" -> database.projectTasks;
+            case "status.id" -> database.statusTasks;
+            case "assigner.id" -> database.assignerTasks;
+            default -> null;
+        };
+        if (index == null) return List.of();
+
+        return MVStoreDatabase.ids(index, Integer.parseInt(value));
+    }
+
+    private boolean references(final Object[] row) {
+        return database.projects.containsKey((Integer) row[PROJECT])
+                && (row[STATUS] == null || database.statuses.containsKey((Integer) row[STATUS]))
+                && (row[ASSIGNER] == null || database.users.containsKey((Integer) row[ASSIGNER]));
+    }
+
+    private void index(final int id, final Object[] row) {
+        MVStoreDatabase.index(database.projectTasks, (Integer) row[PROJECT], id);
+        MVStoreDatabase.index(database.statusTasks, (Integer) row[STATUS], id);
+        MVStoreDatabase.index(database.assignerTasks, (Integer) row[ASSIGNER], id);
+    }
+
+    private void unindex(final int id, final Object[] row) {
+        MVStoreDatabase.unindex(database.projectTasks, (Integer) row[PROJECT], id);
+        MVStoreDatabase.unindex(database.statusTasks, (Integer) row[STATUS], id);
+        MVStoreDatabase.unindex(database.assignerTasks, (Integer) row[ASSIGNER], id);
+    }
+
+    private static void assign(final Object[] row, final TaskEntity item, final String field) {
+        switch (field) {
+            case "title" -> row[0] = item.getTitle();
+            case "description" -> row[1] = item.getDescription();
+            case "startDate" -> row[2] = MVStoreDatabase.date(item.getStartDate());
+            case "endDate" -> row[3] = MVStoreDatabase.date(item.getEndDate());
+            case "status" -> row[STATUS] = item.getStatus() != null ? item.getStatus().getId() : null;
+            case "assigner" -> row[ASSIGNER] = item.getAssigner() != null ? item.getAssigner().getId() : null;
+            default -> throw new IllegalArgumentException("Task field %s cannot be patched.".formatted(field));
+        }
+    }
+
+    private static Object[] toRow(final TaskEntity item, final Object[] row) {
+        if (item.getTitle() != null) row[0] = item.getTitle();
+        if (item.getDescription() != null) row[1] = item.getDescription();
+        if (item.getStartDate() != null) row[2] = MVStoreDatabase.date(item.getStartDate());
+        if (item.getEndDate() != null) row[3] = MVStoreDatabase.date(item.getEndDate());
+        if (item.getProject() != null) row[PROJECT] = item.getProject().getId();
+        if (item.getStatus() != null) row[STATUS] = item.getStatus().getId();
+        if (item.getAssigner() != null) row[ASSIGNER] = item.getAssigner().getId();
+
+        return row;
+    }
+}
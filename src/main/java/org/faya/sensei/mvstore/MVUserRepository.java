@@ -0,0 +1,111 @@
+package org.faya.sensei.mvstore;
+
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.entities.UserRole;
+import org.faya.sensei.repositories.IRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * User repository on MVStore, a row is {@code [name, password, role]} and names are unique through the name index.
+ */
+public final class MVUserRepository implements IRepository<UserEntity> {
+
+    private final MVStoreDatabase database;
+
+    MVUserRepository(final MVStoreDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Collection<UserEntity> get() {
+        return database.users.keyList().stream().map(this::find).toList();
+    }
+
+    @Override
+    public Optional<UserEntity> get(final int id) {
+        return Optional.ofNullable(find(id));
+    }
+
+    @Override
+    public Optional<UserEntity> get(final String key) {
+        return Optional.ofNullable(database.userNames.get(key)).map(this::find);
+    }
+
+    @Override
+    public int post(final UserEntity item) {
+        if (item.getName() == null || item.getPassword() == null) return -1;
+
+        return database.write(() -> {
+            if (database.userNames.containsKey(item.getName())) return -1;
+
+            final int id = database.nextId("users");
+            database.users.put(id, toRow(item.getName(), item.getPassword(), item.getRole()));
+            database.userNames.put(item.getName(), id);
+
+            item.setId(id);
+
+            return id;
+        });
+    }
+
+    @Override
+    public Optional<UserEntity> put(final int id, final UserEntity item) {
+        return database.write(() -> {
+            final UserEntity userEntity = find(id);
+            if (userEntity == null) return Optional.empty();
+
+            if (item.getName() != null && !item.getName().equals(userEntity.getName())) {
+                if (database.userNames.containsKey(item.getName())) return Optional.empty();
+
+                database.userNames.remove(userEntity.getName());
+                database.userNames.put(item.getName(), id);
+                userEntity.setName(item.getName());
+            }
+            if (item.getPassword() != null) userEntity.setPassword(item.getPassword());
+            if (item.getRole() != null) userEntity.setRole(item.getRole());
+
+            database.users.put(id, toRow(userEntity.getName(), userEntity.getPassword(), userEntity.getRole()));
+
+            return Optional.of(userEntity);
+        });
+    }
+
+    /**
+     * Remove the user, refused while the user is a project member or a task assigner.
+     */
+    @Override
+    public Optional<UserEntity> delete(final int id) {
+        return database.write(() -> {
+            final UserEntity userEntity = find(id);
+            if (userEntity == null) return Optional.empty();
+            if (MVStoreDatabase.any(database.userProjects, id) || MVStoreDatabase.any(database.assignerTasks, id))
+                return Optional.empty();
+
+            database.users.remove(id);
+            database.userNames.remove(userEntity.getName());
+
+            return Optional.of(userEntity);
+        });
+    }
+
+    UserEntity find(final Integer id) {
+        if (id == null) return null;
+
+        final Object[] row = database.users.get(id);
+        if (row == null) return null;
+
+        final UserEntity userEntity = new UserEntity();
+        userEntity.setId(id);
+        userEntity.setName((String) row[0]);
+        userEntity.setPassword((String) row[1]);
+        userEntity.setRole(row[2] != null ? UserRole.valueOf((String) row[2]) : null);
+
+        return userEntity;
+    }
+
+    private static Object[] toRow(final String name, final String password, final UserRole role) {
+        return new Object[] { name, password, role != null ? role.name() : null };
+    }
+}
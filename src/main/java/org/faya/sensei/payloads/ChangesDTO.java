@@ -0,0 +1,46 @@
+package org.faya.sensei.payloads;
+
+import java.util.List;
+
+public final class ChangesDTO<T> {
+
+    private List<T> items;
+
+    private List<Integer> deletedIds;
+
+    private Long version;
+
+    public ChangesDTO() { }
+
+    public ChangesDTO(final List<T> items, final List<Integer> deletedIds, final Long version) {
+        this.items = items;
+        this.deletedIds = deletedIds;
+        this.version = version;
+    }
+
+    // Getters and Setters
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Integer> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
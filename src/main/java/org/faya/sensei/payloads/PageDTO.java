@@ -0,0 +1,35 @@
+package org.faya.sensei.payloads;
+
+import java.util.List;
+
+public final class PageDTO<T> {
+
+    private List<T> items;
+
+    private String next;
+
+    public PageDTO() { }
+
+    public PageDTO(final List<T> items, final String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Getters and Setters
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -1,6 +1,7 @@
 package org.faya.sensei.payloads;
 
 import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.UserEntity;
 
 import java.util.List;
 
@@ -14,13 +15,94 @@ public final class ProjectDTO {
 
     private List<TaskDTO> tasks;
 
+    private List<Integer> deletedTaskIds;
+
+    private Boolean delta;
+
+    private Long version;
+
+    public ProjectDTO() { }
+
+    public ProjectDTO(final Integer id, final String name, final List<Integer> ownerIds) {
+        this.id = id;
+        this.name = name;
+        this.ownerIds = ownerIds;
+    }
+
+    // Getters and Setters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Integer> getOwnerIds() {
+        return ownerIds;
+    }
+
+    public void setOwnerIds(List<Integer> ownerIds) {
+        this.ownerIds = ownerIds;
+    }
+
+    public List<TaskDTO> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskDTO> tasks) {
+        this.tasks = tasks;
+    }
+
+    public List<Integer> getDeletedTaskIds() {
+        return deletedTaskIds;
+    }
+
+    public void setDeletedTaskIds(List<Integer> deletedTaskIds) {
+        this.deletedTaskIds = deletedTaskIds;
+    }
+
+    public Boolean getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Boolean delta) {
+        this.delta = delta;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Converters
 
     public static ProjectEntity toEntity(final ProjectDTO projectDTO) {
-        return new ProjectEntity();
+        final ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setName(projectDTO.getName());
+
+        return projectEntity;
     }
 
     public static ProjectDTO fromEntity(final ProjectEntity projectEntity) {
-        return new ProjectDTO();
+        final ProjectDTO projectDTO = new ProjectDTO();
+        projectDTO.setId(projectEntity.getId());
+        projectDTO.setName(projectEntity.getName());
+        if (projectEntity.getUsers() != null)
+            projectDTO.setOwnerIds(projectEntity.getUsers().stream().map(UserEntity::getId).toList());
+
+        return projectDTO;
     }
 }
@@ -0,0 +1,58 @@
+package org.faya.sensei.payloads;
+
+import java.util.Map;
+
+public final class StatisticsDTO {
+
+    private Integer total;
+
+    private Integer unassigned;
+
+    private Integer overdue;
+
+    private Map<String, Integer> statuses;
+
+    private Map<String, Integer> assignees;
+
+    // Getters and Setters
+
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+
+    public Integer getUnassigned() {
+        return unassigned;
+    }
+
+    public void setUnassigned(Integer unassigned) {
+        this.unassigned = unassigned;
+    }
+
+    public Integer getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(Integer overdue) {
+        this.overdue = overdue;
+    }
+
+    public Map<String, Integer> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(Map<String, Integer> statuses) {
+        this.statuses = statuses;
+    }
+
+    public Map<String, Integer> getAssignees() {
+        return assignees;
+    }
+
+    public void setAssignees(Map<String, Integer> assignees) {
+        this.assignees = assignees;
+    }
+}
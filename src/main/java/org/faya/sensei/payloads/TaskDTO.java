@@ -22,13 +22,133 @@ public final class TaskDTO {
 
     private Integer assignerId;
 
+    private Integer version;
+
+    public TaskDTO() { }
+
+    public TaskDTO(
+            final Integer id,
+            final String title,
+            final String description,
+            final LocalDateTime startDate,
+            final LocalDateTime endDate,
+            final String status,
+            final Integer projectId,
+            final Integer assignerId,
+            final Integer version
+    ) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.projectId = projectId;
+        this.assignerId = assignerId;
+        this.version = version;
+    }
+
+    // Getters and Setters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Integer getAssignerId() {
+        return assignerId;
+    }
+
+    public void setAssignerId(Integer assignerId) {
+        this.assignerId = assignerId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     // Converters
 
     public static TaskEntity toEntity(final TaskDTO taskDTO) {
-        return new TaskEntity();
+        final TaskEntity taskEntity = new TaskEntity();
+        taskEntity.setTitle(taskDTO.getTitle());
+        taskEntity.setDescription(taskDTO.getDescription());
+        taskEntity.setStartDate(taskDTO.getStartDate());
+        taskEntity.setEndDate(taskDTO.getEndDate());
+
+        return taskEntity;
     }
 
     public static TaskDTO fromEntity(final TaskEntity taskEntity) {
-        return new TaskDTO();
+        final TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setId(taskEntity.getId());
+        taskDTO.setTitle(taskEntity.getTitle());
+        taskDTO.setDescription(taskEntity.getDescription());
+        taskDTO.setStartDate(taskEntity.getStartDate());
+        taskDTO.setEndDate(taskEntity.getEndDate());
+        if (taskEntity.getStatus() != null)
+            taskDTO.setStatus(taskEntity.getStatus().getName());
+        if (taskEntity.getProject() != null)
+            taskDTO.setProjectId(taskEntity.getProject().getId());
+        if (taskEntity.getAssigner() != null)
+            taskDTO.setAssignerId(taskEntity.getAssigner().getId());
+        taskDTO.setVersion(taskEntity.getVersion());
+
+        return taskDTO;
     }
 }
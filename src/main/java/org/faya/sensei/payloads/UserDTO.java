@@ -1,6 +1,7 @@
 package org.faya.sensei.payloads;
 
 import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.entities.UserRole;
 
 public final class UserDTO {
 
@@ -14,13 +15,67 @@ public final class UserDTO {
 
     private String token;
 
+    // Getters and Setters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
     // Converters
 
     public static UserEntity toEntity(final UserDTO userDTO) {
-        return new UserEntity();
+        final UserEntity userEntity = new UserEntity();
+        userEntity.setName(userDTO.getName());
+        userEntity.setPassword(userDTO.getPassword());
+        if (userDTO.getRole() != null)
+            userEntity.setRole(UserRole.valueOf(userDTO.getRole()));
+
+        return userEntity;
     }
 
     public static UserDTO fromEntity(final UserEntity userEntity) {
-        return new UserDTO();
+        final UserDTO userDTO = new UserDTO();
+        userDTO.setId(userEntity.getId());
+        userDTO.setName(userEntity.getName());
+        if (userEntity.getRole() != null)
+            userDTO.setRole(userEntity.getRole().name());
+
+        return userDTO;
     }
 }
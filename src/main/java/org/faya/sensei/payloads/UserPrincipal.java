@@ -10,10 +10,38 @@ public class UserPrincipal implements Principal {
 
     private String role;
 
+    public UserPrincipal() { }
+
+    public UserPrincipal(final Integer id, final String name, final String role) {
+        this.id = id;
+        this.name = name;
+        this.role = role;
+    }
+
     // Getters and Setters
 
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
     @Override
     public String getName() {
         return name;
     }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
 }
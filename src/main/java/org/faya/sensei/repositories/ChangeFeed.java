@@ -0,0 +1,403 @@
+package org.faya.sensei.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.Session;
+
+import java.lang.invoke.MethodHandles;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Change feed over the projects, tasks, statuses and project memberships. Database triggers append every row change
+ * to the {@code changes} table in the transaction of the write, and a single poller tails the table by its
+ * monotonically increasing sequence and publishes the committed changes, in sequence order, to the subscribers. Every
+ * write is seen, whichever node or connection made it, a transaction committing after later ones as soon as it
+ * commits. The table is kept for an hour, as the change log clients catch up from.
+ */
+public final class ChangeFeed implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private static final List<String> TABLES = List.of("projects", "tasks", "statuses", "projects_users");
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS changes (
+                seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                table_name VARCHAR(32) NOT NULL,
+                operation VARCHAR(8) NOT NULL,
+                row_id INT NOT NULL,
+                project_id INT,
+                changed_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL,
+                transaction_id BIGINT
+            )
+            """;
+
+    private static final String ADD_TRANSACTION_COLUMN =
+            "ALTER TABLE changes ADD COLUMN IF NOT EXISTS transaction_id BIGINT";
+
+    private static final String CREATE_INDEX =
+            "CREATE INDEX IF NOT EXISTS changes_project ON changes (project_id, seq)";
+
+    private static final String CREATE_TRIGGER =
+            "CREATE TRIGGER IF NOT EXISTS %1$s_changes AFTER INSERT, UPDATE, DELETE ON %1$s FOR EACH ROW CALL '%2$s'";
+
+    private static final String POLL_QUERY = """
+            SELECT seq, table_name, operation, row_id, project_id, changed_at, transaction_id
+            FROM changes
+            WHERE seq >= ?
+            ORDER BY seq
+            """;
+
+    private static final String PROJECT_QUERY = """
+            SELECT seq, table_name, operation, row_id, project_id, changed_at, transaction_id
+            FROM changes
+            WHERE project_id = ? AND seq > ? AND seq <= ?
+            ORDER BY seq
+            """;
+
+    private static final String HOLE_QUERY = """
+            SELECT seq, table_name, operation, row_id, project_id, changed_at, transaction_id
+            FROM changes
+            WHERE seq = ANY(?)
+            ORDER BY seq
+            """;
+
+    private static final String UNCOMMITTED_QUERY =
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE CONTAINS_UNCOMMITTED";
+
+    private static final int POLL_LIMIT = 1000;
+
+    /**
+     * A sequence is taken when the row is inserted but only visible once its transaction commits, so a hole in the
+     * sequence is waited on for this long before the poller moves past it. The hole is still looked up on every poll
+     * and its change published late, until no transaction that could have taken it is left open.
+     */
+    private static final long GAP_GRACE = Duration.ofSeconds(1).toNanos();
+
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private static final long PRUNE_INTERVAL = Duration.ofMinutes(1).toNanos();
+
+    /**
+     * One committed row change.
+     *
+     * @param sequence The position of the change in the feed.
+     * @param table The changed table.
+     * @param operation The operation, one of {@code INSERT}, {@code UPDATE} and {@code DELETE}.
+     * @param rowId The id of the changed row, the user id for project memberships.
+     * @param projectId The project of the changed row, the row itself for projects.
+     * @param changedAt The timestamp of the writing transaction, shared by all its changes.
+     * @param transactionId The id of the writing transaction, shared by all its changes.
+     */
+    public record Change(
+            long sequence,
+            String table,
+            String operation,
+            int rowId,
+            Integer projectId,
+            LocalDateTime changedAt,
+            long transactionId
+    ) { }
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Duration interval;
+
+    private final List<Consumer<List<Change>>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("change-feed-poller").daemon().factory()
+    );
+
+    private EntityManager entityManager;
+
+    private volatile long nextSequence;
+
+    /**
+     * The sequences the poller moved past without their change, with the time they were found.
+     */
+    private final NavigableMap<Long, LocalDateTime> holes = new ConcurrentSkipListMap<>();
+
+    private long gapSince;
+
+    private long prunedAt;
+
+    /**
+     * @param entityManagerFactory The factory of the primary database, the poller owns an entity manager of its own.
+     * @param interval The delay between two polls.
+     */
+    public ChangeFeed(final EntityManagerFactory entityManagerFactory, final Duration interval) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.interval = interval;
+    }
+
+    /**
+     * Install the change table and triggers when missing and start tailing after the last recorded change.
+     */
+    public void start() {
+        entityManager = entityManagerFactory.createEntityManager();
+
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            entityManager.createNativeQuery(CREATE_TABLE).executeUpdate();
+            entityManager.createNativeQuery(ADD_TRANSACTION_COLUMN).executeUpdate();
+            entityManager.createNativeQuery(CREATE_INDEX).executeUpdate();
+            for (final String table : TABLES)
+                entityManager.createNativeQuery(CREATE_TRIGGER.formatted(table, ChangeTrigger.class.getName()))
+                        .executeUpdate();
+
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) transaction.rollback();
+            throw e;
+        }
+
+        final Number last = (Number) entityManager
+                .createNativeQuery("SELECT COALESCE(MAX(seq), 0) FROM changes")
+                .getSingleResult();
+        nextSequence = last.longValue() + 1;
+        prunedAt = System.nanoTime();
+
+        final long delay = Math.max(interval.toMillis(), 1);
+        poller.scheduleWithFixedDelay(this::poll, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Receive every batch of changes polled from now on. Subscribers run on the poller thread, one after another.
+     *
+     * @param subscriber The consumer of the changes, in sequence order.
+     */
+    public void subscribe(final Consumer<List<Change>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * @return The sequence every change of the database up to has been published, the last polled change unless a
+     * hole below it may still be filled by an open transaction.
+     */
+    public long sequence() {
+        final Map.Entry<Long, LocalDateTime> hole = holes.firstEntry();
+
+        return (hole != null ? Math.min(hole.getKey(), nextSequence) : nextSequence) - 1;
+    }
+
+    /**
+     * Read the changes of one project back from the change table, on an entity manager of the calling thread.
+     *
+     * @param projectId The id of the project.
+     * @param since The sequence of the last change already seen.
+     * @param until The sequence of the last change to read, at most {@link #sequence()}.
+     * @return The changes in sequence order, empty when the table no longer reaches back to the sequence, as older
+     * changes are pruned, or when the sequence lies ahead of the feed.
+     */
+    public Optional<List<Change>> changes(final int projectId, final long since, final long until) {
+        if (since < 0 || since > until) return Optional.empty();
+
+        final EntityManager readEntityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            return readEntityManager.unwrap(Session.class).doReturningWork(connection -> {
+                final List<Change> changes = new ArrayList<>();
+                try (PreparedStatement statement = connection.prepareStatement(PROJECT_QUERY)) {
+                    statement.setInt(1, projectId);
+                    statement.setLong(2, since);
+                    statement.setLong(3, until);
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) changes.add(toChange(resultSet));
+                    }
+                }
+
+                // Read after the changes, so a prune in between is seen and the changes are not taken as complete.
+                try (PreparedStatement statement = connection.prepareStatement("SELECT MIN(seq) FROM changes");
+                     ResultSet resultSet = statement.executeQuery()) {
+                    final long first = resultSet.next() ? resultSet.getLong(1) : 0;
+
+                    return first == 0 && since == until || first > 0 && since >= first - 1
+                            ? Optional.of(List.copyOf(changes))
+                            : Optional.<List<Change>>empty();
+                }
+            });
+        } finally {
+            readEntityManager.close();
+        }
+    }
+
+    /**
+     * Publish changes of a store outside the database on the poller thread, in line with the polled changes. Their
+     * sequence is the position in the log of that store.
+     *
+     * @param changes The committed changes, in order.
+     */
+    public void emit(final List<Change> changes) {
+        try {
+            poller.execute(() -> publish(changes));
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.FINE, "Change feed is closed, dropping {0} changes.", changes.size());
+        }
+    }
+
+    /**
+     * Stop the poller and wait for it. When interrupted while waiting, the interrupt is kept on the calling thread.
+     * Unless the poller stopped, its entity manager is left open, as a poll may still be running on it.
+     */
+    @Override
+    public void close() {
+        poller.shutdownNow();
+
+        try {
+            if (!poller.awaitTermination(1, TimeUnit.MINUTES)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (entityManager != null) entityManager.close();
+    }
+
+    private void poll() {
+        try {
+            // Plain JDBC keeps the poll out of the statement log.
+            final List<Change> changes = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                final List<Change> rows = new ArrayList<>();
+
+                // Checked before reading, a hole known by then and still empty after is never filled.
+                final Set<Long> settled = !holes.isEmpty() && !uncommitted(connection)
+                        ? Set.copyOf(holes.keySet())
+                        : Set.of();
+                if (!holes.isEmpty()) rows.addAll(fillHoles(connection));
+                holes.keySet().removeAll(settled);
+                holes.values().removeIf(foundAt -> foundAt.isBefore(LocalDateTime.now().minus(RETENTION)));
+
+                try (PreparedStatement statement = connection.prepareStatement(POLL_QUERY)) {
+                    statement.setLong(1, nextSequence);
+                    statement.setMaxRows(POLL_LIMIT);
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            final Change change = toChange(resultSet);
+                            if (change.sequence() != nextSequence) {
+                                if (gapSince == 0) gapSince = System.nanoTime();
+                                if (System.nanoTime() - gapSince < GAP_GRACE) break;
+
+                                final LocalDateTime foundAt = LocalDateTime.now();
+                                for (long sequence = nextSequence; sequence < change.sequence(); sequence++)
+                                    holes.put(sequence, foundAt);
+                            }
+
+                            gapSince = 0;
+                            rows.add(change);
+                            nextSequence = change.sequence() + 1;
+                        }
+                    }
+                }
+
+                return rows;
+            });
+
+            if (!changes.isEmpty()) publish(List.copyOf(changes));
+            if (System.nanoTime() - prunedAt >= PRUNE_INTERVAL) prune();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to poll the change log.", e);
+        }
+    }
+
+    /**
+     * Read the changes committed into holes since the last poll and forget their holes.
+     */
+    private List<Change> fillHoles(final Connection connection) throws SQLException {
+        final List<Change> changes = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(HOLE_QUERY)) {
+            statement.setArray(1, connection.createArrayOf("BIGINT", holes.keySet().toArray()));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    final Change change = toChange(resultSet);
+                    holes.remove(change.sequence());
+                    changes.add(change);
+                }
+            }
+        }
+
+        if (!changes.isEmpty()) LOGGER.log(Level.FINE, "Publishing {0} changes committed late.", changes.size());
+
+        return changes;
+    }
+
+    /**
+     * @return Whether any session of the database holds uncommitted changes, which may fill a hole once committed.
+     */
+    private static boolean uncommitted(final Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UNCOMMITTED_QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() && resultSet.getLong(1) > 0;
+        }
+    }
+
+    private void publish(final List<Change> changes) {
+        for (final Consumer<List<Change>> subscriber : subscribers) {
+            try {
+                subscriber.accept(changes);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Change subscriber failed.", e);
+            }
+        }
+    }
+
+    private void prune() {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            // Never prune past the poller, an idle feed keeps its last change to go on numbering from.
+            entityManager.createNativeQuery("DELETE FROM changes WHERE changed_at < ?1 AND seq < ?2")
+                    .setParameter(1, LocalDateTime.now().minus(RETENTION))
+                    .setParameter(2, nextSequence - 1)
+                    .executeUpdate();
+
+            transaction.commit();
+            prunedAt = System.nanoTime();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) transaction.rollback();
+            throw e;
+        }
+    }
+
+    private static Change toChange(final ResultSet resultSet) throws SQLException {
+        return new Change(
+                resultSet.getLong("seq"),
+                resultSet.getString("table_name"),
+                resultSet.getString("operation"),
+                resultSet.getInt("row_id"),
+                resultSet.getObject("project_id", Integer.class),
+                resultSet.getObject("changed_at", LocalDateTime.class),
+                resultSet.getLong("transaction_id")
+        );
+    }
+}
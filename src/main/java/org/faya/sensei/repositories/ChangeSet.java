@@ -0,0 +1,11 @@
+package org.faya.sensei.repositories;
+
+import java.util.Set;
+
+/**
+ * The items of a project changed between two positions of the change log.
+ *
+ * @param version The position of the change log read up to.
+ * @param ids The ids of the items created, updated or deleted since, in the order of their first change.
+ */
+public record ChangeSet(long version, Set<Integer> ids) { }
@@ -0,0 +1,70 @@
+package org.faya.sensei.repositories;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * H2 row trigger appending every insert, update and delete of the watched tables to the change log, inside the
+ * transaction of the write, under the id of that transaction. It is installed by {@link ChangeFeed}.
+ */
+public class ChangeTrigger implements Trigger {
+
+    private static final String INSERT_CHANGE = """
+            INSERT INTO changes (table_name, operation, row_id, project_id, transaction_id)
+            VALUES (?, ?, ?, ?, TRANSACTION_ID())
+            """;
+
+    private String table;
+
+    private int rowColumn = -1;
+
+    private int projectColumn = -1;
+
+    @Override
+    public void init(
+            final Connection connection,
+            final String schemaName,
+            final String triggerName,
+            final String tableName,
+            final boolean before,
+            final int type
+    ) throws SQLException {
+        table = tableName;
+
+        // The membership table has no id of its own, its row is identified by the member.
+        final String rowColumnName = "projects_users".equals(tableName) ? "user_id" : "id";
+
+        try (ResultSet columns = connection.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (columns.next()) {
+                final String columnName = columns.getString("COLUMN_NAME");
+                final int position = columns.getInt("ORDINAL_POSITION") - 1;
+
+                if (rowColumnName.equalsIgnoreCase(columnName)) rowColumn = position;
+                if ("project_id".equalsIgnoreCase(columnName)) projectColumn = position;
+            }
+        }
+
+        if (rowColumn < 0) throw new SQLException("Table %s has no %s column.".formatted(tableName, rowColumnName));
+
+        // A project is the project of its own changes.
+        if ("projects".equals(tableName)) projectColumn = rowColumn;
+    }
+
+    @Override
+    public void fire(final Connection connection, final Object[] oldRow, final Object[] newRow) throws SQLException {
+        final Object[] row = newRow != null ? newRow : oldRow;
+        final String operation = oldRow == null ? "INSERT" : newRow == null ? "DELETE" : "UPDATE";
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_CHANGE)) {
+            statement.setString(1, table);
+            statement.setString(2, operation);
+            statement.setObject(3, row[rowColumn]);
+            statement.setObject(4, projectColumn >= 0 ? row[projectColumn] : null);
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.faya.sensei.repositories;
+
+import jakarta.persistence.EntityManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Gives units of work an entity manager of their own. The entity manager bound for the repositories delegates to the
+ * entity manager of the unit of work running on the calling thread, and to the shared entity manager outside of one.
+ * Work off the request threads, such as the subscribers of the change feed, runs in a unit of work, since the shared
+ * entity manager is not safe for concurrent use.
+ */
+public final class EntityManagerScope {
+
+    private final EntityManager sharedEntityManager;
+
+    private final Supplier<EntityManager> entityManagerOpener;
+
+    private final ThreadLocal<EntityManager> scopedEntityManagers = new ThreadLocal<>();
+
+    /**
+     * @param sharedEntityManager The entity manager used outside a unit of work.
+     * @param entityManagerOpener Opens the entity manager of a unit of work.
+     */
+    public EntityManagerScope(final EntityManager sharedEntityManager, final Supplier<EntityManager> entityManagerOpener) {
+        this.sharedEntityManager = sharedEntityManager;
+        this.entityManagerOpener = entityManagerOpener;
+    }
+
+    /**
+     * Run the work on an entity manager of its own, which is closed once the work returns.
+     *
+     * @param work The work.
+     */
+    public void run(final Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the work on an entity manager of its own, which is closed once the work returns.
+     *
+     * @param work The work.
+     * @return The result of the work.
+     */
+    public <T> T call(final Supplier<T> work) {
+        final EntityManager entityManager = entityManagerOpener.get();
+
+        try {
+            return call(entityManager, work);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Open a stream on an entity manager of its own, which stays open until the stream is closed. A stream written out
+     * after its request returned keeps its cursor off the shared entity manager and outlives the request.
+     *
+     * @param work Opens the stream.
+     * @return The stream, it closes the entity manager when closed.
+     */
+    public <T> Stream<T> stream(final Supplier<Stream<T>> work) {
+        final EntityManager entityManager = entityManagerOpener.get();
+
+        try {
+            return call(entityManager, work).onClose(entityManager::close);
+        } catch (RuntimeException e) {
+            entityManager.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve the entity manager of the current thread.
+     *
+     * @return The entity manager of the running unit of work, or the shared one outside of one.
+     */
+    public EntityManager current() {
+        final EntityManager entityManager = scopedEntityManagers.get();
+
+        return entityManager != null ? entityManager : sharedEntityManager;
+    }
+
+    /**
+     * Create an entity manager which delegates every call to the entity manager of the current thread, it is bound in
+     * place of the shared entity manager so the repositories stay unaware of the units of work.
+     *
+     * @return The scoped entity manager.
+     */
+    public EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(),
+                new Class<?>[] { EntityManager.class },
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(current(), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+        );
+    }
+
+    private <R> R call(final EntityManager entityManager, final Supplier<R> work) {
+        final EntityManager outer = scopedEntityManagers.get();
+        scopedEntityManagers.set(entityManager);
+
+        try {
+            return work.get();
+        } finally {
+            if (outer != null) scopedEntityManagers.set(outer);
+            else scopedEntityManagers.remove();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.faya.sensei.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Group-commit pipeline for mutations. Mutations are enqueued to a bounded queue and a single writer drains them in
+ * batches of up to a batch size or a delay, whichever comes first, and runs each batch in one transaction. When a
+ * batch fails it is rolled back and its mutations are retried one transaction each, so a bad mutation only fails its
+ * own caller. The writer runs the mutations on an entity manager of its own, which is never touched by another
+ * thread, and clears it after every batch.
+ */
+public final class GroupCommitPipeline implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private final EntityManager entityManager;
+
+    private final int batchSize;
+
+    private final long delay;
+
+    private final BlockingQueue<Mutation<?>> queue;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param entityManagerFactory The factory of the entity manager the mutations run on.
+     * @param batchSize The maximum number of mutations in one transaction, the pipeline is disabled below two.
+     * @param delay The maximum time the first mutation of a batch waits for others.
+     * @param capacity The capacity of the queue, callers block while it is full.
+     */
+    public GroupCommitPipeline(
+            final EntityManagerFactory entityManagerFactory,
+            final int batchSize,
+            final Duration delay,
+            final int capacity
+    ) {
+        this.batchSize = batchSize;
+        this.delay = delay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+
+        if (isEnabled()) {
+            entityManager = entityManagerFactory.createEntityManager();
+            writer = Thread.ofPlatform().name("group-commit-writer").daemon().start(this::drain);
+        } else {
+            entityManager = null;
+            writer = null;
+        }
+    }
+
+    /**
+     * Check whether mutations are grouped at all.
+     *
+     * @return True when a batch may hold more than one mutation.
+     */
+    public boolean isEnabled() {
+        return batchSize > 1;
+    }
+
+    /**
+     * Enqueue a mutation, blocking while the queue is full.
+     *
+     * @param work The mutation, it runs inside the transaction of its batch on the entity manager of the pipeline.
+     *             Entities it returns are detached once the batch completes.
+     * @return The stage completed with the result of the mutation once its batch committed.
+     */
+    public <R> CompletionStage<R> submit(final Function<EntityManager, R> work) {
+        final Mutation<R> mutation = new Mutation<>(work);
+        if (!running) {
+            mutation.fail(new IllegalStateException("Group-commit pipeline is closed."));
+            return mutation.result;
+        }
+
+        try {
+            queue.put(mutation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            mutation.fail(e);
+        }
+
+        return mutation.result;
+    }
+
+    /**
+     * Stop the writer and wait for it, the mutations still queued are failed. When interrupted while waiting, the
+     * interrupt is kept on the calling thread and the writer stops on its own.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (writer == null) return;
+
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        final List<Mutation<?>> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+
+                final long deadline = System.nanoTime() + delay;
+                while (batch.size() < batchSize) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+
+                    final Mutation<?> mutation = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (mutation == null) break;
+
+                    batch.add(mutation);
+                }
+            } catch (InterruptedException e) {
+                if (!running) break;
+            }
+
+            if (!batch.isEmpty()) commit(batch);
+            batch.clear();
+        }
+
+        queue.drainTo(batch);
+        batch.forEach(mutation -> mutation.fail(new IllegalStateException("Group-commit pipeline is closed.")));
+        entityManager.close();
+    }
+
+    private void commit(final List<Mutation<?>> batch) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+            batch.forEach(mutation -> mutation.apply(entityManager));
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+
+            // The rolled back batch leaves its entities managed, they have to be loaded again.
+            entityManager.clear();
+
+            if (batch.size() == 1) {
+                batch.getFirst().fail(e);
+            } else {
+                LOGGER.log(Level.FINE, "Group commit of {0} mutations failed, retrying one by one.", batch.size());
+                batch.forEach(mutation -> commit(List.of(mutation)));
+            }
+
+            return;
+        }
+
+        entityManager.clear();
+        batch.forEach(Mutation::complete);
+    }
+
+    private static final class Mutation<R> {
+
+        private final Function<EntityManager, R> work;
+
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private R value;
+
+        private Mutation(final Function<EntityManager, R> work) {
+            this.work = work;
+        }
+
+        private void apply(final EntityManager entityManager) {
+            value = work.apply(entityManager);
+        }
+
+        private void complete() {
+            result.complete(value);
+        }
+
+        private void fail(final Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+}
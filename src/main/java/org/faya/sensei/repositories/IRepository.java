@@ -3,6 +3,8 @@ package org.faya.sensei.repositories;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface IRepository<T> {
     /**
@@ -24,6 +26,16 @@ public interface IRepository<T> {
         return Optional.empty();
     }
 
+    /**
+     * Fetch the optimistic lock version of an item by primary key, without the item.
+     *
+     * @param id The primary key of the item.
+     * @return The version, empty when the item is missing or not versioned.
+     */
+    default Optional<Integer> getVersion(final int id) {
+        return Optional.empty();
+    }
+
     /**
      * Fetch an item from storage by unique key.
      *
@@ -34,6 +46,18 @@ public interface IRepository<T> {
         return Optional.empty();
     }
 
+    /**
+     * Fetch an item from storage by a unique key that is only unique inside its foreign key.
+     *
+     * @param key The name of the foreign key.
+     * @param value The query value of the foreign key.
+     * @param name The unique key of the item inside the foreign key.
+     * @return The item.
+     */
+    default Optional<T> get(final String key, final String value, final String name) {
+        return Optional.empty();
+    }
+
     /**
      * Fetch an item from storage based on foreign key name.
      *
@@ -45,6 +69,70 @@ public interface IRepository<T> {
         return List.of();
     }
 
+    /**
+     * Fetch a projection of items from storage based on foreign key name. The projection is selected straight into
+     * the target shape, so no managed item is created.
+     *
+     * @param key The name of the foreign key.
+     * @param value The query value of the foreign key.
+     * @param type The class of the projection.
+     * @return The collection of projections.
+     */
+    default <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        return List.of();
+    }
+
+    /**
+     * Stream a projection of items from storage based on foreign key name. Stores backed by a database read the items
+     * from a forward-only cursor as the stream is consumed, so the stream must be closed to release it.
+     *
+     * @param key The name of the foreign key.
+     * @param value The query value of the foreign key.
+     * @param type The class of the projection.
+     * @return The stream of projections.
+     */
+    default <R> Stream<R> stream(final String key, final String value, final Class<R> type) {
+        return getBy(key, value, type).stream();
+    }
+
+    /**
+     * Stream a projection of items from storage based on foreign key name, reading only the requested fields. Stores
+     * which cannot narrow what they read return every field.
+     *
+     * @param key The name of the foreign key.
+     * @param value The query value of the foreign key.
+     * @param type The class of the projection.
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @return The stream of projections.
+     */
+    default <R> Stream<R> stream(final String key, final String value, final Class<R> type, final Set<String> fields) {
+        return stream(key, value, type);
+    }
+
+    /**
+     * Fetch one page of a projection of the items of a project. Stores which cannot run the page as a query read the
+     * projection of the whole project and evaluate the page over it.
+     *
+     * @param request The filters, order and position of the page.
+     * @param type The class of the projection.
+     * @return The projections of the page in order.
+     */
+    default <R> List<R> getPage(final PageRequest request, final Class<R> type) {
+        return request.select(getBy("project.id", String.valueOf(request.projectId()), type), type);
+    }
+
+    /**
+     * Fetch the ids of the items of a project changed after a position of the change log, up to its latest position.
+     *
+     * @param projectId The id of the project.
+     * @param since The position of the change log the caller is up to date with.
+     * @return The changed ids, empty when the log no longer reaches back to the position, when changes other than
+     * those of the items were made since, or when the store keeps no log.
+     */
+    default Optional<ChangeSet> getChanges(final int projectId, final long since) {
+        return Optional.empty();
+    }
+
     /**
      * Save an item to storage.
      *
@@ -62,6 +150,31 @@ public interface IRepository<T> {
      */
     Optional<T> put(final int id, T item);
 
+    /**
+     * Update the named fields of an item, a field named but null in the item is cleared. Only the fields whose value
+     * changes are written, an item left as it is is not written at all.
+     *
+     * @param id The id of the item.
+     * @param item The updated values.
+     * @param fields The names of the fields to assign, repositories without patches ignore the fields set to null.
+     * @return The updated item.
+     */
+    default Optional<T> patch(final int id, final T item, final Set<String> fields) {
+        return put(id, item);
+    }
+
+    /**
+     * Update all items matched by foreign key name with one set-based statement.
+     *
+     * @param key The name of the foreign key.
+     * @param value The query value of the foreign key.
+     * @param item The updated values, only the non-null fields are assigned.
+     * @return The number of updated items.
+     */
+    default int putBy(final String key, final String value, final T item) {
+        return 0;
+    }
+
     /**
      * Remove an item from storage according to id.
      *
@@ -69,4 +182,15 @@ public interface IRepository<T> {
      * @return The removed item.
      */
     Optional<T> delete(final int id);
+
+    /**
+     * Remove all items matched by foreign key name with one set-based statement.
+     *
+     * @param key The name of the foreign key.
+     * @param value The query value of the foreign key.
+     * @return The number of removed items.
+     */
+    default int deleteBy(final String key, final String value) {
+        return 0;
+    }
 }
@@ -0,0 +1,154 @@
+package org.faya.sensei.repositories;
+
+import org.faya.sensei.payloads.TaskDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * One page of the tasks of a project matching every filter, ordered by a field and then by id, starting after the
+ * last task of the previous page. The position is a keyset rather than an offset, so a deep page costs as much as the
+ * first one and writes between two pages neither skip nor repeat tasks.
+ *
+ * @param projectId The id of the project.
+ * @param status The nullable name of the status of the tasks.
+ * @param assignerId The nullable id of the assigner of the tasks.
+ * @param from The nullable start of the window the period of the tasks overlaps, open when null.
+ * @param to The nullable end of the window the period of the tasks overlaps, open when null.
+ * @param sort The field to order by, one of {@link #SORTS}, tasks without a value come last.
+ * @param descending Whether the tasks are ordered from the highest value.
+ * @param after The nullable position of the last task of the previous page, the first page when null.
+ * @param limit The maximum number of tasks.
+ * @param fields The nullable names of the fields to read, every field when null.
+ */
+public record PageRequest(
+        int projectId,
+        String status,
+        Integer assignerId,
+        LocalDateTime from,
+        LocalDateTime to,
+        String sort,
+        boolean descending,
+        Position after,
+        int limit,
+        Set<String> fields
+) {
+
+    public static final List<String> SORTS = List.of("id", "title", "startDate", "endDate");
+
+    public PageRequest(
+            final int projectId,
+            final String status,
+            final Integer assignerId,
+            final LocalDateTime from,
+            final LocalDateTime to,
+            final String sort,
+            final boolean descending,
+            final Position after,
+            final int limit
+    ) {
+        this(projectId, status, assignerId, from, to, sort, descending, after, limit, null);
+    }
+
+    /**
+     * The place of a task in the order.
+     *
+     * @param value The nullable value of the sort field of the task.
+     * @param id The id of the task.
+     */
+    public record Position(Object value, int id) { }
+
+    /**
+     * Encode the position of the task as an opaque cursor, only valid for the same order.
+     */
+    public String cursor(final TaskDTO task) {
+        final Object value = value(task);
+        final String position = "%s\n%d\n%s".formatted(order(), task.getId(), value != null ? "=" + value : "");
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor of the order.
+     *
+     * @param sort The field to order by.
+     * @param descending Whether the tasks are ordered from the highest value.
+     * @param cursor The cursor.
+     * @return The position, or empty when the cursor is malformed or taken from another order.
+     */
+    public static Optional<Position> position(final String sort, final boolean descending, final String cursor) {
+        try {
+            final String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\n", 3);
+            if (position.length != 3 || !position[0].equals((descending ? "-" : "") + sort)) return Optional.empty();
+
+            final int id = Integer.parseInt(position[1]);
+            if (position[2].isEmpty()) return Optional.of(new Position(sort.equals("id") ? id : null, id));
+
+            final String value = position[2].substring(1);
+            return Optional.of(new Position(switch (sort) {
+                case "id" -> id;
+                case "title" -> value;
+                default -> LocalDateTime.parse(value);
+            }, id));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Evaluate the page over tasks already read, for the stores which cannot run it as a query.
+     *
+     * @param tasks The projections of the tasks of the project.
+     * @param type The class of the projection.
+     * @return The tasks of the page.
+     */
+    public <R> List<R> select(final Collection<R> tasks, final Class<R> type) {
+        final Comparator<Position> order = order(descending);
+
+        return tasks.stream()
+                .map(TaskDTO.class::cast)
+                .filter(this::matches)
+                .filter(task -> after == null || order.compare(new Position(value(task), task.getId()), after) > 0)
+                .sorted(Comparator.comparing(task -> new Position(value(task), task.getId()), order))
+                .limit(limit)
+                .map(type::cast)
+                .toList();
+    }
+
+    private boolean matches(final TaskDTO task) {
+        return task.getProjectId() != null && task.getProjectId() == projectId
+                && (status == null || status.equals(task.getStatus()))
+                && (assignerId == null || assignerId.equals(task.getAssignerId()))
+                && (from == null || task.getEndDate() == null || !task.getEndDate().isBefore(from))
+                && (to == null || task.getStartDate() == null || !task.getStartDate().isAfter(to));
+    }
+
+    private Object value(final TaskDTO task) {
+        return switch (sort) {
+            case "id" -> task.getId();
+            case "title" -> task.getTitle();
+            case "startDate" -> task.getStartDate();
+            default -> task.getEndDate();
+        };
+    }
+
+    private String order() {
+        return (descending ? "-" : "") + sort;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Comparator<Position> order(final boolean descending) {
+        final Comparator<Comparable> direction = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+
+        return Comparator.comparing((Position position) -> (Comparable) position.value(), Comparator.nullsLast(direction))
+                .thenComparing(position -> (Comparable) position.id(), direction);
+    }
+}
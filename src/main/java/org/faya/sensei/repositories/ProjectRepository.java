@@ -0,0 +1,152 @@
+package org.faya.sensei.repositories;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class ProjectRepository implements IRepository<ProjectEntity> {
+
+    /**
+     * Select projects straight into {@link ProjectDTO} shape, the owner ids are aggregated by the database from the
+     * {@code projects_users} join table.
+     */
+    private static final String PROJECTION_QUERY = """
+            SELECT p.id, p.name, LISTAGG(CAST(o.user_id AS VARCHAR), ',') WITHIN GROUP (ORDER BY o.user_id)
+            FROM projects p
+            LEFT JOIN projects_users o ON o.project_id = p.id
+            WHERE p.id IN (%s)
+            GROUP BY p.id, p.name
+            ORDER BY p.id
+            """;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Override
+    public Collection<ProjectEntity> get() {
+        return entityManager.createQuery("SELECT p FROM ProjectEntity p", ProjectEntity.class).getResultList();
+    }
+
+    @Override
+    public Optional<ProjectEntity> get(final int id) {
+        final ProjectEntity projectEntity = entityManager.find(ProjectEntity.class, id);
+        // A rename made by another node only reaches the database, the persistence context would keep the old name.
+        if (projectEntity != null) entityManager.refresh(projectEntity);
+
+        return Optional.ofNullable(projectEntity);
+    }
+
+    @Override
+    public Collection<ProjectEntity> getBy(final String key, final String value) {
+        return switch (key) {
+            case "users.id" -> entityManager
+                    .createQuery("SELECT DISTINCT p FROM ProjectEntity p JOIN p.users u WHERE u.id = :value", ProjectEntity.class)
+                    .setParameter("value", Integer.parseInt(value))
+                    .getResultList();
+            case "users.name" -> entityManager
+                    .createQuery("SELECT DISTINCT p FROM ProjectEntity p JOIN p.users u WHERE u.name = :value", ProjectEntity.class)
+                    .setParameter("value", value)
+                    .getResultList();
+            default -> List.of();
+        };
+    }
+
+    @Override
+    public <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        try (final Stream<R> projects = stream(key, value, type)) {
+            return projects.toList();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Stream<R> stream(final String key, final String value, final Class<R> type) {
+        if (!ProjectDTO.class.equals(type)) return Stream.empty();
+
+        final String filter = switch (key) {
+            case "users.id" -> "SELECT pu.project_id FROM projects_users pu WHERE pu.user_id = CAST(:value AS INTEGER)";
+            case "users.name" -> "SELECT pu.project_id FROM projects_users pu JOIN users u ON u.id = pu.user_id WHERE u.name = :value";
+            default -> null;
+        };
+        if (filter == null) return Stream.empty();
+
+        final Stream<Object[]> rows = entityManager.createNativeQuery(PROJECTION_QUERY.formatted(filter))
+                .setParameter("value", value)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+
+        return rows.map(row -> type.cast(new ProjectDTO(
+                ((Number) row[0]).intValue(),
+                (String) row[1],
+                row[2] == null ? List.of() : Arrays.stream(((String) row[2]).split(","))
+                        .map(Integer::valueOf)
+                        .toList()
+        )));
+    }
+
+    @Override
+    public int post(final ProjectEntity item) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+            entityManager.persist(item);
+            transaction.commit();
+
+            return item.getId();
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return -1;
+        }
+    }
+
+    @Override
+    public Optional<ProjectEntity> put(final int id, final ProjectEntity item) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            final ProjectEntity projectEntity = entityManager.find(ProjectEntity.class, id);
+            if (projectEntity != null) {
+                if (item.getName() != null) projectEntity.setName(item.getName());
+                if (item.getUsers() != null) projectEntity.setUsers(item.getUsers());
+            }
+
+            transaction.commit();
+
+            return Optional.ofNullable(projectEntity);
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<ProjectEntity> delete(final int id) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            final ProjectEntity projectEntity = entityManager.find(ProjectEntity.class, id);
+            if (projectEntity != null) entityManager.remove(projectEntity);
+
+            transaction.commit();
+
+            return Optional.ofNullable(projectEntity);
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.faya.sensei.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes the repository reads of a request to a read-only replica. Writes always stay on the primary, and a session
+ * which wrote keeps reading from the primary until the replica caught up with its writes, so every session reads its
+ * own writes.
+ * <p>
+ * The position of a write is the last sequence of the change log of the primary once the write returned, the replica
+ * caught up when its copy of the change log reached it. Writes outside the change log, such as those of users, have no
+ * position of their own, for them the replication lag is a best-effort bound: a session keeps reading the primary for
+ * at least that long after any write.
+ */
+public final class ReadReplicaRouter {
+
+    private final EntityManager primaryEntityManager;
+
+    private final EntityManagerFactory replicaEntityManagerFactory;
+
+    private final long replicationLag;
+
+    private static final String POSITION_QUERY = "SELECT COALESCE(MAX(seq), 0) FROM changes";
+
+    private final Map<String, Write> lastWrites = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Boolean> replicaReads = ThreadLocal.withInitial(() -> false);
+
+    private final ThreadLocal<EntityManager> replicaEntityManagers = new ThreadLocal<>();
+
+    public ReadReplicaRouter(
+            final EntityManager primaryEntityManager,
+            final EntityManagerFactory replicaEntityManagerFactory,
+            final Duration replicationLag
+    ) {
+        this.primaryEntityManager = primaryEntityManager;
+        this.replicaEntityManagerFactory = replicaEntityManagerFactory;
+        this.replicationLag = replicationLag.toMillis();
+    }
+
+    /**
+     * Route the reads of the current request to the replica, unless the session wrote recently.
+     *
+     * @param session The session of the request, or null for an anonymous request.
+     */
+    public void beginRead(final String session) {
+        replicaReads.set(session == null || !isRecentWriter(session));
+    }
+
+    /**
+     * Mark the session as a recent writer, its reads stay on the primary until the replica caught up.
+     *
+     * @param session The session of the request, or null for an anonymous request.
+     */
+    public void recordWrite(final String session) {
+        if (session == null) return;
+
+        final long position = position(primaryEntityManager.getEntityManagerFactory());
+        lastWrites.put(session, new Write(position, System.currentTimeMillis()));
+    }
+
+    /**
+     * Release the replica entity manager of the current request and fall back to the primary.
+     */
+    public void end() {
+        replicaReads.remove();
+
+        final EntityManager replicaEntityManager = replicaEntityManagers.get();
+        if (replicaEntityManager != null) {
+            replicaEntityManagers.remove();
+            replicaEntityManager.close();
+        }
+    }
+
+    /**
+     * Resolve the entity manager of the current request. The replica entity manager is opened lazily, so requests
+     * which never touch storage never open one.
+     *
+     * @return The entity manager.
+     */
+    public EntityManager current() {
+        if (!replicaReads.get()) return primaryEntityManager;
+
+        EntityManager replicaEntityManager = replicaEntityManagers.get();
+        if (replicaEntityManager == null) {
+            replicaEntityManager = replicaEntityManagerFactory.createEntityManager();
+            replicaEntityManager.unwrap(Session.class).setDefaultReadOnly(true);
+            replicaEntityManagers.set(replicaEntityManager);
+        }
+
+        return replicaEntityManager;
+    }
+
+    /**
+     * Open an entity manager of its own on the database the current request reads from, for reads which outlive the
+     * request. The caller closes it.
+     *
+     * @return The entity manager.
+     */
+    public EntityManager open() {
+        if (!replicaReads.get()) return primaryEntityManager.getEntityManagerFactory().createEntityManager();
+
+        final EntityManager replicaEntityManager = replicaEntityManagerFactory.createEntityManager();
+        replicaEntityManager.unwrap(Session.class).setDefaultReadOnly(true);
+
+        return replicaEntityManager;
+    }
+
+    /**
+     * Create an entity manager which delegates every call to the entity manager of the current request, it is bound
+     * in place of the primary entity manager so the repositories stay unaware of the routing.
+     *
+     * @return The routing entity manager.
+     */
+    public EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(),
+                new Class<?>[] { EntityManager.class },
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(current(), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+        );
+    }
+
+    private boolean isRecentWriter(final String session) {
+        final Write lastWrite = lastWrites.get(session);
+        if (lastWrite == null) return false;
+        if (System.currentTimeMillis() - lastWrite.writtenAt() < replicationLag) return true;
+        if (position(replicaEntityManagerFactory) < lastWrite.position()) return true;
+
+        lastWrites.remove(session, lastWrite);
+        return false;
+    }
+
+    /**
+     * Read how far the change log of a database reaches.
+     *
+     * @return The last sequence of the change log, -1 when the database has no change log.
+     */
+    private static long position(final EntityManagerFactory entityManagerFactory) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            return ((Number) entityManager.createNativeQuery(POSITION_QUERY).getSingleResult()).longValue();
+        } catch (PersistenceException e) {
+            return -1;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * The last write of a session.
+     *
+     * @param position The last sequence of the change log of the primary after the write.
+     * @param writtenAt The time of the write in epoch milliseconds.
+     */
+    private record Write(long position, long writtenAt) { }
+}
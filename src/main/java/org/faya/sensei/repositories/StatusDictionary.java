@@ -0,0 +1,58 @@
+package org.faya.sensei.repositories;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Per-project dictionary of status names to status ids. A project is loaded once on first use and dropped again
+ * whenever one of its statuses changes, so the next lookup reloads it.
+ * <p>
+ * Every refresh advances the generation of the project. Names are loaded outside the map and only installed when no
+ * refresh happened meanwhile, so a load racing a change never puts the names from before the change back.
+ */
+final class StatusDictionary {
+
+    private final Map<Integer, Map<String, Integer>> projects = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Long> generations = new ConcurrentHashMap<>();
+
+    private final IntFunction<Map<String, Integer>> loader;
+
+    StatusDictionary(final IntFunction<Map<String, Integer>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Resolve a status name inside a project.
+     *
+     * @param projectId The id of the project.
+     * @param name The name of the status.
+     * @return The id of the status.
+     */
+    Optional<Integer> resolve(final int projectId, final String name) {
+        final Map<String, Integer> cached = projects.get(projectId);
+        if (cached != null) return Optional.ofNullable(cached.get(name));
+
+        final long generation = generations.getOrDefault(projectId, 0L);
+        final Map<String, Integer> loaded = Map.copyOf(loader.apply(projectId));
+        projects.compute(projectId, (id, current) -> current != null
+                ? current
+                : generations.getOrDefault(id, 0L) == generation ? loaded : null);
+
+        return Optional.ofNullable(loaded.get(name));
+    }
+
+    /**
+     * Drop the names of a project, the next lookup loads them again.
+     *
+     * @param projectId The id of the project.
+     */
+    void refresh(final Integer projectId) {
+        if (projectId == null) return;
+
+        generations.merge(projectId, 1L, Long::sum);
+        projects.remove(projectId);
+    }
+}
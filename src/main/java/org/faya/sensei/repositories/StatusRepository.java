@@ -0,0 +1,148 @@
+package org.faya.sensei.repositories;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.faya.sensei.entities.StatusEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class StatusRepository implements IRepository<StatusEntity> {
+
+    @Inject
+    private EntityManager entityManager;
+
+    private final StatusDictionary statusDictionary = new StatusDictionary(this::loadNames);
+
+    /**
+     * Refresh the status names of every project whose statuses changed, whichever node wrote them.
+     *
+     * @param changeFeed The change feed of the database.
+     */
+    @Inject
+    public void setChangeFeed(final ChangeFeed changeFeed) {
+        changeFeed.subscribe(changes -> changes.stream()
+                .filter(change -> "statuses".equals(change.table()))
+                .map(ChangeFeed.Change::projectId)
+                .distinct()
+                .forEach(statusDictionary::refresh));
+    }
+
+    @Override
+    public Collection<StatusEntity> get() {
+        return entityManager.createQuery("SELECT s FROM StatusEntity s", StatusEntity.class).getResultList();
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final int id) {
+        return Optional.ofNullable(entityManager.find(StatusEntity.class, id));
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final String key) {
+        return entityManager.createQuery("SELECT s FROM StatusEntity s WHERE s.name = :name", StatusEntity.class)
+                .setParameter("name", key)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<StatusEntity> get(final String key, final String value, final String name) {
+        if (!key.equals("project.id") || name == null) return Optional.empty();
+
+        return statusDictionary.resolve(Integer.parseInt(value), name)
+                .map(id -> entityManager.getReference(StatusEntity.class, id));
+    }
+
+    @Override
+    public Collection<StatusEntity> getBy(final String key, final String value) {
+        return switch (key) {
+            case "project.id" -> entityManager
+                    .createQuery("SELECT s FROM StatusEntity s WHERE s.project.id = :value", StatusEntity.class)
+                    .setParameter("value", Integer.parseInt(value))
+                    .getResultList();
+            default -> List.of();
+        };
+    }
+
+    @Override
+    public int post(final StatusEntity item) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+            entityManager.persist(item);
+            transaction.commit();
+
+            statusDictionary.refresh(projectId(item));
+
+            return item.getId();
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return -1;
+        }
+    }
+
+    @Override
+    public Optional<StatusEntity> put(final int id, final StatusEntity item) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            final StatusEntity statusEntity = entityManager.find(StatusEntity.class, id);
+            final Integer previousProjectId = statusEntity != null ? projectId(statusEntity) : null;
+            if (statusEntity != null) {
+                if (item.getName() != null) statusEntity.setName(item.getName());
+                if (item.getProject() != null) statusEntity.setProject(item.getProject());
+            }
+
+            transaction.commit();
+
+            statusDictionary.refresh(previousProjectId);
+            if (statusEntity != null) statusDictionary.refresh(projectId(statusEntity));
+
+            return Optional.ofNullable(statusEntity);
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<StatusEntity> delete(final int id) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            final StatusEntity statusEntity = entityManager.find(StatusEntity.class, id);
+            if (statusEntity != null) entityManager.remove(statusEntity);
+
+            transaction.commit();
+
+            if (statusEntity != null) statusDictionary.refresh(projectId(statusEntity));
+
+            return Optional.ofNullable(statusEntity);
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return Optional.empty();
+        }
+    }
+
+    private Map<String, Integer> loadNames(final int projectId) {
+        return entityManager
+                .createQuery("SELECT s.name, s.id FROM StatusEntity s WHERE s.project.id = :projectId", Object[].class)
+                .setParameter("projectId", projectId)
+                .getResultStream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (Integer) row[1], (first, second) -> first));
+    }
+
+    private static Integer projectId(final StatusEntity statusEntity) {
+        return statusEntity.getProject() != null ? statusEntity.getProject().getId() : null;
+    }
+}
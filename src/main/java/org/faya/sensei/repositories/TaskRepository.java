@@ -0,0 +1,557 @@
+package org.faya.sensei.repositories;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.entities.TaskEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.payloads.TaskDTO;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class TaskRepository implements IRepository<TaskEntity> {
+
+    /**
+     * Select tasks straight into {@link TaskDTO} shape, the related entities are joined by key and never loaded.
+     */
+    private static final String PROJECTION_QUERY = """
+            SELECT %s
+            FROM TaskEntity t
+            JOIN t.project p
+            LEFT JOIN t.status s
+            LEFT JOIN t.assigner a
+            WHERE %s = :value
+            ORDER BY t.id
+            """;
+
+    private static final int STREAM_FETCH_SIZE = 256;
+
+    private static final String PAGE_QUERY = """
+            SELECT %s
+            FROM TaskEntity t
+            JOIN t.project p
+            LEFT JOIN t.status s
+            LEFT JOIN t.assigner a
+            WHERE %s
+            ORDER BY %s
+            """;
+
+    private static final String TASK_DTO =
+            "new org.faya.sensei.payloads.TaskDTO(t.id, t.title, t.description, t.startDate, t.endDate, s.name, p.id, a.id, t.version)";
+
+    /**
+     * The column of every field of {@link TaskDTO}. The id and version come first, they are always selected since
+     * cursors and entity tags are made of them.
+     */
+    private static final List<Column> COLUMNS = List.of(
+            new Column("id", "t.id", (task, value) -> task.setId((Integer) value)),
+            new Column("version", "t.version", (task, value) -> task.setVersion((Integer) value)),
+            new Column("title", "t.title", (task, value) -> task.setTitle((String) value)),
+            new Column("description", "t.description", (task, value) -> task.setDescription((String) value)),
+            new Column("startDate", "t.startDate", (task, value) -> task.setStartDate((LocalDateTime) value)),
+            new Column("endDate", "t.endDate", (task, value) -> task.setEndDate((LocalDateTime) value)),
+            new Column("status", "s.name", (task, value) -> task.setStatus((String) value)),
+            new Column("projectId", "p.id", (task, value) -> task.setProjectId((Integer) value)),
+            new Column("assignerId", "a.id", (task, value) -> task.setAssignerId((Integer) value))
+    );
+
+    private static final int REQUIRED_COLUMNS = 2;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private GroupCommitPipeline groupCommitPipeline;
+
+    @Inject
+    private ChangeFeed changeFeed;
+
+    private final Object writeLock = new Object();
+
+    @Override
+    public Collection<TaskEntity> get() {
+        return entityManager.createQuery("SELECT t FROM TaskEntity t", TaskEntity.class).getResultList();
+    }
+
+    @Override
+    public Optional<TaskEntity> get(final int id) {
+        return Optional.ofNullable(entityManager.find(TaskEntity.class, id));
+    }
+
+    @Override
+    public Optional<Integer> getVersion(final int id) {
+        return entityManager
+                .createQuery("SELECT t.version FROM TaskEntity t WHERE t.id = :id", Integer.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Collection<TaskEntity> getBy(final String key, final String value) {
+        final String path = foreignKeyPath(key);
+        if (path == null) return List.of();
+
+        return entityManager
+                .createQuery("SELECT t FROM TaskEntity t LEFT JOIN FETCH t.status WHERE %s = :value".formatted(path), TaskEntity.class)
+                .setParameter("value", Integer.parseInt(value))
+                .getResultList();
+    }
+
+    @Override
+    public <R> Collection<R> getBy(final String key, final String value, final Class<R> type) {
+        try (final Stream<R> tasks = stream(key, value, type)) {
+            return tasks.toList();
+        }
+    }
+
+    /**
+     * Stream the projection from a forward-only read-only cursor, rows are fetched from the database in batches as
+     * the stream is consumed.
+     */
+    @Override
+    public <R> Stream<R> stream(final String key, final String value, final Class<R> type) {
+        return stream(key, value, type, null);
+    }
+
+    /**
+     * Stream the projection with only the columns of the requested fields in the select list, so unrequested columns
+     * are never read from the table.
+     */
+    @Override
+    public <R> Stream<R> stream(final String key, final String value, final Class<R> type, final Set<String> fields) {
+        if (!TaskDTO.class.equals(type)) return Stream.empty();
+
+        final String path = switch (key) {
+            case "id" -> "t.id";
+            case "project.id" -> "p.id";
+            case "status.id" -> "s.id";
+            case "assigner.id" -> "a.id";
+            default -> null;
+        };
+        if (path == null) return Stream.empty();
+
+        return select(fields, selection -> PROJECTION_QUERY.formatted(selection, path), query -> query
+                .setParameter("value", Integer.parseInt(value))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true))
+                .map(type::cast);
+    }
+
+    /**
+     * Read the changes of the project from the change table of the feed, up to the last change it published. A status
+     * renamed or a member added since changes the project beyond its tasks, so no task ids are returned then.
+     */
+    @Override
+    public Optional<ChangeSet> getChanges(final int projectId, final long since) {
+        if (changeFeed == null) return Optional.empty();
+
+        final long version = changeFeed.sequence();
+
+        return changeFeed.changes(projectId, since, version)
+                .filter(changes -> changes.stream().allMatch(change -> "tasks".equals(change.table())))
+                .map(changes -> new ChangeSet(version, changes.stream()
+                        .map(ChangeFeed.Change::rowId)
+                        .collect(Collectors.toCollection(LinkedHashSet::new))));
+    }
+
+    /**
+     * Run the page as one keyset query, the filters and the position are pushed into the indexes of the project.
+     */
+    @Override
+    public <R> List<R> getPage(final PageRequest request, final Class<R> type) {
+        if (!TaskDTO.class.equals(type)) return List.of();
+
+        final Map<String, Object> parameters = new LinkedHashMap<>();
+        final StringBuilder where = new StringBuilder("p.id = :projectId");
+        parameters.put("projectId", request.projectId());
+
+        if (request.status() != null) {
+            where.append(" AND s.name = :status");
+            parameters.put("status", request.status());
+        }
+        if (request.assignerId() != null) {
+            where.append(" AND a.id = :assignerId");
+            parameters.put("assignerId", request.assignerId());
+        }
+        if (request.from() != null) {
+            where.append(" AND (t.endDate >= :from OR t.endDate IS NULL)");
+            parameters.put("from", request.from());
+        }
+        if (request.to() != null) {
+            where.append(" AND (t.startDate <= :to OR t.startDate IS NULL)");
+            parameters.put("to", request.to());
+        }
+
+        final String field = "t." + request.sort();
+        final String beyond = request.descending() ? "<" : ">";
+        final PageRequest.Position after = request.after();
+        if (after != null) {
+            // Tasks without a value come last in either direction.
+            if (field.equals("t.id")) {
+                where.append(" AND t.id %s :afterId".formatted(beyond));
+            } else if (after.value() == null) {
+                where.append(" AND %1$s IS NULL AND t.id %2$s :afterId".formatted(field, beyond));
+            } else {
+                where.append(" AND (%1$s %2$s :afterValue OR (%1$s = :afterValue AND t.id %2$s :afterId) OR %1$s IS NULL)"
+                        .formatted(field, beyond));
+                parameters.put("afterValue", after.value());
+            }
+            parameters.put("afterId", after.id());
+        }
+
+        final String direction = request.descending() ? "DESC" : "ASC";
+        final String order = field.equals("t.id")
+                ? "t.id %s".formatted(direction)
+                : "%1$s %2$s NULLS LAST, t.id %2$s".formatted(field, direction);
+
+        // The cursor of the page is made of the sort field, so it is read even when not requested.
+        final Set<String> fields = request.fields() != null ? new HashSet<>(request.fields()) : null;
+        if (fields != null) fields.add(request.sort());
+
+        try (final Stream<TaskDTO> tasks = select(fields, selection -> PAGE_QUERY.formatted(selection, where, order), query -> {
+            query.setMaxResults(request.limit());
+            parameters.forEach(query::setParameter);
+        })) {
+            return tasks.map(type::cast).toList();
+        }
+    }
+
+    @Override
+    public int post(final TaskEntity item) {
+        final Integer id = item.getId();
+        final Integer version = item.getVersion();
+
+        try {
+            return write(manager -> {
+                // A retried mutation starts again from the item as it was handed in.
+                item.setId(id);
+                item.setVersion(version);
+                if (manager == entityManager) {
+                    manager.persist(item);
+
+                    return item.getId();
+                }
+
+                // The related entities of the item were read by another entity manager, so a copy is merged.
+                final TaskEntity taskEntity = manager.merge(item);
+                item.setId(taskEntity.getId());
+                item.setVersion(taskEntity.getVersion());
+
+                return item.getId();
+            });
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Update the task with one conditional statement, only the non-null fields of the item are assigned. When the
+     * item carries a version the row is only touched while its version still matches.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> put(final int id, final TaskEntity item) {
+        final Map<String, Object> assignments = assignments(item);
+
+        final StringBuilder statement = new StringBuilder(updateStatement(assignments.keySet()));
+        statement.append(" WHERE t.id = :id");
+        if (item.getVersion() != null) statement.append(" AND t.version = :version");
+
+        final int updated;
+
+        try {
+            updated = write(manager -> {
+                final Query query = manager.createQuery(statement.toString()).setParameter("id", id);
+                assignments.forEach(query::setParameter);
+                if (item.getVersion() != null) query.setParameter("version", item.getVersion());
+
+                return query.executeUpdate();
+            });
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+
+        final TaskEntity taskEntity = entityManager.find(TaskEntity.class, id);
+        if (taskEntity == null) return Optional.empty();
+
+        entityManager.refresh(taskEntity);
+        if (updated == 0) throw new OptimisticLockException("Task version mismatch.", null, taskEntity);
+
+        return Optional.of(taskEntity);
+    }
+
+    /**
+     * Assign the named fields to the task as read from the database. With dynamic updates the flush writes only the
+     * columns whose value changed, and no statement at all when none did. When the item carries a version the task is
+     * only changed while its version still matches.
+     *
+     * @throws OptimisticLockException The task exists but its version does not match the expected one.
+     */
+    @Override
+    public Optional<TaskEntity> patch(final int id, final TaskEntity item, final Set<String> fields) {
+        final Integer patched;
+
+        try {
+            patched = write(manager -> {
+                final TaskEntity taskEntity = manager.find(TaskEntity.class, id);
+                if (taskEntity == null) return null;
+
+                manager.refresh(taskEntity);
+                if (item.getVersion() != null && !item.getVersion().equals(taskEntity.getVersion()))
+                    throw new OptimisticLockException("Task version mismatch.", null, taskEntity);
+
+                fields.forEach(field -> assign(manager, taskEntity, item, field));
+
+                return taskEntity.getId();
+            });
+        } catch (Exception e) {
+            // The rolled back transaction leaves the task managed with the patch applied.
+            Optional.ofNullable(entityManager.find(TaskEntity.class, id)).ifPresent(entityManager::detach);
+
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof OptimisticLockException) throw new OptimisticLockException("Task version mismatch.", e);
+            }
+
+            return Optional.empty();
+        }
+
+        if (patched == null) return Optional.empty();
+
+        final TaskEntity taskEntity = entityManager.find(TaskEntity.class, id);
+        if (taskEntity != null) entityManager.refresh(taskEntity);
+
+        return Optional.ofNullable(taskEntity);
+    }
+
+    @Override
+    public int putBy(final String key, final String value, final TaskEntity item) {
+        final String path = foreignKeyPath(key);
+        final Map<String, Object> assignments = assignments(item);
+        if (path == null || assignments.isEmpty()) return 0;
+
+        try {
+            final int updated = write(manager -> {
+                final Query query = manager
+                        .createQuery("%s WHERE %s = :value".formatted(updateStatement(assignments.keySet()), path))
+                        .setParameter("value", Integer.parseInt(value));
+                assignments.forEach(query::setParameter);
+
+                return query.executeUpdate();
+            });
+            evictTasks();
+
+            return updated;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public Optional<TaskEntity> delete(final int id) {
+        final TaskEntity taskEntity;
+
+        try {
+            taskEntity = write(manager -> {
+                final TaskEntity removed = manager.find(TaskEntity.class, id);
+                if (removed != null) manager.remove(removed);
+
+                return removed;
+            });
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+
+        // A task removed by the pipeline may still be managed here.
+        if (taskEntity != null && isPipelined())
+            Optional.ofNullable(entityManager.find(TaskEntity.class, id)).ifPresent(entityManager::detach);
+
+        return Optional.ofNullable(taskEntity);
+    }
+
+    @Override
+    public int deleteBy(final String key, final String value) {
+        final String path = foreignKeyPath(key);
+        if (path == null) return 0;
+
+        try {
+            final int deleted = write(manager -> manager
+                    .createQuery("DELETE FROM TaskEntity t WHERE %s = :value".formatted(path))
+                    .setParameter("value", Integer.parseInt(value))
+                    .executeUpdate());
+            evictTasks();
+
+            return deleted;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Run the mutation in a transaction of its own, or hand it to the group-commit pipeline to share the transaction
+     * of its batch. Either way the mutation has committed when this returns.
+     * <p>
+     * Outside the pipeline the mutations of the request threads take turns, the shared entity manager holds one
+     * transaction at a time and is not safe for concurrent use.
+     *
+     * @param work The mutation, on the entity manager it has to use, which is the one of the pipeline when pipelined.
+     */
+    private <R> R write(final Function<EntityManager, R> work) {
+        if (isPipelined()) return groupCommitPipeline.submit(work).toCompletableFuture().join();
+
+        synchronized (writeLock) {
+            final EntityTransaction transaction = entityManager.getTransaction();
+
+            try {
+                transaction.begin();
+                final R result = work.apply(entityManager);
+                transaction.commit();
+
+                return result;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) transaction.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private boolean isPipelined() {
+        return groupCommitPipeline != null && groupCommitPipeline.isEnabled();
+    }
+
+    /**
+     * Run a projection query, every field is selected by constructor expression, otherwise only the columns of the
+     * requested fields are.
+     *
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @param query The query for a select list.
+     * @param prepare Sets the parameters and hints of the query.
+     */
+    private Stream<TaskDTO> select(final Set<String> fields, final UnaryOperator<String> query, final Consumer<Query> prepare) {
+        if (fields == null) {
+            final TypedQuery<TaskDTO> tasks = entityManager.createQuery(query.apply(TASK_DTO), TaskDTO.class);
+            prepare.accept(tasks);
+
+            return tasks.getResultStream();
+        }
+
+        final List<Column> columns = columns(fields);
+        final TypedQuery<Object[]> rows = entityManager.createQuery(
+                query.apply(columns.stream().map(Column::path).collect(Collectors.joining(", "))),
+                Object[].class
+        );
+        prepare.accept(rows);
+
+        return rows.getResultStream().map(row -> task(columns, row));
+    }
+
+    private static List<Column> columns(final Set<String> fields) {
+        return IntStream.range(0, COLUMNS.size())
+                .filter(i -> i < REQUIRED_COLUMNS || fields.contains(COLUMNS.get(i).field()))
+                .mapToObj(COLUMNS::get)
+                .toList();
+    }
+
+    private static TaskDTO task(final List<Column> columns, final Object[] row) {
+        final TaskDTO task = new TaskDTO();
+        for (int i = 0; i < row.length; i++) columns.get(i).setter().accept(task, row[i]);
+
+        return task;
+    }
+
+    private static String foreignKeyPath(final String key) {
+        return switch (key) {
+            case "project.id" -> "t.project.id";
+            case "status.id" -> "t.status.id";
+            case "assigner.id" -> "t.assigner.id";
+            default -> null;
+        };
+    }
+
+    private static Map<String, Object> assignments(final TaskEntity item) {
+        final Map<String, Object> assignments = new LinkedHashMap<>();
+        if (item.getTitle() != null) assignments.put("title", item.getTitle());
+        if (item.getDescription() != null) assignments.put("description", item.getDescription());
+        if (item.getStartDate() != null) assignments.put("startDate", item.getStartDate());
+        if (item.getEndDate() != null) assignments.put("endDate", item.getEndDate());
+        if (item.getProject() != null) assignments.put("project", item.getProject());
+        if (item.getStatus() != null) assignments.put("status", item.getStatus());
+        if (item.getAssigner() != null) assignments.put("assigner", item.getAssigner());
+
+        return assignments;
+    }
+
+    private static void assign(
+            final EntityManager manager,
+            final TaskEntity taskEntity,
+            final TaskEntity item,
+            final String field
+    ) {
+        switch (field) {
+            case "title" -> taskEntity.setTitle(item.getTitle());
+            case "description" -> taskEntity.setDescription(item.getDescription());
+            case "startDate" -> taskEntity.setStartDate(item.getStartDate());
+            case "endDate" -> taskEntity.setEndDate(item.getEndDate());
+            case "status" -> taskEntity.setStatus(reference(manager, StatusEntity.class, item.getStatus()));
+            case "assigner" -> taskEntity.setAssigner(reference(manager, UserEntity.class, item.getAssigner()));
+            default -> throw new IllegalArgumentException("Task field %s cannot be patched.".formatted(field));
+        }
+    }
+
+    /**
+     * Refer to a related entity from the entity manager of the write, it may have been read by another one.
+     */
+    private static <T> T reference(final EntityManager manager, final Class<T> type, final T entity) {
+        if (entity == null || manager.contains(entity)) return entity;
+
+        return manager.getReference(type, manager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity));
+    }
+
+    private static String updateStatement(final Collection<String> fields) {
+        final StringBuilder statement = new StringBuilder("UPDATE TaskEntity t SET ");
+        fields.forEach(field -> statement.append("t.%1$s = :%1$s, ".formatted(field)));
+        statement.append("t.version = t.version + 1");
+
+        return statement.toString();
+    }
+
+    /**
+     * Set-based statements bypass the persistence context, so every managed task is detached and the shared cache
+     * region is evicted to make the next read hit the database.
+     */
+    private void evictTasks() {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Arrays.stream(session.getPersistenceContextInternal().reentrantSafeEntityEntries())
+                .map(Map.Entry::getKey)
+                .filter(TaskEntity.class::isInstance)
+                .forEach(entityManager::detach);
+
+        entityManager.getEntityManagerFactory().getCache().evict(TaskEntity.class);
+    }
+
+    private record Column(String field, String path, BiConsumer<TaskDTO, Object> setter) { }
+}
@@ -0,0 +1,91 @@
+package org.faya.sensei.repositories;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.faya.sensei.entities.UserEntity;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public class UserRepository implements IRepository<UserEntity> {
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Override
+    public Collection<UserEntity> get() {
+        return entityManager.createQuery("SELECT u FROM UserEntity u", UserEntity.class).getResultList();
+    }
+
+    @Override
+    public Optional<UserEntity> get(final int id) {
+        return Optional.ofNullable(entityManager.find(UserEntity.class, id));
+    }
+
+    @Override
+    public Optional<UserEntity> get(final String key) {
+        return entityManager.createQuery("SELECT u FROM UserEntity u WHERE u.name = :name", UserEntity.class)
+                .setParameter("name", key)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public int post(final UserEntity item) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+            entityManager.persist(item);
+            transaction.commit();
+
+            return item.getId();
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return -1;
+        }
+    }
+
+    @Override
+    public Optional<UserEntity> put(final int id, final UserEntity item) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            final UserEntity userEntity = entityManager.find(UserEntity.class, id);
+            if (userEntity != null) {
+                if (item.getName() != null) userEntity.setName(item.getName());
+                if (item.getPassword() != null) userEntity.setPassword(item.getPassword());
+                if (item.getRole() != null) userEntity.setRole(item.getRole());
+            }
+
+            transaction.commit();
+
+            return Optional.ofNullable(userEntity);
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<UserEntity> delete(final int id) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+
+        try {
+            transaction.begin();
+
+            final UserEntity userEntity = entityManager.find(UserEntity.class, id);
+            if (userEntity != null) entityManager.remove(userEntity);
+
+            transaction.commit();
+
+            return Optional.ofNullable(userEntity);
+        } catch (Exception e) {
+            if (transaction.isActive()) transaction.rollback();
+            return Optional.empty();
+        }
+    }
+}
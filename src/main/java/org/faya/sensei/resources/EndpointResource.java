@@ -4,6 +4,7 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import org.faya.sensei.codecs.CborCodecs;
 import org.faya.sensei.resources.endpoints.AuthResource;
 import org.faya.sensei.resources.endpoints.HeartBeatResource;
 import org.faya.sensei.resources.endpoints.ProjectResource;
@@ -12,21 +13,21 @@ import org.faya.sensei.resources.endpoints.ProjectResource;
 public class EndpointResource {
 
     @Path("/heartbeat")
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, CborCodecs.APPLICATION_CBOR })
     public Class<HeartBeatResource> getHeartBeatResource() {
         return HeartBeatResource.class;
     }
 
     @Path("/auth")
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({ MediaType.APPLICATION_JSON, CborCodecs.APPLICATION_CBOR })
+    @Produces({ MediaType.APPLICATION_JSON, CborCodecs.APPLICATION_CBOR })
     public Class<AuthResource> getAuthResource() {
         return AuthResource.class;
     }
 
     @Path("/project")
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({ MediaType.APPLICATION_JSON, CborCodecs.APPLICATION_CBOR })
+    @Produces({ MediaType.APPLICATION_JSON, CborCodecs.APPLICATION_CBOR })
     public Class<ProjectResource> getProjectResource() {
         return ProjectResource.class;
     }
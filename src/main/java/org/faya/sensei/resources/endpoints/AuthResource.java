@@ -1,3 +1,42 @@
 package org.faya.sensei.resources.endpoints;
 
-public class AuthResource { }
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import org.faya.sensei.middlewares.JWTAuth;
+import org.faya.sensei.payloads.UserDTO;
+import org.faya.sensei.services.IAuthService;
+
+public class AuthResource {
+
+    @Inject
+    private IAuthService authService;
+
+    @GET
+    @JWTAuth
+    public Response verify(@Context final SecurityContext securityContext) {
+        return authService.get(securityContext.getUserPrincipal().getName())
+                .map(dto -> Response.ok(dto).build())
+                .orElseGet(() -> Response.status(Response.Status.UNAUTHORIZED).build());
+    }
+
+    @POST
+    @Path("/register")
+    public Response register(final UserDTO dto) {
+        return authService.create(dto)
+                .map(user -> Response.ok(user).build())
+                .orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+    }
+
+    @POST
+    @Path("/login")
+    public Response login(final UserDTO dto) {
+        return authService.login(dto)
+                .map(user -> Response.ok(user).build())
+                .orElseGet(() -> Response.status(Response.Status.UNAUTHORIZED).build());
+    }
+}
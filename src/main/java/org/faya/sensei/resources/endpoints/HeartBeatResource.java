@@ -1,3 +1,18 @@
 package org.faya.sensei.resources.endpoints;
 
-public class HeartBeatResource { }
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.GET;
+
+import java.time.LocalDateTime;
+
+public class HeartBeatResource {
+
+    @GET
+    public JsonObject getHeartBeat() {
+        return Json.createObjectBuilder()
+                .add("status", "alive")
+                .add("time", LocalDateTime.now().toString())
+                .build();
+    }
+}
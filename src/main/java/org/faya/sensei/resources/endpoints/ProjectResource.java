@@ -1,16 +1,312 @@
 package org.faya.sensei.resources.endpoints;
 
-import jakarta.ws.rs.Consumes;
-import jakarta.ws.rs.Path;
-import jakarta.ws.rs.Produces;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.faya.sensei.codecs.CborCodecs;
+import org.faya.sensei.codecs.CborOutput;
+import org.faya.sensei.codecs.JsonCodec;
+import org.faya.sensei.codecs.JsonCodecs;
+import org.faya.sensei.codecs.JsonOutput;
+import org.faya.sensei.middlewares.JWTAuth;
+import org.faya.sensei.payloads.ChangesDTO;
+import org.faya.sensei.payloads.PageDTO;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.payloads.UserPrincipal;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.EntityManagerScope;
+import org.faya.sensei.services.IService;
+import org.faya.sensei.services.ProjectVersions;
+import org.glassfish.jersey.server.CloseableService;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class ProjectResource {
 
+    private static final JsonCodec<TaskDTO> TASKS = JsonCodecs.get(TaskDTO.class);
+
+    @Inject
+    private IService<ProjectDTO> projectService;
+
+    @Inject
+    private IService<TaskDTO> taskService;
+
+    @Inject
+    private ProjectVersions projectVersions;
+
+    @Inject
+    private ChangeFeed changeFeed;
+
+    @Inject
+    private EntityManagerScope entityManagerScope;
+
+    @Context
+    private CloseableService closeableService;
+
+    /**
+     * The entity tag is the version of every project, a request holding it is answered before anything is read.
+     */
+    @GET
+    @JWTAuth
+    public Response getAll(
+            @Context final SecurityContext securityContext,
+            @Context final HttpHeaders headers,
+            @Context final Request request
+    ) {
+        final EntityTag entityTag = new EntityTag(projectVersions.version(), true);
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) return notModified.build();
+
+        final Stream<ProjectDTO> projects = entityManagerScope.stream(() ->
+                projectService.streamBy("users.name", securityContext.getUserPrincipal().getName()));
+
+        return stream(
+                headers,
+                projects,
+                output -> JsonCodecs.writeItems(output, projects.iterator()),
+                output -> CborCodecs.writeItems(output, projects.iterator())
+        ).tag(entityTag).build();
+    }
+
+    /**
+     * The entity tag is the version of the project, a request holding it is answered before anything is read.
+     * <p>
+     * The project carries the version of the change log it was read at. Given that version back as {@code since}, only
+     * the tasks created or updated since are sent, together with the ids of the deleted ones, and the project is marked
+     * as a delta. The whole project is sent instead, with no deleted ids and not marked as a delta, when the log no
+     * longer reaches back to the version or the task store keeps no log.
+     */
+    @GET
+    @Path("/{id}")
+    @JWTAuth
+    public Response get(
+            @PathParam("id") final int id,
+            @QueryParam("fields") final String fields,
+            @QueryParam("since") final String since,
+            @Context final HttpHeaders headers,
+            @Context final Request request
+    ) {
+        final Set<String> taskFields = taskFields(fields);
+        final long sinceVersion = version(since);
+
+        final EntityTag entityTag = new EntityTag(projectVersions.version(id), true);
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) return notModified.build();
+
+        return projectService.get(id)
+                .map(project -> {
+                    final Optional<ChangesDTO<TaskDTO>> changes = since != null
+                            ? taskService.getChanges(id, sinceVersion, taskFields)
+                            : Optional.empty();
+                    if (changes.isPresent()) {
+                        project.setTasks(project(changes.get().getItems(), taskFields));
+                        project.setDeletedTaskIds(changes.get().getDeletedIds());
+                        project.setDelta(true);
+                        project.setVersion(changes.get().getVersion());
+
+                        return Response.ok(project).tag(entityTag).build();
+                    }
+
+                    // Taken before the tasks are read, so no change up to the version is missed.
+                    project.setVersion(changeFeed.sequence());
+                    project.setDeletedTaskIds(List.of());
+                    project.setDelta(false);
+
+                    final Stream<TaskDTO> tasks = entityManagerScope
+                            .stream(() -> taskService.streamBy("project.id", String.valueOf(id), taskFields))
+                            .map(task -> TASKS.project(task, taskFields));
+
+                    return stream(
+                            headers,
+                            tasks,
+                            output -> JsonCodecs.get(ProjectDTO.class).write(output, project, "tasks", tasks),
+                            output -> CborCodecs.write(output, project, "tasks", tasks)
+                    ).tag(entityTag).build();
+                })
+                .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    @GET
+    @Path("/{id}/tasks/search")
+    @JWTAuth
+    public Response searchTasks(
+            @PathParam("id") final int id,
+            @QueryParam("q") final String query,
+            @QueryParam("fields") final String fields
+    ) {
+        if (query == null || query.isBlank()) return Response.status(Response.Status.BAD_REQUEST).build();
+
+        final Set<String> taskFields = taskFields(fields);
+
+        return Response.ok(project(taskService.search("project.id", String.valueOf(id), query, taskFields), taskFields)).build();
+    }
+
+    @GET
+    @Path("/{id}/tasks")
+    @JWTAuth
+    public Response getTasksBetween(
+            @PathParam("id") final int id,
+            @QueryParam("from") final String from,
+            @QueryParam("to") final String to,
+            @QueryParam("due") final boolean due,
+            @QueryParam("fields") final String fields
+    ) {
+        final Set<String> taskFields = taskFields(fields);
+        final LocalDateTime fromDate;
+        final LocalDateTime toDate;
+        try {
+            fromDate = from != null ? LocalDateTime.parse(from) : null;
+            toDate = to != null ? LocalDateTime.parse(to) : null;
+        } catch (final DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        if (fromDate == null && toDate == null) return Response.status(Response.Status.BAD_REQUEST).build();
+
+        final String field = due ? "endDate" : "period";
+
+        return Response.ok(project(taskService.getBetween("project.id", String.valueOf(id), field, fromDate, toDate, taskFields), taskFields))
+                .build();
+    }
+
+    @GET
+    @Path("/{id}/tasks/page")
+    @JWTAuth
+    public Response getTaskPage(
+            @PathParam("id") final int id,
+            @QueryParam("status") final String status,
+            @QueryParam("assignee") final Integer assignee,
+            @QueryParam("from") final String from,
+            @QueryParam("to") final String to,
+            @QueryParam("sort") @DefaultValue("id") final String sort,
+            @QueryParam("after") final String after,
+            @QueryParam("limit") @DefaultValue("50") final int limit,
+            @QueryParam("fields") final String fields
+    ) {
+        final Set<String> taskFields = taskFields(fields);
+        final Map<String, String> filters = new HashMap<>();
+        filters.put("project.id", String.valueOf(id));
+        if (status != null) filters.put("status.name", status);
+        if (assignee != null) filters.put("assigner.id", String.valueOf(assignee));
+        if (from != null) filters.put("from", from);
+        if (to != null) filters.put("to", to);
+
+        return taskService.getPage(filters, sort, after, limit, taskFields)
+                .map(page -> Response.ok(new PageDTO<>(project(page.getItems(), taskFields), page.getNext())).build())
+                .orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+    }
+
+    @GET
+    @Path("/{id}/stats")
+    @JWTAuth
+    public Response getStatistics(@PathParam("id") final int id) {
+        return taskService.getStatistics("project.id", String.valueOf(id))
+                .map(statistics -> Response.ok(statistics).build())
+                .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    @POST
+    @JWTAuth
+    public Response create(@Context final SecurityContext securityContext, final ProjectDTO dto) {
+        if ((dto.getOwnerIds() == null || dto.getOwnerIds().isEmpty())
+                && securityContext.getUserPrincipal() instanceof UserPrincipal principal)
+            dto.setOwnerIds(List.of(principal.getId()));
+
+        return projectService.create(dto)
+                .map(project -> Response.ok(project).build())
+                .orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+    }
+
     @Path("/tasks")
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({ MediaType.APPLICATION_JSON, CborCodecs.APPLICATION_CBOR })
+    @Produces({ MediaType.APPLICATION_JSON, CborCodecs.APPLICATION_CBOR })
     public Class<TaskResource> getTaskResource() {
         return TaskResource.class;
     }
+
+    /**
+     * Parse the {@code fields} parameter naming the fields of the tasks to read and write.
+     *
+     * @throws BadRequestException A name is not a field of a task.
+     */
+    private static Set<String> taskFields(final String fields) {
+        try {
+            return TASKS.fields(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e);
+        }
+    }
+
+    /**
+     * Parse the {@code since} parameter, a version of the change log.
+     *
+     * @return The version, 0 when the parameter is missing.
+     * @throws BadRequestException The parameter is not a version.
+     */
+    private static long version(final String since) {
+        if (since == null) return 0;
+
+        try {
+            return Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(e);
+        }
+    }
+
+    private static List<TaskDTO> project(final Collection<TaskDTO> tasks, final Set<String> fields) {
+        return tasks.stream().map(task -> TASKS.project(task, fields)).toList();
+    }
+
+    /**
+     * Write the items to the response one by one as they are read, so the heap used does not grow with their
+     * number. The stream is opened by the resource method on an entity manager of its own and closed once written, or
+     * at the end of the request when it never is. The items are written as CBOR when the client prefers it, as JSON
+     * otherwise.
+     */
+    private Response.ResponseBuilder stream(
+            final HttpHeaders headers,
+            final Stream<?> source,
+            final Consumer<JsonOutput> json,
+            final Consumer<CborOutput> cbor
+    ) {
+        closeableService.add(source::close);
+
+        if (CborCodecs.isPreferred(headers.getAcceptableMediaTypes())) {
+            final StreamingOutput entity = output -> {
+                try (source) {
+                    final CborOutput cborOutput = new CborOutput(output);
+                    cbor.accept(cborOutput);
+                    cborOutput.flush();
+                }
+            };
+
+            return Response.ok(entity, CborCodecs.APPLICATION_CBOR_TYPE);
+        }
+
+        final StreamingOutput entity = output -> {
+            try (source) {
+                final JsonOutput jsonOutput = new JsonOutput(output);
+                json.accept(jsonOutput);
+                jsonOutput.flush();
+            }
+        };
+
+        return Response.ok(entity, MediaType.APPLICATION_JSON_TYPE);
+    }
 }
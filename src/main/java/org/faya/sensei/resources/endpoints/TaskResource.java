@@ -1,3 +1,364 @@
 package org.faya.sensei.resources.endpoints;
 
-public class TaskResource { }
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.faya.sensei.codecs.JsonCodec;
+import org.faya.sensei.codecs.JsonCodecs;
+import org.faya.sensei.middlewares.JWTAuth;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.EntityManagerScope;
+import org.faya.sensei.services.IService;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Singleton
+public class TaskResource {
+
+    public static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    private static final JsonCodec<TaskDTO> TASKS = JsonCodecs.get(TaskDTO.class);
+
+    private static final RuntimeDelegate.HeaderDelegate<EntityTag> ENTITY_TAGS =
+            RuntimeDelegate.getInstance().createHeaderDelegate(EntityTag.class);
+
+    private static final Pattern ENTITY_TAG = Pattern.compile("(?:W/)?\"[^\"]*\"");
+
+    private static final Pattern ENTITY_TAG_LIST = Pattern.compile("%1$s(?:\\s*,\\s*%1$s)*".formatted(ENTITY_TAG));
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "startDate", "endDate", "status", "assignerId");
+
+    private static final Set<String> REQUIRED_FIELDS = Set.of("title", "status");
+
+    @Inject
+    private IService<TaskDTO> taskService;
+
+    @Inject
+    private ChangeFeed changeFeed;
+
+    @Inject
+    private EntityManagerScope entityManagerScope;
+
+    private Sse sse;
+
+    private SseBroadcaster sseBroadcaster;
+
+    @Context
+    public void setSse(final Sse sse) {
+        this.sse = sse;
+        this.sseBroadcaster = sse.newBroadcaster();
+    }
+
+    /**
+     * Events are broadcast from the change feed rather than from the requests, so subscribers see the committed
+     * changes of every node in commit order. The tasks are read on the poller thread, on an entity manager of its own.
+     */
+    @PostConstruct
+    public void listen() {
+        changeFeed.subscribe(changes -> entityManagerScope.run(() -> publish(changes)));
+    }
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void subscribe(@Context final SseEventSink sseEventSink) {
+        sseBroadcaster.register(sseEventSink);
+    }
+
+    /**
+     * A request holding the entity tag of the current version is answered from the version alone.
+     */
+    @GET
+    @Path("/{id}")
+    @JWTAuth
+    public Response get(
+            @PathParam("id") final int id,
+            @QueryParam("fields") final String fields,
+            @Context final Request request
+    ) {
+        final Set<String> taskFields;
+        try {
+            taskFields = TASKS.fields(fields);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+
+        final Optional<Response.ResponseBuilder> notModified = taskService.getVersion(id)
+                .map(version -> request.evaluatePreconditions(new EntityTag(String.valueOf(version))));
+        if (notModified.isPresent()) return notModified.get().build();
+
+        return taskService.get(id, taskFields)
+                .map(task -> Response.ok(TASKS.project(task, taskFields)).tag(entityTag(task)).build())
+                .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    @POST
+    @JWTAuth
+    public Response create(final TaskDTO dto) {
+        return taskService.create(dto)
+                .map(task -> Response.ok(task).tag(entityTag(task)).build())
+                .orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+    }
+
+    @PUT
+    @Path("/{id}")
+    @JWTAuth
+    public Response update(
+            @PathParam("id") final int id,
+            @HeaderParam(HttpHeaders.IF_MATCH) final List<String> ifMatch,
+            final TaskDTO dto
+    ) {
+        if (!expectVersion(id, ifMatch, dto)) return Response.status(Response.Status.PRECONDITION_FAILED).build();
+
+        try {
+            return taskService.update(id, dto)
+                    .map(task -> Response.ok(task).tag(entityTag(task)).build())
+                    .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+        } catch (OptimisticLockException e) {
+            return Response.status(Response.Status.PRECONDITION_FAILED).build();
+        }
+    }
+
+    /**
+     * Apply a JSON merge patch, the members present are assigned and a null member clears its field. Identity,
+     * project and version cannot be patched, the version is given by {@code If-Match} instead.
+     *
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc7396">RFC 7396</a>
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes(APPLICATION_MERGE_PATCH_JSON)
+    @JWTAuth
+    public Response patch(
+            @PathParam("id") final int id,
+            @HeaderParam(HttpHeaders.IF_MATCH) final List<String> ifMatch,
+            final JsonValue body
+    ) {
+        if (!(body instanceof JsonObject patch)) return Response.status(Response.Status.BAD_REQUEST).build();
+        if (!PATCHABLE_FIELDS.containsAll(patch.keySet())) return Response.status(Response.Status.BAD_REQUEST).build();
+        if (REQUIRED_FIELDS.stream().anyMatch(field -> patch.containsKey(field) && patch.isNull(field)))
+            return Response.status(Response.Status.BAD_REQUEST).build();
+
+        final TaskDTO dto;
+        try (final JsonParser parser = Json.createParserFactory(null).createParser(patch)) {
+            parser.next();
+            dto = TASKS.read(parser);
+        } catch (JsonException e) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+
+        if (!expectVersion(id, ifMatch, dto)) return Response.status(Response.Status.PRECONDITION_FAILED).build();
+
+        try {
+            return taskService.patch(id, dto, patch.keySet())
+                    .map(task -> Response.ok(task).tag(entityTag(task)).build())
+                    .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+        } catch (OptimisticLockException e) {
+            return Response.status(Response.Status.PRECONDITION_FAILED).build();
+        }
+    }
+
+    @PUT
+    @JWTAuth
+    public Response updateAll(
+            @QueryParam("projectId") final Integer projectId,
+            @QueryParam("status") final String status,
+            final TaskDTO dto
+    ) {
+        if (projectId == null || status == null) return Response.status(Response.Status.BAD_REQUEST).build();
+
+        final int updated = taskService.updateBy(Map.of("project.id", projectId.toString(), "status.name", status), dto);
+        if (updated < 0) return Response.status(Response.Status.NOT_FOUND).build();
+
+        final JsonObjectBuilder result = Json.createObjectBuilder()
+                .add("projectId", projectId)
+                .add("status", status)
+                .add("count", updated);
+        if (dto.getStatus() != null) result.add("targetStatus", dto.getStatus());
+        if (dto.getAssignerId() != null) result.add("targetAssignerId", dto.getAssignerId());
+
+        return Response.ok(result.build()).build();
+    }
+
+    @DELETE
+    @JWTAuth
+    public Response removeAll(@QueryParam("projectId") final Integer projectId, @QueryParam("status") final String status) {
+        if (projectId == null || status == null) return Response.status(Response.Status.BAD_REQUEST).build();
+
+        final int removed = taskService.removeBy(Map.of("project.id", projectId.toString(), "status.name", status));
+        if (removed < 0) return Response.status(Response.Status.NOT_FOUND).build();
+
+        final JsonObject summary = Json.createObjectBuilder()
+                .add("projectId", projectId)
+                .add("status", status)
+                .add("count", removed)
+                .build();
+
+        return Response.ok(summary).build();
+    }
+
+    @DELETE
+    @Path("/{id}")
+    @JWTAuth
+    public Response remove(@PathParam("id") final int id) {
+        if (!taskService.remove(id)) return Response.status(Response.Status.NOT_FOUND).build();
+
+        return Response.noContent().build();
+    }
+
+    private static EntityTag entityTag(final TaskDTO task) {
+        return new EntityTag(String.valueOf(task.getVersion()));
+    }
+
+    /**
+     * Hand the version expected by {@code If-Match} to the write, which fails unless the task is still at it. No header
+     * and {@code *} expect no version. A list of tags expects the current version when one of its strong tags names it,
+     * only weak tags or tags of other versions never match.
+     *
+     * @return False when no listed tag matches, or the header is no list of tags.
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc9110#name-if-match">RFC 9110, If-Match</a>
+     */
+    private boolean expectVersion(final int id, final List<String> ifMatch, final TaskDTO dto) {
+        final String header = ifMatch != null ? String.join(",", ifMatch).trim() : "";
+        if (header.isEmpty() || header.equals("*")) return true;
+        if (!ENTITY_TAG_LIST.matcher(header).matches()) return false;
+
+        final Set<Integer> versions = ENTITY_TAG.matcher(header).results()
+                .map(match -> ENTITY_TAGS.fromString(match.group()))
+                .filter(entityTag -> !entityTag.isWeak())
+                .map(EntityTag::getValue)
+                .flatMap(value -> parseVersion(value).stream())
+                .collect(Collectors.toSet());
+        if (versions.isEmpty()) return false;
+
+        if (versions.size() == 1) {
+            dto.setVersion(versions.iterator().next());
+            return true;
+        }
+
+        final Optional<Integer> current = taskService.getVersion(id)
+                .or(() -> taskService.get(id).map(TaskDTO::getVersion));
+        if (current.isEmpty() || !versions.contains(current.get())) return false;
+
+        dto.setVersion(current.get());
+        return true;
+    }
+
+    private static Optional<Integer> parseVersion(final String value) {
+        try {
+            return Optional.of(Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Broadcast one polled batch of changes in sequence order. Task updates or deletes of one project committed in
+     * one transaction are broadcast as a single bulk event, memberships and statuses as plain change events.
+     */
+    private void publish(final List<ChangeFeed.Change> changes) {
+        final Map<String, List<ChangeFeed.Change>> transactions = changes.stream()
+                .filter(change -> "tasks".equals(change.table()) && !"INSERT".equals(change.operation()))
+                .collect(Collectors.groupingBy(TaskResource::transactionKey, LinkedHashMap::new, Collectors.toList()));
+        final Set<String> published = new HashSet<>();
+
+        for (final ChangeFeed.Change change : changes) {
+            final String id = String.valueOf(change.sequence());
+
+            if (!"tasks".equals(change.table())) {
+                broadcast(id, "change", Json.createObjectBuilder()
+                        .add("table", change.table())
+                        .add("operation", change.operation())
+                        .add("id", change.rowId())
+                        .add("projectId", change.projectId() != null ? change.projectId() : 0)
+                        .build());
+                continue;
+            }
+
+            final List<ChangeFeed.Change> transaction = transactions.get(transactionKey(change));
+            if (transaction != null && transaction.size() > 1) {
+                if (published.add(transactionKey(change))) {
+                    broadcast(id, "UPDATE".equals(change.operation()) ? "bulk-update" : "bulk-delete", Json.createObjectBuilder()
+                            .add("projectId", change.projectId())
+                            .add("count", transaction.size())
+                            .add("ids", Json.createArrayBuilder(transaction.stream().map(ChangeFeed.Change::rowId).toList()))
+                            .build());
+                }
+                continue;
+            }
+
+            switch (change.operation()) {
+                case "INSERT" -> current(change.rowId()).ifPresent(task -> broadcast(id, "create", task));
+                case "UPDATE" -> current(change.rowId()).ifPresent(task -> broadcast(id, "update", task));
+                case "DELETE" -> {
+                    final TaskDTO task = new TaskDTO();
+                    task.setId(change.rowId());
+                    task.setProjectId(change.projectId());
+                    broadcast(id, "delete", task);
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes of one operation on one project committed by one transaction belong to one bulk statement.
+     */
+    private static String transactionKey(final ChangeFeed.Change change) {
+        return "%d:%s:%s".formatted(change.transactionId(), change.operation(), change.projectId());
+    }
+
+    /**
+     * Read the task as committed, the projection bypasses entities cached in the persistence context.
+     */
+    private Optional<TaskDTO> current(final int id) {
+        return taskService.getBy("id", String.valueOf(id)).stream().findFirst();
+    }
+
+    private void broadcast(final String id, final String name, final TaskDTO task) {
+        final OutboundSseEvent event = sse.newEventBuilder()
+                .id(id)
+                .name(name)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(TaskDTO.class, task)
+                .build();
+
+        sseBroadcaster.broadcast(event);
+    }
+
+    private void broadcast(final String id, final String name, final JsonObject summary) {
+        final OutboundSseEvent event = sse.newEventBuilder()
+                .id(id)
+                .name(name)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(JsonObject.class, summary)
+                .build();
+
+        sseBroadcaster.broadcast(event);
+    }
+}
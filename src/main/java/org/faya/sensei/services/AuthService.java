@@ -1,14 +1,27 @@
 package org.faya.sensei.services;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTCreationException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.inject.Inject;
 import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.entities.UserRole;
 import org.faya.sensei.payloads.UserDTO;
 import org.faya.sensei.payloads.UserPrincipal;
 import org.faya.sensei.repositories.IRepository;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class AuthService implements IAuthService {
 
@@ -20,36 +33,109 @@ public class AuthService implements IAuthService {
 
     @Override
     public Optional<UserDTO> login(final UserDTO dto) {
-        return Optional.empty();
+        if (dto.getName() == null || dto.getPassword() == null) return Optional.empty();
+
+        final Optional<String> hashedPassword = hashPassword(dto.getPassword());
+
+        return userRepository.get(dto.getName())
+                .filter(entity -> hashedPassword.isPresent() && hashedPassword.get().equals(entity.getPassword()))
+                .flatMap(this::withToken);
     }
 
     @Override
     public Optional<String> generateToken(int id, Map<String, String> payload) {
-        return Optional.empty();
+        try {
+            final JWTCreator.Builder builder = JWT.create()
+                    .withIssuer(issuer)
+                    .withSubject(String.valueOf(id))
+                    .withIssuedAt(Instant.now())
+                    .withExpiresAt(Instant.now().plus(1, ChronoUnit.DAYS));
+            payload.forEach(builder::withClaim);
+
+            return Optional.of(builder.sign(algorithm));
+        } catch (IllegalArgumentException | JWTCreationException e) {
+            return Optional.empty();
+        }
     }
 
     @Override
     public Optional<UserPrincipal> resolveToken(String token) {
-        return Optional.empty();
+        try {
+            final DecodedJWT decodedJWT = JWT.require(algorithm).withIssuer(issuer).build().verify(token);
+
+            return Optional.of(new UserPrincipal(
+                    Integer.parseInt(decodedJWT.getSubject()),
+                    decodedJWT.getClaim("name").asString(),
+                    decodedJWT.getClaim("role").asString()
+            ));
+        } catch (JWTVerificationException | NumberFormatException e) {
+            return Optional.empty();
+        }
     }
 
     @Override
     public Optional<UserDTO> get(String name) {
-        return Optional.empty();
+        return userRepository.get(name).flatMap(this::withToken);
     }
 
     @Override
     public Optional<UserDTO> create(UserDTO dto) {
-        return Optional.empty();
+        if (dto.getName() == null || dto.getPassword() == null) return Optional.empty();
+
+        final Optional<String> hashedPassword = hashPassword(dto.getPassword());
+        if (hashedPassword.isEmpty()) return Optional.empty();
+
+        final UserEntity userEntity = UserDTO.toEntity(dto);
+        userEntity.setPassword(hashedPassword.get());
+        userEntity.setRole(UserRole.USER);
+
+        final int id = userRepository.post(userEntity);
+        if (id <= 0) return Optional.empty();
+
+        return withToken(userEntity);
     }
 
     @Override
     public Optional<UserDTO> update(int id, UserDTO dto) {
-        return Optional.empty();
+        final UserEntity userEntity = UserDTO.toEntity(dto);
+        if (dto.getPassword() != null) {
+            final Optional<String> hashedPassword = hashPassword(dto.getPassword());
+            if (hashedPassword.isEmpty()) return Optional.empty();
+
+            userEntity.setPassword(hashedPassword.get());
+        }
+
+        return userRepository.put(id, userEntity).map(UserDTO::fromEntity);
     }
 
     @Override
     public boolean remove(int id) {
-        return false;
+        return userRepository.delete(id).isPresent();
+    }
+
+    private Optional<UserDTO> withToken(final UserEntity userEntity) {
+        final UserDTO userDTO = UserDTO.fromEntity(userEntity);
+        final Map<String, String> payload = Map.of(
+                "name", userDTO.getName(),
+                "role", userDTO.getRole() != null ? userDTO.getRole() : UserRole.NONE.name()
+        );
+
+        return generateToken(userDTO.getId(), payload).map(token -> {
+            userDTO.setToken(token);
+            return userDTO;
+        });
+    }
+
+    private Optional<String> hashPassword(final String password) {
+        try {
+            byte[] hashedBytes = MessageDigest.getInstance("SHA-256")
+                    .digest(password.getBytes(StandardCharsets.UTF_8));
+
+            return Optional.of(IntStream.range(0, hashedBytes.length)
+                    .mapToObj(i -> String.format("%02x", hashedBytes[i]))
+                    .collect(Collectors.joining()));
+        } catch (NoSuchAlgorithmException e) {
+            return Optional.empty();
+        }
     }
 }
@@ -1,8 +1,16 @@
 package org.faya.sensei.services;
 
+import org.faya.sensei.payloads.ChangesDTO;
+import org.faya.sensei.payloads.PageDTO;
+import org.faya.sensei.payloads.StatisticsDTO;
+
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface IService<T> {
     /**
@@ -15,6 +23,17 @@ public interface IService<T> {
         return Optional.empty();
     }
 
+    /**
+     * Retrieves an item with only the requested fields read.
+     *
+     * @param id The primary key of the item.
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @return The nullable item.
+     */
+    default Optional<T> get(final int id, final Set<String> fields) {
+        return get(id);
+    }
+
     /**
      * Retrieves an item from repository by unique key.
      *
@@ -36,6 +55,119 @@ public interface IService<T> {
         return List.of();
     }
 
+    /**
+     * Stream the items under a foreign key as they are read, the stream must be closed.
+     *
+     * @param key The key of the foreign item.
+     * @param value The search value of the foreign item.
+     * @return A stream of items.
+     */
+    default Stream<T> streamBy(final String key, final String value) {
+        return getBy(key, value).stream();
+    }
+
+    /**
+     * Stream the items under a foreign key as they are read with only the requested fields, the stream must be closed.
+     *
+     * @param key The key of the foreign item.
+     * @param value The search value of the foreign item.
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @return A stream of items.
+     */
+    default Stream<T> streamBy(final String key, final String value, final Set<String> fields) {
+        return streamBy(key, value);
+    }
+
+    /**
+     * Retrieves the items under a foreign key whose dates fall in a window.
+     *
+     * @param key The key of the foreign item.
+     * @param value The search value of the foreign item.
+     * @param field The date to match, {@code endDate} for items ending in the window, any other value for items whose
+     *              period overlaps the window.
+     * @param from The nullable inclusive start of the window, open when null.
+     * @param to The nullable inclusive end of the window, open when null.
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @return A collection of items.
+     */
+    default Collection<T> getBetween(
+            final String key,
+            final String value,
+            final String field,
+            final LocalDateTime from,
+            final LocalDateTime to,
+            final Set<String> fields
+    ) {
+        return List.of();
+    }
+
+    /**
+     * Search the items under a foreign key by their text.
+     *
+     * @param key The key of the foreign item.
+     * @param value The search value of the foreign item.
+     * @param query The text to search.
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @return A collection of matching items.
+     */
+    default Collection<T> search(final String key, final String value, final String query, final Set<String> fields) {
+        return List.of();
+    }
+
+    /**
+     * Retrieves one page of the items matched by the filters.
+     *
+     * @param filters The foreign keys and search values of the target items.
+     * @param sort The field to order by, prefixed with {@code -} for descending order.
+     * @param after The nullable cursor of the previous page, the first page when null.
+     * @param limit The maximum number of items.
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @return The nullable page, empty when the filters, order or cursor are invalid.
+     */
+    default Optional<PageDTO<T>> getPage(
+            final Map<String, String> filters,
+            final String sort,
+            final String after,
+            final int limit,
+            final Set<String> fields
+    ) {
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieves the items of a project changed after a version of the change log.
+     *
+     * @param projectId The id of the project.
+     * @param since The version the caller is up to date with.
+     * @param fields The nullable names of the fields to read, every field when null.
+     * @return The items created or updated since, the ids of those deleted and the new version, empty when the
+     * changes since the version are no longer known and the whole project has to be read instead.
+     */
+    default Optional<ChangesDTO<T>> getChanges(final int projectId, final long since, final Set<String> fields) {
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieves the version of an item without reading the item.
+     *
+     * @param id The primary key of the item.
+     * @return The version, empty when the item is missing or its version is not known apart from the item.
+     */
+    default Optional<Integer> getVersion(final int id) {
+        return Optional.empty();
+    }
+
+    /**
+     * Retrieves the counts of the items under a foreign key.
+     *
+     * @param key The key of the foreign item.
+     * @param value The search value of the foreign item.
+     * @return The nullable statistics of the items.
+     */
+    default Optional<StatisticsDTO> getStatistics(final String key, final String value) {
+        return Optional.empty();
+    }
+
     /**
      * Create a new item in the repository.
      *
@@ -53,6 +185,29 @@ public interface IService<T> {
      */
     Optional<T> update(final int id, final T dto);
 
+    /**
+     * Update the named fields of an existing item, a named field that is null in the data transfer object is cleared.
+     *
+     * @param id The primary key of the item to be updated.
+     * @param dto The data transfer object holding the fields to assign.
+     * @param fields The names of the fields to assign.
+     * @return The nullable updated item.
+     */
+    default Optional<T> patch(final int id, final T dto, final Set<String> fields) {
+        return Optional.empty();
+    }
+
+    /**
+     * Update all items matched by the filters in one set-based operation.
+     *
+     * @param filters The foreign keys and search values of the target items.
+     * @param dto The data transfer object holding the fields to assign.
+     * @return The number of updated items, or -1 when the filters cannot be resolved.
+     */
+    default int updateBy(final Map<String, String> filters, final T dto) {
+        return -1;
+    }
+
     /**
      * Remove an item from the repository based on id.
      *
@@ -60,4 +215,14 @@ public interface IService<T> {
      * @return The operation result.
      */
     boolean remove(final int id);
+
+    /**
+     * Remove all items matched by the filters in one set-based operation.
+     *
+     * @param filters The foreign keys and search values of the target items.
+     * @return The number of removed items, or -1 when the filters cannot be resolved.
+     */
+    default int removeBy(final Map<String, String> filters) {
+        return -1;
+    }
 }
@@ -0,0 +1,39 @@
+package org.faya.sensei.services;
+
+import org.faya.sensei.payloads.TaskDTO;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface ITaskIndex {
+    /**
+     * Check whether the tasks of a project are held by the index.
+     *
+     * @param projectId The id of the project.
+     * @return True once the project was loaded.
+     */
+    boolean isLoaded(final int projectId);
+
+    /**
+     * Load the tasks of a project unless the project was loaded before. The tasks are read while no change can be
+     * applied, so every change missed before loading is part of the tasks read.
+     *
+     * @param projectId The id of the project.
+     * @param tasks The reader of the committed tasks of the project.
+     */
+    void load(final int projectId, final Supplier<Collection<TaskDTO>> tasks);
+
+    /**
+     * Apply a created or updated task, tasks of projects not loaded yet are left to loading.
+     *
+     * @param task The task as committed.
+     */
+    void put(final TaskDTO task);
+
+    /**
+     * Drop a removed task.
+     *
+     * @param id The id of the task.
+     */
+    void remove(final int id);
+}
@@ -0,0 +1,91 @@
+package org.faya.sensei.services;
+
+import jakarta.inject.Inject;
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.faya.sensei.repositories.IRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class ProjectService implements IService<ProjectDTO> {
+
+    @Inject
+    private IRepository<UserEntity> userRepository;
+
+    @Inject
+    private IRepository<ProjectEntity> projectRepository;
+
+    @Inject
+    private ProjectVersions projectVersions;
+
+    @Override
+    public Optional<ProjectDTO> get(final int id) {
+        return projectRepository.get(id).map(ProjectDTO::fromEntity);
+    }
+
+    @Override
+    public Collection<ProjectDTO> getBy(final String key, final String value) {
+        return projectRepository.getBy(key, value, ProjectDTO.class);
+    }
+
+    @Override
+    public Stream<ProjectDTO> streamBy(final String key, final String value) {
+        return projectRepository.stream(key, value, ProjectDTO.class);
+    }
+
+    @Override
+    public Optional<ProjectDTO> create(final ProjectDTO dto) {
+        if (dto.getName() == null) return Optional.empty();
+
+        final ProjectEntity projectEntity = ProjectDTO.toEntity(dto);
+        projectEntity.setUsers(resolveUsers(dto.getOwnerIds()));
+
+        final int id = projectRepository.post(projectEntity);
+        if (id <= 0) return Optional.empty();
+
+        advance(id);
+
+        return Optional.of(ProjectDTO.fromEntity(projectEntity));
+    }
+
+    @Override
+    public Optional<ProjectDTO> update(final int id, final ProjectDTO dto) {
+        final ProjectEntity projectEntity = ProjectDTO.toEntity(dto);
+        if (dto.getOwnerIds() != null && !dto.getOwnerIds().isEmpty())
+            projectEntity.setUsers(resolveUsers(dto.getOwnerIds()));
+
+        final Optional<ProjectDTO> project = projectRepository.put(id, projectEntity).map(ProjectDTO::fromEntity);
+        project.ifPresent(updated -> advance(id));
+
+        return project;
+    }
+
+    @Override
+    public boolean remove(final int id) {
+        if (projectRepository.delete(id).isEmpty()) return false;
+
+        advance(id);
+
+        return true;
+    }
+
+    /**
+     * Projects are not in the change feed, so their own writes are the only ones advancing their version.
+     */
+    private void advance(final int id) {
+        if (projectVersions != null) projectVersions.advance(id);
+    }
+
+    private List<UserEntity> resolveUsers(final List<Integer> userIds) {
+        if (userIds == null) return List.of();
+
+        return userIds.stream()
+                .map(userRepository::get)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+}
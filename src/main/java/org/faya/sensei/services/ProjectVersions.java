@@ -0,0 +1,65 @@
+package org.faya.sensei.services;
+
+import org.faya.sensei.repositories.ChangeFeed;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregate versions of the projects, advanced by the writes of this node as they commit and by every change of the
+ * change feed, so the version of a board or of the project list is known without reading either.
+ * <p>
+ * The versions are stamps of one clock, the version of the project list is the clock itself. They live in memory and
+ * start over with the node, so every version carries the start of the node as well.
+ */
+public final class ProjectVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * @param changeFeed The change feed of the database, the writes of the other nodes are seen through it.
+     */
+    public ProjectVersions(final ChangeFeed changeFeed) {
+        changeFeed.subscribe(this::apply);
+    }
+
+    /**
+     * Advance the version of a project and of the project list.
+     *
+     * @param projectId The id of the changed project.
+     */
+    public void advance(final int projectId) {
+        versions.put(projectId, clock.incrementAndGet());
+    }
+
+    /**
+     * @return The version of every project together.
+     */
+    public String version() {
+        return "%s-%d".formatted(epoch, clock.get());
+    }
+
+    /**
+     * The version names the project, so the version of one project never matches another, nor an id without a
+     * project. A project which stops existing advances its version, so none of its versions handed out match after.
+     *
+     * @param projectId The id of the project.
+     * @return The version of the project, its tasks, statuses and members.
+     */
+    public String version(final int projectId) {
+        return "%s-%d-%d".formatted(epoch, projectId, versions.getOrDefault(projectId, 0L));
+    }
+
+    private void apply(final List<ChangeFeed.Change> changes) {
+        for (final ChangeFeed.Change change : changes) {
+            if (change.projectId() != null) advance(change.projectId());
+            else clock.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.faya.sensei.services;
+
+import org.faya.sensei.payloads.TaskDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory interval index over the start and end dates of tasks, one timeline per project. A task without an end
+ * date is open-ended, a task without a start date started at the beginning of time.
+ * <p>
+ * Writes only record the interval of the task and mark the timeline stale. The next query sorts the timeline by start
+ * into an implicit balanced tree, where every node holds the latest end of its subtree, so the tasks overlapping a
+ * window are found in {@code O(log n + m)}, and by end, so the tasks due in a window are one binary search.
+ */
+public final class TaskIntervalIndex implements ITaskIndex {
+
+    private final Map<Integer, Timeline> timelines = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Integer> taskProjects = new HashMap<>();
+
+    @Override
+    public boolean isLoaded(final int projectId) {
+        return timelines.containsKey(projectId);
+    }
+
+    @Override
+    public synchronized void load(final int projectId, final Supplier<Collection<TaskDTO>> tasks) {
+        if (timelines.containsKey(projectId)) return;
+
+        timelines.put(projectId, new Timeline());
+        tasks.get().forEach(this::put);
+    }
+
+    @Override
+    public synchronized void put(final TaskDTO task) {
+        final Integer id = task.getId();
+        final Integer projectId = task.getProjectId();
+        if (id == null || projectId == null) return;
+
+        final Timeline timeline = timelines.get(projectId);
+        if (timeline == null) {
+            remove(id);
+            return;
+        }
+
+        final Integer previousProjectId = taskProjects.put(id, projectId);
+        if (previousProjectId != null && !previousProjectId.equals(projectId)) timelines.get(previousProjectId).remove(id);
+
+        timeline.put(id, instant(task.getStartDate(), Long.MIN_VALUE), instant(task.getEndDate(), Long.MAX_VALUE));
+    }
+
+    @Override
+    public synchronized void remove(final int id) {
+        final Integer projectId = taskProjects.remove(id);
+        if (projectId != null) timelines.get(projectId).remove(id);
+    }
+
+    /**
+     * Find the tasks of a project whose period overlaps the window, both bounds are inclusive.
+     *
+     * @param projectId The id of the project.
+     * @param from The nullable start of the window, open when null.
+     * @param to The nullable end of the window, open when null.
+     * @return The ids of the tasks, ordered by start date.
+     */
+    public int[] overlapping(final int projectId, final LocalDateTime from, final LocalDateTime to) {
+        final Snapshot snapshot = snapshot(projectId);
+        if (snapshot == null) return new int[0];
+
+        final long start = instant(from, Long.MIN_VALUE);
+        final long end = instant(to, Long.MAX_VALUE);
+        if (start > end) return new int[0];
+
+        final IntStream.Builder ids = IntStream.builder();
+        snapshot.overlapping(0, snapshot.ids.length, start, end, ids);
+
+        return ids.build().toArray();
+    }
+
+    /**
+     * Find the tasks of a project whose end date lies in the window, both bounds are inclusive.
+     *
+     * @param projectId The id of the project.
+     * @param from The nullable start of the window, open when null.
+     * @param to The nullable end of the window, open when null.
+     * @return The ids of the tasks, ordered by end date.
+     */
+    public int[] ending(final int projectId, final LocalDateTime from, final LocalDateTime to) {
+        final Snapshot snapshot = snapshot(projectId);
+        if (snapshot == null) return new int[0];
+
+        final int lower = lowerBound(snapshot.sortedEnds, instant(from, Long.MIN_VALUE));
+        // Open-ended tasks are never due.
+        final int upper = lowerBound(snapshot.sortedEnds, instant(to, Long.MAX_VALUE - 1) + 1);
+
+        return lower < upper ? Arrays.copyOfRange(snapshot.idsByEnd, lower, upper) : new int[0];
+    }
+
+    private Snapshot snapshot(final int projectId) {
+        final Timeline timeline = timelines.get(projectId);
+        if (timeline == null) return null;
+
+        final Snapshot snapshot = timeline.snapshot;
+        if (snapshot != null) return snapshot;
+
+        synchronized (this) {
+            if (timeline.snapshot == null) timeline.snapshot = Snapshot.of(timeline.intervals);
+
+            return timeline.snapshot;
+        }
+    }
+
+    private static long instant(final LocalDateTime value, final long absent) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : absent;
+    }
+
+    private static int lowerBound(final long[] values, final long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (values[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+
+        return low;
+    }
+
+    /**
+     * The intervals of the tasks of one project, guarded by the index.
+     */
+    private static final class Timeline {
+
+        private final Map<Integer, long[]> intervals = new HashMap<>();
+
+        private volatile Snapshot snapshot;
+
+        private void put(final int id, final long start, final long end) {
+            final long[] previous = intervals.put(id, new long[] { start, end });
+            if (previous == null || previous[0] != start || previous[1] != end) snapshot = null;
+        }
+
+        private void remove(final int id) {
+            if (intervals.remove(id) != null) snapshot = null;
+        }
+    }
+
+    /**
+     * An immutable timeline sorted by start, with the latest end of every subtree stored at the middle of its range,
+     * and a second order by end.
+     */
+    private record Snapshot(int[] ids, long[] starts, long[] ends, long[] latestEnds, int[] idsByEnd, long[] sortedEnds) {
+
+        private static Snapshot of(final Map<Integer, long[]> intervals) {
+            final Integer[] byStart = intervals.keySet().toArray(Integer[]::new);
+            Arrays.sort(byStart, Comparator.comparingLong((Integer id) -> intervals.get(id)[0]).thenComparingInt(id -> id));
+
+            final int size = byStart.length;
+            final int[] ids = new int[size];
+            final long[] starts = new long[size];
+            final long[] ends = new long[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = byStart[i];
+                starts[i] = intervals.get(byStart[i])[0];
+                ends[i] = intervals.get(byStart[i])[1];
+            }
+
+            final Integer[] byEnd = intervals.keySet().toArray(Integer[]::new);
+            Arrays.sort(byEnd, Comparator.comparingLong((Integer id) -> intervals.get(id)[1]).thenComparingInt(id -> id));
+
+            final int[] idsByEnd = new int[size];
+            final long[] sortedEnds = new long[size];
+            for (int i = 0; i < size; i++) {
+                idsByEnd[i] = byEnd[i];
+                sortedEnds[i] = intervals.get(byEnd[i])[1];
+            }
+
+            final Snapshot snapshot = new Snapshot(ids, starts, ends, new long[size], idsByEnd, sortedEnds);
+            snapshot.latestEnd(0, size);
+
+            return snapshot;
+        }
+
+        private long latestEnd(final int low, final int high) {
+            if (low >= high) return Long.MIN_VALUE;
+
+            final int mid = (low + high) >>> 1;
+            latestEnds[mid] = Math.max(ends[mid], Math.max(latestEnd(low, mid), latestEnd(mid + 1, high)));
+
+            return latestEnds[mid];
+        }
+
+        /**
+         * Collect the overlapping tasks of the range in start order, skipping every subtree which ends too early and
+         * every task starting too late.
+         */
+        private void overlapping(final int low, final int high, final long from, final long to, final IntStream.Builder result) {
+            if (low >= high) return;
+
+            final int mid = (low + high) >>> 1;
+            if (latestEnds[mid] < from) return;
+
+            overlapping(low, mid, from, to, result);
+            if (starts[mid] > to) return;
+
+            if (ends[mid] >= from) result.add(ids[mid]);
+            overlapping(mid + 1, high, from, to, result);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.faya.sensei.services;
+
+import org.faya.sensei.payloads.TaskDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over the title and description of tasks. Text is normalised, case-folded and split into
+ * tokens of letters and digits, every project holds a sorted dictionary of tokens to the sorted ids of the tasks
+ * containing them.
+ * <p>
+ * Writes are serialised and replace postings arrays rather than change them, so searches run without a lock.
+ */
+public final class TaskSearchIndex implements ITaskIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Integer, NavigableMap<String, int[]>> projects = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isLoaded(final int projectId) {
+        return projects.containsKey(projectId);
+    }
+
+    @Override
+    public synchronized void load(final int projectId, final Supplier<Collection<TaskDTO>> tasks) {
+        if (projects.containsKey(projectId)) return;
+
+        projects.put(projectId, new ConcurrentSkipListMap<>());
+        tasks.get().forEach(this::put);
+    }
+
+    /**
+     * Index the task, or re-index it when its text or project changed. Only the id, project id, title and
+     * description are read.
+     */
+    @Override
+    public synchronized void put(final TaskDTO task) {
+        final Integer id = task.getId();
+        final Integer projectId = task.getProjectId();
+        if (id == null || projectId == null) return;
+        if (!projects.containsKey(projectId)) {
+            remove(id);
+            return;
+        }
+
+        final Set<String> tokens = new TreeSet<>(tokenize(task.getTitle()));
+        tokens.addAll(tokenize(task.getDescription()));
+
+        final Document previous = documents.put(id, new Document(projectId, tokens));
+        if (previous != null && previous.projectId() == projectId && previous.tokens().equals(tokens)) return;
+
+        if (previous != null) unpost(id, previous);
+
+        final NavigableMap<String, int[]> dictionary = projects.get(projectId);
+        for (final String token : tokens) dictionary.put(token, add(dictionary.getOrDefault(token, EMPTY), id));
+    }
+
+    @Override
+    public synchronized void remove(final int id) {
+        final Document previous = documents.remove(id);
+        if (previous != null) unpost(id, previous);
+    }
+
+    /**
+     * Find the tasks of a project containing every token of the query. The last token also matches as a prefix, so
+     * a query can be searched while it is typed.
+     *
+     * @param projectId The id of the project.
+     * @param query The text to search.
+     * @return The ids of the matching tasks in ascending order.
+     */
+    public int[] search(final int projectId, final String query) {
+        final NavigableMap<String, int[]> dictionary = projects.get(projectId);
+        final List<String> tokens = tokenize(query);
+        if (dictionary == null || tokens.isEmpty()) return EMPTY;
+
+        final List<int[]> postings = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size() - 1; i++) postings.add(dictionary.getOrDefault(tokens.get(i), EMPTY));
+
+        final String prefix = tokens.getLast();
+        int[] prefixed = EMPTY;
+        for (final int[] ids : dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values())
+            prefixed = union(prefixed, ids);
+        postings.add(prefixed);
+
+        // Intersect from the shortest list, the result never grows.
+        postings.sort(Comparator.comparingInt(ids -> ids.length));
+        int[] result = postings.getFirst();
+        for (int i = 1; i < postings.size() && result.length > 0; i++) result = intersect(result, postings.get(i));
+
+        return result;
+    }
+
+    /**
+     * Split the text into case-folded tokens of letters and digits.
+     */
+    static List<String> tokenize(final String text) {
+        if (text == null || text.isEmpty()) return List.of();
+
+        final String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        final List<String> tokens = new ArrayList<>();
+
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            final boolean inToken = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inToken && start < 0) start = i;
+            else if (!inToken && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return tokens;
+    }
+
+    private void unpost(final int id, final Document document) {
+        final NavigableMap<String, int[]> dictionary = projects.get(document.projectId());
+        if (dictionary == null) return;
+
+        for (final String token : document.tokens()) {
+            final int[] ids = remove(dictionary.getOrDefault(token, EMPTY), id);
+            if (ids.length > 0) dictionary.put(token, ids);
+            else dictionary.remove(token);
+        }
+    }
+
+    private static int[] add(final int[] ids, final int id) {
+        final int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) return ids;
+
+        final int insertion = -position - 1;
+        final int[] added = new int[ids.length + 1];
+        System.arraycopy(ids, 0, added, 0, insertion);
+        added[insertion] = id;
+        System.arraycopy(ids, insertion, added, insertion + 1, ids.length - insertion);
+
+        return added;
+    }
+
+    private static int[] remove(final int[] ids, final int id) {
+        final int position = Arrays.binarySearch(ids, id);
+        if (position < 0) return ids;
+
+        final int[] removed = new int[ids.length - 1];
+        System.arraycopy(ids, 0, removed, 0, position);
+        System.arraycopy(ids, position + 1, removed, position, ids.length - position - 1);
+
+        return removed;
+    }
+
+    private static int[] intersect(final int[] left, final int[] right) {
+        final int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) i++;
+            else if (left[i] > right[j]) j++;
+            else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int[] union(final int[] left, final int[] right) {
+        if (left.length == 0) return right;
+
+        final int[] result = new int[left.length + right.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) result[size++] = left[i++];
+            else if (left[i] > right[j]) result[size++] = right[j++];
+            else {
+                result[size++] = left[i++];
+                j++;
+            }
+        }
+        while (i < left.length) result[size++] = left[i++];
+        while (j < right.length) result[size++] = right[j++];
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private record Document(int projectId, Set<String> tokens) { }
+}
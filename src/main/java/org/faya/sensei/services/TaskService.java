@@ -0,0 +1,516 @@
+package org.faya.sensei.services;
+
+import jakarta.inject.Inject;
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.entities.TaskEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.payloads.ChangesDTO;
+import org.faya.sensei.payloads.PageDTO;
+import org.faya.sensei.payloads.StatisticsDTO;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.EntityManagerScope;
+import org.faya.sensei.repositories.IRepository;
+import org.faya.sensei.repositories.PageRequest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class TaskService implements IService<TaskDTO> {
+
+    /**
+     * Above this many tasks of one project, the project is read once rather than task by task.
+     */
+    private static final int READ_BY_PROJECT = 16;
+
+    private static final int MAX_PAGE = 200;
+
+    @Inject
+    private IRepository<UserEntity> userRepository;
+
+    @Inject
+    private IRepository<ProjectEntity> projectRepository;
+
+    @Inject
+    private IRepository<StatusEntity> statusRepository;
+
+    @Inject
+    private IRepository<TaskEntity> taskRepository;
+
+    @Inject
+    private TaskUpdateCoalescer taskUpdateCoalescer;
+
+    @Inject
+    private TaskSearchIndex taskSearchIndex;
+
+    @Inject
+    private TaskIntervalIndex taskIntervalIndex;
+
+    @Inject
+    private TaskStatistics taskStatistics;
+
+    @Inject
+    private ProjectVersions projectVersions;
+
+    @Inject
+    private EntityManagerScope entityManagerScope;
+
+    /**
+     * Keep the task indexes in step with the tasks committed by every writer, including bulk statements. The tasks
+     * are read on the poller thread, on an entity manager of its own.
+     *
+     * @param changeFeed The change feed of the database.
+     */
+    @Inject
+    public void setChangeFeed(final ChangeFeed changeFeed) {
+        changeFeed.subscribe(changes -> entityManagerScope.run(() -> reindex(changes)));
+    }
+
+    @Override
+    public Optional<TaskDTO> get(final int id) {
+        return taskRepository.get(id).map(TaskDTO::fromEntity);
+    }
+
+    @Override
+    public Optional<TaskDTO> get(final int id, final Set<String> fields) {
+        if (fields == null) return get(id);
+
+        try (final Stream<TaskDTO> tasks = taskRepository.stream("id", String.valueOf(id), TaskDTO.class, fields)) {
+            return tasks.findFirst();
+        }
+    }
+
+    /**
+     * Read the tasks changed since the version as they are now, the changed tasks no longer found were deleted.
+     */
+    @Override
+    public Optional<ChangesDTO<TaskDTO>> getChanges(final int projectId, final long since, final Set<String> fields) {
+        return taskRepository.getChanges(projectId, since).map(changeSet -> {
+            final List<TaskDTO> tasks = read(projectId, changeSet.ids().stream().mapToInt(Integer::intValue).toArray(), fields);
+            final Set<Integer> deletedIds = new LinkedHashSet<>(changeSet.ids());
+            tasks.forEach(task -> deletedIds.remove(task.getId()));
+
+            return new ChangesDTO<>(tasks, List.copyOf(deletedIds), changeSet.version());
+        });
+    }
+
+    @Override
+    public Optional<Integer> getVersion(final int id) {
+        return taskRepository.getVersion(id);
+    }
+
+    @Override
+    public Collection<TaskDTO> getBy(final String key, final String value) {
+        return taskRepository.getBy(key, value, TaskDTO.class);
+    }
+
+    @Override
+    public Stream<TaskDTO> streamBy(final String key, final String value) {
+        return taskRepository.stream(key, value, TaskDTO.class);
+    }
+
+    @Override
+    public Stream<TaskDTO> streamBy(final String key, final String value, final Set<String> fields) {
+        return taskRepository.stream(key, value, TaskDTO.class, fields);
+    }
+
+    /**
+     * Search the tasks of a project through the inverted index, a project is loaded into the index on its first
+     * search after startup.
+     */
+    @Override
+    public Collection<TaskDTO> search(final String key, final String value, final String query, final Set<String> fields) {
+        if (taskSearchIndex == null || !key.equals("project.id")) return List.of();
+
+        final int projectId = load(taskSearchIndex, value);
+
+        return read(projectId, taskSearchIndex.search(projectId, query), fields);
+    }
+
+    /**
+     * Find the tasks of a project in a window through the interval index, a project is loaded into the index on its
+     * first query after startup.
+     */
+    @Override
+    public Collection<TaskDTO> getBetween(
+            final String key,
+            final String value,
+            final String field,
+            final LocalDateTime from,
+            final LocalDateTime to,
+            final Set<String> fields
+    ) {
+        if (taskIntervalIndex == null || !key.equals("project.id")) return List.of();
+
+        final int projectId = load(taskIntervalIndex, value);
+        final int[] ids = "endDate".equals(field)
+                ? taskIntervalIndex.ending(projectId, from, to)
+                : taskIntervalIndex.overlapping(projectId, from, to);
+
+        return read(projectId, ids, fields);
+    }
+
+    /**
+     * Read one page of the tasks of a project, filtered by the {@code status.name}, {@code assigner.id}, {@code from}
+     * and {@code to} filters. One more task than the limit is read to tell whether a next page exists.
+     */
+    @Override
+    public Optional<PageDTO<TaskDTO>> getPage(
+            final Map<String, String> filters,
+            final String sort,
+            final String after,
+            final int limit,
+            final Set<String> fields
+    ) {
+        final boolean descending = sort.startsWith("-");
+        final String field = descending ? sort.substring(1) : sort;
+        if (!PageRequest.SORTS.contains(field) || limit < 1 || limit > MAX_PAGE) return Optional.empty();
+
+        final PageRequest request;
+        try {
+            final PageRequest.Position position = after != null
+                    ? PageRequest.position(field, descending, after).orElseThrow(IllegalArgumentException::new)
+                    : null;
+
+            request = new PageRequest(
+                    Integer.parseInt(filters.get("project.id")),
+                    filters.get("status.name"),
+                    filters.get("assigner.id") != null ? Integer.valueOf(filters.get("assigner.id")) : null,
+                    filters.get("from") != null ? LocalDateTime.parse(filters.get("from")) : null,
+                    filters.get("to") != null ? LocalDateTime.parse(filters.get("to")) : null,
+                    field,
+                    descending,
+                    position,
+                    limit + 1,
+                    fields
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+
+        final List<TaskDTO> tasks = taskRepository.getPage(request, TaskDTO.class);
+        if (tasks.size() <= limit) return Optional.of(new PageDTO<>(tasks, null));
+
+        final List<TaskDTO> page = tasks.subList(0, limit);
+
+        return Optional.of(new PageDTO<>(page, request.cursor(page.getLast())));
+    }
+
+    /**
+     * Read the counters of a project, a project is counted once on its first read after startup.
+     */
+    @Override
+    public Optional<StatisticsDTO> getStatistics(final String key, final String value) {
+        if (taskStatistics == null || !key.equals("project.id")) return Optional.empty();
+
+        final int projectId = Integer.parseInt(value);
+        if (!taskStatistics.isLoaded(projectId) && projectRepository.get(projectId).isEmpty()) return Optional.empty();
+
+        return taskStatistics.get(load(taskStatistics, value), LocalDateTime.now());
+    }
+
+    @Override
+    public Optional<TaskDTO> create(final TaskDTO dto) {
+        if (dto.getTitle() == null || dto.getProjectId() == null || dto.getStatus() == null)
+            return Optional.empty();
+
+        final Optional<ProjectEntity> projectEntity = projectRepository.get(dto.getProjectId());
+        final Optional<StatusEntity> statusEntity = resolveStatus(dto.getProjectId(), dto.getStatus());
+        final Optional<UserEntity> userEntity = dto.getAssignerId() != null
+                ? userRepository.get(dto.getAssignerId())
+                : Optional.empty();
+        if (projectEntity.isEmpty() || statusEntity.isEmpty()) return Optional.empty();
+
+        final TaskEntity taskEntity = TaskDTO.toEntity(dto);
+        if (taskEntity.getStartDate() == null) taskEntity.setStartDate(LocalDateTime.now());
+        taskEntity.setProject(projectEntity.get());
+        taskEntity.setStatus(statusEntity.get());
+        taskEntity.setAssigner(userEntity.orElse(null));
+
+        final int id = taskRepository.post(taskEntity);
+        if (id <= 0) return Optional.empty();
+
+        final TaskDTO task = TaskDTO.fromEntity(taskEntity);
+        indexes().forEach(index -> index.put(task));
+        advance(task.getProjectId());
+
+        return Optional.of(task);
+    }
+
+    @Override
+    public Optional<TaskDTO> update(final int id, final TaskDTO dto) {
+        if (taskUpdateCoalescer == null || !taskUpdateCoalescer.isEnabled()) return write(id, dto);
+
+        // A coalesced update is written on the thread ending the window, on an entity manager of its own.
+        return taskUpdateCoalescer.update(id, dto, (taskId, merged) -> entityManagerScope != null
+                ? entityManagerScope.call(() -> write(taskId, merged))
+                : write(taskId, merged));
+    }
+
+    /**
+     * Patches skip the update coalescer, a field cleared by one patch cannot be told apart from a field left out by
+     * another once merged.
+     */
+    @Override
+    public Optional<TaskDTO> patch(final int id, final TaskDTO dto, final Set<String> fields) {
+        final TaskEntity taskEntity = new TaskEntity();
+        taskEntity.setVersion(dto.getVersion());
+        final Set<String> properties = new HashSet<>();
+
+        for (final String field : fields) {
+            switch (field) {
+                case "title" -> {
+                    if (dto.getTitle() == null) return Optional.empty();
+
+                    taskEntity.setTitle(dto.getTitle());
+                    properties.add("title");
+                }
+                case "description" -> {
+                    taskEntity.setDescription(dto.getDescription());
+                    properties.add("description");
+                }
+                case "startDate" -> {
+                    taskEntity.setStartDate(dto.getStartDate());
+                    properties.add("startDate");
+                }
+                case "endDate" -> {
+                    taskEntity.setEndDate(dto.getEndDate());
+                    properties.add("endDate");
+                }
+                case "status" -> {
+                    if (dto.getStatus() == null) return Optional.empty();
+
+                    final Optional<StatusEntity> statusEntity = taskRepository.get(id)
+                            .flatMap(task -> resolveStatus(task.getProject().getId(), dto.getStatus()));
+                    if (statusEntity.isEmpty()) return Optional.empty();
+
+                    taskEntity.setStatus(statusEntity.get());
+                    properties.add("status");
+                }
+                case "assignerId" -> {
+                    if (dto.getAssignerId() != null) {
+                        final Optional<UserEntity> userEntity = userRepository.get(dto.getAssignerId());
+                        if (userEntity.isEmpty()) return Optional.empty();
+
+                        taskEntity.setAssigner(userEntity.get());
+                    }
+                    properties.add("assigner");
+                }
+                default -> {
+                    return Optional.empty();
+                }
+            }
+        }
+
+        final Optional<TaskDTO> task = taskRepository.patch(id, taskEntity, properties).map(TaskDTO::fromEntity);
+        task.ifPresent(updated -> {
+            indexes().forEach(index -> index.put(updated));
+            advance(updated.getProjectId());
+        });
+
+        return task;
+    }
+
+    @Override
+    public boolean remove(final int id) {
+        final Optional<TaskEntity> taskEntity = taskRepository.delete(id);
+        if (taskEntity.isEmpty()) return false;
+
+        indexes().forEach(index -> index.remove(id));
+        if (taskEntity.get().getProject() != null) advance(taskEntity.get().getProject().getId());
+
+        return true;
+    }
+
+    @Override
+    public int updateBy(final Map<String, String> filters, final TaskDTO dto) {
+        final Optional<StatusEntity> sourceStatus = resolveStatus(filters);
+        if (sourceStatus.isEmpty()) return -1;
+
+        final TaskEntity taskEntity = new TaskEntity();
+
+        if (dto.getStatus() != null) {
+            final Optional<StatusEntity> targetStatus = statusRepository
+                    .get("project.id", filters.get("project.id"), dto.getStatus());
+            if (targetStatus.isEmpty()) return -1;
+
+            taskEntity.setStatus(targetStatus.get());
+        }
+
+        if (dto.getAssignerId() != null) {
+            final Optional<UserEntity> userEntity = userRepository.get(dto.getAssignerId());
+            if (userEntity.isEmpty()) return -1;
+
+            taskEntity.setAssigner(userEntity.get());
+        }
+
+        final int updated = taskRepository.putBy("status.id", String.valueOf(sourceStatus.get().getId()), taskEntity);
+        if (updated > 0) advance(Integer.parseInt(filters.get("project.id")));
+
+        return updated;
+    }
+
+    @Override
+    public int removeBy(final Map<String, String> filters) {
+        final int removed = resolveStatus(filters)
+                .map(status -> taskRepository.deleteBy("status.id", String.valueOf(status.getId())))
+                .orElse(-1);
+        if (removed > 0) advance(Integer.parseInt(filters.get("project.id")));
+
+        return removed;
+    }
+
+    private Optional<TaskDTO> write(final int id, final TaskDTO dto) {
+        final TaskEntity taskEntity = TaskDTO.toEntity(dto);
+        taskEntity.setVersion(dto.getVersion());
+
+        if (dto.getStatus() != null) {
+            final Optional<StatusEntity> statusEntity = taskRepository.get(id)
+                    .flatMap(task -> resolveStatus(task.getProject().getId(), dto.getStatus()));
+            if (statusEntity.isEmpty()) return Optional.empty();
+
+            taskEntity.setStatus(statusEntity.get());
+        }
+
+        if (dto.getAssignerId() != null) {
+            final Optional<UserEntity> userEntity = userRepository.get(dto.getAssignerId());
+            if (userEntity.isEmpty()) return Optional.empty();
+
+            taskEntity.setAssigner(userEntity.get());
+        }
+
+        final Optional<TaskDTO> task = taskRepository.put(id, taskEntity).map(TaskDTO::fromEntity);
+        task.ifPresent(updated -> {
+            indexes().forEach(index -> index.put(updated));
+            advance(updated.getProjectId());
+        });
+
+        return task;
+    }
+
+    /**
+     * Apply one polled batch of task changes to the task indexes. Created and updated tasks of loaded projects are
+     * read again as committed, tasks gone by then are dropped. A renamed status changes the status of its tasks
+     * without a task change, so the whole project is read again.
+     */
+    private void reindex(final List<ChangeFeed.Change> changes) {
+        final List<ITaskIndex> indexes = indexes().toList();
+        final Map<Integer, Set<Integer>> changed = new HashMap<>();
+        final Set<Integer> renamed = new HashSet<>();
+
+        for (final ChangeFeed.Change change : changes) {
+            if (change.projectId() == null) continue;
+            if ("statuses".equals(change.table()) && "UPDATE".equals(change.operation())) renamed.add(change.projectId());
+            if (!"tasks".equals(change.table())) continue;
+
+            final Set<Integer> ids = changed.computeIfAbsent(change.projectId(), projectId -> new LinkedHashSet<>());
+            if ("DELETE".equals(change.operation())) {
+                ids.remove(change.rowId());
+                indexes.forEach(index -> index.remove(change.rowId()));
+            } else {
+                ids.add(change.rowId());
+            }
+        }
+
+        changed.forEach((projectId, ids) -> {
+            if (ids.isEmpty() || indexes.stream().noneMatch(index -> index.isLoaded(projectId))) return;
+
+            for (final TaskDTO task : read(projectId, ids.stream().mapToInt(Integer::intValue).toArray(), null)) {
+                ids.remove(task.getId());
+                indexes.forEach(index -> index.put(task));
+            }
+            ids.forEach(id -> indexes.forEach(index -> index.remove(id)));
+        });
+
+        for (final int projectId : renamed) {
+            if (indexes.stream().noneMatch(index -> index.isLoaded(projectId))) continue;
+
+            for (final TaskDTO task : table(projectId, null)) indexes.forEach(index -> index.put(task));
+        }
+    }
+
+    /**
+     * Advance the version of the project as soon as a write of this node commits, ahead of its change feed event.
+     */
+    private void advance(final Integer projectId) {
+        if (projectVersions != null && projectId != null) projectVersions.advance(projectId);
+    }
+
+    private Stream<ITaskIndex> indexes() {
+        return Stream.of(taskSearchIndex, taskIntervalIndex, taskStatistics).filter(Objects::nonNull);
+    }
+
+    /**
+     * Load the project into the index unless it is loaded already.
+     *
+     * @return The id of the project.
+     */
+    private int load(final ITaskIndex index, final String projectId) {
+        index.load(Integer.parseInt(projectId), () -> table(Integer.parseInt(projectId), null));
+
+        return Integer.parseInt(projectId);
+    }
+
+    /**
+     * Read every task of a project into a compact table for the indexes to load from, a task is only created again
+     * when the table is read.
+     */
+    private TaskTable table(final int projectId, final Set<String> fields) {
+        try (final Stream<TaskDTO> stream = taskRepository.stream("project.id", String.valueOf(projectId), TaskDTO.class, fields)) {
+            return TaskTable.of(stream.iterator());
+        }
+    }
+
+    /**
+     * Read the tasks of a project as committed in the order of the ids, tasks gone by then are left out. Many ids are
+     * read with one projection of the project, keeping only the tasks asked for as the rows stream past.
+     */
+    private List<TaskDTO> read(final int projectId, final int[] ids, final Set<String> fields) {
+        if (ids.length > READ_BY_PROJECT) {
+            final Map<Integer, TaskDTO> tasks = new HashMap<>();
+            Arrays.stream(ids).forEach(id -> tasks.put(id, null));
+
+            try (final Stream<TaskDTO> stream = taskRepository.stream("project.id", String.valueOf(projectId), TaskDTO.class, fields)) {
+                stream.filter(task -> tasks.containsKey(task.getId())).forEach(task -> tasks.put(task.getId(), task));
+            }
+
+            return Arrays.stream(ids).mapToObj(tasks::get).filter(Objects::nonNull).toList();
+        }
+
+        return Arrays.stream(ids)
+                .mapToObj(id -> {
+                    try (final Stream<TaskDTO> stream = taskRepository.stream("id", String.valueOf(id), TaskDTO.class, fields)) {
+                        return stream.toList();
+                    }
+                })
+                .flatMap(Collection::stream)
+                .toList();
+    }
+
+    /**
+     * Resolve the status filter, status names are only unique inside a project.
+     */
+    private Optional<StatusEntity> resolveStatus(final Map<String, String> filters) {
+        final String projectId = filters.get("project.id");
+        final String statusName = filters.get("status.name");
+        if (projectId == null || statusName == null) return Optional.empty();
+
+        return statusRepository.get("project.id", projectId, statusName);
+    }
+
+    private Optional<StatusEntity> resolveStatus(final Integer projectId, final String statusName) {
+        return statusRepository.get("project.id", String.valueOf(projectId), statusName);
+    }
+}
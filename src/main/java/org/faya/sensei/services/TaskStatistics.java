@@ -0,0 +1,139 @@
+package org.faya.sensei.services;
+
+import org.faya.sensei.payloads.StatisticsDTO;
+import org.faya.sensei.payloads.TaskDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory counters of the tasks of every project by status and assignee, adjusted by each write, so reading the
+ * statistics of a board never scans its tasks.
+ * <p>
+ * A task is overdue once its end date has passed. The end dates are kept sorted with a watermark below which every
+ * end date is counted as overdue, reading the statistics moves the watermark to the current time and only counts the
+ * end dates it passes.
+ */
+public final class TaskStatistics implements ITaskIndex {
+
+    private final Map<Integer, Board> boards = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Counted> tasks = new HashMap<>();
+
+    @Override
+    public boolean isLoaded(final int projectId) {
+        return boards.containsKey(projectId);
+    }
+
+    @Override
+    public synchronized void load(final int projectId, final Supplier<Collection<TaskDTO>> tasks) {
+        if (boards.containsKey(projectId)) return;
+
+        boards.put(projectId, new Board());
+        tasks.get().forEach(this::put);
+    }
+
+    @Override
+    public synchronized void put(final TaskDTO task) {
+        final Integer id = task.getId();
+        final Integer projectId = task.getProjectId();
+        if (id == null || projectId == null) return;
+
+        final Board board = boards.get(projectId);
+        if (board == null) {
+            remove(id);
+            return;
+        }
+
+        final Counted counted = new Counted(projectId, task.getStatus(), task.getAssignerId(), task.getEndDate());
+        final Counted previous = tasks.put(id, counted);
+        if (counted.equals(previous)) return;
+
+        if (previous != null) boards.get(previous.projectId()).count(previous, -1);
+        board.count(counted, 1);
+    }
+
+    @Override
+    public synchronized void remove(final int id) {
+        final Counted previous = tasks.remove(id);
+        if (previous != null) boards.get(previous.projectId()).count(previous, -1);
+    }
+
+    /**
+     * Read the counters of a project.
+     *
+     * @param projectId The id of the project.
+     * @param now The time before which an end date is overdue.
+     * @return The statistics, or empty when the project is not loaded.
+     */
+    public synchronized Optional<StatisticsDTO> get(final int projectId, final LocalDateTime now) {
+        final Board board = boards.get(projectId);
+        if (board == null) return Optional.empty();
+
+        board.advance(now);
+
+        final StatisticsDTO statistics = new StatisticsDTO();
+        statistics.setTotal(board.total);
+        statistics.setUnassigned(board.unassigned);
+        statistics.setOverdue(board.overdue);
+        statistics.setStatuses(Map.copyOf(board.statuses));
+        statistics.setAssignees(Map.copyOf(board.assignees));
+
+        return Optional.of(statistics);
+    }
+
+    /**
+     * The counters of one project, guarded by the statistics.
+     */
+    private static final class Board {
+
+        private final Map<String, Integer> statuses = new HashMap<>();
+
+        private final Map<String, Integer> assignees = new HashMap<>();
+
+        private final NavigableMap<LocalDateTime, Integer> endDates = new TreeMap<>();
+
+        /**
+         * Every end date before the watermark is counted in {@link #overdue}.
+         */
+        private LocalDateTime watermark = LocalDateTime.MIN;
+
+        private int total;
+
+        private int unassigned;
+
+        private int overdue;
+
+        private void count(final Counted task, final int delta) {
+            total += delta;
+            if (task.status() != null) add(statuses, task.status(), delta);
+            if (task.assignerId() != null) add(assignees, String.valueOf(task.assignerId()), delta);
+            else unassigned += delta;
+
+            if (task.endDate() != null) {
+                add(endDates, task.endDate(), delta);
+                if (task.endDate().isBefore(watermark)) overdue += delta;
+            }
+        }
+
+        private void advance(final LocalDateTime now) {
+            if (!now.isAfter(watermark)) return;
+
+            for (final int count : endDates.subMap(watermark, true, now, false).values()) overdue += count;
+            watermark = now;
+        }
+
+        private static <K> void add(final Map<K, Integer> counters, final K key, final int delta) {
+            counters.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    private record Counted(int projectId, String status, Integer assignerId, LocalDateTime endDate) { }
+}
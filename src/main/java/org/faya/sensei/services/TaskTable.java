@@ -0,0 +1,226 @@
+package org.faya.sensei.services;
+
+import org.faya.sensei.payloads.TaskDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * A compact copy of the tasks of a board, read while the task indexes load or reindex a whole project. The tasks are
+ * kept column by column: ids in int arrays, dates as epoch seconds and nanoseconds, and statuses as references into
+ * the status names of the table, each name kept once. A task is only turned back into a {@link TaskDTO} when it is
+ * read, so a board of 100k tasks is a few dozen arrays rather than a million small objects.
+ * <p>
+ * The table is a buffer, not a cache: the indexes keep what they need of each task, and the project endpoints stream
+ * the tasks of a board to the response without holding them.
+ */
+public final class TaskTable extends AbstractList<TaskDTO> implements RandomAccess {
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private final int size;
+
+    private final int[] ids;
+
+    private final String[] titles;
+
+    private final String[] descriptions;
+
+    private final long[] startSeconds;
+
+    private final int[] startNanos;
+
+    private final long[] endSeconds;
+
+    private final int[] endNanos;
+
+    private final int[] statuses;
+
+    private final String[] statusNames;
+
+    private final int[] projectIds;
+
+    private final int[] assignerIds;
+
+    private final int[] versions;
+
+    /**
+     * The rows ordered by id, packed as the id in the high half and the row in the low half, sorted on first lookup.
+     */
+    private volatile long[] byId;
+
+    private TaskTable(final Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, size);
+        titles = Arrays.copyOf(builder.titles, size);
+        descriptions = Arrays.copyOf(builder.descriptions, size);
+        startSeconds = Arrays.copyOf(builder.startSeconds, size);
+        startNanos = Arrays.copyOf(builder.startNanos, size);
+        endSeconds = Arrays.copyOf(builder.endSeconds, size);
+        endNanos = Arrays.copyOf(builder.endNanos, size);
+        statuses = Arrays.copyOf(builder.statuses, size);
+        statusNames = new String[builder.statusNames.size()];
+        builder.statusNames.forEach((name, reference) -> statusNames[reference] = name);
+        projectIds = Arrays.copyOf(builder.projectIds, size);
+        assignerIds = Arrays.copyOf(builder.assignerIds, size);
+        versions = Arrays.copyOf(builder.versions, size);
+    }
+
+    /**
+     * Copy the tasks into a table as they are read, no task is held on to.
+     *
+     * @param tasks The tasks, in the order of the rows.
+     * @return The table.
+     */
+    public static TaskTable of(final Iterator<TaskDTO> tasks) {
+        final Builder builder = new Builder();
+        while (tasks.hasNext()) builder.add(tasks.next());
+
+        return new TaskTable(builder);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create the task of a row, a new task on every call.
+     */
+    @Override
+    public TaskDTO get(final int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException(row);
+
+        return new TaskDTO(
+                boxed(ids[row]),
+                titles[row],
+                descriptions[row],
+                date(startSeconds[row], startNanos[row]),
+                date(endSeconds[row], endNanos[row]),
+                statuses[row] != NULL_INT ? statusNames[statuses[row]] : null,
+                boxed(projectIds[row]),
+                boxed(assignerIds[row]),
+                boxed(versions[row])
+        );
+    }
+
+    /**
+     * Find a task by id.
+     *
+     * @param id The id of the task.
+     * @return The task, empty when the table has no task of the id.
+     */
+    public Optional<TaskDTO> find(final int id) {
+        final long[] order = order();
+
+        int low = 0;
+        int high = order.length - 1;
+        while (low <= high) {
+            final int middle = low + high >>> 1;
+            final int candidate = (int) (order[middle] >> 32);
+            if (candidate < id) low = middle + 1;
+            else if (candidate > id) high = middle - 1;
+            else return Optional.of(get((int) order[middle]));
+        }
+
+        return Optional.empty();
+    }
+
+    private long[] order() {
+        long[] order = byId;
+        if (order != null) return order;
+
+        order = new long[size];
+        for (int row = 0; row < size; row++) order[row] = (long) ids[row] << 32 | row;
+        Arrays.sort(order);
+
+        return byId = order;
+    }
+
+    private static Integer boxed(final int value) {
+        return value != NULL_INT ? value : null;
+    }
+
+    private static int unboxed(final Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static LocalDateTime date(final long seconds, final int nanos) {
+        return seconds != NULL_DATE ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Appends tasks to growing columns, which the table trims to size.
+     */
+    private static final class Builder {
+
+        private int size;
+
+        private int[] ids = new int[16];
+
+        private String[] titles = new String[16];
+
+        private String[] descriptions = new String[16];
+
+        private long[] startSeconds = new long[16];
+
+        private int[] startNanos = new int[16];
+
+        private long[] endSeconds = new long[16];
+
+        private int[] endNanos = new int[16];
+
+        private int[] statuses = new int[16];
+
+        private final Map<String, Integer> statusNames = new HashMap<>();
+
+        private int[] projectIds = new int[16];
+
+        private int[] assignerIds = new int[16];
+
+        private int[] versions = new int[16];
+
+        private void add(final TaskDTO task) {
+            if (size == ids.length) grow();
+
+            final int row = size++;
+            ids[row] = unboxed(task.getId());
+            titles[row] = task.getTitle();
+            descriptions[row] = task.getDescription();
+            startSeconds[row] = task.getStartDate() != null ? task.getStartDate().toEpochSecond(ZoneOffset.UTC) : NULL_DATE;
+            startNanos[row] = task.getStartDate() != null ? task.getStartDate().getNano() : 0;
+            endSeconds[row] = task.getEndDate() != null ? task.getEndDate().toEpochSecond(ZoneOffset.UTC) : NULL_DATE;
+            endNanos[row] = task.getEndDate() != null ? task.getEndDate().getNano() : 0;
+            statuses[row] = task.getStatus() != null
+                    ? statusNames.computeIfAbsent(task.getStatus(), name -> statusNames.size())
+                    : NULL_INT;
+            projectIds[row] = unboxed(task.getProjectId());
+            assignerIds[row] = unboxed(task.getAssignerId());
+            versions[row] = unboxed(task.getVersion());
+        }
+
+        private void grow() {
+            final int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            startSeconds = Arrays.copyOf(startSeconds, capacity);
+            startNanos = Arrays.copyOf(startNanos, capacity);
+            endSeconds = Arrays.copyOf(endSeconds, capacity);
+            endNanos = Arrays.copyOf(endNanos, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            projectIds = Arrays.copyOf(projectIds, capacity);
+            assignerIds = Arrays.copyOf(assignerIds, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.faya.sensei.services;
+
+import org.faya.sensei.payloads.TaskDTO;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Coalesces updates of the same task which arrive within a short window. The first update of a task schedules the
+ * write for the end of the window, every update arriving meanwhile is merged into it field by field, and the merged
+ * state is written once. All callers receive the same written task.
+ * <p>
+ * Only unconditional updates are coalesced. An update expecting a version is written on its own, so a stale version is
+ * still refused rather than merged into the update of another writer.
+ */
+public final class TaskUpdateCoalescer {
+
+    private final long window;
+
+    private final Executor flusher;
+
+    private final Map<Integer, Batch> batches = new ConcurrentHashMap<>();
+
+    public TaskUpdateCoalescer(final Duration window) {
+        this.window = window.toMillis();
+        this.flusher = CompletableFuture.delayedExecutor(this.window, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Check whether updates are coalesced at all.
+     *
+     * @return True when the window is positive.
+     */
+    public boolean isEnabled() {
+        return window > 0;
+    }
+
+    /**
+     * Merge the update into the pending batch of the task, or start a new batch written when the window ends. An update
+     * expecting a version is written right away.
+     *
+     * @param id The id of the task.
+     * @param dto The updated fields of the task.
+     * @param writer The function writing the merged update, called on the thread ending the window.
+     * @return The written task.
+     */
+    public Optional<TaskDTO> update(
+            final int id,
+            final TaskDTO dto,
+            final BiFunction<Integer, TaskDTO, Optional<TaskDTO>> writer
+    ) {
+        if (dto.getVersion() != null) return writer.apply(id, dto);
+
+        final Batch[] joined = new Batch[1];
+
+        batches.compute(id, (key, batch) -> {
+            if (batch == null) {
+                batch = new Batch();
+                schedule(id, batch, writer);
+            }
+
+            merge(batch.merged, dto);
+            joined[0] = batch;
+
+            return batch;
+        });
+
+        return await(joined[0]);
+    }
+
+    private void schedule(
+            final int id,
+            final Batch batch,
+            final BiFunction<Integer, TaskDTO, Optional<TaskDTO>> writer
+    ) {
+        flusher.execute(() -> {
+            // Closing under the map lock guarantees no update joins the batch after it was taken.
+            batches.remove(id, batch);
+
+            try {
+                batch.result.complete(writer.apply(id, batch.merged));
+            } catch (RuntimeException e) {
+                batch.result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private static Optional<TaskDTO> await(final Batch batch) {
+        try {
+            return batch.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static void merge(final TaskDTO target, final TaskDTO source) {
+        if (source.getTitle() != null) target.setTitle(source.getTitle());
+        if (source.getDescription() != null) target.setDescription(source.getDescription());
+        if (source.getStartDate() != null) target.setStartDate(source.getStartDate());
+        if (source.getEndDate() != null) target.setEndDate(source.getEndDate());
+        if (source.getStatus() != null) target.setStatus(source.getStatus());
+        if (source.getProjectId() != null) target.setProjectId(source.getProjectId());
+        if (source.getAssignerId() != null) target.setAssignerId(source.getAssignerId());
+    }
+
+    private static final class Batch {
+
+        private final TaskDTO merged = new TaskDTO();
+
+        private final CompletableFuture<Optional<TaskDTO>> result = new CompletableFuture<>();
+    }
+}
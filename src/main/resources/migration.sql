@@ -10,7 +10,7 @@ VALUES
     ('Todo', 1),
     ('Done', 1);
 
-INSERT INTO tasks (title, description, startDate, endDate, project_id, status_id, assigner_id)
+INSERT INTO tasks (title, description, startDate, endDate, project_id, status_id, assigner_id, version)
 VALUES
-    ('Task 1', 'Task 1 Description.', NOW() - INTERVAL '20' MINUTE, NOW() + INTERVAL '10' MINUTE, 1, 1, 1),
-    ('Task 2', 'Task 2 Description.', NOW() - INTERVAL '10' MINUTE, NOW() + INTERVAL '20' MINUTE, 1, 2, 1);
\ No newline at end of file
+    ('Task 1', 'Task 1 Description.', NOW() - INTERVAL '20' MINUTE, NOW() + INTERVAL '10' MINUTE, 1, 1, 1, 0),
+    ('Task 2', 'Task 2 Description.', NOW() - INTERVAL '10' MINUTE, NOW() + INTERVAL '20' MINUTE, 1, 2, 1, 0);
\ No newline at end of file
@@ -4,6 +4,10 @@
  * @property {string} name The name of the project.
  * @property {number[]} ownerIds The owner ids of the project.
  * @property {TaskDTO[]} [tasks] The tasks of the project.
+ * @property {boolean} [delta] True when the tasks are only those changed since the requested version, false when
+ * they are the whole board.
+ * @property {number[]} [deletedTaskIds] The ids of the tasks deleted since the requested version, on a delta only.
+ * @property {number} [version] The version of the change log the project was read at, to sync from next time.
  */
 
 /**
@@ -171,11 +175,13 @@ export async function getAllProjects() {
  * Get the target project based on id.
  *
  * @param {number} id The id of the project.
+ * @param {number} [since] The version of a previous read, to get only the tasks changed since.
  * @returns {Promise<ProjectDTO|null>} The details of the project.
  */
-export async function getProject(id) {
+export async function getProject(id, since) {
     try {
-        const response = await fetch(`${API.project}/${id}`, {
+        const query = since !== undefined ? `?since=${since}` : "";
+        const response = await fetch(`${API.project}/${id}${query}`, {
             method: "GET",
             headers: {
                 "Content-Type": "application/json",
@@ -235,6 +241,10 @@ export function listenTask(callback) {
 
     eventSource.onmessage = callback;
 
+    for (const name of ["create", "update", "delete", "bulk-update", "bulk-delete", "change"]) {
+        eventSource.addEventListener(name, callback);
+    }
+
     eventSource.onerror = (err) => console.error("Failed to receive message.", err);
 
     return eventSource;
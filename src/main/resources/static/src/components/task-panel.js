@@ -1,7 +1,7 @@
 import { TaskComponent } from "./task-component.js";
 import { TASK_CREATED, TASK_LOADING, TASK_UPDATED } from "./task-event.js";
 import { TaskStatus } from "./task-status.js";
-import { listenTask, saveTask, updateTask } from "../api.js";
+import { getProject, listenTask, saveTask, updateTask } from "../api.js";
 
 const styleSheet = new CSSStyleSheet();
 styleSheet.replaceSync`
@@ -36,6 +36,7 @@ export class TaskPanel extends HTMLElement {
         this.handleTaskLoading = this.handleTaskLoading.bind(this);
         this.handleTaskCreated = this.handleTaskCreated.bind(this);
         this.handleTaskUpdated = this.handleTaskUpdated.bind(this);
+        this.handleReconnect = this.handleReconnect.bind(this);
 
         this.#elements = { container };
     }
@@ -43,6 +44,9 @@ export class TaskPanel extends HTMLElement {
     get projectId() { return this.#data.projectId; }
     set projectId(value) { this.#data.projectId = value; }
 
+    get version() { return this.#data.version; }
+    set version(value) { this.#data.version = value; }
+
     connectedCallback() {
         this.addEventListener(TASK_LOADING, this.handleTaskLoading);
         this.addEventListener(TASK_CREATED, this.handleTaskCreated);
@@ -53,28 +57,57 @@ export class TaskPanel extends HTMLElement {
         this.removeEventListener(TASK_LOADING, this.handleTaskLoading)
         this.removeEventListener(TASK_CREATED, this.handleTaskCreated);
         this.removeEventListener(TASK_UPDATED, this.handleTaskUpdated);
+        this.#data.eventSource?.close();
     }
 
     handleTaskLoading(event) {
-        const { id, tasks } = event.detail;
+        const { id, tasks, version } = event.detail;
 
         this.projectId = id;
+        this.version = version;
 
-        for (const task of tasks) {
-            if (this.#taskStatuses.has(task.status)) {
-                this.#taskStatuses.set(task.status, [...this.#taskStatuses.get(task.status), task]);
-            } else {
-                this.#taskStatuses.set(task.status, [task]);
-            }
-        }
+        this.#taskStatuses.clear();
+        this.addTasks(tasks);
 
         this.updateElements();
 
-        listenTask(event => console.log(event));
+        this.#data.eventSource?.close();
+        this.#data.eventSource = listenTask(event => console.log(event));
+
+        let connected = false;
+        this.#data.eventSource.addEventListener("open", () => {
+            if (connected) this.handleReconnect();
+            connected = true;
+        });
 
         this.classList.toggle("visible", true);
     }
 
+    /**
+     * Catch up with the changes missed while the event source was disconnected. A delta carries the tasks changed
+     * since the last version and the ids of the deleted ones, anything else is the whole board.
+     */
+    handleReconnect() {
+        getProject(this.projectId, this.version).then(project => {
+            if (!project) return;
+
+            if (project.delta) {
+                const changedIds = new Set([...project.deletedTaskIds, ...project.tasks.map(task => task.id)]);
+
+                for (const [status, tasks] of this.#taskStatuses) {
+                    this.#taskStatuses.set(status, tasks.filter(task => !changedIds.has(task.id)));
+                }
+            } else {
+                this.#taskStatuses.clear();
+            }
+
+            this.addTasks(project.tasks);
+            this.version = project.version;
+
+            this.updateElements();
+        });
+    }
+
     handleTaskCreated(event) {
         const { status, task } = event.detail;
 
@@ -116,6 +149,16 @@ export class TaskPanel extends HTMLElement {
         }
     }
 
+    addTasks(tasks) {
+        for (const task of tasks) {
+            if (this.#taskStatuses.has(task.status)) {
+                this.#taskStatuses.set(task.status, [...this.#taskStatuses.get(task.status), task]);
+            } else {
+                this.#taskStatuses.set(task.status, [task]);
+            }
+        }
+    }
+
     updateElements() {
         const { container } = this.#elements;
 
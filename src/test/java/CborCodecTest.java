@@ -0,0 +1,150 @@
+import jakarta.json.Json;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MediaType;
+import org.faya.sensei.codecs.CborCodecProvider;
+import org.faya.sensei.codecs.CborCodecs;
+import org.faya.sensei.codecs.CborOutput;
+import org.faya.sensei.codecs.JsonCodecs;
+import org.faya.sensei.codecs.JsonOutput;
+import org.faya.sensei.payloads.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CborCodecTest {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final CborCodecProvider provider = new CborCodecProvider();
+
+    /**
+     * The encodings of the examples of RFC 8949 appendix A.
+     */
+    @Test
+    public void testEncoding() {
+        assertEquals("00", encode(0));
+        assertEquals("17", encode(23));
+        assertEquals("1818", encode(24));
+        assertEquals("1903e8", encode(1000));
+        assertEquals("1a000f4240", encode(1_000_000));
+        assertEquals("1b000000e8d4a51000", encode(1_000_000_000_000L));
+        assertEquals("1b7fffffffffffffff", encode(Long.MAX_VALUE));
+        assertEquals("20", encode(-1));
+        assertEquals("3903e7", encode(-1000));
+        assertEquals("3b7fffffffffffffff", encode(Long.MIN_VALUE));
+        assertEquals("f4", encode(false));
+        assertEquals("f6", encode(null));
+        assertEquals("6449455446", encode("IETF"));
+        assertEquals("62c3bc", encode("ü"));
+        assertEquals("c11a514b67b0", encode(LocalDateTime.of(2013, 3, 21, 20, 4)));
+        assertEquals("c1fb41d452d9ec200000", encode(LocalDateTime.of(2013, 3, 21, 20, 4, 0, 500_000_000)));
+        assertEquals("83010203", encode(List.of(1, 2, 3)));
+        assertEquals("a1656361756e7401", encode(Json.createObjectBuilder().add("caunt", 1).build()));
+
+        final TaskDTO task = new TaskDTO();
+        task.setId(1);
+        task.setTitle("a");
+        assertEquals("a262696401657469746c656161", encode(task));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final TaskDTO task = new TaskDTO(
+                1, "Quarterly report", "Every \"région\" 😀", LocalDateTime.of(2031, 1, 1, 9, 0), LocalDateTime.of(2031, 1, 2, 9, 30, 15, 250_000), "todo", 2, 3, 0
+        );
+        final TaskDTO draft = new TaskDTO(-4, "Draft", null, LocalDateTime.of(1931, 1, 1, 9, 0, 0, 999_999_000), null, "todo", 2, null, 100_000);
+
+        final ProjectDTO project = new ProjectDTO(2, "project", List.of(3, 5));
+        project.setTasks(List.of(task, draft));
+        project.setDeletedTaskIds(List.of(9));
+        project.setDelta(true);
+        project.setVersion(3_000_000_000L);
+
+        final StatisticsDTO statistics = new StatisticsDTO();
+        statistics.setTotal(2);
+        statistics.setStatuses(Map.of("todo", 2));
+        statistics.setAssignees(Map.of("3", 1));
+
+        final UserDTO user = new UserDTO();
+        user.setId(3);
+        user.setName("x".repeat(10_000));
+
+        for (final Object value : List.of(task, draft, project, statistics, user)) {
+            assertEquals(json(value), json(read(value.getClass(), value.getClass(), HEX.parseHex(encode(value)))));
+        }
+
+        final Type tasks = new GenericType<List<TaskDTO>>() { }.getType();
+        assertEquals(json(List.of(task, draft)), json(read(List.class, tasks, HEX.parseHex(encode(List.of(task, draft))))));
+    }
+
+    @Test
+    public void testRead() {
+        // An indefinite map with an indefinite title, an unknown nested property, a half float epoch date and a break.
+        final TaskDTO task = (TaskDTO) read(TaskDTO.class, TaskDTO.class, HEX.parseHex(
+                "bf"
+                        + "657469746c65" + "7f" + "6144" + "6472616674" + "ff"
+                        + "67756e6b6e6f776e" + "9f" + "a1616101" + "c1f93c00" + "ff"
+                        + "69737461727444617465" + "c1f93c00"
+                        + "6970726f6a6563744964" + "02"
+                        + "6a61737369676e65724964" + "f6"
+                        + "ff"
+        ));
+
+        assertEquals("Draft", task.getTitle());
+        assertEquals(LocalDateTime.of(1970, 1, 1, 0, 0, 1), task.getStartDate());
+        assertEquals(2, task.getProjectId());
+        assertNull(task.getAssignerId());
+
+        final TaskDTO dated = (TaskDTO) read(TaskDTO.class, TaskDTO.class, HEX.parseHex(
+                "a1" + "69737461727444617465" + "73323033312d30312d30315430393a30303a3030"
+        ));
+        assertEquals(LocalDateTime.of(2031, 1, 1, 9, 0), dated.getStartDate());
+
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, TaskDTO.class, HEX.parseHex("a1" + "6970726f6a6563744964" + "6374776f")));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, TaskDTO.class, HEX.parseHex("a1" + "6970726f6a6563744964" + "1b0000000100000000")));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, TaskDTO.class, HEX.parseHex("a1" + "01" + "02")));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, TaskDTO.class, HEX.parseHex("80")));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, TaskDTO.class, HEX.parseHex("a2" + "657469746c65" + "6144")));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, TaskDTO.class, HEX.parseHex("a1" + "657469746c65" + "7c")));
+    }
+
+    @Test
+    public void testIsPreferred() {
+        assertTrue(CborCodecs.isPreferred(List.of(CborCodecs.APPLICATION_CBOR_TYPE)));
+        assertFalse(CborCodecs.isPreferred(List.of(MediaType.WILDCARD_TYPE)));
+        assertFalse(CborCodecs.isPreferred(List.of(MediaType.APPLICATION_JSON_TYPE, CborCodecs.APPLICATION_CBOR_TYPE)));
+    }
+
+    private static String encode(final Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CborOutput output = new CborOutput(bytes);
+        CborCodecs.writeValue(output, value);
+        output.flush();
+
+        return HEX.formatHex(bytes.toByteArray());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object read(final Class<?> type, final Type genericType, final byte[] cbor) {
+        return provider.readFrom((Class) type, genericType, null, null, null, new ByteArrayInputStream(cbor));
+    }
+
+    private static String json(final Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final JsonOutput output = new JsonOutput(bytes);
+        JsonCodecs.writeValue(output, value);
+        output.flush();
+
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,101 @@
+import factories.ProjectFactory;
+import factories.StatusFactory;
+import factories.UserFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.entities.UserRole;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTest {
+
+    private static final EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory(
+            "java-jaxrs-database",
+            Map.of(
+                    "jakarta.persistence.jdbc.url", "jdbc:h2:mem:jaxrs-changes;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+                    "hibernate.show_sql", "false"
+            )
+    );
+
+    private static final ChangeFeed changeFeed = new ChangeFeed(entityManagerFactory, Duration.ofMillis(10));
+
+    private static final BlockingQueue<ChangeFeed.Change> changes = new LinkedBlockingQueue<>();
+
+    private static ProjectEntity projectEntity;
+
+    @BeforeAll
+    public static void setUp() {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        final UserEntity userEntity = UserFactory.createUserEntity("changes", "password", UserRole.USER).toEntity();
+        projectEntity = ProjectFactory.createProjectEntity("changes", List.of(userEntity)).toEntity();
+        entityManager.persist(projectEntity);
+
+        entityManager.getTransaction().commit();
+        entityManager.close();
+
+        changeFeed.subscribe(changes::addAll);
+        changeFeed.start();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        changeFeed.close();
+        entityManagerFactory.close();
+    }
+
+    @Test
+    public void testLateCommit() throws InterruptedException {
+        final EntityManager lateEntityManager = entityManagerFactory.createEntityManager();
+        final EntityManager earlyEntityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            // Takes a sequence but commits after a later transaction, leaving a hole the poller moves past.
+            lateEntityManager.getTransaction().begin();
+            final StatusEntity lateStatus = StatusFactory.createStatusEntity("late", lateEntityManager.find(ProjectEntity.class, projectEntity.getId())).toEntity();
+            lateEntityManager.persist(lateStatus);
+            lateEntityManager.flush();
+
+            earlyEntityManager.getTransaction().begin();
+            final StatusEntity earlyStatus = StatusFactory.createStatusEntity("early", earlyEntityManager.find(ProjectEntity.class, projectEntity.getId())).toEntity();
+            earlyEntityManager.persist(earlyStatus);
+            earlyEntityManager.getTransaction().commit();
+
+            final ChangeFeed.Change early = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(early);
+            assertEquals((int) earlyStatus.getId(), early.rowId());
+            assertTrue(changeFeed.sequence() < early.sequence());
+
+            lateEntityManager.getTransaction().commit();
+
+            final ChangeFeed.Change late = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(late);
+            assertEquals((int) lateStatus.getId(), late.rowId());
+            assertTrue(late.sequence() < early.sequence());
+            assertNotEquals(early.transactionId(), late.transactionId());
+        } finally {
+            lateEntityManager.close();
+            earlyEntityManager.close();
+        }
+
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (changeFeed.sequence() < 2 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertTrue(changeFeed.sequence() >= 2);
+    }
+}
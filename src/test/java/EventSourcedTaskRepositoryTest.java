@@ -0,0 +1,238 @@
+import factories.ProjectFactory;
+import factories.StatusFactory;
+import factories.TaskFactory;
+import factories.UserFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Persistence;
+import org.faya.sensei.entities.*;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.eventstore.EventSourcedTaskRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventSourcedTaskRepositoryTest {
+
+    private static final EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory(
+            "java-jaxrs-database",
+            Map.of("jakarta.persistence.jdbc.url", "jdbc:h2:mem:event-sourced-tasks;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+    );
+
+    private static final EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+    private static ProjectEntity projectEntity;
+
+    private static StatusEntity todoStatusEntity;
+
+    private static StatusEntity doneStatusEntity;
+
+    @BeforeAll
+    public static void setUp() {
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+
+        final UserEntity userEntity = UserFactory.createUserEntity("user", "password", UserRole.USER).toEntity();
+        projectEntity = ProjectFactory.createProjectEntity("project", List.of(userEntity)).toEntity();
+        todoStatusEntity = StatusFactory.createStatusEntity("todo", projectEntity).toEntity();
+        doneStatusEntity = StatusFactory.createStatusEntity("done", projectEntity).toEntity();
+
+        entityManager.persist(projectEntity);
+        entityManager.persist(todoStatusEntity);
+        entityManager.persist(doneStatusEntity);
+        entityManager.persist(createTask("existing task"));
+
+        transaction.commit();
+    }
+
+    @Test
+    public void testReplay(@TempDir final Path directory) throws IOException {
+        final int createdId;
+        final int removedId;
+
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            assertEquals(List.of("existing task"), titles(taskRepository));
+
+            createdId = taskRepository.post(createTask("created task"));
+            removedId = taskRepository.post(createTask("removed task"));
+
+            final TaskEntity update = new TaskEntity();
+            update.setStatus(doneStatusEntity);
+            assertTrue(taskRepository.put(createdId, update).isPresent());
+            assertTrue(taskRepository.delete(removedId).isPresent());
+        }
+
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            assertEquals(List.of("existing task", "created task"), titles(taskRepository));
+
+            final TaskEntity taskEntity = taskRepository.get(createdId).orElseThrow();
+            assertEquals(doneStatusEntity.getId(), taskEntity.getStatus().getId());
+            assertEquals(1, taskEntity.getVersion());
+
+            assertTrue(taskRepository.post(createTask("next task")) > removedId);
+        }
+    }
+
+    @Test
+    public void testSnapshot(@TempDir final Path directory) throws IOException {
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            for (int i = 0; i < 10_000; i++) taskRepository.post(createTask("task %d".formatted(i)));
+
+            // The imported task is in the status as well.
+            assertEquals(10_001, taskRepository.deleteBy("status.id", String.valueOf(todoStatusEntity.getId())));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            final List<String> names = files.map(path -> path.getFileName().toString()).sorted().toList();
+
+            assertEquals(1, names.stream().filter(name -> name.endsWith(".snapshot")).count());
+            assertEquals(1, names.stream().filter(name -> name.endsWith(".segment")).count());
+        }
+
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            assertTrue(taskRepository.get().isEmpty());
+        }
+    }
+
+    @Test
+    public void testTornRecord(@TempDir final Path directory) throws IOException {
+        final int createdId;
+
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            createdId = taskRepository.post(createTask("created task"));
+            taskRepository.post(createTask("torn task"));
+        }
+
+        corruptLastRecord(directory);
+
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            assertEquals(List.of("existing task", "created task"), titles(taskRepository));
+
+            final int nextId = taskRepository.post(createTask("next task"));
+            assertTrue(nextId > createdId);
+        }
+
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            assertEquals(List.of("existing task", "created task", "next task"), titles(taskRepository));
+        }
+    }
+
+    @Test
+    public void testVersionMismatch(@TempDir final Path directory) throws IOException {
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            final int id = taskRepository.post(createTask("created task"));
+
+            final TaskEntity update = new TaskEntity();
+            update.setTitle("updated task");
+            update.setVersion(1);
+
+            assertThrows(OptimisticLockException.class, () -> taskRepository.put(id, update));
+
+            update.setVersion(0);
+            assertEquals(1, taskRepository.put(id, update).orElseThrow().getVersion());
+            assertEquals(Optional.of(1), taskRepository.getVersion(id));
+            assertTrue(taskRepository.getVersion(Integer.MAX_VALUE).isEmpty());
+        }
+    }
+
+    @Test
+    public void testPatch(@TempDir final Path directory) throws IOException {
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            final int id = taskRepository.post(createTask("created task"));
+
+            final TaskEntity patch = new TaskEntity();
+            patch.setDescription("described");
+            assertEquals(1, taskRepository.patch(id, patch, Set.of("description")).orElseThrow().getVersion());
+
+            patch.setDescription(null);
+            patch.setVersion(0);
+            assertThrows(OptimisticLockException.class, () -> taskRepository.patch(id, patch, Set.of("description", "status")));
+
+            patch.setVersion(1);
+            final TaskEntity patched = taskRepository.patch(id, patch, Set.of("description", "status")).orElseThrow();
+            assertNull(patched.getDescription());
+            assertNull(patched.getStatus());
+            assertEquals("created task", patched.getTitle());
+            assertEquals(2, patched.getVersion());
+
+            // Nothing changes, so the version stays.
+            patch.setVersion(null);
+            assertEquals(2, taskRepository.patch(id, patch, Set.of("description")).orElseThrow().getVersion());
+        }
+
+        try (EventSourcedTaskRepository taskRepository = new EventSourcedTaskRepository(entityManager, null, directory)) {
+            final TaskDTO replayed = taskRepository.getBy("project.id", String.valueOf(projectEntity.getId()), TaskDTO.class).stream()
+                    .filter(task -> "created task".equals(task.getTitle()))
+                    .findFirst()
+                    .orElseThrow();
+            assertNull(replayed.getDescription());
+            assertNull(replayed.getStatus());
+            assertEquals(2, replayed.getVersion());
+        }
+    }
+
+    private static TaskEntity createTask(final String title) {
+        return TaskFactory.createTaskEntity()
+                .setTitle(title)
+                .setStartDate(LocalDateTime.now())
+                .setProject(projectEntity)
+                .setStatus(todoStatusEntity)
+                .toEntity();
+    }
+
+    private static List<String> titles(final EventSourcedTaskRepository taskRepository) {
+        return taskRepository.getBy("project.id", String.valueOf(projectEntity.getId()), TaskDTO.class).stream()
+                .map(TaskDTO::getTitle)
+                .toList();
+    }
+
+    /**
+     * Flip one byte in the body of the last record, as a write torn by a crash would leave it.
+     */
+    private static void corruptLastRecord(final Path directory) throws IOException {
+        final Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(".segment")).sorted().toList().getLast();
+        }
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            long position = 0;
+            long last = -1;
+
+            while (true) {
+                length.clear();
+                channel.read(length, position);
+                final int size = length.flip().getInt();
+                if (size == 0) break;
+
+                last = position;
+                position += Integer.BYTES * 2 + size;
+            }
+
+            assertTrue(last >= 0);
+
+            final ByteBuffer body = ByteBuffer.allocate(1);
+            channel.read(body, last + Integer.BYTES * 2 + 12);
+            body.put(0, (byte) ~body.get(0));
+            channel.write(body.rewind(), last + Integer.BYTES * 2 + 12);
+        }
+    }
+}
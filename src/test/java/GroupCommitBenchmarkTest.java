@@ -0,0 +1,228 @@
+import factories.ProjectFactory;
+import factories.StatusFactory;
+import factories.TaskFactory;
+import factories.UserFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Persistence;
+import org.faya.sensei.entities.*;
+import org.faya.sensei.memory.MemoryTaskRepository;
+import org.faya.sensei.repositories.EntityManagerScope;
+import org.faya.sensei.repositories.GroupCommitPipeline;
+import org.faya.sensei.repositories.IRepository;
+import org.faya.sensei.repositories.TaskRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and latency of task inserts with the group-commit pipeline off and on, at 1, 16 and 128 concurrent
+ * writers, with the in-memory repository as the baseline. The task repository is wired as the application wires it:
+ * on the shared entity manager, with the pipeline writing on an entity manager of its own. With the pipeline off every
+ * mutation commits on the shared entity manager, and the repository makes the writers take turns.
+ * Results are logged, only the committed row count is asserted. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+public class GroupCommitBenchmarkTest {
+
+    private static final Logger LOGGER = Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private static final int MUTATIONS = 2048;
+
+    private static final int BATCH_SIZE = 64;
+
+    private static final EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory(
+            "java-jaxrs-database",
+            Map.of(
+                    "jakarta.persistence.jdbc.url", "jdbc:h2:file:%s;DATABASE_TO_UPPER=false".formatted(databasePath()),
+                    "hibernate.show_sql", "false"
+            )
+    );
+
+    private static final EntityManager sharedEntityManager = entityManagerFactory.createEntityManager();
+
+    private static final EntityManagerScope entityManagerScope =
+            new EntityManagerScope(sharedEntityManager, entityManagerFactory::createEntityManager);
+
+    private static final GroupCommitPipeline disabledPipeline =
+            new GroupCommitPipeline(entityManagerFactory, 1, Duration.ofMillis(5), 16);
+
+    private static final GroupCommitPipeline groupCommitPipeline =
+            new GroupCommitPipeline(entityManagerFactory, BATCH_SIZE, Duration.ofMillis(5), BATCH_SIZE * 16);
+
+    private static ProjectEntity projectEntity;
+
+    private static StatusEntity statusEntity;
+
+    @BeforeAll
+    public static void setUp() {
+        final EntityManager entityManager = entityManagerScope.entityManager();
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+
+        final UserEntity userEntity = UserFactory.createUserEntity("benchmark", "password", UserRole.USER).toEntity();
+        projectEntity = ProjectFactory.createProjectEntity("benchmark", List.of(userEntity)).toEntity();
+        statusEntity = StatusFactory.createStatusEntity("todo", projectEntity).toEntity();
+        entityManager.persist(projectEntity);
+        entityManager.persist(statusEntity);
+
+        transaction.commit();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        groupCommitPipeline.close();
+        disabledPipeline.close();
+        sharedEntityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @ParameterizedTest(name = "{0} writers")
+    @ValueSource(ints = { 1, 16, 128 })
+    public void testTransactionPerMutation(final int writers) throws Exception {
+        final IRepository<TaskEntity> taskRepository = createRepository(disabledPipeline);
+
+        run("per-mutation", writers, taskRepository::post, GroupCommitBenchmarkTest::countTasks);
+    }
+
+    @ParameterizedTest(name = "{0} writers")
+    @ValueSource(ints = { 1, 16, 128 })
+    public void testGroupCommit(final int writers) throws Exception {
+        final IRepository<TaskEntity> taskRepository = createRepository(groupCommitPipeline);
+
+        run("group-commit", writers, taskRepository::post, GroupCommitBenchmarkTest::countTasks);
+    }
+
+    @ParameterizedTest(name = "{0} writers")
+    @ValueSource(ints = { 1, 16, 128 })
+    public void testInMemory(final int writers) throws Exception {
+        final MemoryTaskRepository taskRepository = new MemoryTaskRepository();
+
+        run("in-memory", writers, taskRepository::post, () -> taskRepository.get().size());
+    }
+
+    private static void run(
+            final String mode,
+            final int writers,
+            final ToIntFunction<TaskEntity> post,
+            final LongSupplier countTasks
+    ) throws Exception {
+        final long before = countTasks.getAsLong();
+        final int mutationsPerWriter = MUTATIONS / writers;
+        final long[] latencies = new long[mutationsPerWriter * writers];
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+        final List<Future<Boolean>> results = IntStream.range(0, writers)
+                .mapToObj(writer -> executor.submit(() -> {
+                    start.await();
+
+                    boolean committed = true;
+                    for (int i = 0; i < mutationsPerWriter; i++) {
+                        final TaskEntity taskEntity = TaskFactory.createTaskEntity()
+                                .setTitle("task %d-%d".formatted(writer, i))
+                                .setStartDate(LocalDateTime.now())
+                                .setProject(projectEntity)
+                                .setStatus(statusEntity)
+                                .toEntity();
+
+                        final long begin = System.nanoTime();
+                        committed &= post.applyAsInt(taskEntity) > 0;
+                        latencies[writer * mutationsPerWriter + i] = System.nanoTime() - begin;
+                    }
+
+                    return committed;
+                }))
+                .toList();
+
+        final long begin = System.nanoTime();
+        start.countDown();
+        for (final Future<Boolean> result : results) assertTrue(result.get());
+        final long elapsed = System.nanoTime() - begin;
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Arrays.sort(latencies);
+        LOGGER.log(Level.INFO, "%s writers=%d throughput=%.0f ops/s p50=%.3f ms p99=%.3f ms".formatted(
+                mode,
+                writers,
+                latencies.length / (elapsed / 1e9),
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6
+        ));
+
+        assertEquals(before + latencies.length, countTasks.getAsLong());
+    }
+
+    /**
+     * A file database, an in-memory one has no commit cost to amortise.
+     */
+    private static String databasePath() {
+        try {
+            final Path directory = Files.createTempDirectory("jaxrs-benchmark");
+            directory.toFile().deleteOnExit();
+            directory.resolve("benchmark.mv.db").toFile().deleteOnExit();
+
+            return directory.resolve("benchmark").toAbsolutePath().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long countTasks() {
+        final EntityManager countEntityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            return countEntityManager.createQuery("SELECT COUNT(t) FROM TaskEntity t", Long.class).getSingleResult();
+        } finally {
+            countEntityManager.close();
+        }
+    }
+
+    private static IRepository<TaskEntity> createRepository(final GroupCommitPipeline groupCommitPipeline) {
+        try {
+            final TaskRepository taskRepository = new TaskRepository();
+
+            final Field entityManagerField = TaskRepository.class.getDeclaredField("entityManager");
+            entityManagerField.setAccessible(true);
+            entityManagerField.set(taskRepository, entityManagerScope.entityManager());
+
+            final Field groupCommitPipelineField = TaskRepository.class.getDeclaredField("groupCommitPipeline");
+            groupCommitPipelineField.setAccessible(true);
+            groupCommitPipelineField.set(taskRepository, groupCommitPipeline);
+
+            return taskRepository;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.ws.rs.core.GenericType;
+import org.faya.sensei.codecs.JsonCodecProvider;
+import org.faya.sensei.payloads.TaskDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Encoding and decoding time of the generated codecs against the reflective Yasson provider, for a single task and
+ * for a list of 10k tasks. Every run is warmed up first, results are logged, only identical output is asserted. Run
+ * with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+public class JsonCodecBenchmarkTest {
+
+    private static final Logger LOGGER = Logger.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+    private static final int WARMUP = 5;
+
+    private static final int MEASURED = 10;
+
+    private static final Type TASK_LIST = new GenericType<List<TaskDTO>>() { }.getType();
+
+    private static final Jsonb jsonb = JsonbBuilder.create();
+
+    private static final JsonCodecProvider provider = new JsonCodecProvider();
+
+    @AfterAll
+    public static void tearDown() throws Exception {
+        jsonb.close();
+    }
+
+    @ParameterizedTest(name = "{0} tasks")
+    @ValueSource(ints = { 1, 10_000 })
+    public void testWrite(final int size) {
+        final Object value = size == 1 ? createTask(0) : IntStream.range(0, size).mapToObj(JsonCodecBenchmarkTest::createTask).toList();
+        final int iterations = Math.max(1, 100_000 / size);
+
+        final byte[] expected = run("write yasson", size, iterations, () -> {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            jsonb.toJson(value, output);
+            return output.toByteArray();
+        });
+        final byte[] actual = run("write codec", size, iterations, () -> {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            provider.writeTo(value, value.getClass(), value.getClass(), null, null, null, output);
+            return output.toByteArray();
+        });
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @ParameterizedTest(name = "{0} tasks")
+    @ValueSource(ints = { 1, 10_000 })
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testRead(final int size) {
+        final Class<?> type = size == 1 ? TaskDTO.class : List.class;
+        final Type genericType = size == 1 ? TaskDTO.class : TASK_LIST;
+        final byte[] input = jsonb.toJson(
+                size == 1 ? createTask(0) : IntStream.range(0, size).mapToObj(JsonCodecBenchmarkTest::createTask).toList()
+        ).getBytes(StandardCharsets.UTF_8);
+        final int iterations = Math.max(1, 100_000 / size);
+
+        final Object expected = run("read yasson", size, iterations, () -> jsonb.fromJson(new ByteArrayInputStream(input), genericType));
+        final Object actual = run("read codec", size, iterations, () -> provider.readFrom(
+                (Class) type, genericType, null, null, null, new ByteArrayInputStream(input)
+        ));
+
+        assertEquals(jsonb.toJson(expected), jsonb.toJson(actual));
+    }
+
+    private static <R> R run(final String mode, final int size, final int iterations, final Supplier<R> operation) {
+        R result = null;
+        for (int i = 0; i < WARMUP * iterations; i++) result = operation.get();
+
+        final long begin = System.nanoTime();
+        for (int i = 0; i < MEASURED * iterations; i++) result = operation.get();
+        final long elapsed = System.nanoTime() - begin;
+
+        LOGGER.log(Level.INFO, "%s tasks=%d time=%.3f us/op".formatted(mode, size, elapsed / 1e3 / (MEASURED * iterations)));
+
+        return result;
+    }
+
+    private static TaskDTO createTask(final int id) {
+        final LocalDateTime start = LocalDateTime.of(2031, 1, 1, 9, 0).plusMinutes(id);
+
+        return new TaskDTO(id, "task %d".formatted(id), "description of task %d".formatted(id), start, start.plusDays(1), "todo", 1, id % 2 == 0 ? null : 2, 0);
+    }
+}
@@ -0,0 +1,160 @@
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.stream.JsonParser;
+import jakarta.ws.rs.BadRequestException;
+import org.faya.sensei.codecs.JsonCodecProvider;
+import org.faya.sensei.codecs.JsonCodecs;
+import org.faya.sensei.codecs.JsonOutput;
+import org.faya.sensei.payloads.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonCodecTest {
+
+    @Test
+    public void testSameAsJsonb() throws Exception {
+        final TaskDTO task = new TaskDTO(
+                1, "Quarterly report", "Every \"région\" \\ \t\u0001 € 😀 \ud800", LocalDateTime.of(2031, 1, 1, 9, 0), LocalDateTime.of(2031, 1, 2, 9, 30, 15, 500), "todo", 2, 3, 0
+        );
+        final TaskDTO draft = new TaskDTO(4, "Draft", null, null, null, "todo", 2, null, 1);
+
+        final ProjectDTO project = new ProjectDTO(2, "project", List.of(3, 5));
+        project.setTasks(List.of(task, draft));
+        project.setDeletedTaskIds(List.of(9));
+        project.setDelta(true);
+        project.setVersion(3_000_000_000L);
+
+        final StatusDTO status = new StatusDTO();
+        status.setId(7);
+        status.setName("done");
+
+        final UserDTO user = new UserDTO();
+        user.setId(3);
+        user.setName("user");
+        user.setRole("USER");
+
+        final StatisticsDTO statistics = new StatisticsDTO();
+        statistics.setTotal(2);
+        statistics.setUnassigned(1);
+        statistics.setOverdue(0);
+        statistics.setStatuses(Map.of("todo", 2));
+        statistics.setAssignees(Map.of("3", 1));
+
+        try (final Jsonb jsonb = JsonbBuilder.create()) {
+            for (final Object value : List.of(task, draft, project, status, user, statistics, new PageDTO<>(List.of(task), "next"))) {
+                final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                jsonb.toJson(value, expected);
+
+                final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+                final JsonOutput output = new JsonOutput(actual);
+                JsonCodecs.writeValue(output, value);
+                output.flush();
+
+                assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void testIsoDateTime() {
+        for (final LocalDateTime value : List.of(
+                LocalDateTime.of(2031, 1, 1, 0, 0),
+                LocalDateTime.of(999, 12, 31, 23, 59, 59),
+                LocalDateTime.of(2031, 6, 15, 12, 30, 45, 120_000_000),
+                LocalDateTime.of(2031, 6, 15, 12, 30, 45, 1),
+                LocalDateTime.of(12031, 6, 15, 12, 30),
+                LocalDateTime.now()
+        )) {
+            assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value), JsonCodecs.isoDateTime(value));
+        }
+    }
+
+    @Test
+    public void testParseDateTime() {
+        for (final String value : List.of(
+                "2031-01-01T09:00", "2031-01-01T09:00:15", "2031-01-01T09:00:15.5", "2031-01-01T09:00:15.123456789",
+                "+12031-01-01T09:00", "2031-01-01T09:00:15.1234"
+        )) {
+            assertEquals(LocalDateTime.parse(value), JsonCodecs.parseDateTime(value));
+        }
+
+        for (final String value : List.of("2031-02-30T09:00", "2031-01-01T9:00:00", "2031-01-01T09:00:1x", "2031-13-01T09:00"))
+            assertThrows(DateTimeException.class, () -> JsonCodecs.parseDateTime(value));
+    }
+
+    @Test
+    public void testWriteScalars() throws Exception {
+        final List<Object> values = List.of(
+                0, 7, -7, 10, 99, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 1_000_000_000_000L,
+                true, false, "x".repeat(20_000), "é".repeat(10_000)
+        );
+
+        try (final Jsonb jsonb = JsonbBuilder.create()) {
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            final JsonOutput output = new JsonOutput(actual);
+            JsonCodecs.writeValue(output, values);
+            output.flush();
+
+            assertEquals(jsonb.toJson(values), actual.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        final String json = """
+                {"title":"Draft","unknown":{"nested":[1,2]},"startDate":"2031-01-01T09:00:00","projectId":2,"assignerId":null}
+                """;
+
+        try (final JsonParser parser = JsonCodecs.PARSERS.createParser(new StringReader(json))) {
+            assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+
+            final TaskDTO task = JsonCodecs.get(TaskDTO.class).read(parser);
+            assertEquals("Draft", task.getTitle());
+            assertEquals(LocalDateTime.of(2031, 1, 1, 9, 0), task.getStartDate());
+            assertEquals(2, task.getProjectId());
+            assertNull(task.getAssignerId());
+        }
+
+        final ProjectDTO project = read(ProjectDTO.class, "{\"delta\":false,\"name\":\"project\",\"ownerIds\":[1,2],\"tasks\":[{\"id\":3}],\"version\":3000000000}");
+        assertEquals(List.of(1, 2), project.getOwnerIds());
+        assertEquals(3, project.getTasks().getFirst().getId());
+        assertEquals(3_000_000_000L, project.getVersion());
+        assertFalse(project.getDelta());
+
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, "{\"projectId\":\"two\"}"));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, "{\"startDate\":\"tomorrow\"}"));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, "{\"projectId\":1.5}"));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, "{\"projectId\":3000000000}"));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, "[]"));
+        assertThrows(BadRequestException.class, () -> read(TaskDTO.class, "{\"title\":"));
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        final JsonCodecProvider provider = new JsonCodecProvider();
+        final List<Object> values = List.of(Map.of("count", 1));
+        assertTrue(provider.isWriteable(values.getClass(), values.getClass(), null, null));
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        provider.writeTo(values, values.getClass(), values.getClass(), null, null, null, output);
+        assertEquals("[{\"count\":1}]", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> T read(final Class<T> type, final String json) {
+        return type.cast(new JsonCodecProvider().readFrom(
+                (Class) type, type, null, null, null, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))
+        ));
+    }
+}
@@ -0,0 +1,191 @@
+import factories.ProjectFactory;
+import factories.StatusFactory;
+import factories.TaskFactory;
+import factories.UserFactory;
+import jakarta.persistence.OptimisticLockException;
+import org.faya.sensei.entities.*;
+import org.faya.sensei.mvstore.MVStoreDatabase;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.faya.sensei.payloads.TaskDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MVStoreRepositoryTest {
+
+    @Test
+    public void testIndexes() {
+        try (MVStoreDatabase database = new MVStoreDatabase(null, null)) {
+            final UserEntity userEntity = createUser(database, "user");
+            final ProjectEntity projectEntity = createProject(database, "project", userEntity);
+            final StatusEntity todoStatusEntity = createStatus(database, "todo", projectEntity);
+            final StatusEntity doneStatusEntity = createStatus(database, "done", projectEntity);
+
+            assertEquals(userEntity.getId(), database.users().get("user").orElseThrow().getId());
+            assertEquals(-1, database.users().post(UserFactory.createUserEntity("user", "password", UserRole.USER).toEntity()));
+
+            final List<ProjectDTO> projects = List.copyOf(database.projects().getBy("users.name", "user", ProjectDTO.class));
+            assertEquals(1, projects.size());
+            assertEquals(List.of(userEntity.getId()), projects.getFirst().getOwnerIds());
+
+            final String projectId = String.valueOf(projectEntity.getId());
+            assertEquals(doneStatusEntity.getId(), database.statuses().get("project.id", projectId, "done").orElseThrow().getId());
+            assertEquals(-1, database.statuses().post(StatusFactory.createStatusEntity("todo", projectEntity).toEntity()));
+
+            final int taskId = database.tasks().post(createTask("task", projectEntity, todoStatusEntity, userEntity));
+            database.tasks().post(createTask("other task", projectEntity, todoStatusEntity, null));
+
+            final TaskEntity update = new TaskEntity();
+            update.setStatus(doneStatusEntity);
+            assertTrue(database.tasks().put(taskId, update).isPresent());
+
+            assertEquals(1, database.tasks().getBy("status.id", String.valueOf(doneStatusEntity.getId())).size());
+            assertEquals(1, database.tasks().getBy("status.id", String.valueOf(todoStatusEntity.getId())).size());
+            assertEquals(1, database.tasks().getBy("assigner.id", String.valueOf(userEntity.getId())).size());
+
+            final List<TaskDTO> tasks = List.copyOf(database.tasks().getBy("project.id", projectId, TaskDTO.class));
+            assertEquals(List.of("task", "other task"), tasks.stream().map(TaskDTO::getTitle).toList());
+            assertEquals("done", tasks.getFirst().getStatus());
+
+            assertEquals(2, database.tasks().deleteBy("project.id", projectId));
+            assertTrue(database.tasks().getBy("status.id", String.valueOf(doneStatusEntity.getId())).isEmpty());
+        }
+    }
+
+    @Test
+    public void testReferences() {
+        try (MVStoreDatabase database = new MVStoreDatabase(null, null)) {
+            final UserEntity userEntity = createUser(database, "user");
+            final ProjectEntity projectEntity = createProject(database, "project", userEntity);
+            final StatusEntity statusEntity = createStatus(database, "todo", projectEntity);
+
+            final ProjectEntity missingProjectEntity = new ProjectEntity();
+            missingProjectEntity.setId(projectEntity.getId() + 1);
+            assertEquals(-1, database.tasks().post(createTask("task", missingProjectEntity, null, null)));
+
+            final int taskId = database.tasks().post(createTask("task", projectEntity, statusEntity, userEntity));
+
+            assertTrue(database.users().delete(userEntity.getId()).isEmpty());
+            assertTrue(database.statuses().delete(statusEntity.getId()).isEmpty());
+            assertTrue(database.projects().delete(projectEntity.getId()).isEmpty());
+
+            assertTrue(database.tasks().delete(taskId).isPresent());
+            assertTrue(database.statuses().delete(statusEntity.getId()).isPresent());
+            assertTrue(database.projects().delete(projectEntity.getId()).isPresent());
+            assertTrue(database.users().delete(userEntity.getId()).isPresent());
+            assertTrue(database.users().get("user").isEmpty());
+        }
+    }
+
+    @Test
+    public void testReopen(@TempDir final Path directory) {
+        final String fileName = directory.resolve("tasks.mv.db").toString();
+        final int taskId;
+
+        try (MVStoreDatabase database = new MVStoreDatabase(fileName, null)) {
+            final UserEntity userEntity = createUser(database, "user");
+            final ProjectEntity projectEntity = createProject(database, "project", userEntity);
+            final StatusEntity statusEntity = createStatus(database, "todo", projectEntity);
+
+            taskId = database.tasks().post(createTask("task", projectEntity, statusEntity, userEntity));
+        }
+
+        try (MVStoreDatabase database = new MVStoreDatabase(fileName, null)) {
+            final TaskEntity taskEntity = database.tasks().get(taskId).orElseThrow();
+            assertEquals("task", taskEntity.getTitle());
+            assertEquals("todo", taskEntity.getStatus().getName());
+            assertEquals("user", taskEntity.getAssigner().getName());
+            assertEquals(List.of("user"), taskEntity.getProject().getUsers().stream().map(UserEntity::getName).toList());
+
+            assertTrue(database.tasks().post(createTask("next task", taskEntity.getProject(), null, null)) > taskId);
+        }
+    }
+
+    @Test
+    public void testVersionMismatch() {
+        try (MVStoreDatabase database = new MVStoreDatabase(null, null)) {
+            final ProjectEntity projectEntity = createProject(database, "project", createUser(database, "user"));
+            final int id = database.tasks().post(createTask("task", projectEntity, null, null));
+
+            final TaskEntity update = new TaskEntity();
+            update.setTitle("updated task");
+            update.setVersion(1);
+
+            assertThrows(OptimisticLockException.class, () -> database.tasks().put(id, update));
+
+            update.setVersion(0);
+            assertEquals(1, database.tasks().put(id, update).orElseThrow().getVersion());
+        }
+    }
+
+    @Test
+    public void testPatch() {
+        try (MVStoreDatabase database = new MVStoreDatabase(null, null)) {
+            final ProjectEntity projectEntity = createProject(database, "project", createUser(database, "user"));
+            final StatusEntity statusEntity = createStatus(database, "todo", projectEntity);
+            final int id = database.tasks().post(createTask("task", projectEntity, statusEntity, null));
+
+            final TaskEntity patch = new TaskEntity();
+            patch.setDescription("described");
+            assertEquals(1, database.tasks().patch(id, patch, Set.of("description")).orElseThrow().getVersion());
+
+            patch.setDescription(null);
+            patch.setVersion(0);
+            assertThrows(OptimisticLockException.class, () -> database.tasks().patch(id, patch, Set.of("description", "status")));
+
+            patch.setVersion(1);
+            final TaskEntity patched = database.tasks().patch(id, patch, Set.of("description", "status")).orElseThrow();
+            assertNull(patched.getDescription());
+            assertNull(patched.getStatus());
+            assertEquals("task", patched.getTitle());
+            assertEquals(2, patched.getVersion());
+            assertTrue(database.tasks().getBy("status.id", String.valueOf(statusEntity.getId())).isEmpty());
+
+            // Nothing changes, so the version stays.
+            patch.setVersion(null);
+            assertEquals(2, database.tasks().patch(id, patch, Set.of("description")).orElseThrow().getVersion());
+        }
+    }
+
+    private static UserEntity createUser(final MVStoreDatabase database, final String name) {
+        final UserEntity userEntity = UserFactory.createUserEntity(name, "password", UserRole.USER).toEntity();
+        assertTrue(database.users().post(userEntity) > 0);
+
+        return userEntity;
+    }
+
+    private static ProjectEntity createProject(final MVStoreDatabase database, final String name, final UserEntity userEntity) {
+        final ProjectEntity projectEntity = ProjectFactory.createProjectEntity(name, List.of(userEntity)).toEntity();
+        assertTrue(database.projects().post(projectEntity) > 0);
+
+        return projectEntity;
+    }
+
+    private static StatusEntity createStatus(final MVStoreDatabase database, final String name, final ProjectEntity projectEntity) {
+        final StatusEntity statusEntity = StatusFactory.createStatusEntity(name, projectEntity).toEntity();
+        assertTrue(database.statuses().post(statusEntity) > 0);
+
+        return statusEntity;
+    }
+
+    private static TaskEntity createTask(
+            final String title,
+            final ProjectEntity projectEntity,
+            final StatusEntity statusEntity,
+            final UserEntity userEntity
+    ) {
+        return TaskFactory.createTaskEntity()
+                .setTitle(title)
+                .setStartDate(LocalDateTime.now())
+                .setProject(projectEntity)
+                .setStatus(statusEntity)
+                .setAssigner(userEntity)
+                .toEntity();
+    }
+}
@@ -0,0 +1,188 @@
+import factories.ProjectFactory;
+import factories.StatusFactory;
+import factories.TaskFactory;
+import factories.UserFactory;
+import jakarta.persistence.OptimisticLockException;
+import org.faya.sensei.entities.*;
+import org.faya.sensei.memory.MemoryProjectRepository;
+import org.faya.sensei.memory.MemoryStatusRepository;
+import org.faya.sensei.memory.MemoryTaskRepository;
+import org.faya.sensei.memory.MemoryUserRepository;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.repositories.PageRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryRepositoryTest {
+
+    @Test
+    public void testIndexes() {
+        final MemoryUserRepository userRepository = new MemoryUserRepository();
+        final MemoryProjectRepository projectRepository = new MemoryProjectRepository();
+        final MemoryStatusRepository statusRepository = new MemoryStatusRepository();
+        final MemoryTaskRepository taskRepository = new MemoryTaskRepository();
+
+        final UserEntity userEntity = UserFactory.createUserEntity("user", "password", UserRole.USER).toEntity();
+        assertTrue(userRepository.post(userEntity) > 0);
+        assertEquals(-1, userRepository.post(UserFactory.createUserEntity("user", "password", UserRole.USER).toEntity()));
+
+        final ProjectEntity projectEntity = ProjectFactory.createProjectEntity("project", List.of(userEntity)).toEntity();
+        assertTrue(projectRepository.post(projectEntity) > 0);
+        assertEquals(1, projectRepository.getBy("users.id", String.valueOf(userEntity.getId())).size());
+        assertEquals(1, projectRepository.getBy("users.name", "user").size());
+
+        final StatusEntity todoStatusEntity = StatusFactory.createStatusEntity("todo", projectEntity).toEntity();
+        final StatusEntity doneStatusEntity = StatusFactory.createStatusEntity("done", projectEntity).toEntity();
+        assertTrue(statusRepository.post(todoStatusEntity) > 0);
+        assertTrue(statusRepository.post(doneStatusEntity) > 0);
+        assertEquals(-1, statusRepository.post(StatusFactory.createStatusEntity("todo", projectEntity).toEntity()));
+
+        final String projectId = String.valueOf(projectEntity.getId());
+        assertEquals(doneStatusEntity.getId(), statusRepository.get("project.id", projectId, "done").orElseThrow().getId());
+
+        final int taskId = taskRepository.post(createTask("task", projectEntity, todoStatusEntity, userEntity));
+        taskRepository.post(createTask("other task", projectEntity, todoStatusEntity, null));
+
+        final TaskEntity update = new TaskEntity();
+        update.setStatus(doneStatusEntity);
+        update.setVersion(1);
+        assertThrows(OptimisticLockException.class, () -> taskRepository.put(taskId, update));
+
+        update.setVersion(0);
+        assertEquals(1, taskRepository.put(taskId, update).orElseThrow().getVersion());
+
+        assertEquals(1, taskRepository.getBy("status.id", String.valueOf(todoStatusEntity.getId())).size());
+        assertEquals(1, taskRepository.getBy("status.id", String.valueOf(doneStatusEntity.getId())).size());
+        assertEquals(1, taskRepository.getBy("assigner.id", String.valueOf(userEntity.getId())).size());
+        assertEquals("done", taskRepository.getBy("id", String.valueOf(taskId), TaskDTO.class).iterator().next().getStatus());
+
+        assertEquals(2, taskRepository.deleteBy("project.id", projectId));
+        assertTrue(taskRepository.get().isEmpty());
+        assertTrue(taskRepository.getBy("status.id", String.valueOf(doneStatusEntity.getId())).isEmpty());
+    }
+
+    @Test
+    public void testPatch() {
+        final MemoryTaskRepository taskRepository = new MemoryTaskRepository();
+        final ProjectEntity projectEntity = ProjectFactory.createProjectEntity(1, "project", List.of()).toEntity();
+        final StatusEntity statusEntity = StatusFactory.createStatusEntity(1, "todo", projectEntity).toEntity();
+        final int taskId = taskRepository.post(createTask("task", projectEntity, statusEntity, null));
+
+        final TaskEntity patch = new TaskEntity();
+        patch.setDescription("described");
+        assertEquals(1, taskRepository.patch(taskId, patch, Set.of("description")).orElseThrow().getVersion());
+
+        patch.setDescription(null);
+        patch.setVersion(0);
+        assertThrows(OptimisticLockException.class, () -> taskRepository.patch(taskId, patch, Set.of("description", "status")));
+
+        patch.setVersion(1);
+        final TaskEntity patched = taskRepository.patch(taskId, patch, Set.of("description", "status")).orElseThrow();
+        assertNull(patched.getDescription());
+        assertNull(patched.getStatus());
+        assertEquals("task", patched.getTitle());
+        assertEquals(2, patched.getVersion());
+        assertTrue(taskRepository.getBy("status.id", String.valueOf(statusEntity.getId())).isEmpty());
+
+        // Nothing changes, so the version stays.
+        patch.setVersion(null);
+        assertEquals(2, taskRepository.patch(taskId, patch, Set.of("description")).orElseThrow().getVersion());
+        assertTrue(taskRepository.patch(Integer.MAX_VALUE, patch, Set.of("description")).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final MemoryTaskRepository taskRepository = new MemoryTaskRepository();
+        final ProjectEntity projectEntity = ProjectFactory.createProjectEntity(1, "project", List.of()).toEntity();
+        final StatusEntity todoStatusEntity = StatusFactory.createStatusEntity(1, "todo", projectEntity).toEntity();
+        final StatusEntity doneStatusEntity = StatusFactory.createStatusEntity(2, "done", projectEntity).toEntity();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<Boolean>> results = IntStream.range(0, 8)
+                .mapToObj(writer -> executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        final int id = taskRepository.post(createTask("task %d-%d".formatted(writer, i), projectEntity, todoStatusEntity, null));
+                        if (i % 2 == 0) continue;
+
+                        final TaskEntity update = new TaskEntity();
+                        update.setStatus(doneStatusEntity);
+                        taskRepository.put(id, update);
+                        if (i % 3 == 0) taskRepository.delete(id);
+                    }
+
+                    return true;
+                }))
+                .toList();
+
+        for (final Future<Boolean> result : results) assertTrue(result.get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        final int todo = taskRepository.getBy("status.id", "1").size();
+        final int done = taskRepository.getBy("status.id", "2").size();
+        assertEquals(8 * 500, todo);
+        assertEquals(8 * (500 - 167), done);
+        assertEquals(todo + done, taskRepository.getBy("project.id", "1").size());
+        assertEquals(todo + done, taskRepository.get().size());
+    }
+
+    @Test
+    public void testPages() {
+        final MemoryTaskRepository taskRepository = new MemoryTaskRepository();
+        final ProjectEntity projectEntity = ProjectFactory.createProjectEntity(1, "project", List.of()).toEntity();
+        final StatusEntity todoStatusEntity = StatusFactory.createStatusEntity(1, "todo", projectEntity).toEntity();
+        final StatusEntity doneStatusEntity = StatusFactory.createStatusEntity(2, "done", projectEntity).toEntity();
+
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Integer> ids = IntStream.range(0, 7)
+                .mapToObj(i -> {
+                    final TaskEntity taskEntity = createTask("task " + i, projectEntity, i % 2 == 0 ? todoStatusEntity : doneStatusEntity, null);
+                    taskEntity.setEndDate(i < 5 ? now.plusDays(5 - i) : null);
+
+                    return taskRepository.post(taskEntity);
+                })
+                .toList();
+
+        final List<Integer> ordered = new ArrayList<>();
+        PageRequest.Position after = null;
+        List<TaskDTO> page;
+        do {
+            page = taskRepository.getPage(new PageRequest(1, null, null, null, null, "endDate", false, after, 3), TaskDTO.class);
+            page.forEach(task -> ordered.add(task.getId()));
+            if (!page.isEmpty()) after = new PageRequest.Position(page.getLast().getEndDate(), page.getLast().getId());
+        } while (page.size() == 3);
+
+        // Ordered by end date, then the tasks without one by id.
+        assertEquals(List.of(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0), ids.get(5), ids.get(6)), ordered);
+
+        final List<TaskDTO> done = taskRepository.getPage(
+                new PageRequest(1, "done", null, now.plusDays(3), null, "id", true, null, 10), TaskDTO.class);
+        assertEquals(List.of(ids.get(5), ids.get(1)), done.stream().map(TaskDTO::getId).toList());
+    }
+
+    private static TaskEntity createTask(
+            final String title,
+            final ProjectEntity projectEntity,
+            final StatusEntity statusEntity,
+            final UserEntity userEntity
+    ) {
+        return TaskFactory.createTaskEntity()
+                .setTitle(title)
+                .setStartDate(LocalDateTime.now())
+                .setProject(projectEntity)
+                .setStatus(statusEntity)
+                .setAssigner(userEntity)
+                .toEntity();
+    }
+}
@@ -1,6 +1,7 @@
 import factories.*;
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
 import jakarta.persistence.EntityManager;
@@ -12,34 +13,59 @@ import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.ext.RuntimeDelegate;
 import jakarta.ws.rs.sse.SseEventSource;
+import org.faya.sensei.codecs.CborCodecProvider;
+import org.faya.sensei.codecs.CborCodecs;
 import org.faya.sensei.entities.*;
+import org.faya.sensei.middlewares.CompressionInterceptor;
+import org.faya.sensei.middlewares.VaryFilter;
 import org.faya.sensei.payloads.ProjectDTO;
 import org.faya.sensei.payloads.TaskDTO;
 import org.faya.sensei.repositories.IRepository;
 import org.faya.sensei.resources.endpoints.ProjectResource;
 import org.faya.sensei.resources.endpoints.TaskResource;
 import org.faya.sensei.services.IService;
+import org.faya.sensei.services.TaskUpdateCoalescer;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.reflections.Reflections;
 import wrappers.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -183,6 +209,24 @@ public class ProjectResourceTest {
                 assertArrayEquals(actualProjects.toArray(), List.of(cacheProjectEntity.entity()).toArray());
             }
 
+            @Test
+            @Order(3)
+            public void testGetProjectionByUser() {
+                final Collection<ProjectDTO> actualProjects = projectRepository.getBy("users.name", "user", ProjectDTO.class);
+
+                assertEquals(1, actualProjects.size());
+                actualProjects.forEach(dto -> {
+                    final ProjectDTOWrapper actualProjectDTOWrapper = new ProjectDTOWrapper(dto);
+
+                    assertEquals(targetId, actualProjectDTOWrapper.getId());
+                    assertEquals(cacheProjectEntity.getName(), actualProjectDTOWrapper.getName());
+                    assertEquals(
+                            cacheProjectEntity.getUsers().stream().map(user -> new UserEntityWrapper(user).getId()).toList(),
+                            actualProjectDTOWrapper.getOwnerIds()
+                    );
+                });
+            }
+
             @Test
             @Order(4)
             public void testPut() {
@@ -422,6 +466,24 @@ public class ProjectResourceTest {
                 });
             }
 
+            @Test
+            @Order(3)
+            public void testGetProjectionByProject() {
+                final String projectId = String.valueOf(cacheTaskEntity.getProject().getId());
+
+                final Collection<TaskDTO> actualTasks = taskRepository.getBy("project.id", projectId, TaskDTO.class);
+
+                assertEquals(1, actualTasks.size());
+                actualTasks.forEach(dto -> {
+                    final TaskDTOWrapper actualTaskDTOWrapper = new TaskDTOWrapper(dto);
+
+                    assertEquals(targetId, actualTaskDTOWrapper.getId());
+                    assertEquals(cacheTaskEntity.getTitle(), actualTaskDTOWrapper.getTitle());
+                    assertEquals(cacheTaskEntity.getStatus().getName(), actualTaskDTOWrapper.getStatus());
+                    assertEquals(cacheTaskEntity.getAssigner().getId(), actualTaskDTOWrapper.getAssignerId());
+                });
+            }
+
             @Test
             @Order(4)
             public void testPut() {
@@ -536,7 +598,8 @@ public class ProjectResourceTest {
 
                 when(projectRepository.get(taskDTO.getProjectId())).thenReturn(Optional.of(projectEntity));
                 when(userRepository.get(taskDTO.getAssignerId())).thenReturn(Optional.of(userEntity));
-                when(statusRepository.get(taskDTO.getStatus())).thenReturn(Optional.of(statusEntity));
+                when(statusRepository.get("project.id", String.valueOf(taskDTO.getProjectId()), taskDTO.getStatus()))
+                        .thenReturn(Optional.of(statusEntity));
                 when(taskRepository.post(any(TaskEntity.class))).then(invocation -> {
                     cacheTaskEntity = new TaskEntityWrapper(invocation.getArgument(0));
                     cacheTaskEntity.setId(1);
@@ -546,7 +609,8 @@ public class ProjectResourceTest {
                 final Optional<TaskDTO> actualTaskDTO = taskService.create(taskDTO.dto());
 
                 verify(projectRepository, times(1)).get(taskDTO.getProjectId());
-                verify(statusRepository, times(1)).get(taskDTO.getStatus());
+                verify(statusRepository, times(1))
+                        .get("project.id", String.valueOf(taskDTO.getProjectId()), taskDTO.getStatus());
                 verify(userRepository, times(1)).get(taskDTO.getAssignerId());
                 verify(taskRepository, times(1)).post(any(TaskEntity.class));
                 assertTrue(actualTaskDTO.isPresent());
@@ -573,19 +637,65 @@ public class ProjectResourceTest {
                         .toDTO();
 
                 when(userRepository.get(cacheTaskEntity.getAssigner().getId())).thenReturn(Optional.of(userEntity));
-                when(statusRepository.get(cacheTaskEntity.getStatus().getName())).thenReturn(Optional.of(statusEntity));
+                when(taskRepository.get(taskId)).thenReturn(Optional.of(cacheTaskEntity.entity()));
+                when(statusRepository.get("project.id", String.valueOf(cacheTaskEntity.getProject().getId()), cacheTaskEntity.getStatus().getName()))
+                        .thenReturn(Optional.of(statusEntity));
                 when(taskRepository.put(eq(taskId), any(TaskEntity.class))).thenReturn(Optional.of(cacheTaskEntity.entity()));
 
                 final Optional<TaskDTO> actualTaskDTO = taskService.update(taskId, taskDTO);
 
                 verify(userRepository, times(1)).get(cacheTaskEntity.getAssigner().getId());
-                verify(statusRepository, times(1)).get(cacheTaskEntity.getStatus().getName());
+                verify(statusRepository, times(1))
+                        .get("project.id", String.valueOf(cacheTaskEntity.getProject().getId()), cacheTaskEntity.getStatus().getName());
                 verify(taskRepository, times(1)).put(eq(taskId), any(TaskEntity.class));
                 assertTrue(actualTaskDTO.isPresent());
             }
 
             @Test
             @Order(3)
+            public void testCoalescedUpdate() throws Exception {
+                final int taskId = 1;
+
+                final Field taskUpdateCoalescerField = taskService.getClass().getDeclaredField("taskUpdateCoalescer");
+                taskUpdateCoalescerField.setAccessible(true);
+                taskUpdateCoalescerField.set(taskService, new TaskUpdateCoalescer(Duration.ofMillis(200)));
+
+                final TaskDTO titleDTO = TaskFactory.createTaskDTO().setTitle("coalesced task").toDTO();
+                final TaskDTO descriptionDTO = TaskFactory.createTaskDTO().setDescription("coalesced description").toDTO();
+
+                final ArgumentCaptor<TaskEntity> taskEntityCaptor = ArgumentCaptor.forClass(TaskEntity.class);
+                when(taskRepository.put(eq(taskId), taskEntityCaptor.capture())).thenReturn(Optional.of(cacheTaskEntity.entity()));
+
+                final CompletableFuture<Optional<TaskDTO>> titleUpdate =
+                        CompletableFuture.supplyAsync(() -> taskService.update(taskId, titleDTO));
+                TimeUnit.MILLISECONDS.sleep(50);
+                final Optional<TaskDTO> descriptionUpdate = taskService.update(taskId, descriptionDTO);
+
+                verify(taskRepository, times(1)).put(eq(taskId), any(TaskEntity.class));
+                assertEquals("coalesced task", taskEntityCaptor.getValue().getTitle());
+                assertEquals("coalesced description", taskEntityCaptor.getValue().getDescription());
+                assertTrue(titleUpdate.get().isPresent());
+                assertTrue(descriptionUpdate.isPresent());
+
+                // Updates expecting a version are written one by one, so each is checked against its version.
+                final TaskDTO firstVersionedDTO = TaskFactory.createTaskDTO().setTitle("first writer").toDTO();
+                final TaskDTO secondVersionedDTO = TaskFactory.createTaskDTO().setTitle("second writer").toDTO();
+                firstVersionedDTO.setVersion(0);
+                secondVersionedDTO.setVersion(0);
+
+                final CompletableFuture<Optional<TaskDTO>> firstUpdate =
+                        CompletableFuture.supplyAsync(() -> taskService.update(taskId, firstVersionedDTO));
+                final Optional<TaskDTO> secondUpdate = taskService.update(taskId, secondVersionedDTO);
+
+                assertTrue(firstUpdate.get().isPresent());
+                assertTrue(secondUpdate.isPresent());
+                verify(taskRepository, times(3)).put(eq(taskId), any(TaskEntity.class));
+                assertTrue(taskEntityCaptor.getAllValues().stream().anyMatch(task -> "first writer".equals(task.getTitle())));
+                assertTrue(taskEntityCaptor.getAllValues().stream().anyMatch(task -> "second writer".equals(task.getTitle())));
+            }
+
+            @Test
+            @Order(4)
             public void testRemove() {
                 final int taskId = 1;
 
@@ -609,6 +719,9 @@ public class ProjectResourceTest {
 
         private static final URI uri = instance.configuration().baseUri();
 
+        private static final RuntimeDelegate.HeaderDelegate<EntityTag> entityTags =
+                RuntimeDelegate.getInstance().createHeaderDelegate(EntityTag.class);
+
         private static List<ProjectEntityWrapper> projectEntities;
 
         private static List<StatusEntityWrapper> StatusEntities;
@@ -890,5 +1003,972 @@ public class ProjectResourceTest {
                 }
             }
         }
+
+        @Test
+        @Order(7)
+        public void testUpdateTaskPrecondition() {
+            final TaskEntityWrapper targetTaskEntity = taskEntities.getLast();
+            final JsonObject updateTaskBody = Json.createObjectBuilder()
+                    .add("status", StatusEntities.getFirst().getName())
+                    .build();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final String path = "/api/project/tasks/%d".formatted(targetTaskEntity.getId());
+                final WebTarget target = client.target(UriBuilder.fromUri(uri).path(path).build());
+
+                final EntityTag currentTag;
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    currentTag = response.getEntityTag();
+                    assertNotNull(currentTag);
+                }
+
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.IF_MATCH, entityTags.toString(new EntityTag("-1")))
+                        .put(Entity.entity(updateTaskBody, MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), response.getStatus());
+                }
+
+                final EntityTag updatedTag;
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.IF_MATCH, entityTags.toString(currentTag))
+                        .put(Entity.entity(updateTaskBody, MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    assertNotEquals(currentTag, response.getEntityTag());
+
+                    updatedTag = response.getEntityTag();
+                }
+
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.IF_MATCH, entityTags.toString(currentTag))
+                        .put(Entity.entity(updateTaskBody, MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), response.getStatus());
+                }
+
+                // Any strong tag of a list may match, a weak tag never does.
+                final Function<List<EntityTag>, Integer> update = tags -> {
+                    final String ifMatch = String.join(", ", tags.stream().map(entityTags::toString).toList());
+
+                    try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .header(HttpHeaders.IF_MATCH, ifMatch)
+                            .put(Entity.entity(updateTaskBody, MediaType.APPLICATION_JSON))) {
+                        return response.getStatus();
+                    }
+                };
+
+                assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(),
+                        update.apply(List.of(currentTag, new EntityTag(updatedTag.getValue(), true))));
+                assertEquals(Response.Status.OK.getStatusCode(), update.apply(List.of(currentTag, updatedTag)));
+                assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), update.apply(List.of(currentTag, updatedTag)));
+
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .put(Entity.entity(updateTaskBody, MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                }
+            }
+        }
+
+        @Test
+        @Order(8)
+        public void testSearchTasks() {
+            final int projectId = projectEntities.getFirst().getId();
+            final JsonObject creationTaskBody = Json.createObjectBuilder()
+                    .add("title", "Quarterly REPORT draft")
+                    .add("description", "Collect the figures of every région.")
+                    .add("status", StatusEntities.getFirst().getName())
+                    .add("projectId", projectId)
+                    .build();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final int taskId;
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .post(Entity.entity(creationTaskBody, MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                        taskId = jsonReader.readObject().getInt("id");
+                    }
+                }
+
+                final String path = "/api/project/%d/tasks/search".formatted(projectId);
+                final Function<String, JsonArray> search = query -> {
+                    try (final Response response = client.target(UriBuilder.fromUri(uri).path(path).queryParam("q", query).build())
+                            .request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .get()) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                            return jsonReader.readArray();
+                        }
+                    }
+                };
+
+                final JsonArray matches = search.apply("quarterly rep");
+                assertEquals(1, matches.size());
+                assertEquals(creationTaskBody.getString("title"), matches.getJsonObject(0).getString("title"));
+                assertEquals(taskId, search.apply("RÉGION figures").getJsonObject(0).getInt("id"));
+                assertTrue(search.apply("quarterly nothing").isEmpty());
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path(path).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskId)).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                }
+
+                assertTrue(search.apply("quarterly").isEmpty());
+            }
+        }
+
+        @Test
+        @Order(9)
+        public void testTimelineTasks() {
+            final int projectId = projectEntities.getFirst().getId();
+            final List<JsonObject> creationTaskBodies = List.of(
+                    Json.createObjectBuilder()
+                            .add("title", "January release")
+                            .add("startDate", "2031-01-01T09:00:00")
+                            .add("endDate", "2031-01-10T18:00:00")
+                            .add("status", StatusEntities.getFirst().getName())
+                            .add("projectId", projectId)
+                            .build(),
+                    Json.createObjectBuilder()
+                            .add("title", "February release")
+                            .add("startDate", "2031-01-05T09:00:00")
+                            .add("endDate", "2031-02-01T18:00:00")
+                            .add("status", StatusEntities.getFirst().getName())
+                            .add("projectId", projectId)
+                            .build()
+            );
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final List<Integer> taskIds = creationTaskBodies.stream().map(creationTaskBody -> {
+                    try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                            .request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .post(Entity.entity(creationTaskBody, MediaType.APPLICATION_JSON))) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                            return jsonReader.readObject().getInt("id");
+                        }
+                    }
+                }).toList();
+
+                final String path = "/api/project/%d/tasks".formatted(projectId);
+                final Function<UriBuilder, Response> get = builder -> client.target(builder.build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get();
+                final Function<UriBuilder, List<Integer>> between = builder -> {
+                    try (final Response response = get.apply(builder)) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                            return jsonReader.readArray().getValuesAs(JsonObject.class).stream()
+                                    .map(task -> task.getInt("id"))
+                                    .toList();
+                        }
+                    }
+                };
+
+                assertEquals(taskIds, between.apply(UriBuilder.fromUri(uri).path(path)
+                        .queryParam("from", "2031-01-08T00:00:00")
+                        .queryParam("to", "2031-01-09T00:00:00")));
+                assertEquals(taskIds.subList(1, 2), between.apply(UriBuilder.fromUri(uri).path(path)
+                        .queryParam("from", "2031-01-11T00:00:00")));
+                assertEquals(taskIds.subList(0, 1), between.apply(UriBuilder.fromUri(uri).path(path)
+                        .queryParam("from", "2031-01-10T00:00:00")
+                        .queryParam("to", "2031-01-31T00:00:00")
+                        .queryParam("due", true)));
+
+                try (final Response response = get.apply(UriBuilder.fromUri(uri).path(path).queryParam("from", "tomorrow"))) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+
+                try (final Response response = get.apply(UriBuilder.fromUri(uri).path(path))) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskIds.getFirst())).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                }
+
+                assertEquals(taskIds.subList(1, 2), between.apply(UriBuilder.fromUri(uri).path(path)
+                        .queryParam("from", "2031-01-01T00:00:00")
+                        .queryParam("to", "2031-01-31T00:00:00")));
+            }
+        }
+
+        @Test
+        @Order(10)
+        public void testStatistics() {
+            final int projectId = projectEntities.getFirst().getId();
+            final String status = StatusEntities.getFirst().getName();
+            final JsonObject creationTaskBody = Json.createObjectBuilder()
+                    .add("title", "Missed deadline")
+                    .add("startDate", LocalDateTime.now().minusDays(2).toString())
+                    .add("endDate", LocalDateTime.now().minusDays(1).toString())
+                    .add("status", status)
+                    .add("projectId", projectId)
+                    .build();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final String path = "/api/project/%d/stats".formatted(projectId);
+                final Supplier<JsonObject> statistics = () -> {
+                    try (final Response response = client.target(UriBuilder.fromUri(uri).path(path).build())
+                            .request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .get()) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                            return jsonReader.readObject();
+                        }
+                    }
+                };
+
+                final JsonObject before = statistics.get();
+                assertEquals(
+                        before.getInt("total"),
+                        before.getJsonObject("statuses").values().stream().mapToInt(count -> ((JsonNumber) count).intValue()).sum()
+                );
+
+                final int taskId;
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .post(Entity.entity(creationTaskBody, MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                        taskId = jsonReader.readObject().getInt("id");
+                    }
+                }
+
+                final JsonObject created = statistics.get();
+                assertEquals(before.getInt("total") + 1, created.getInt("total"));
+                assertEquals(before.getInt("unassigned") + 1, created.getInt("unassigned"));
+                assertEquals(before.getInt("overdue") + 1, created.getInt("overdue"));
+                assertEquals(
+                        before.getJsonObject("statuses").getInt(status, 0) + 1,
+                        created.getJsonObject("statuses").getInt(status)
+                );
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskId)).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                }
+
+                assertEquals(before, statistics.get());
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/%d/stats".formatted(Integer.MAX_VALUE)).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+                }
+            }
+        }
+
+        @Test
+        @Order(11)
+        public void testTaskPage() {
+            final int projectId = projectEntities.getFirst().getId();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final List<Integer> taskIds = IntStream.rangeClosed(1, 5).mapToObj(day -> {
+                    final JsonObject creationTaskBody = Json.createObjectBuilder()
+                            .add("title", "Sprint %d".formatted(day))
+                            .add("startDate", "2032-01-01T09:00:00")
+                            .add("endDate", "2032-01-%02dT18:00:00".formatted(day))
+                            .add("status", StatusEntities.getFirst().getName())
+                            .add("projectId", projectId)
+                            .build();
+
+                    try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                            .request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .post(Entity.entity(creationTaskBody, MediaType.APPLICATION_JSON))) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                            return jsonReader.readObject().getInt("id");
+                        }
+                    }
+                }).toList();
+
+                final String path = "/api/project/%d/tasks/page".formatted(projectId);
+                final Function<UriBuilder, Response> get = builder -> client.target(builder
+                                .queryParam("from", "2032-01-01T00:00:00")
+                                .queryParam("to", "2032-12-31T00:00:00")
+                                .build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get();
+                final Function<UriBuilder, JsonObject> page = builder -> {
+                    try (final Response response = get.apply(builder)) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                            return jsonReader.readObject();
+                        }
+                    }
+                };
+
+                final List<Integer> pagedIds = new ArrayList<>();
+                String next = null;
+                do {
+                    final UriBuilder builder = UriBuilder.fromUri(uri).path(path)
+                            .queryParam("sort", "-endDate")
+                            .queryParam("limit", 2);
+                    if (next != null) builder.queryParam("after", next);
+
+                    final JsonObject current = page.apply(builder);
+                    assertTrue(current.getJsonArray("items").size() <= 2);
+                    current.getJsonArray("items").getValuesAs(JsonObject.class).forEach(task -> pagedIds.add(task.getInt("id")));
+                    next = current.containsKey("next") && !current.isNull("next") ? current.getString("next") : null;
+                } while (next != null);
+
+                assertEquals(taskIds.reversed(), pagedIds);
+
+                assertTrue(page.apply(UriBuilder.fromUri(uri).path(path).queryParam("status", StatusEntities.getLast().getName()))
+                        .getJsonArray("items").isEmpty());
+
+                try (final Response response = get.apply(UriBuilder.fromUri(uri).path(path).queryParam("sort", "description"))) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+
+                try (final Response response = get.apply(UriBuilder.fromUri(uri).path(path).queryParam("after", "not a cursor"))) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+
+                for (final int taskId : taskIds) {
+                    try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskId)).build())
+                            .request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .delete()) {
+                        assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                    }
+                }
+            }
+        }
+
+        @Test
+        @Order(12)
+        public void testSparseFields() {
+            final int projectId = projectEntities.getFirst().getId();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final Function<UriBuilder, Response> get = builder -> client.target(builder.build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get();
+                final Function<UriBuilder, String> read = builder -> {
+                    try (final Response response = get.apply(builder)) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        return response.readEntity(String.class);
+                    }
+                };
+
+                final JsonObject creationTaskBody = Json.createObjectBuilder()
+                        .add("title", "Compact")
+                        .add("description", "Never read on the board")
+                        .add("startDate", "2033-01-01T09:00:00")
+                        .add("endDate", "2033-01-02T09:00:00")
+                        .add("status", StatusEntities.getFirst().getName())
+                        .add("projectId", projectId)
+                        .build();
+
+                final int taskId;
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .post(Entity.entity(creationTaskBody, MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                        taskId = jsonReader.readObject().getInt("id");
+                    }
+                }
+
+                assertEquals(
+                        "{\"id\":%d,\"status\":\"%s\",\"title\":\"Compact\"}".formatted(taskId, StatusEntities.getFirst().getName()),
+                        read.apply(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskId)).queryParam("fields", "id,title,status"))
+                );
+
+                try (final Response response = get.apply(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskId))
+                        .queryParam("fields", "title"))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    assertNotNull(response.getEntityTag());
+                }
+
+                try (final JsonReader jsonReader = Json.createReader(new StringReader(read.apply(UriBuilder.fromUri(uri)
+                        .path("/api/project/%d".formatted(projectId))
+                        .queryParam("fields", "title"))))) {
+                    final JsonObject project = jsonReader.readObject();
+                    assertEquals(projectId, project.getInt("id"));
+                    assertFalse(project.getJsonArray("tasks").isEmpty());
+                    project.getJsonArray("tasks").getValuesAs(JsonObject.class).forEach(task -> assertEquals(Set.of("title"), task.keySet()));
+                }
+
+                try (final JsonReader jsonReader = Json.createReader(new StringReader(read.apply(UriBuilder.fromUri(uri)
+                        .path("/api/project/%d/tasks/page".formatted(projectId))
+                        .queryParam("from", "2033-01-01T00:00:00")
+                        .queryParam("sort", "-endDate")
+                        .queryParam("fields", "title"))))) {
+                    assertEquals(
+                            List.of(Json.createObjectBuilder().add("title", "Compact").build()),
+                            jsonReader.readObject().getJsonArray("items")
+                    );
+                }
+
+                try (final JsonReader jsonReader = Json.createReader(new StringReader(read.apply(UriBuilder.fromUri(uri)
+                        .path("/api/project/%d/tasks/search".formatted(projectId))
+                        .queryParam("q", "compact")
+                        .queryParam("fields", "id,description"))))) {
+                    assertEquals(
+                            List.of(Json.createObjectBuilder().add("description", "Never read on the board").add("id", taskId).build()),
+                            jsonReader.readArray()
+                    );
+                }
+
+                try (final Response response = get.apply(UriBuilder.fromUri(uri).path("/api/project/%d/tasks".formatted(projectId))
+                        .queryParam("from", "2033-01-01T00:00:00")
+                        .queryParam("fields", "title,password"))) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+
+                try (final Response response = get.apply(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskId))
+                        .queryParam("fields", "owner"))) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(taskId)).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                }
+            }
+        }
+
+        @Test
+        @Order(13)
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public void testCbor() throws Exception {
+            final int projectId = projectEntities.getFirst().getId();
+            final CborCodecProvider provider = new CborCodecProvider();
+            final Type projectList = new GenericType<List<ProjectDTO>>() { }.getType();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final TaskDTO creationTask = new TaskDTO(
+                        null, "Binary", null, LocalDateTime.of(2034, 1, 1, 9, 0), null, StatusEntities.getFirst().getName(), projectId, null, null
+                );
+                final ByteArrayOutputStream body = new ByteArrayOutputStream();
+                provider.writeTo(creationTask, TaskDTO.class, TaskDTO.class, null, null, null, body);
+
+                final TaskDTO task;
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                        .request(CborCodecs.APPLICATION_CBOR)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .post(Entity.entity(body.toByteArray(), CborCodecs.APPLICATION_CBOR))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    assertTrue(CborCodecs.APPLICATION_CBOR_TYPE.isCompatible(response.getMediaType()));
+
+                    task = (TaskDTO) provider.readFrom((Class) TaskDTO.class, TaskDTO.class, null, null, null, response.readEntity(InputStream.class));
+                }
+                assertEquals("Binary", task.getTitle());
+                assertEquals(LocalDateTime.of(2034, 1, 1, 9, 0), task.getStartDate());
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project").build())
+                        .request(CborCodecs.APPLICATION_CBOR)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    assertTrue(CborCodecs.APPLICATION_CBOR_TYPE.isCompatible(response.getMediaType()));
+
+                    final List<ProjectDTO> projects = (List<ProjectDTO>) provider.readFrom(
+                            (Class) List.class, projectList, null, null, null, response.readEntity(InputStream.class)
+                    );
+                    assertTrue(projects.stream().anyMatch(project -> project.getId() == projectId));
+                }
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(projectId)).build())
+                        .request(CborCodecs.APPLICATION_CBOR)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    final ProjectDTO project = (ProjectDTO) provider.readFrom(
+                            (Class) ProjectDTO.class, ProjectDTO.class, null, null, null, response.readEntity(InputStream.class)
+                    );
+                    assertTrue(project.getTasks().stream().anyMatch(item -> item.getId().equals(task.getId())));
+                }
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(projectId)).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertTrue(MediaType.APPLICATION_JSON_TYPE.isCompatible(response.getMediaType()));
+                }
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(task.getId())).build())
+                        .request(CborCodecs.APPLICATION_CBOR)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                }
+            }
+        }
+
+        @Test
+        @Order(14)
+        public void testCompression() throws Exception {
+            final ProjectEntityWrapper targetProjectEntity = projectEntities.getFirst();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                // Enough described tasks for the board to outgrow the compression threshold.
+                final List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    final TaskDTO creationTask = new TaskDTO(
+                            null, "Compressible %d".formatted(i), "A description repeated across the board. ".repeat(5), null, null, StatusEntities.getFirst().getName(), targetProjectEntity.getId(), null, null
+                    );
+
+                    try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                            .request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .post(Entity.entity(creationTask, MediaType.APPLICATION_JSON))) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                        ids.add(response.readEntity(TaskDTO.class).getId());
+                    }
+                }
+
+                final WebTarget target = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(targetProjectEntity.getId())).build());
+
+                final byte[] identity;
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+                    assertEquals(VaryFilter.VARY, response.getHeaderString(HttpHeaders.VARY));
+
+                    identity = board(response.readEntity(byte[].class));
+                }
+                assertTrue(identity.length > CompressionInterceptor.THRESHOLD);
+
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8, deflate;q=0.5")
+                        .get()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+
+                    final byte[] compressed = response.readEntity(byte[].class);
+                    assertTrue(compressed.length < identity.length);
+                    assertArrayEquals(identity, board(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()));
+                }
+
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate")
+                        .get()) {
+                    assertEquals("deflate", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+                    assertArrayEquals(identity, board(new InflaterInputStream(response.readEntity(InputStream.class)).readAllBytes()));
+                }
+
+                try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                        .get()) {
+                    assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+                    assertArrayEquals(identity, board(response.readEntity(byte[].class)));
+                }
+
+                // A single task title stays under the threshold and is sent as is.
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(ids.getFirst())).queryParam("fields", "title").build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .get()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+                    assertEquals("Compressible 0", response.readEntity(TaskDTO.class).getTitle());
+                }
+
+                for (final int id : ids) {
+                    try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(id)).build())
+                            .request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .delete()) {
+                        assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                    }
+                }
+            }
+        }
+
+        /**
+         * The board without the version of the change log it was read at, which moves on as the feed catches up.
+         */
+        private static byte[] board(final byte[] json) {
+            return new String(json, StandardCharsets.UTF_8).replaceFirst(",\"version\":\\d+}$", "}").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Test
+        @Order(15)
+        public void testPatchTask() throws Exception {
+            final JsonObject creationTaskBody = Json.createObjectBuilder()
+                    .add("title", "Patchable")
+                    .add("description", "To be cleared.")
+                    .add("status", StatusEntities.getFirst().getName())
+                    .add("projectId", projectEntities.getFirst().getId())
+                    .build();
+
+            final TaskDTO task;
+            try (final Client client = ClientBuilder.newClient();
+                 final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                         .request(MediaType.APPLICATION_JSON)
+                         .header("Authorization", String.format("Bearer %s", cacheToken))
+                         .post(Entity.entity(creationTaskBody, MediaType.APPLICATION_JSON))) {
+                assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                task = response.readEntity(TaskDTO.class);
+            }
+
+            final String createdTag = entityTags.toString(new EntityTag(String.valueOf(task.getVersion())));
+
+            final HttpResponse<String> patched = patchTask(task.getId(), createdTag, "{\"title\":\"Patched\",\"description\":null}");
+            assertEquals(Response.Status.OK.getStatusCode(), patched.statusCode());
+            try (final JsonReader jsonReader = Json.createReader(new StringReader(patched.body()))) {
+                final JsonObject actualJsonObject = jsonReader.readObject();
+
+                assertEquals("Patched", actualJsonObject.getString("title"));
+                assertFalse(actualJsonObject.containsKey("description"));
+                assertEquals(task.getStatus(), actualJsonObject.getString("status"));
+                assertEquals(task.getVersion() + 1, actualJsonObject.getInt("version"));
+            }
+
+            final String patchedTag = patched.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+            assertNotEquals(createdTag, patchedTag);
+
+            // Nothing changes, so the version stays.
+            final HttpResponse<String> unchanged = patchTask(task.getId(), null, "{\"title\":\"Patched\"}");
+            assertEquals(Response.Status.OK.getStatusCode(), unchanged.statusCode());
+            assertEquals(patchedTag, unchanged.headers().firstValue(HttpHeaders.ETAG).orElseThrow());
+
+            assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), patchTask(task.getId(), createdTag, "{\"title\":\"Stale\"}").statusCode());
+            for (final String body : List.of("{\"title\":null}", "{\"projectId\":1}", "{\"startDate\":\"soon\"}", "[]")) {
+                assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), patchTask(task.getId(), null, body).statusCode(), body);
+            }
+            assertEquals(Response.Status.NOT_FOUND.getStatusCode(), patchTask(Integer.MAX_VALUE, null, "{\"title\":\"Missing\"}").statusCode());
+
+            try (final Client client = ClientBuilder.newClient();
+                 final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(task.getId())).build())
+                         .request(MediaType.APPLICATION_JSON)
+                         .header("Authorization", String.format("Bearer %s", cacheToken))
+                         .delete()) {
+                assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+            }
+        }
+
+        /**
+         * Rename the project behind the back of the server, as another node would.
+         */
+        private static void renameProject(final int projectId, final String name) {
+            final EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+            try {
+                entityManager.getTransaction().begin();
+                entityManager.createQuery("UPDATE ProjectEntity p SET p.name = :name WHERE p.id = :id")
+                        .setParameter("name", name)
+                        .setParameter("id", projectId)
+                        .executeUpdate();
+                entityManager.getTransaction().commit();
+            } finally {
+                entityManager.close();
+            }
+        }
+
+        /**
+         * Send a merge patch through the JDK client, the URL connection of the Jersey client has no PATCH method.
+         */
+        private static HttpResponse<String> patchTask(final int id, final String ifMatch, final String body) throws Exception {
+            final HttpRequest.Builder request = HttpRequest
+                    .newBuilder(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(id)).build())
+                    .header(HttpHeaders.AUTHORIZATION, String.format("Bearer %s", cacheToken))
+                    .header(HttpHeaders.CONTENT_TYPE, TaskResource.APPLICATION_MERGE_PATCH_JSON)
+                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON)
+                    .method(HttpMethod.PATCH, HttpRequest.BodyPublishers.ofString(body));
+            if (ifMatch != null) request.header(HttpHeaders.IF_MATCH, ifMatch);
+
+            try (final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            }
+        }
+
+        @Test
+        @Order(16)
+        public void testConditionalGet() {
+            final int projectId = projectEntities.getFirst().getId();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final WebTarget projects = client.target(UriBuilder.fromUri(uri).path("/api/project").build());
+                final WebTarget project = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(projectId)).build());
+                final Function<WebTarget, EntityTag> tag = target -> {
+                    try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .get()) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                        assertNotNull(response.getEntityTag());
+                        assertEquals(VaryFilter.VARY, response.getHeaderString(HttpHeaders.VARY));
+
+                        return response.getEntityTag();
+                    }
+                };
+                final BiFunction<WebTarget, EntityTag, Integer> revalidate = (target, entityTag) -> {
+                    try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .header(HttpHeaders.IF_NONE_MATCH, entityTags.toString(entityTag))
+                            .get()) {
+                        if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+                            assertEquals(entityTag, response.getEntityTag());
+                            assertEquals(VaryFilter.VARY, response.getHeaderString(HttpHeaders.VARY));
+                            assertFalse(response.hasEntity());
+                        }
+
+                        return response.getStatus();
+                    }
+                };
+
+                // The writes of the earlier tests still advance the versions as the change feed polls them.
+                final Function<WebTarget, EntityTag> settledTag = target -> {
+                    final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                    EntityTag entityTag = tag.apply(target);
+                    while (revalidate.apply(target, entityTag) != Response.Status.NOT_MODIFIED.getStatusCode()
+                            && System.nanoTime() < deadline) entityTag = tag.apply(target);
+
+                    return entityTag;
+                };
+
+                final EntityTag projectsTag = settledTag.apply(projects);
+                final EntityTag projectTag = settledTag.apply(project);
+                assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), revalidate.apply(projects, projectsTag));
+                assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), revalidate.apply(project, projectTag));
+
+                // The tag of one project does not match a missing one.
+                final WebTarget missingProject = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(Integer.MAX_VALUE)).build());
+                assertEquals(Response.Status.NOT_FOUND.getStatusCode(), revalidate.apply(missingProject, projectTag));
+
+                final TaskDTO task;
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .post(Entity.entity(new TaskDTO(null, "Conditional", null, null, null, StatusEntities.getFirst().getName(), projectId, null, null), MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                    task = response.readEntity(TaskDTO.class);
+                }
+
+                // The write advances the versions before it is even polled from the change feed.
+                assertEquals(Response.Status.OK.getStatusCode(), revalidate.apply(projects, projectsTag));
+                assertEquals(Response.Status.OK.getStatusCode(), revalidate.apply(project, projectTag));
+                assertNotEquals(projectTag, tag.apply(project));
+
+                final WebTarget taskTarget = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(task.getId())).build());
+                final EntityTag taskTag = tag.apply(taskTarget);
+                assertEquals(new EntityTag(String.valueOf(task.getVersion())), taskTag);
+                assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), revalidate.apply(taskTarget, taskTag));
+                assertEquals(Response.Status.OK.getStatusCode(), revalidate.apply(taskTarget, new EntityTag("-1")));
+
+                try (final Response response = taskTarget.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .put(Entity.entity(new TaskDTO(null, "Conditional again", null, null, null, null, null, null, null), MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                }
+                assertEquals(Response.Status.OK.getStatusCode(), revalidate.apply(taskTarget, taskTag));
+
+                try (final Response response = taskTarget.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                }
+                assertEquals(Response.Status.NOT_FOUND.getStatusCode(), revalidate.apply(taskTarget, taskTag));
+            }
+        }
+
+        @Test
+        @Order(17)
+        public void testDeltaSync() throws InterruptedException {
+            final int projectId = projectEntities.getFirst().getId();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final WebTarget tasks = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks").build());
+                final Function<String, ProjectDTO> sync = since -> {
+                    WebTarget target = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(projectId)).build());
+                    if (since != null) target = target.queryParam("since", since);
+
+                    try (final Response response = target.request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .get()) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                        return response.readEntity(ProjectDTO.class);
+                    }
+                };
+
+                final ProjectDTO snapshot = sync.apply(null);
+                assertNotNull(snapshot.getVersion());
+                assertFalse(snapshot.getDelta());
+                assertTrue(snapshot.getDeletedTaskIds().isEmpty());
+                assertFalse(snapshot.getTasks().isEmpty());
+
+                final List<Integer> created = new ArrayList<>();
+                for (final String title : List.of("Synced", "Synced and deleted")) {
+                    try (final Response response = tasks.request(MediaType.APPLICATION_JSON)
+                            .header("Authorization", String.format("Bearer %s", cacheToken))
+                            .post(Entity.entity(new TaskDTO(null, title, null, null, null, StatusEntities.getFirst().getName(), projectId, null, null), MediaType.APPLICATION_JSON))) {
+                        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+                        created.add(response.readEntity(TaskDTO.class).getId());
+                    }
+                }
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks/%d".formatted(created.getLast())).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+                }
+
+                // The delta reaches up to the last change polled from the change feed.
+                ProjectDTO delta = sync.apply(String.valueOf(snapshot.getVersion()));
+                for (int i = 0; i < 100 && delta.getDelta() && !delta.getDeletedTaskIds().contains(created.getLast()); i++) {
+                    Thread.sleep(50);
+                    delta = sync.apply(String.valueOf(snapshot.getVersion()));
+                }
+
+                assertEquals(snapshot.getName(), delta.getName());
+                assertTrue(delta.getTasks().stream().anyMatch(task -> task.getId().equals(created.getFirst()) && task.getTitle().equals("Synced")));
+                assertTrue(delta.getTasks().stream().noneMatch(task -> task.getId().equals(created.getLast())));
+                if (delta.getDelta()) {
+                    assertTrue(delta.getVersion() > snapshot.getVersion());
+                    assertTrue(delta.getDeletedTaskIds().contains(created.getLast()));
+                    assertTrue(delta.getTasks().size() < snapshot.getTasks().size());
+                } else {
+                    // A task store keeping no change log, such as the event-sourced one, always sends the whole project.
+                    assertTrue(delta.getDeletedTaskIds().isEmpty());
+                    assertEquals(snapshot.getTasks().size() + 1, delta.getTasks().size());
+                }
+
+                final ProjectDTO upToDate = sync.apply(String.valueOf(delta.getVersion()));
+                assertEquals(delta.getDelta(), upToDate.getDelta());
+                assertNotNull(upToDate.getDeletedTaskIds());
+                assertTrue(upToDate.getVersion() >= delta.getVersion());
+
+                // A version the log does not know falls back to the whole project.
+                final ProjectDTO ahead = sync.apply(String.valueOf(delta.getVersion() + 1_000_000));
+                assertFalse(ahead.getDelta());
+                assertTrue(ahead.getDeletedTaskIds().isEmpty());
+                assertTrue(ahead.getTasks().stream().anyMatch(task -> task.getId().equals(created.getFirst())));
+
+                // A rename made straight in the database reaches the version and the sync through the change feed.
+                renameProject(projectId, "Renamed");
+                try {
+                    ProjectDTO renamed = sync.apply(String.valueOf(upToDate.getVersion()));
+                    for (int i = 0; i < 100 && (renamed.getDelta() || renamed.getVersion() <= upToDate.getVersion()); i++) {
+                        Thread.sleep(50);
+                        renamed = sync.apply(String.valueOf(upToDate.getVersion()));
+                    }
+
+                    assertEquals("Renamed", renamed.getName());
+                    assertFalse(renamed.getDelta());
+                    assertTrue(renamed.getVersion() > upToDate.getVersion());
+                } finally {
+                    renameProject(projectId, snapshot.getName());
+                }
+
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(projectId)).build())
+                        .queryParam("since", "yesterday")
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+                }
+            }
+        }
+
+        @Test
+        @Order(18)
+        public void testBulkTasks() {
+            final int projectId = projectEntities.getFirst().getId();
+            final String sourceStatus = StatusEntities.getFirst().getName();
+            final String targetStatus = StatusEntities.getLast().getName();
+
+            try (final Client client = ClientBuilder.newClient()) {
+                final WebTarget updateTarget = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks")
+                        .queryParam("projectId", projectId)
+                        .queryParam("status", sourceStatus)
+                        .build());
+
+                try (final Response response = updateTarget.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .put(Entity.entity(Json.createObjectBuilder().add("status", targetStatus).build(), MediaType.APPLICATION_JSON))) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                        assertTrue(jsonReader.readObject().getInt("count") > 0);
+                    }
+                }
+
+                final WebTarget deleteTarget = client.target(UriBuilder.fromUri(uri).path("/api/project/tasks")
+                        .queryParam("projectId", projectId)
+                        .queryParam("status", targetStatus)
+                        .build());
+
+                try (final Response response = deleteTarget.request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .delete()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                        assertTrue(jsonReader.readObject().getInt("count") > 0);
+                    }
+                }
+
+                final String path = "/api/project/%d".formatted(projectId);
+                try (final Response response = client.target(UriBuilder.fromUri(uri).path(path).build())
+                        .request(MediaType.APPLICATION_JSON)
+                        .header("Authorization", String.format("Bearer %s", cacheToken))
+                        .get()) {
+                    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+                    try (final JsonReader jsonReader = Json.createReader((InputStream) response.getEntity())) {
+                        assertTrue(jsonReader.readObject().getJsonArray("tasks").isEmpty());
+                    }
+                }
+            }
+        }
     }
 }
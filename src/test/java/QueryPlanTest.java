@@ -0,0 +1,220 @@
+import factories.ProjectFactory;
+import factories.StatusFactory;
+import factories.TaskFactory;
+import factories.UserFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Persistence;
+import org.faya.sensei.entities.*;
+import org.faya.sensei.payloads.ProjectDTO;
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.repositories.*;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryPlanTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private static final EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory(
+            "java-jaxrs-database",
+            Map.of(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                statements.add(sql);
+                return sql;
+            })
+    );
+
+    private static final EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+    private static IRepository<UserEntity> userRepository;
+
+    private static IRepository<ProjectEntity> projectRepository;
+
+    private static IRepository<StatusEntity> statusRepository;
+
+    private static IRepository<TaskEntity> taskRepository;
+
+    private static UserEntity userEntity;
+
+    private static ProjectEntity projectEntity;
+
+    private static StatusEntity todoStatusEntity;
+
+    private static StatusEntity emptyStatusEntity;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        userRepository = createRepository(UserRepository.class);
+        projectRepository = createRepository(ProjectRepository.class);
+        statusRepository = createRepository(StatusRepository.class);
+        taskRepository = createRepository(TaskRepository.class);
+
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+
+        userEntity = UserFactory.createUserEntity("user", "password", UserRole.USER).toEntity();
+        projectEntity = ProjectFactory.createProjectEntity("project", List.of(userEntity)).toEntity();
+        todoStatusEntity = StatusFactory.createStatusEntity("todo", projectEntity).toEntity();
+        emptyStatusEntity = StatusFactory.createStatusEntity("done", projectEntity).toEntity();
+
+        entityManager.persist(projectEntity);
+        entityManager.persist(todoStatusEntity);
+        entityManager.persist(emptyStatusEntity);
+        IntStream.range(0, 16).forEach(i -> entityManager.persist(TaskFactory.createTaskEntity()
+                .setTitle("task %d".formatted(i))
+                .setDescription("task %d description".formatted(i))
+                .setStartDate(LocalDateTime.now())
+                .setEndDate(LocalDateTime.now().plusHours(i))
+                .setStatus(todoStatusEntity)
+                .setProject(projectEntity)
+                .setAssigner(userEntity)
+                .toEntity()));
+        entityManager.flush();
+        entityManager.createNativeQuery("ANALYZE").executeUpdate();
+
+        transaction.commit();
+    }
+
+    public static Stream<Named<Runnable>> hotQueries() {
+        return Stream.of(
+                Named.of("users(name)", () -> userRepository.get(userEntity.getName())),
+                Named.of("projects_users(user_id) by name", () -> projectRepository.getBy("users.name", userEntity.getName())),
+                Named.of("projects_users(user_id) by id", () -> projectRepository.getBy("users.id", userId())),
+                Named.of("projects_users(user_id) projection by name", () -> projectRepository.getBy("users.name", userEntity.getName(), ProjectDTO.class)),
+                Named.of("projects_users(user_id) projection by id", () -> projectRepository.getBy("users.id", userId(), ProjectDTO.class)),
+                Named.of("statuses(project_id, name)", () -> statusRepository.getBy("project.id", projectId())),
+                Named.of("statuses(project_id, name) dictionary", () -> statusRepository.get("project.id", projectId(), "todo")),
+                Named.of("tasks(project_id, status_id)", () -> taskRepository.getBy("project.id", projectId())),
+                Named.of("tasks(status_id)", () -> taskRepository.getBy("status.id", statusId())),
+                Named.of("tasks(assigner_id)", () -> taskRepository.getBy("assigner.id", userId())),
+                Named.of("tasks(project_id, status_id) projection", () -> taskRepository.getBy("project.id", projectId(), TaskDTO.class)),
+                Named.of("tasks(project_id, status_id) sparse projection", () -> {
+                    try (final Stream<TaskDTO> tasks = taskRepository.stream("project.id", projectId(), TaskDTO.class, Set.of("title"))) {
+                        tasks.forEach(task -> { });
+                    }
+                }),
+                Named.of("tasks(status_id) projection", () -> taskRepository.getBy("status.id", statusId(), TaskDTO.class)),
+                Named.of("tasks(assigner_id) projection", () -> taskRepository.getBy("assigner.id", userId(), TaskDTO.class)),
+                Named.of("tasks(status_id) bulk update", () -> taskRepository.putBy("status.id", statusId(),
+                        TaskFactory.createTaskEntity().setStatus(todoStatusEntity).toEntity())),
+                Named.of("tasks(status_id) bulk delete", () -> taskRepository.deleteBy("status.id",
+                        String.valueOf(emptyStatusEntity.getId())))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    public void testHotQueryUsesIndex(final Runnable query) {
+        statements.clear();
+        query.run();
+
+        final List<String> executedStatements = List.copyOf(statements);
+        assertFalse(executedStatements.isEmpty(), "The repository query did not reach the database.");
+
+        for (final String statement : executedStatements) {
+            final String plan = explain(statement);
+
+            assertFalse(plan.contains("tableScan"), () -> "Query falls back to a table scan:%n%s".formatted(plan));
+        }
+    }
+
+    @Test
+    public void testSparseProjection() {
+        statements.clear();
+        final List<TaskDTO> tasks;
+        try (final Stream<TaskDTO> stream = taskRepository.stream("project.id", projectId(), TaskDTO.class, Set.of("title"))) {
+            tasks = stream.toList();
+        }
+
+        assertEquals(1, statements.size());
+        assertFalse(statements.getFirst().contains("description"), statements::getFirst);
+        assertFalse(tasks.isEmpty());
+        tasks.forEach(task -> {
+            assertNotNull(task.getId());
+            assertNotNull(task.getVersion());
+            assertNotNull(task.getTitle());
+            assertNull(task.getDescription());
+            assertNull(task.getStatus());
+        });
+    }
+
+    @Test
+    public void testPatchWritesDirtyColumns() {
+        final int id = taskRepository.getBy("project.id", projectId()).iterator().next().getId();
+
+        statements.clear();
+        final TaskEntity moved = taskRepository
+                .patch(id, TaskFactory.createTaskEntity().setStatus(emptyStatusEntity).setTitle("ignored").toEntity(), Set.of("status"))
+                .orElseThrow();
+        final int movedVersion = moved.getVersion();
+        final List<String> updates = statements.stream().filter(statement -> statement.startsWith("update")).toList();
+
+        assertEquals(emptyStatusEntity.getId(), moved.getStatus().getId());
+        assertEquals(1, updates.size());
+        assertTrue(updates.getFirst().contains("status_id"), updates::getFirst);
+        assertFalse(updates.getFirst().contains("title") || updates.getFirst().contains("description"), updates::getFirst);
+
+        statements.clear();
+        taskRepository.patch(id, TaskFactory.createTaskEntity().setStatus(emptyStatusEntity).toEntity(), Set.of("status"));
+        assertTrue(statements.stream().noneMatch(statement -> statement.startsWith("update")), statements::toString);
+
+        final TaskEntity cleared = taskRepository
+                .patch(id, TaskFactory.createTaskEntity().setStatus(todoStatusEntity).toEntity(), Set.of("status", "description"))
+                .orElseThrow();
+        assertNull(cleared.getDescription());
+        assertEquals(todoStatusEntity.getId(), cleared.getStatus().getId());
+        assertEquals(movedVersion + 1, cleared.getVersion());
+    }
+
+    private static String explain(final String statement) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + statement);
+                 ResultSet resultSet = preparedStatement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+    }
+
+    private static String userId() {
+        return String.valueOf(userEntity.getId());
+    }
+
+    private static String projectId() {
+        return String.valueOf(projectEntity.getId());
+    }
+
+    private static String statusId() {
+        return String.valueOf(todoStatusEntity.getId());
+    }
+
+    private static <T> T createRepository(final Class<T> repositoryClass) throws Exception {
+        final T repository = repositoryClass.getDeclaredConstructor().newInstance();
+
+        final Field entityManagerField = repositoryClass.getDeclaredField("entityManager");
+        entityManagerField.setAccessible(true);
+        entityManagerField.set(repository, entityManager);
+
+        return repository;
+    }
+}
@@ -0,0 +1,241 @@
+import factories.ProjectFactory;
+import factories.ServerFactory;
+import factories.StatusFactory;
+import factories.TaskFactory;
+import factories.UserFactory;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Persistence;
+import jakarta.ws.rs.SeBootstrap;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
+import org.faya.sensei.entities.ProjectEntity;
+import org.faya.sensei.entities.StatusEntity;
+import org.faya.sensei.entities.UserEntity;
+import org.faya.sensei.entities.UserRole;
+import org.faya.sensei.repositories.IRepository;
+import org.faya.sensei.repositories.ReadReplicaRouter;
+import org.faya.sensei.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadReplicaTest {
+
+    private static final EntityManagerFactory primaryEntityManagerFactory = Persistence.createEntityManagerFactory(
+            "java-jaxrs-database",
+            Map.of("jakarta.persistence.jdbc.url", "jdbc:h2:mem:jaxrs-primary;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+    );
+
+    private static final EntityManagerFactory replicaEntityManagerFactory = Persistence.createEntityManagerFactory(
+            "java-jaxrs-database",
+            Map.of("jakarta.persistence.jdbc.url", "jdbc:h2:mem:jaxrs-replica;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+    );
+
+    private static final ReadReplicaRouter readReplicaRouter = new ReadReplicaRouter(
+            primaryEntityManagerFactory.createEntityManager(),
+            replicaEntityManagerFactory,
+            Duration.ofMinutes(1)
+    );
+
+    /**
+     * A replica which has caught up with the primary, the reads of the server are served from it.
+     */
+    private static final EntityManagerFactory caughtUpReplicaEntityManagerFactory = Persistence.createEntityManagerFactory(
+            "java-jaxrs-database",
+            Map.of(
+                    "jakarta.persistence.jdbc.url", "jdbc:h2:mem:jaxrs-primary;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+                    "jakarta.persistence.schema-generation.database.action", "none"
+            )
+    );
+
+    private static final SeBootstrap.Instance instance =
+            ServerFactory.createServer(primaryEntityManagerFactory, caughtUpReplicaEntityManagerFactory);
+
+    private static final URI uri = instance.configuration().baseUri();
+
+    private static final int TASKS = 300;
+
+    private static IRepository<UserEntity> userRepository;
+
+    private static String cacheToken;
+
+    private static int projectId;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        userRepository = new UserRepository();
+
+        final Field entityManagerField = UserRepository.class.getDeclaredField("entityManager");
+        entityManagerField.setAccessible(true);
+        entityManagerField.set(userRepository, readReplicaRouter.entityManager());
+
+        // Only the primary has the user, the replica has not caught up yet.
+        final EntityManager entityManager = primaryEntityManagerFactory.createEntityManager();
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        entityManager.persist(UserFactory.createUserEntity("writer", "password", UserRole.USER).toEntity());
+        transaction.commit();
+        entityManager.close();
+
+        final JsonObject registerUserBody = Json.createObjectBuilder(Map.of("name", "reader", "password", "password")).build();
+
+        try (final Client client = ClientBuilder.newClient();
+             final Response response = client.target(UriBuilder.fromUri(uri).path("/api/auth/register").build())
+                     .request(MediaType.APPLICATION_JSON)
+                     .post(Entity.entity(registerUserBody, MediaType.APPLICATION_JSON))) {
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            final JsonObject jsonObject = Json.createReader((InputStream) response.getEntity()).readObject();
+            cacheToken = jsonObject.getString("token");
+            projectId = createProject(jsonObject.getInt("id"));
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        readReplicaRouter.end();
+    }
+
+    @Test
+    public void testReadRoutedToReplica() {
+        readReplicaRouter.beginRead("reader");
+
+        assertTrue(userRepository.get("writer").isEmpty());
+    }
+
+    @Test
+    public void testAnonymousReadRoutedToReplica() {
+        readReplicaRouter.beginRead(null);
+
+        assertTrue(userRepository.get("writer").isEmpty());
+    }
+
+    @Test
+    public void testReadYourWrites() {
+        readReplicaRouter.recordWrite("writer");
+        readReplicaRouter.beginRead("writer");
+
+        assertTrue(userRepository.get("writer").isPresent());
+    }
+
+    @Test
+    public void testReadYourWritesUntilReplicaCaughtUp() {
+        final EntityManager primaryEntityManager = primaryEntityManagerFactory.createEntityManager();
+        final ReadReplicaRouter laggingRouter =
+                new ReadReplicaRouter(primaryEntityManager, replicaEntityManagerFactory, Duration.ZERO);
+        final ReadReplicaRouter caughtUpRouter =
+                new ReadReplicaRouter(primaryEntityManager, caughtUpReplicaEntityManagerFactory, Duration.ZERO);
+
+        try {
+            // Past the replication lag, a replica behind the change log of the primary is still not read.
+            laggingRouter.recordWrite("writer");
+            laggingRouter.beginRead("writer");
+            assertSame(primaryEntityManager, laggingRouter.current());
+
+            caughtUpRouter.recordWrite("writer");
+            caughtUpRouter.beginRead("writer");
+            assertNotSame(primaryEntityManager, caughtUpRouter.current());
+        } finally {
+            laggingRouter.end();
+            caughtUpRouter.end();
+            primaryEntityManager.close();
+        }
+    }
+
+    @Test
+    public void testWriteStaysOnPrimary() {
+        final int id = userRepository.post(UserFactory.createUserEntity("primary", "password", UserRole.USER).toEntity());
+
+        assertTrue(id > 0);
+        assertTrue(userRepository.get("primary").isPresent());
+    }
+
+    @Test
+    public void testStreamProjectsFromReplica() {
+        try (final Client client = ClientBuilder.newClient();
+             final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project").build())
+                     .request(MediaType.APPLICATION_JSON)
+                     .header("Authorization", "Bearer %s".formatted(cacheToken))
+                     .get()) {
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            final JsonArray projects = Json.createReader((InputStream) response.getEntity()).readArray();
+
+            assertEquals(1, projects.size());
+            assertEquals(projectId, projects.getJsonObject(0).getInt("id"));
+        }
+    }
+
+    @Test
+    public void testStreamProjectFromReplica() {
+        try (final Client client = ClientBuilder.newClient();
+             final Response response = client.target(UriBuilder.fromUri(uri).path("/api/project/%d".formatted(projectId)).build())
+                     .request(MediaType.APPLICATION_JSON)
+                     .header("Authorization", "Bearer %s".formatted(cacheToken))
+                     .get()) {
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+            final JsonArray tasks = Json.createReader((InputStream) response.getEntity()).readObject().getJsonArray("tasks");
+
+            assertEquals(TASKS, tasks.size());
+        }
+    }
+
+    @Test
+    public void testReplicaEntityManagerReleased() {
+        readReplicaRouter.beginRead("reader");
+        final EntityManager replicaEntityManager = readReplicaRouter.current();
+        readReplicaRouter.end();
+
+        assertFalse(replicaEntityManager.isOpen());
+        assertNotSame(replicaEntityManager, readReplicaRouter.current());
+    }
+
+    /**
+     * Create a project of the user with more tasks than one fetch of the task stream.
+     */
+    private static int createProject(final int userId) {
+        final EntityManager entityManager = primaryEntityManagerFactory.createEntityManager();
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+
+        final UserEntity userEntity = entityManager.find(UserEntity.class, userId);
+        final ProjectEntity projectEntity = ProjectFactory.createProjectEntity("replica", List.of(userEntity)).toEntity();
+        final StatusEntity statusEntity = StatusFactory.createStatusEntity("todo", projectEntity).toEntity();
+        entityManager.persist(projectEntity);
+        entityManager.persist(statusEntity);
+
+        for (int i = 0; i < TASKS; i++) {
+            entityManager.persist(TaskFactory.createTaskEntity()
+                    .setTitle("task %d".formatted(i))
+                    .setStartDate(LocalDateTime.now())
+                    .setStatus(statusEntity)
+                    .setProject(projectEntity)
+                    .toEntity());
+        }
+
+        transaction.commit();
+        entityManager.close();
+
+        return projectEntity.getId();
+    }
+}
@@ -0,0 +1,100 @@
+import org.faya.sensei.payloads.TaskDTO;
+import org.faya.sensei.services.TaskTable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The compact table of a board against the list of tasks it replaces: every task reads back as it was written, and
+ * the heap retained by a 100k task board is asserted to shrink by a third. The heap is measured after full
+ * collections, which the JVM does not promise, so that test only runs with {@code gradle benchmark}.
+ */
+public class TaskTableTest {
+
+    private static final int BOARD = 100_000;
+
+    @Test
+    public void testRoundTrip() {
+        final List<TaskDTO> tasks = List.of(
+                new TaskDTO(7, "Quarterly report", "Every region", LocalDateTime.of(2031, 1, 1, 9, 0), LocalDateTime.of(2031, 1, 2, 9, 30, 15, 250_000), "todo", 2, 3, 0),
+                new TaskDTO(-4, "Draft", null, LocalDateTime.of(1931, 1, 1, 9, 0, 0, 999_999_999), null, new String("todo"), 2, null, 100_000),
+                new TaskDTO(5, null, null, null, null, null, null, null, null)
+        );
+
+        final TaskTable table = TaskTable.of(tasks.iterator());
+
+        assertEquals(tasks.size(), table.size());
+        for (int row = 0; row < tasks.size(); row++) assertTask(tasks.get(row), table.get(row));
+        assertSame(table.get(0).getStatus(), table.get(1).getStatus());
+
+        assertTask(tasks.get(1), table.find(-4).orElseThrow());
+        assertTask(tasks.get(2), table.find(5).orElseThrow());
+        assertTrue(table.find(6).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(3));
+        assertTrue(TaskTable.of(List.<TaskDTO>of().iterator()).find(1).isEmpty());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testRetainedHeap() {
+        final long list = retained(() -> IntStream.range(0, BOARD).mapToObj(TaskTableTest::createTask).toList());
+        final long table = retained(() -> TaskTable.of(IntStream.range(0, BOARD).mapToObj(TaskTableTest::createTask).iterator()));
+
+        assertTrue(table * 3 < list * 2, () -> "%d tasks retained: list %,d bytes, table %,d bytes".formatted(BOARD, list, table));
+    }
+
+    /**
+     * The heap still used after a full collection while the created value is reachable, less the heap used before.
+     */
+    private static long retained(final Supplier<Object> supplier) {
+        final Runtime runtime = Runtime.getRuntime();
+
+        System.gc();
+        final long before = runtime.totalMemory() - runtime.freeMemory();
+
+        final Object value = supplier.get();
+        System.gc();
+        final long after = runtime.totalMemory() - runtime.freeMemory();
+        Reference.reachabilityFence(value);
+
+        return after - before;
+    }
+
+    /**
+     * A task as read from the database, with its own status name and dates.
+     */
+    private static TaskDTO createTask(final int id) {
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0).plusMinutes(id);
+
+        return new TaskDTO(
+                id,
+                "Task %d".formatted(id % 100),
+                null,
+                start,
+                start.plusDays(id % 14),
+                new String(List.of("todo", "doing", "done").get(id % 3)),
+                1,
+                id % 10 == 0 ? null : id % 50,
+                id % 5
+        );
+    }
+
+    private static void assertTask(final TaskDTO expected, final TaskDTO actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getStartDate(), actual.getStartDate());
+        assertEquals(expected.getEndDate(), actual.getEndDate());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getProjectId(), actual.getProjectId());
+        assertEquals(expected.getAssignerId(), actual.getAssignerId());
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+}
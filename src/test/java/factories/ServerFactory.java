@@ -4,26 +4,64 @@ import jakarta.inject.Singleton;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.ws.rs.SeBootstrap;
+import jakarta.ws.rs.core.GenericType;
 import org.faya.sensei.JaxRsApplication;
+import org.faya.sensei.entities.TaskEntity;
+import org.faya.sensei.eventstore.EventSourcedTaskRepository;
 import org.faya.sensei.middlewares.JWTAuthFilter;
+import org.faya.sensei.middlewares.ReadReplicaFilter;
+import org.faya.sensei.repositories.ChangeFeed;
+import org.faya.sensei.repositories.EntityManagerScope;
+import org.faya.sensei.repositories.GroupCommitPipeline;
 import org.faya.sensei.repositories.IRepository;
+import org.faya.sensei.repositories.ReadReplicaRouter;
 import org.faya.sensei.services.IAuthService;
 import org.faya.sensei.services.IService;
+import org.faya.sensei.services.TaskIntervalIndex;
+import org.faya.sensei.services.ProjectVersions;
+import org.faya.sensei.services.TaskSearchIndex;
+import org.faya.sensei.services.TaskStatistics;
+import org.faya.sensei.services.TaskUpdateCoalescer;
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.reflections.Reflections;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ServerFactory {
 
     public static SeBootstrap.Instance createServer(final EntityManagerFactory entityManagerFactory) {
+        return createServer(entityManagerFactory, null);
+    }
+
+    /**
+     * Create a server routing its reads to a replica database.
+     *
+     * @param replicaEntityManagerFactory The factory of the replica, or null to read the primary only.
+     */
+    public static SeBootstrap.Instance createServer(
+            final EntityManagerFactory entityManagerFactory,
+            final EntityManagerFactory replicaEntityManagerFactory
+    ) {
+        final ChangeFeed changeFeed = new ChangeFeed(entityManagerFactory, Duration.ofMillis(50));
+        changeFeed.start();
+
+        final ReadReplicaRouter readReplicaRouter = replicaEntityManagerFactory != null
+                ? new ReadReplicaRouter(entityManagerFactory.createEntityManager(), replicaEntityManagerFactory, Duration.ZERO)
+                : null;
+
         ResourceConfig resourceConfig = ResourceConfig.forApplication(new JaxRsApplication());
         resourceConfig.register(JWTAuthFilter.class);
+        if (readReplicaRouter != null) resourceConfig.register(ReadReplicaFilter.class);
         resourceConfig.register(new AbstractBinder() {
 
             @Override
@@ -31,9 +69,27 @@ public class ServerFactory {
                 bind(entityManagerFactory)
                         .to(EntityManagerFactory.class)
                         .in(Singleton.class);
-                bindFactory(entityManagerFactory::createEntityManager)
-                        .to(EntityManager.class)
-                        .in(Singleton.class);
+                final EntityManagerScope entityManagerScope = readReplicaRouter != null
+                        ? new EntityManagerScope(readReplicaRouter.entityManager(), readReplicaRouter::open)
+                        : new EntityManagerScope(entityManagerFactory.createEntityManager(), entityManagerFactory::createEntityManager);
+                final EntityManager entityManager = entityManagerScope.entityManager();
+                if (readReplicaRouter != null) bind(readReplicaRouter).to(ReadReplicaRouter.class);
+                bind(entityManagerScope).to(EntityManagerScope.class);
+                bind(entityManager).to(EntityManager.class);
+
+                bind(new TaskUpdateCoalescer(Duration.ZERO)).to(TaskUpdateCoalescer.class);
+                bind(new TaskSearchIndex()).to(TaskSearchIndex.class);
+                bind(new TaskIntervalIndex()).to(TaskIntervalIndex.class);
+                bind(new TaskStatistics()).to(TaskStatistics.class);
+                bind(new ProjectVersions(changeFeed)).to(ProjectVersions.class);
+                bind(new GroupCommitPipeline(entityManagerFactory, 1, Duration.ZERO, 1)).to(GroupCommitPipeline.class);
+                bind(changeFeed).to(ChangeFeed.class);
+
+                if (Boolean.getBoolean("event-sourced-tasks")) {
+                    bind(new EventSourcedTaskRepository(entityManager, changeFeed, createTaskStoreDirectory()))
+                            .to(new GenericType<IRepository<TaskEntity>>() {})
+                            .ranked(1);
+                }
 
                 bindImplementations("org.faya.sensei.repositories", IRepository.class);
                 bindImplementations("org.faya.sensei.services", IAuthService.class);
@@ -71,4 +127,15 @@ public class ServerFactory {
 
         return SeBootstrap.start(resourceConfig, configuration).toCompletableFuture().join();
     }
+
+    private static Path createTaskStoreDirectory() {
+        try {
+            final Path directory = Files.createTempDirectory("task-store");
+            directory.toFile().deleteOnExit();
+
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }